@@ -0,0 +1,30 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.annotations.beanmapper;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * BeanMapper annotates an interface whose methods copy a bean into a new instance of another bean
+ * class, such as {@code Task toTask(TaskModel source)}. The annotation processor generates the
+ * {@code <Interface>Impl} class implementing it at compile time, with one setter call per property
+ * copied. The properties copied are the ones Spring's {@code BeanUtils.copyProperties} would copy:
+ * every writable property of the target with a readable property of the same name and of an
+ * assignable type in the source.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface BeanMapper {}
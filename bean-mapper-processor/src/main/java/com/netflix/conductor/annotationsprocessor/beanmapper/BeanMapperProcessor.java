@@ -0,0 +1,249 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.annotationsprocessor.beanmapper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Generated;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import com.netflix.conductor.annotations.beanmapper.BeanMapper;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+/**
+ * Generates the implementations of the {@link BeanMapper} interfaces. Each method of the interface
+ * takes the source bean and returns a new instance of the target bean class, with the properties
+ * copied by plain getter and setter calls, in the order of their names.
+ */
+@SupportedAnnotationTypes("com.netflix.conductor.annotations.beanmapper.BeanMapper")
+public class BeanMapperProcessor extends AbstractProcessor {
+    private static final String GENERATOR_NAME =
+            "com.netflix.conductor.annotationsprocessor.beanmapper";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(BeanMapper.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error(element, "@BeanMapper can only annotate an interface");
+                continue;
+            }
+            try {
+                generate((TypeElement) element);
+            } catch (IllegalArgumentException e) {
+                error(element, e.getMessage());
+            } catch (IOException e) {
+                error(element, "failed to write the mapper: " + e);
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement mapper) throws IOException {
+        String packageName =
+                processingEnv.getElementUtils().getPackageOf(mapper).getQualifiedName().toString();
+        TypeSpec.Builder impl =
+                TypeSpec.classBuilder(mapper.getSimpleName() + "Impl")
+                        .addModifiers(Modifier.FINAL)
+                        .addSuperinterface(ClassName.get(mapper))
+                        .addOriginatingElement(mapper)
+                        .addAnnotation(
+                                AnnotationSpec.builder(Generated.class)
+                                        .addMember("value", "$S", GENERATOR_NAME)
+                                        .build());
+        if (mapper.getModifiers().contains(Modifier.PUBLIC)) {
+            impl.addModifiers(Modifier.PUBLIC);
+        }
+
+        for (ExecutableElement method : ElementFilter.methodsIn(mapper.getEnclosedElements())) {
+            if (method.getModifiers().contains(Modifier.DEFAULT)
+                    || method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            impl.addMethod(generateMethod(method));
+        }
+
+        JavaFile.builder(packageName, impl.build())
+                .indent("    ")
+                .build()
+                .writeTo(processingEnv.getFiler());
+    }
+
+    private MethodSpec generateMethod(ExecutableElement method) {
+        if (method.getParameters().size() != 1
+                || method.getReturnType().getKind() != TypeKind.DECLARED) {
+            throw new IllegalArgumentException(
+                    method.getSimpleName() + ": a mapper method takes a bean and returns a bean");
+        }
+        DeclaredType from = (DeclaredType) method.getParameters().get(0).asType();
+        DeclaredType to = (DeclaredType) method.getReturnType();
+        String source = method.getParameters().get(0).getSimpleName().toString();
+
+        MethodSpec.Builder spec = MethodSpec.overriding(method);
+        spec.addStatement("$T to = new $T()", TypeName.get(to), TypeName.get(to));
+
+        Map<String, ExecutableElement> getters = getters(from);
+        for (Map.Entry<String, ExecutableElement> setter : setters(to).entrySet()) {
+            ExecutableElement getter = getters.get(setter.getKey());
+            if (getter == null) {
+                continue;
+            }
+            TypeMirror value = returnType(from, getter);
+            TypeMirror parameter = parameterType(to, setter.getValue());
+            if (isAssignable(value, parameter)) {
+                spec.addStatement(
+                        "to.$N($N.$N())",
+                        setter.getValue().getSimpleName().toString(),
+                        source,
+                        getter.getSimpleName().toString());
+            }
+        }
+
+        spec.addStatement("return to");
+        return spec.build();
+    }
+
+    /** The readable properties, an {@code isX} getter taking precedence like in java.beans. */
+    private Map<String, ExecutableElement> getters(DeclaredType type) {
+        Map<String, ExecutableElement> getters = new HashMap<>();
+        for (ExecutableElement method : publicMethods(type)) {
+            String name = method.getSimpleName().toString();
+            if (!method.getParameters().isEmpty()) {
+                continue;
+            }
+            TypeKind kind = returnType(type, method).getKind();
+            if (name.startsWith("is") && name.length() > 2 && kind == TypeKind.BOOLEAN) {
+                getters.put(propertyName(name.substring(2)), method);
+            } else if (name.startsWith("get") && name.length() > 3 && kind != TypeKind.VOID) {
+                getters.putIfAbsent(propertyName(name.substring(3)), method);
+            }
+        }
+        return getters;
+    }
+
+    /** The writable properties, by name. Like for Spring, a setter may return a value. */
+    private Map<String, ExecutableElement> setters(DeclaredType type) {
+        Map<String, ExecutableElement> getters = getters(type);
+        Map<String, ExecutableElement> setters = new TreeMap<>();
+        for (ExecutableElement method : publicMethods(type)) {
+            String name = method.getSimpleName().toString();
+            if (!name.startsWith("set")
+                    || name.length() <= 3
+                    || method.getParameters().size() != 1) {
+                continue;
+            }
+            String property = propertyName(name.substring(3));
+            ExecutableElement getter = getters.get(property);
+            // of overloaded setters, the one of the type of the getter
+            if (!setters.containsKey(property)
+                    || (getter != null
+                            && processingEnv
+                                    .getTypeUtils()
+                                    .isSameType(
+                                            parameterType(type, method),
+                                            returnType(type, getter)))) {
+                setters.put(property, method);
+            }
+        }
+        return setters;
+    }
+
+    private List<ExecutableElement> publicMethods(DeclaredType type) {
+        List<ExecutableElement> methods =
+                ElementFilter.methodsIn(
+                        processingEnv
+                                .getElementUtils()
+                                .getAllMembers((TypeElement) type.asElement()));
+        methods.removeIf(
+                method ->
+                        !method.getModifiers().contains(Modifier.PUBLIC)
+                                || method.getModifiers().contains(Modifier.STATIC));
+        return methods;
+    }
+
+    /**
+     * Whether a value can be passed to the setter, like Spring's {@code ClassUtils.isAssignable}: a
+     * primitive only takes the same primitive or its wrapper, there is no widening.
+     */
+    private boolean isAssignable(TypeMirror value, TypeMirror parameter) {
+        Types types = processingEnv.getTypeUtils();
+        if (parameter.getKind().isPrimitive()) {
+            return types.isSameType(box(value), box(parameter));
+        }
+        return types.isAssignable(box(value), parameter);
+    }
+
+    private TypeMirror box(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).asType();
+        }
+        return type;
+    }
+
+    private TypeMirror returnType(DeclaredType type, ExecutableElement method) {
+        return memberType(type, method).getReturnType();
+    }
+
+    private TypeMirror parameterType(DeclaredType type, ExecutableElement method) {
+        return memberType(type, method).getParameterTypes().get(0);
+    }
+
+    private ExecutableType memberType(DeclaredType type, ExecutableElement method) {
+        return (ExecutableType) processingEnv.getTypeUtils().asMemberOf(type, method);
+    }
+
+    /** The property name of an accessor, like {@code java.beans.Introspector.decapitalize}. */
+    private static String propertyName(String name) {
+        if (name.length() > 1
+                && Character.isUpperCase(name.charAt(0))
+                && Character.isUpperCase(name.charAt(1))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
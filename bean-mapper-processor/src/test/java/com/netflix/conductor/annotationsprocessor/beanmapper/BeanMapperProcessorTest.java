@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.annotationsprocessor.beanmapper;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.List;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class BeanMapperProcessorTest {
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void happyPath() throws Exception {
+        String source =
+                "package com.example;\n"
+                        + "import java.util.List;\n"
+                        + "public class Source {\n"
+                        + "    public String getName() { return null; }\n"
+                        + "    public boolean isActive() { return false; }\n"
+                        + "    public Integer getCount() { return null; }\n"
+                        + "    public long getSize() { return 0; }\n"
+                        + "    public List<Source> getChildren() { return null; }\n"
+                        + "    public String getSourceOnly() { return null; }\n"
+                        + "}\n";
+        String target =
+                "package com.example;\n"
+                        + "import java.util.List;\n"
+                        + "public class Target {\n"
+                        + "    public Target setName(String name) { return this; }\n"
+                        + "    public void setActive(boolean active) {}\n"
+                        + "    public void setCount(int count) {}\n"
+                        + "    public void setSize(Long size) {}\n"
+                        + "    public void setChildren(List<Target> children) {}\n"
+                        + "    public void setTargetOnly(String targetOnly) {}\n"
+                        + "}\n";
+        String mapper =
+                "package com.example;\n"
+                        + "@com.netflix.conductor.annotations.beanmapper.BeanMapper\n"
+                        + "public interface ExampleMapper {\n"
+                        + "    Target toTarget(Source from);\n"
+                        + "}\n";
+
+        File generatedDir = folder.newFolder("generated");
+        File classesDir = folder.newFolder("classes");
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaCompiler.CompilationTask task =
+                compiler.getTask(
+                        null,
+                        null,
+                        diagnostics,
+                        List.of(
+                                "-classpath",
+                                System.getProperty("java.class.path"),
+                                "-s",
+                                generatedDir.getPath(),
+                                "-d",
+                                classesDir.getPath()),
+                        null,
+                        List.of(
+                                sourceFile("Source", source),
+                                sourceFile("Target", target),
+                                sourceFile("ExampleMapper", mapper)));
+        task.setProcessors(List.of(new BeanMapperProcessor()));
+
+        assertTrue(diagnostics.getDiagnostics().toString(), task.call());
+        String generated =
+                Files.readString(
+                        new File(generatedDir, "com/example/ExampleMapperImpl.java").toPath());
+        assertTrue(generated.contains("public final class ExampleMapperImpl"));
+        assertTrue(generated.contains("to.setName(from.getName());"));
+        assertTrue(generated.contains("to.setActive(from.isActive());"));
+        // a primitive takes the same primitive or its wrapper, the other way around too
+        assertTrue(generated.contains("to.setCount(from.getCount());"));
+        assertTrue(generated.contains("to.setSize(from.getSize());"));
+        // the type arguments have to match
+        assertFalse(generated.contains("setChildren"));
+        assertFalse(generated.contains("SourceOnly"));
+        assertFalse(generated.contains("TargetOnly"));
+        assertTrue(new File(classesDir, "com/example/ExampleMapperImpl.class").isFile());
+    }
+
+    private static JavaFileObject sourceFile(String name, String content) {
+        return new SimpleJavaFileObject(
+                URI.create("string:///com/example/" + name + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+}
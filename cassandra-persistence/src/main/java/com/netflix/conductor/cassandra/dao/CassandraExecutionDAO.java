@@ -253,14 +253,7 @@ public class CassandraExecutionDAO extends CassandraBaseDAO
                             DEFAULT_SHARD_ID,
                             task.getTaskId(),
                             taskPayload));
-            if (task.getTaskDefinition().isPresent()
-                    && task.getTaskDefinition().get().concurrencyLimit() > 0) {
-                if (task.getStatus().isTerminal()) {
-                    removeTaskFromLimit(task);
-                } else if (task.getStatus() == TaskModel.Status.IN_PROGRESS) {
-                    addTaskToLimit(task);
-                }
-            }
+            updateTaskLimit(task);
         } catch (DriverException e) {
             Monitors.error(CLASS_NAME, "updateTask");
             String errorMsg =
@@ -272,6 +265,67 @@ public class CassandraExecutionDAO extends CassandraBaseDAO
         }
     }
 
+    /**
+     * Updates the tasks with one batch statement per workflow. The tasks of a workflow are stored
+     * in the same partition, so that each batch only touches a single partition.
+     *
+     * @param tasks tasks to be updated
+     */
+    @Override
+    public void updateTasks(List<TaskModel> tasks) {
+        Map<String, List<TaskModel>> tasksByWorkflow =
+                tasks.stream()
+                        .collect(
+                                Collectors.groupingBy(
+                                        TaskModel::getWorkflowInstanceId,
+                                        LinkedHashMap::new,
+                                        Collectors.toList()));
+        tasksByWorkflow.forEach(
+                (workflowId, workflowTasks) -> {
+                    try {
+                        UUID workflowUUID = UUID.fromString(workflowId);
+                        BatchStatement batchStatement = new BatchStatement();
+                        for (TaskModel task : workflowTasks) {
+                            String taskPayload = toJson(task);
+                            recordCassandraDaoRequests(
+                                    "updateTask", task.getTaskType(), task.getWorkflowType());
+                            recordCassandraDaoPayloadSize(
+                                    "updateTask",
+                                    taskPayload.length(),
+                                    task.getTaskType(),
+                                    task.getWorkflowType());
+                            batchStatement.add(
+                                    insertTaskStatement.bind(
+                                            workflowUUID,
+                                            DEFAULT_SHARD_ID,
+                                            task.getTaskId(),
+                                            taskPayload));
+                        }
+                        session.execute(batchStatement);
+                        workflowTasks.forEach(this::updateTaskLimit);
+                    } catch (DriverException e) {
+                        Monitors.error(CLASS_NAME, "updateTasks");
+                        String errorMsg =
+                                String.format(
+                                        "Error updating %d tasks in workflow: %s",
+                                        workflowTasks.size(), workflowId);
+                        LOGGER.error(errorMsg, e);
+                        throw new TransientException(errorMsg, e);
+                    }
+                });
+    }
+
+    private void updateTaskLimit(TaskModel task) {
+        if (task.getTaskDefinition().isPresent()
+                && task.getTaskDefinition().get().concurrencyLimit() > 0) {
+            if (task.getStatus().isTerminal()) {
+                removeTaskFromLimit(task);
+            } else if (task.getStatus() == TaskModel.Status.IN_PROGRESS) {
+                addTaskToLimit(task);
+            }
+        }
+    }
+
     /**
      * This is a dummy implementation and this feature is not implemented for Cassandra backed
      * Conductor
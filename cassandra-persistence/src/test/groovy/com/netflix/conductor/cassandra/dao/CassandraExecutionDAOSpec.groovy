@@ -226,6 +226,41 @@ class CassandraExecutionDAOSpec extends CassandraSpec {
         pendingTasks[0] == task1
     }
 
+    def "verify tasks of several workflows are updated in a batch"() {
+        given: 'we create two workflows'
+        String workflowId1 = new IDGenerator().generate()
+        String workflowId2 = new IDGenerator().generate()
+        WorkflowDef workflowDef = new WorkflowDef(name: 'def1', version: 1)
+        [workflowId1, workflowId2].each {
+            executionDAO.createWorkflow(new WorkflowModel(workflowDefinition: workflowDef, workflowId: it, input: new HashMap(), status: WorkflowModel.Status.RUNNING, createTime: System.currentTimeMillis()))
+        }
+
+        and: 'create tasks for those workflows'
+        TaskModel task1 = new TaskModel(workflowInstanceId: workflowId1, taskType: 'task1', referenceTaskName: 'task1', status: TaskModel.Status.SCHEDULED, taskId: new IDGenerator().generate())
+        TaskModel task2 = new TaskModel(workflowInstanceId: workflowId2, taskType: 'task2', referenceTaskName: 'task2', status: TaskModel.Status.SCHEDULED, taskId: new IDGenerator().generate())
+        TaskModel task3 = new TaskModel(workflowInstanceId: workflowId1, taskType: 'task3', referenceTaskName: 'task3', status: TaskModel.Status.SCHEDULED, taskId: new IDGenerator().generate())
+        executionDAO.createTasks([task1, task3])
+        executionDAO.createTasks([task2])
+
+        and: 'change the status of those tasks'
+        task1.setStatus(TaskModel.Status.IN_PROGRESS)
+        task2.setStatus(TaskModel.Status.COMPLETED)
+        task3.setStatus(TaskModel.Status.FAILED)
+
+        when: 'update the tasks at once'
+        executionDAO.updateTasks([task1, task2, task3])
+
+        then:
+        executionDAO.getTask(task1.taskId).status == TaskModel.Status.IN_PROGRESS
+        executionDAO.getTask(task2.taskId).status == TaskModel.Status.COMPLETED
+        executionDAO.getTask(task3.taskId).status == TaskModel.Status.FAILED
+
+        and: 'each workflow still has its own tasks'
+        executionDAO.getTasksForWorkflow(workflowId1)*.taskId as Set == [task1.taskId, task3.taskId] as Set
+        executionDAO.getTasksForWorkflow(workflowId2)*.taskId == [task2.taskId]
+        executionDAO.getWorkflowMetadata(workflowId1).totalTasks == 2
+    }
+
     def "verify tasks are removed"() {
         given: 'we create a workflow'
         String workflowId = new IDGenerator().generate()
@@ -251,6 +251,48 @@ public abstract class ExecutionDAOTest {
         assertTrue(found.isEmpty());
     }
 
+    @Test
+    public void testUpdateTasks() {
+        testUpdateTasks(getExecutionDAO());
+    }
+
+    protected void testUpdateTasks(ExecutionDAO executionDAO) {
+        List<TaskModel> tasks = new LinkedList<>();
+        String workflowId = UUID.randomUUID().toString();
+
+        for (int i = 0; i < 4; i++) {
+            TaskModel task = new TaskModel();
+            task.setScheduledTime(1L);
+            task.setSeq(i + 1);
+            task.setTaskId(workflowId + "_t" + i);
+            task.setReferenceTaskName("testUpdateTasks" + i);
+            task.setRetryCount(0);
+            task.setWorkflowInstanceId(workflowId);
+            task.setTaskDefName("testUpdateTasks");
+            task.setStatus(TaskModel.Status.IN_PROGRESS);
+            tasks.add(task);
+        }
+        // the last task is only written by updateTasks
+        executionDAO.createTasks(tasks.subList(0, 3));
+        assertEquals(3, executionDAO.getPendingTasksForTaskType("testUpdateTasks").size());
+
+        tasks.forEach(
+                task -> {
+                    task.getOutputData().put("updated", true);
+                    task.setStatus(TaskModel.Status.COMPLETED);
+                });
+        executionDAO.updateTasks(tasks);
+
+        List<TaskModel> found = executionDAO.getTasksForWorkflow(workflowId);
+        assertEquals(4, found.size());
+        found.forEach(
+                task -> {
+                    assertEquals(TaskModel.Status.COMPLETED, task.getStatus());
+                    assertEquals(true, task.getOutputData().get("updated"));
+                });
+        assertTrue(executionDAO.getPendingTasksForTaskType("testUpdateTasks").isEmpty());
+    }
+
     @Test
     public void testPending() {
         WorkflowDef def = new WorkflowDef();
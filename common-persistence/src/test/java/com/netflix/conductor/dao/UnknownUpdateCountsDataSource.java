@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.dao;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.function.BiFunction;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps a {@link DataSource} so that the batches of its prepared statements report {@link
+ * Statement#SUCCESS_NO_INFO} for each statement, as a driver rewriting the batch may do.
+ */
+public final class UnknownUpdateCountsDataSource {
+
+    private UnknownUpdateCountsDataSource() {}
+
+    public static DataSource wrap(DataSource dataSource) {
+        return wrap(
+                DataSource.class,
+                dataSource,
+                (method, result) ->
+                        result instanceof Connection
+                                ? wrap(
+                                        Connection.class,
+                                        (Connection) result,
+                                        UnknownUpdateCountsDataSource::statement)
+                                : result);
+    }
+
+    private static Object statement(Method method, Object result) {
+        if (result instanceof PreparedStatement) {
+            return wrap(
+                    PreparedStatement.class,
+                    (PreparedStatement) result,
+                    (statementMethod, counts) -> {
+                        if (statementMethod.getName().equals("executeBatch")) {
+                            Arrays.fill((int[]) counts, Statement.SUCCESS_NO_INFO);
+                        }
+                        return counts;
+                    });
+        }
+        return result;
+    }
+
+    private static <T> T wrap(
+            Class<T> type, T target, BiFunction<Method, Object, Object> resultMapper) {
+        return type.cast(
+                Proxy.newProxyInstance(
+                        type.getClassLoader(),
+                        new Class<?>[] {type},
+                        (proxy, method, args) -> {
+                            try {
+                                return resultMapper.apply(method, method.invoke(target, args));
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        }));
+    }
+}
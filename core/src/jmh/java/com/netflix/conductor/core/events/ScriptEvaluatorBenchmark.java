@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.events;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.script.Bindings;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.nashorn.api.scripting.NashornScriptEngineFactory;
+
+/**
+ * Evaluations per second of a DO_WHILE like loop condition. {@code interpreted} is the previous
+ * behavior, where every evaluation parses and compiles the expression on one shared engine, {@code
+ * compiled} goes through the {@link ScriptEvaluator} and its per-thread compiled expressions. Run
+ * with {@code -t 4} or more to see the effect of the engines not being shared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class ScriptEvaluatorBenchmark {
+
+    private static final String CONDITION =
+            "if ($.loop_task['iteration'] < $.value && $.loop_task.output.status != 'DONE') {"
+                    + " true; } else { false; }";
+
+    private ScriptEngine sharedEngine;
+    private Map<String, Object> input;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sharedEngine = new NashornScriptEngineFactory().getScriptEngine("--no-java");
+        input =
+                Map.of(
+                        "value",
+                        10,
+                        "loop_task",
+                        Map.of("iteration", 3, "output", Map.of("status", "RUNNING")));
+    }
+
+    @Benchmark
+    public Object interpreted() throws ScriptException {
+        Bindings bindings = sharedEngine.createBindings();
+        bindings.put("$", input);
+        return sharedEngine.eval(CONDITION, bindings);
+    }
+
+    @Benchmark
+    public Object compiled() throws ScriptException {
+        return ScriptEvaluator.eval(CONDITION, input);
+    }
+}
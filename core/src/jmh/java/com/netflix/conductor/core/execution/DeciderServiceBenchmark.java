@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.execution;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.netflix.conductor.common.config.ObjectMapperProvider;
+import com.netflix.conductor.common.metadata.tasks.TaskDef;
+import com.netflix.conductor.common.metadata.tasks.TaskType;
+import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
+import com.netflix.conductor.common.metadata.workflow.WorkflowTask;
+import com.netflix.conductor.core.execution.mapper.SimpleTaskMapper;
+import com.netflix.conductor.core.execution.tasks.SystemTaskRegistry;
+import com.netflix.conductor.core.metadata.MetadataMapperService;
+import com.netflix.conductor.core.utils.ExternalPayloadStorageUtils;
+import com.netflix.conductor.core.utils.IDGenerator;
+import com.netflix.conductor.core.utils.ParametersUtils;
+import com.netflix.conductor.dao.MetadataDAO;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Cost of one decide pass on a workflow with {@code taskCount} task instances, where the last
+ * completed task schedules the next one. Each task input references the output of the previous
+ * task, so the pass exercises the definition graph, the task lookups by reference name and the
+ * parameter resolution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeciderServiceBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int taskCount;
+
+    private DeciderService deciderService;
+    private WorkflowModel workflow;
+    private TaskModel lastCompletedTask;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ParametersUtils parametersUtils =
+                new ParametersUtils(new ObjectMapperProvider().getObjectMapper());
+        MetadataDAO metadataDAO = mock(MetadataDAO.class);
+        deciderService =
+                new DeciderService(
+                        new IDGenerator(),
+                        parametersUtils,
+                        metadataDAO,
+                        new MetadataMapperService(metadataDAO),
+                        mock(ExternalPayloadStorageUtils.class),
+                        new SystemTaskRegistry(Set.of()),
+                        Map.of(TaskType.SIMPLE.name(), new SimpleTaskMapper(parametersUtils)),
+                        Duration.ofMinutes(60));
+
+        TaskDef taskDef = new TaskDef("benchmark_task");
+        WorkflowDef workflowDef = new WorkflowDef();
+        workflowDef.setName("decider_benchmark");
+        workflowDef.setSchemaVersion(2);
+        for (int i = 0; i <= taskCount; i++) {
+            WorkflowTask workflowTask = new WorkflowTask();
+            workflowTask.setName(taskDef.getName());
+            workflowTask.setTaskReferenceName("task_" + i);
+            workflowTask.setType(TaskType.SIMPLE.name());
+            workflowTask.setTaskDefinition(taskDef);
+            if (i > 0) {
+                workflowTask.setInputParameters(
+                        Map.of("previous", "${task_" + (i - 1) + ".output.result}"));
+            }
+            workflowDef.getTasks().add(workflowTask);
+        }
+
+        workflow = new WorkflowModel();
+        workflow.setWorkflowId("benchmark");
+        workflow.setWorkflowDefinition(workflowDef);
+        workflow.setStatus(WorkflowModel.Status.RUNNING);
+        List<TaskModel> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            TaskModel task = new TaskModel();
+            task.setTaskId("task_id_" + i);
+            task.setReferenceTaskName("task_" + i);
+            task.setTaskType(taskDef.getName());
+            task.setTaskDefName(taskDef.getName());
+            task.setWorkflowTask(workflowDef.getTasks().get(i));
+            task.setStatus(TaskModel.Status.COMPLETED);
+            task.setExecuted(true);
+            task.setSeq(i + 1);
+            task.addOutput("result", i);
+            tasks.add(task);
+        }
+        workflow.setTasks(tasks);
+        lastCompletedTask = tasks.get(taskCount - 1);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetLastTask() {
+        lastCompletedTask.setExecuted(false);
+    }
+
+    @Benchmark
+    public DeciderService.DeciderOutcome decide() {
+        return deciderService.decide(workflow);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.index;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.netflix.conductor.common.config.ObjectMapperProvider;
+import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
+import com.netflix.conductor.common.run.TaskSummary;
+import com.netflix.conductor.common.run.WorkflowSummary;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Cost of the index documents of a workflow and of one of its tasks. {@code *FromSummary} is the
+ * previous behavior, going through {@code toWorkflow()}/{@code toTask()} and the summary before
+ * serializing it with the object mapper, {@code *FromModel} writes the document with {@link
+ * SummaryDocuments}. {@code toWorkflow()} copies every task of the workflow, so the gap grows with
+ * {@code taskCount}. Run with {@code -prof gc} for the bytes allocated per document ({@code
+ * gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class SummaryDocumentsBenchmark {
+
+    @Param({"10", "100"})
+    private int taskCount;
+
+    private ObjectMapper objectMapper;
+    private WorkflowModel workflow;
+    private TaskModel task;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapperProvider().getObjectMapper();
+
+        WorkflowDef workflowDef = new WorkflowDef();
+        workflowDef.setName("benchmark_workflow");
+        workflowDef.setVersion(1);
+        workflow = new WorkflowModel();
+        workflow.setWorkflowDefinition(workflowDef);
+        workflow.setWorkflowId("workflow-id");
+        workflow.setCorrelationId("correlation-id");
+        workflow.setStatus(WorkflowModel.Status.COMPLETED);
+        workflow.setCreateTime(1_690_000_000_000L);
+        workflow.setUpdatedTime(1_690_000_100_000L);
+        workflow.setEndTime(1_690_000_100_000L);
+        workflow.setInput(Map.of("orderId", "order-1", "items", List.of("a", "b", "c")));
+        workflow.setOutput(Map.of("status", "shipped", "trackingNumber", "1Z999"));
+
+        List<TaskModel> tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            TaskModel taskModel = new TaskModel();
+            taskModel.setTaskId("task-" + i);
+            taskModel.setTaskType("SIMPLE");
+            taskModel.setTaskDefName("task_" + i);
+            taskModel.setReferenceTaskName("t" + i);
+            taskModel.setWorkflowInstanceId("workflow-id");
+            taskModel.setWorkflowType("benchmark_workflow");
+            taskModel.setStatus(TaskModel.Status.COMPLETED);
+            taskModel.setScheduledTime(1_690_000_000_000L + i);
+            taskModel.setStartTime(1_690_000_000_100L + i);
+            taskModel.setUpdateTime(1_690_000_000_200L + i);
+            taskModel.setEndTime(1_690_000_000_200L + i);
+            taskModel.setInputData(Map.of("orderId", "order-1", "step", i));
+            taskModel.setOutputData(Map.of("result", "ok"));
+            tasks.add(taskModel);
+        }
+        workflow.setTasks(tasks);
+        task = tasks.get(0);
+    }
+
+    @Benchmark
+    public byte[] workflowFromSummary() throws IOException {
+        return objectMapper.writeValueAsBytes(new WorkflowSummary(workflow.toWorkflow()));
+    }
+
+    @Benchmark
+    public byte[] workflowFromModel() throws IOException {
+        return SummaryDocuments.workflowSummary(workflow);
+    }
+
+    @Benchmark
+    public byte[] taskFromSummary() throws IOException {
+        return objectMapper.writeValueAsBytes(new TaskSummary(task.toTask()));
+    }
+
+    @Benchmark
+    public byte[] taskFromModel() throws IOException {
+        return SummaryDocuments.taskSummary(task);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+
+import com.netflix.conductor.common.metadata.tasks.Task;
+import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
+import com.netflix.conductor.common.metadata.workflow.WorkflowTask;
+import com.netflix.conductor.common.run.Workflow;
+
+/**
+ * Cost of {@code WorkflowModel.toWorkflow()}, which maps every task of the workflow as well. {@code
+ * beanUtils} is the previous behavior, copying the properties with Spring's {@code
+ * BeanUtils.copyProperties}, {@code generated} goes through the {@link ModelMapper} generated at
+ * compile time. Run with {@code -prof gc} for the bytes allocated per mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class ModelMapperBenchmark {
+
+    @Param({"1000"})
+    private int taskCount;
+
+    private WorkflowModel workflow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        WorkflowDef workflowDef = new WorkflowDef();
+        workflowDef.setName("benchmark_workflow");
+        workflowDef.setVersion(1);
+        workflow = new WorkflowModel();
+        workflow.setWorkflowDefinition(workflowDef);
+        workflow.setWorkflowId("workflow-id");
+        workflow.setStatus(WorkflowModel.Status.RUNNING);
+        workflow.setCreateTime(System.currentTimeMillis());
+        workflow.setInput(Map.of("orderId", "order-1"));
+
+        List<TaskModel> tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            WorkflowTask workflowTask = new WorkflowTask();
+            workflowTask.setName("task_" + i);
+            workflowTask.setTaskReferenceName("t" + i);
+
+            TaskModel task = new TaskModel();
+            task.setTaskId("task-" + i);
+            task.setTaskType("SIMPLE");
+            task.setReferenceTaskName("t" + i);
+            task.setWorkflowInstanceId("workflow-id");
+            task.setWorkflowType("benchmark_workflow");
+            task.setWorkflowTask(workflowTask);
+            task.setStatus(TaskModel.Status.COMPLETED);
+            task.setSeq(i + 1);
+            task.setScheduledTime(System.currentTimeMillis());
+            task.setInputData(new HashMap<>(Map.of("step", i)));
+            task.setOutputData(new HashMap<>(Map.of("result", "ok")));
+            tasks.add(task);
+        }
+        workflow.setTasks(tasks);
+    }
+
+    @Benchmark
+    public Workflow beanUtils() {
+        Workflow to = new Workflow();
+        BeanUtils.copyProperties(workflow, to);
+        to.setStatus(Workflow.WorkflowStatus.valueOf(workflow.getStatus().name()));
+        to.setTasks(
+                workflow.getTasks().stream()
+                        .map(
+                                taskModel -> {
+                                    Task task = new Task();
+                                    BeanUtils.copyProperties(taskModel, task);
+                                    task.setStatus(
+                                            Task.Status.valueOf(taskModel.getStatus().name()));
+                                    return task;
+                                })
+                        .collect(Collectors.toList()));
+        to.setUpdateTime(workflow.getUpdatedTime());
+        return to;
+    }
+
+    @Benchmark
+    public Workflow generated() {
+        return workflow.toWorkflow();
+    }
+}
@@ -51,15 +51,38 @@ public class ConductorProperties {
     @DurationUnit(ChronoUnit.SECONDS)
     private Duration maxPostponeDurationSeconds = Duration.ofSeconds(3600);
 
+    /**
+     * The maximum interval at which the running workflows are swept, which repairs them if a
+     * message of their tasks was lost and times out the tasks scheduled since the previous sweep. A
+     * workflow with a timeout to come sooner is swept after that timeout. Not set by default, the
+     * workflowOffsetTimeout is then used.
+     */
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration workflowRepairInterval = null;
+
     /** The number of threads to use to do background sweep on active workflows. */
     private int sweeperThreadCount = Runtime.getRuntime().availableProcessors() * 2;
 
     /** The timeout (in milliseconds) for the polling of workflows to be swept. */
     private Duration sweeperWorkflowPollTimeout = Duration.ofMillis(2000);
 
+    /**
+     * The number of workflows swept one after another by one sweeper thread, their decider queue
+     * leases being extended together. Up to sweeperThreadCount batches are swept at a time.
+     */
+    private int sweeperBatchSize = 10;
+
     /** The number of threads to configure the threadpool in the event processor. */
     private int eventProcessorThreadCount = 2;
 
+    /**
+     * Used to run the system tasks, the workflow sweeper, the event actions and the delayed index
+     * updates on virtual threads, requires Java 21 or later. The thread counts of these pools then
+     * only bound the number of concurrent executions. The javascript expressions they evaluate are
+     * still evaluated on platform threads.
+     */
+    private boolean virtualThreadsEnabled = false;
+
     /** Used to enable/disable the indexing of messages within event payloads. */
     private boolean eventMessageIndexingEnabled = true;
 
@@ -83,6 +106,24 @@ public class ConductorProperties {
     @DurationUnit(ChronoUnit.SECONDS)
     private Duration activeWorkerLastPollTimeout = Duration.ofSeconds(10);
 
+    /**
+     * The interval at which the last polls of the task queues are written to the {@link
+     * com.netflix.conductor.dao.PollDataDAO}. The polls of a queue and domain in between are
+     * coalesced into one write. Set to 0 to write every poll. Neither this nor
+     * pollDataCacheValidityPeriod applies to a PollDataDAO that caches the polls itself.
+     */
+    @DurationUnit(ChronoUnit.MILLIS)
+    private Duration pollDataFlushInterval = Duration.ofMillis(1000);
+
+    /**
+     * The time for which the last poll of a task queue read from the {@link
+     * com.netflix.conductor.dao.PollDataDAO} is cached to find the active domain of a task. It is
+     * added to the flush interval of the other servers, and must stay well below
+     * activeWorkerLastPollTimeout. Set to 0 to read the last poll every time.
+     */
+    @DurationUnit(ChronoUnit.MILLIS)
+    private Duration pollDataCacheValidityPeriod = Duration.ofMillis(1000);
+
     /**
      * The time (in seconds) for which a task execution will be postponed if being rate limited or
      * concurrent execution limited.
@@ -99,6 +140,13 @@ public class ConductorProperties {
     /** Used to enable/disable asynchronous indexing to elasticsearch. */
     private boolean asyncIndexingEnabled = false;
 
+    /**
+     * The maximum duration of a request streaming the ids of the workflows matching a search, the
+     * stream is ended with a timeout line after it.
+     */
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration searchStreamTimeout = Duration.ofSeconds(300);
+
     /** The number of threads to be used within the threadpool for system task workers. */
     private int systemTaskWorkerThreadCount = Runtime.getRuntime().availableProcessors() * 2;
 
@@ -118,6 +166,18 @@ public class ConductorProperties {
      */
     private Duration systemTaskWorkerPollInterval = Duration.ofMillis(50);
 
+    /**
+     * The maximum interval at which an empty system task queue is polled. The interval doubles from
+     * the poll interval at each empty poll, a push to the queue wakes the poll immediately. Not set
+     * by default, the empty queues are then polled at the poll interval: the pushes which do not
+     * wake the polls, e.g. the messages postponed or made visible again by the queue, would
+     * otherwise wait for up to this interval.
+     */
+    private Duration systemTaskWorkerMaxPollInterval = null;
+
+    /** The number of threads polling the system task queues, shared by all the queues. */
+    private int systemTaskWorkerPollThreadCount = 2;
+
     /** The namespace for the system task workers to provide instance level isolation. */
     private String systemTaskWorkerExecutionNamespace = "";
 
@@ -264,10 +324,34 @@ public class ConductorProperties {
 
     /**
      * Timeout used by {@link com.netflix.conductor.core.execution.tasks.SystemTaskWorker} when
-     * polling, i.e.: call to {@link com.netflix.conductor.dao.QueueDAO#pop(String, int, int)}.
+     * polling, i.e.: call to {@link com.netflix.conductor.dao.QueueDAO#pop(String, int, int)}. The
+     * poll holds one of the shared poll threads while it waits, the pushes to the queue already
+     * wake the polls.
+     */
+    @DurationUnit(ChronoUnit.MILLIS)
+    private Duration systemTaskQueuePopTimeout = Duration.ZERO;
+
+    /**
+     * The interval at which a long poll of a task queue checks the queue again while it waits for a
+     * push. The pushes made by this server, and the ones notified by the other servers when
+     * cross-server notifications are enabled, wake the poll immediately; this interval bounds the
+     * delay to see the other messages, e.g. postponed ones.
      */
     @DurationUnit(ChronoUnit.MILLIS)
-    private Duration systemTaskQueuePopTimeout = Duration.ofMillis(100);
+    private Duration taskPollRecheckInterval = Duration.ofMillis(100);
+
+    /**
+     * The number of threads waking the long polls when a message is pushed to their task queue, or
+     * when their recheck interval elapsed, see {@link
+     * com.netflix.conductor.core.dal.QueueWakeupRegistry}.
+     */
+    private int queueWakeupThreadCount = 4;
+
+    /**
+     * The number of threads checking the task queue again for the woken async long polls, and
+     * completing them.
+     */
+    private int taskPollAsyncThreadCount = 20;
 
     public String getStack() {
         return stack;
@@ -309,6 +393,14 @@ public class ConductorProperties {
         this.maxPostponeDurationSeconds = maxPostponeDurationSeconds;
     }
 
+    public Duration getWorkflowRepairInterval() {
+        return workflowRepairInterval == null ? workflowOffsetTimeout : workflowRepairInterval;
+    }
+
+    public void setWorkflowRepairInterval(Duration workflowRepairInterval) {
+        this.workflowRepairInterval = workflowRepairInterval;
+    }
+
     public int getSweeperThreadCount() {
         return sweeperThreadCount;
     }
@@ -325,6 +417,14 @@ public class ConductorProperties {
         this.sweeperWorkflowPollTimeout = sweeperWorkflowPollTimeout;
     }
 
+    public int getSweeperBatchSize() {
+        return sweeperBatchSize;
+    }
+
+    public void setSweeperBatchSize(int sweeperBatchSize) {
+        this.sweeperBatchSize = sweeperBatchSize;
+    }
+
     public int getEventProcessorThreadCount() {
         return eventProcessorThreadCount;
     }
@@ -333,6 +433,14 @@ public class ConductorProperties {
         this.eventProcessorThreadCount = eventProcessorThreadCount;
     }
 
+    public boolean isVirtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+
+    public void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+    }
+
     public boolean isEventMessageIndexingEnabled() {
         return eventMessageIndexingEnabled;
     }
@@ -381,6 +489,22 @@ public class ConductorProperties {
         this.activeWorkerLastPollTimeout = activeWorkerLastPollTimeout;
     }
 
+    public Duration getPollDataFlushInterval() {
+        return pollDataFlushInterval;
+    }
+
+    public void setPollDataFlushInterval(Duration pollDataFlushInterval) {
+        this.pollDataFlushInterval = pollDataFlushInterval;
+    }
+
+    public Duration getPollDataCacheValidityPeriod() {
+        return pollDataCacheValidityPeriod;
+    }
+
+    public void setPollDataCacheValidityPeriod(Duration pollDataCacheValidityPeriod) {
+        this.pollDataCacheValidityPeriod = pollDataCacheValidityPeriod;
+    }
+
     public Duration getTaskExecutionPostponeDuration() {
         return taskExecutionPostponeDuration;
     }
@@ -413,6 +537,14 @@ public class ConductorProperties {
         this.asyncIndexingEnabled = asyncIndexingEnabled;
     }
 
+    public Duration getSearchStreamTimeout() {
+        return searchStreamTimeout;
+    }
+
+    public void setSearchStreamTimeout(Duration searchStreamTimeout) {
+        this.searchStreamTimeout = searchStreamTimeout;
+    }
+
     public int getSystemTaskWorkerThreadCount() {
         return systemTaskWorkerThreadCount;
     }
@@ -445,6 +577,24 @@ public class ConductorProperties {
         this.systemTaskWorkerPollInterval = systemTaskWorkerPollInterval;
     }
 
+    public Duration getSystemTaskWorkerMaxPollInterval() {
+        return systemTaskWorkerMaxPollInterval == null
+                ? systemTaskWorkerPollInterval
+                : systemTaskWorkerMaxPollInterval;
+    }
+
+    public void setSystemTaskWorkerMaxPollInterval(Duration systemTaskWorkerMaxPollInterval) {
+        this.systemTaskWorkerMaxPollInterval = systemTaskWorkerMaxPollInterval;
+    }
+
+    public int getSystemTaskWorkerPollThreadCount() {
+        return systemTaskWorkerPollThreadCount;
+    }
+
+    public void setSystemTaskWorkerPollThreadCount(int systemTaskWorkerPollThreadCount) {
+        this.systemTaskWorkerPollThreadCount = systemTaskWorkerPollThreadCount;
+    }
+
     public String getSystemTaskWorkerExecutionNamespace() {
         return systemTaskWorkerExecutionNamespace;
     }
@@ -626,4 +776,28 @@ public class ConductorProperties {
     public void setSystemTaskQueuePopTimeout(Duration systemTaskQueuePopTimeout) {
         this.systemTaskQueuePopTimeout = systemTaskQueuePopTimeout;
     }
+
+    public Duration getTaskPollRecheckInterval() {
+        return taskPollRecheckInterval;
+    }
+
+    public void setTaskPollRecheckInterval(Duration taskPollRecheckInterval) {
+        this.taskPollRecheckInterval = taskPollRecheckInterval;
+    }
+
+    public int getQueueWakeupThreadCount() {
+        return queueWakeupThreadCount;
+    }
+
+    public void setQueueWakeupThreadCount(int queueWakeupThreadCount) {
+        this.queueWakeupThreadCount = queueWakeupThreadCount;
+    }
+
+    public int getTaskPollAsyncThreadCount() {
+        return taskPollAsyncThreadCount;
+    }
+
+    public void setTaskPollAsyncThreadCount(int taskPollAsyncThreadCount) {
+        this.taskPollAsyncThreadCount = taskPollAsyncThreadCount;
+    }
 }
@@ -25,6 +25,8 @@ import org.springframework.scheduling.annotation.SchedulingConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 
+import com.netflix.conductor.core.utils.ExecutorUtils;
+
 import rx.Scheduler;
 import rx.schedulers.Schedulers;
 
@@ -59,9 +61,10 @@ public class SchedulerConfiguration implements SchedulingConfigurer {
             throw new IllegalStateException(
                     "conductor.app.sweeper-thread-count must be greater than 0.");
         }
-        ThreadFactory threadFactory =
-                new BasicThreadFactory.Builder().namingPattern("sweeper-thread-%d").build();
-        return Executors.newFixedThreadPool(properties.getSweeperThreadCount(), threadFactory);
+        return ExecutorUtils.newFixedThreadPool(
+                properties.isVirtualThreadsEnabled(),
+                properties.getSweeperThreadCount(),
+                "sweeper-thread-%d");
     }
 
     @Override
@@ -13,13 +13,17 @@
 package com.netflix.conductor.core.dal;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -41,6 +45,7 @@ import com.netflix.conductor.core.events.queue.Message;
 import com.netflix.conductor.core.exception.NotFoundException;
 import com.netflix.conductor.core.exception.TerminateWorkflowException;
 import com.netflix.conductor.core.exception.TransientException;
+import com.netflix.conductor.core.utils.ExecutorUtils;
 import com.netflix.conductor.core.utils.ExternalPayloadStorageUtils;
 import com.netflix.conductor.core.utils.QueueUtils;
 import com.netflix.conductor.dao.*;
@@ -72,13 +77,17 @@ public class ExecutionDAOFacade {
     private final IndexDAO indexDAO;
     private final RateLimitingDAO rateLimitingDao;
     private final ConcurrentExecutionLimitDAO concurrentExecutionLimitDAO;
-    private final PollDataDAO pollDataDAO;
+    private final PollDataCache pollDataCache;
     private final ObjectMapper objectMapper;
     private final ConductorProperties properties;
     private final ExternalPayloadStorageUtils externalPayloadStorageUtils;
+    private final QueueWakeupRegistry queueWakeupRegistry;
 
     private final ScheduledThreadPoolExecutor scheduledThreadPoolExecutor;
 
+    private final ThreadLocal<Deque<UnitOfWork>> unitsOfWork =
+            ThreadLocal.withInitial(ArrayDeque::new);
+
     public ExecutionDAOFacade(
             ExecutionDAO executionDAO,
             QueueDAO queueDAO,
@@ -88,19 +97,23 @@ public class ExecutionDAOFacade {
             PollDataDAO pollDataDAO,
             ObjectMapper objectMapper,
             ConductorProperties properties,
-            ExternalPayloadStorageUtils externalPayloadStorageUtils) {
+            ExternalPayloadStorageUtils externalPayloadStorageUtils,
+            QueueWakeupRegistry queueWakeupRegistry) {
         this.executionDAO = executionDAO;
         this.queueDAO = queueDAO;
         this.indexDAO = indexDAO;
         this.rateLimitingDao = rateLimitingDao;
         this.concurrentExecutionLimitDAO = concurrentExecutionLimitDAO;
-        this.pollDataDAO = pollDataDAO;
+        this.pollDataCache = new PollDataCache(pollDataDAO, properties);
         this.objectMapper = objectMapper;
         this.properties = properties;
         this.externalPayloadStorageUtils = externalPayloadStorageUtils;
+        this.queueWakeupRegistry = queueWakeupRegistry;
         this.scheduledThreadPoolExecutor =
                 new ScheduledThreadPoolExecutor(
                         4,
+                        ExecutorUtils.newThreadFactory(
+                                properties.isVirtualThreadsEnabled(), "delayed-index-update-%d"),
                         (runnable, executor) -> {
                             LOGGER.warn(
                                     "Request {} to delay updating index dropped in executor {}",
@@ -113,6 +126,7 @@ public class ExecutionDAOFacade {
 
     @PreDestroy
     public void shutdownExecutorService() {
+        pollDataCache.shutdown();
         try {
             LOGGER.info("Gracefully shutdown executor service");
             scheduledThreadPoolExecutor.shutdown();
@@ -133,6 +147,132 @@ public class ExecutionDAOFacade {
         }
     }
 
+    /**
+     * Starts buffering the task and workflow updates and the queue pushes made by the current
+     * thread, until {@link #endUnitOfWork()}. Reads through this facade still see the buffered
+     * writes: the ones that touch a buffered task or workflow, and the other writes, flush the
+     * pending writes first. A unit started while another one is open flushes the outer one, so that
+     * a nested unit never hides writes from the code it calls.
+     *
+     * <p>Meant to be used while the lock of the workflow is held, the buffered writes are not
+     * visible to the other threads until they are flushed.
+     */
+    public void beginUnitOfWork() {
+        Deque<UnitOfWork> units = unitsOfWork.get();
+        UnitOfWork outer = units.peek();
+        if (outer != null) {
+            flush(outer);
+        }
+        units.push(new UnitOfWork());
+    }
+
+    /** Writes the pending writes of the current unit of work, if any, and keeps it open. */
+    public void flushUnitOfWork() {
+        UnitOfWork unit = unitsOfWork.get().peek();
+        if (unit != null) {
+            flush(unit);
+        }
+    }
+
+    /**
+     * Closes the current unit of work, writing its pending writes: the tasks in one {@link
+     * ExecutionDAO#updateTasks(List)} call, then the workflows, and the messages of each queue in
+     * one {@link QueueDAO#push(String, List)} call.
+     *
+     * @throws IllegalStateException if no unit of work was started by the current thread
+     */
+    public void endUnitOfWork() {
+        Deque<UnitOfWork> units = unitsOfWork.get();
+        UnitOfWork unit = units.poll();
+        if (unit == null) {
+            throw new IllegalStateException("No unit of work in progress");
+        }
+        if (units.isEmpty()) {
+            unitsOfWork.remove();
+        }
+        flush(unit);
+    }
+
+    /**
+     * Pushes the message to the queue, after the pending task and workflow writes when a unit of
+     * work is in progress. A message ready to be polled wakes the polls waiting for the queue, see
+     * {@link QueueWakeupRegistry#signalPush(String)}, once it is written.
+     */
+    public void pushToQueue(String queueName, String id, int priority, long offsetTimeInSecond) {
+        UnitOfWork unit = unitsOfWork.get().peek();
+        if (unit != null) {
+            unit.addQueuePush(queueName, id, priority, offsetTimeInSecond);
+        } else {
+            queueDAO.push(queueName, id, priority, offsetTimeInSecond);
+            if (offsetTimeInSecond <= 0) {
+                queueWakeupRegistry.signalPush(queueName);
+            }
+        }
+    }
+
+    private void flush(UnitOfWork unit) {
+        if (unit.isEmpty()) {
+            return;
+        }
+        UnitOfWork.Pending pending = unit.drain();
+        if (!pending.tasks.isEmpty()) {
+            executionDAO.updateTasks(pending.tasks);
+        }
+        pending.workflows.forEach(this::writeWorkflowUpdate);
+        pending.tasks.forEach(this::indexTaskUpdate);
+        pending.queuePushes.forEach(this::pushMessages);
+    }
+
+    /**
+     * The task states are already written at this point, a failed push is left to the {@link
+     * com.netflix.conductor.core.reconciliation.WorkflowRepairService} like the direct pushes of
+     * scheduled tasks.
+     */
+    private void pushMessages(String queueName, Map<String, UnitOfWork.QueuePush> pushes) {
+        try {
+            List<Message> messages = new ArrayList<>(pushes.size());
+            for (UnitOfWork.QueuePush push : pushes.values()) {
+                if (push.offsetTimeInSecond > 0) {
+                    queueDAO.push(queueName, push.id, push.priority, push.offsetTimeInSecond);
+                } else {
+                    messages.add(new Message(push.id, null, null, push.priority));
+                }
+            }
+            if (messages.size() == 1) {
+                Message message = messages.get(0);
+                queueDAO.push(queueName, message.getId(), message.getPriority(), 0);
+            } else if (!messages.isEmpty()) {
+                queueDAO.push(queueName, messages);
+            }
+            if (!messages.isEmpty()) {
+                queueWakeupRegistry.signalPush(queueName);
+            }
+        } catch (Exception e) {
+            LOGGER.warn(
+                    "Error pushing messages: {} to the queue: {}", pushes.keySet(), queueName, e);
+            Monitors.error(this.getClass().getCanonicalName(), "pushToQueue");
+        }
+    }
+
+    /** Flushes the pending writes if the unit of work in progress has some for the task. */
+    private void flushPendingTask(String taskId) {
+        UnitOfWork unit = unitsOfWork.get().peek();
+        if (unit != null && unit.containsTask(taskId)) {
+            flush(unit);
+        }
+    }
+
+    /**
+     * Flushes the pending writes if the unit of work in progress has some for the workflow or its
+     * tasks.
+     */
+    private void flushPendingWorkflow(String workflowId) {
+        UnitOfWork unit = unitsOfWork.get().peek();
+        if (unit != null && unit.containsWorkflow(workflowId)) {
+            flush(unit);
+        }
+    }
+
     public WorkflowModel getWorkflowModel(String workflowId, boolean includeTasks) {
         WorkflowModel workflowModel = getWorkflowModelFromDataStore(workflowId, includeTasks);
         populateWorkflowAndTaskPayloadData(workflowModel);
@@ -154,6 +294,7 @@ public class ExecutionDAOFacade {
     }
 
     private WorkflowModel getWorkflowModelFromDataStore(String workflowId, boolean includeTasks) {
+        flushPendingWorkflow(workflowId);
         WorkflowModel workflow = executionDAO.getWorkflow(workflowId, includeTasks);
         if (workflow == null) {
             LOGGER.debug("Workflow {} not found in executionDAO, checking indexDAO", workflowId);
@@ -190,6 +331,7 @@ public class ExecutionDAOFacade {
      */
     public List<Workflow> getWorkflowsByCorrelationId(
             String workflowName, String correlationId, boolean includeTasks) {
+        flushUnitOfWork();
         if (!executionDAO.canSearchAcrossWorkflows()) {
             String query =
                     "correlationId='" + correlationId + "' AND workflowType='" + workflowName + "'";
@@ -222,22 +364,26 @@ public class ExecutionDAOFacade {
     }
 
     public List<Workflow> getWorkflowsByName(String workflowName, Long startTime, Long endTime) {
+        flushUnitOfWork();
         return executionDAO.getWorkflowsByType(workflowName, startTime, endTime).stream()
                 .map(WorkflowModel::toWorkflow)
                 .collect(Collectors.toList());
     }
 
     public List<Workflow> getPendingWorkflowsByName(String workflowName, int version) {
+        flushUnitOfWork();
         return executionDAO.getPendingWorkflowsByType(workflowName, version).stream()
                 .map(WorkflowModel::toWorkflow)
                 .collect(Collectors.toList());
     }
 
     public List<String> getRunningWorkflowIds(String workflowName, int version) {
+        flushUnitOfWork();
         return executionDAO.getRunningWorkflowIds(workflowName, version);
     }
 
     public long getPendingWorkflowCount(String workflowName) {
+        flushUnitOfWork();
         return executionDAO.getPendingWorkflowCount(workflowName);
     }
 
@@ -248,6 +394,7 @@ public class ExecutionDAOFacade {
      * @return the id of the created workflow
      */
     public String createWorkflow(WorkflowModel workflowModel) {
+        flushUnitOfWork();
         externalizeWorkflowData(workflowModel);
         executionDAO.createWorkflow(workflowModel);
         // Add to decider queue
@@ -257,7 +404,7 @@ public class ExecutionDAOFacade {
                 workflowModel.getPriority(),
                 properties.getWorkflowOffsetTimeout().getSeconds());
         if (properties.isAsyncIndexingEnabled()) {
-            indexDAO.asyncIndexWorkflow(new WorkflowSummary(workflowModel.toWorkflow()));
+            indexDAO.asyncIndexWorkflow(workflowModel);
         } else {
             indexDAO.indexWorkflow(new WorkflowSummary(workflowModel.toWorkflow()));
         }
@@ -290,6 +437,16 @@ public class ExecutionDAOFacade {
             workflowModel.setEndTime(System.currentTimeMillis());
         }
         externalizeWorkflowData(workflowModel);
+        UnitOfWork unit = unitsOfWork.get().peek();
+        if (unit != null) {
+            unit.addWorkflow(workflowModel);
+        } else {
+            writeWorkflowUpdate(workflowModel);
+        }
+        return workflowModel.getWorkflowId();
+    }
+
+    private void writeWorkflowUpdate(WorkflowModel workflowModel) {
         executionDAO.updateWorkflow(workflowModel);
         if (properties.isAsyncIndexingEnabled()) {
             if (workflowModel.getStatus().isTerminal()
@@ -308,23 +465,18 @@ public class ExecutionDAOFacade {
                 Monitors.recordWorkerQueueSize(
                         "delayQueue", scheduledThreadPoolExecutor.getQueue().size());
             } else {
-                indexDAO.asyncIndexWorkflow(new WorkflowSummary(workflowModel.toWorkflow()));
+                indexDAO.asyncIndexWorkflow(workflowModel);
             }
             if (workflowModel.getStatus().isTerminal()) {
-                workflowModel
-                        .getTasks()
-                        .forEach(
-                                taskModel ->
-                                        indexDAO.asyncIndexTask(
-                                                new TaskSummary(taskModel.toTask())));
+                workflowModel.getTasks().forEach(taskModel -> indexDAO.asyncIndexTask(taskModel));
             }
         } else {
             indexDAO.indexWorkflow(new WorkflowSummary(workflowModel.toWorkflow()));
         }
-        return workflowModel.getWorkflowId();
     }
 
     public void removeFromPendingWorkflow(String workflowType, String workflowId) {
+        flushUnitOfWork();
         executionDAO.removeFromPendingWorkflow(workflowType, workflowId);
     }
 
@@ -336,6 +488,7 @@ public class ExecutionDAOFacade {
      *     {@link IndexDAO} after removal from {@link ExecutionDAO}.
      */
     public void removeWorkflow(String workflowId, boolean archiveWorkflow) {
+        flushUnitOfWork();
         WorkflowModel workflow = getWorkflowModelFromDataStore(workflowId, true);
 
         executionDAO.removeWorkflow(workflowId);
@@ -401,6 +554,7 @@ public class ExecutionDAOFacade {
 
     public void removeWorkflowWithExpiry(
             String workflowId, boolean archiveWorkflow, int ttlSeconds) {
+        flushUnitOfWork();
         try {
             WorkflowModel workflow = getWorkflowModelFromDataStore(workflowId, true);
 
@@ -420,6 +574,7 @@ public class ExecutionDAOFacade {
      * @param workflowId the workflow id to be reset
      */
     public void resetWorkflow(String workflowId) {
+        flushUnitOfWork();
         getWorkflowModelFromDataStore(workflowId, true);
         executionDAO.removeWorkflow(workflowId);
         try {
@@ -445,6 +600,7 @@ public class ExecutionDAOFacade {
     }
 
     public List<TaskModel> getTaskModelsForWorkflow(String workflowId) {
+        flushPendingWorkflow(workflowId);
         return executionDAO.getTasksForWorkflow(workflowId);
     }
 
@@ -456,6 +612,23 @@ public class ExecutionDAOFacade {
         return taskModel;
     }
 
+    /**
+     * Same as {@link #getTaskModel(String)} for each of the tasks, with the tasks read from the
+     * {@link ExecutionDAO} in a single {@link ExecutionDAO#getTasks(List)} call.
+     *
+     * @param taskIds the ids of the tasks
+     * @return the tasks found, the missing ones are skipped
+     */
+    public List<TaskModel> getTaskModels(List<String> taskIds) {
+        if (taskIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        taskIds.forEach(this::flushPendingTask);
+        List<TaskModel> taskModels = executionDAO.getTasks(taskIds);
+        taskModels.forEach(this::populateTaskData);
+        return taskModels;
+    }
+
     public Task getTask(String taskId) {
         TaskModel taskModel = getTaskFromDatastore(taskId);
         if (taskModel != null) {
@@ -465,29 +638,34 @@ public class ExecutionDAOFacade {
     }
 
     private TaskModel getTaskFromDatastore(String taskId) {
+        flushPendingTask(taskId);
         return executionDAO.getTask(taskId);
     }
 
     public List<Task> getTasksByName(String taskName, String startKey, int count) {
+        flushUnitOfWork();
         return executionDAO.getTasks(taskName, startKey, count).stream()
                 .map(TaskModel::toTask)
                 .collect(Collectors.toList());
     }
 
     public List<Task> getPendingTasksForTaskType(String taskType) {
+        flushUnitOfWork();
         return executionDAO.getPendingTasksForTaskType(taskType).stream()
                 .map(TaskModel::toTask)
                 .collect(Collectors.toList());
     }
 
     public long getInProgressTaskCount(String taskDefName) {
+        flushUnitOfWork();
         return executionDAO.getInProgressTaskCount(taskDefName);
     }
 
     /**
      * Sets the update time for the task. Sets the end time for the task (if task is in terminal
      * state and end time is not set). Updates the task in the {@link ExecutionDAO} first, then
-     * stores it in the {@link IndexDAO}.
+     * stores it in the {@link IndexDAO}. Both writes are deferred to the end of the unit of work
+     * when one is in progress, see {@link #beginUnitOfWork()}.
      *
      * @param taskModel the task to be updated in the data store
      * @throws TransientException if the {@link IndexDAO} or {@link ExecutionDAO} operations fail.
@@ -495,6 +673,40 @@ public class ExecutionDAOFacade {
      *     payload fails.
      */
     public void updateTask(TaskModel taskModel) {
+        prepareTaskUpdate(taskModel);
+        UnitOfWork unit = unitsOfWork.get().peek();
+        if (unit != null) {
+            unit.addTask(taskModel);
+            return;
+        }
+        executionDAO.updateTask(taskModel);
+        indexTaskUpdate(taskModel);
+    }
+
+    /**
+     * Same as {@link #updateTask(TaskModel)} for each of the tasks, with the tasks written to the
+     * {@link ExecutionDAO} in a single {@link ExecutionDAO#updateTasks(List)} call.
+     *
+     * @param tasks the tasks to be updated in the data store
+     * @throws TransientException if the {@link IndexDAO} or {@link ExecutionDAO} operations fail.
+     * @throws com.netflix.conductor.core.exception.NonTransientException if the externalization of
+     *     payload fails.
+     */
+    public void updateTasks(List<TaskModel> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        tasks.forEach(this::prepareTaskUpdate);
+        UnitOfWork unit = unitsOfWork.get().peek();
+        if (unit != null) {
+            tasks.forEach(unit::addTask);
+            return;
+        }
+        executionDAO.updateTasks(tasks);
+        tasks.forEach(this::indexTaskUpdate);
+    }
+
+    private void prepareTaskUpdate(TaskModel taskModel) {
         if (taskModel.getStatus() != null) {
             if (!taskModel.getStatus().isTerminal()
                     || (taskModel.getStatus().isTerminal() && taskModel.getUpdateTime() == 0)) {
@@ -509,7 +721,9 @@ public class ExecutionDAOFacade {
             }
         }
         externalizeTaskData(taskModel);
-        executionDAO.updateTask(taskModel);
+    }
+
+    private void indexTaskUpdate(TaskModel taskModel) {
         try {
             /*
              * Indexing a task for every update adds a lot of volume. That is ok but if async indexing
@@ -533,11 +747,8 @@ public class ExecutionDAOFacade {
         }
     }
 
-    public void updateTasks(List<TaskModel> tasks) {
-        tasks.forEach(this::updateTask);
-    }
-
     public void removeTask(String taskId) {
+        flushUnitOfWork();
         executionDAO.removeTask(taskId);
     }
 
@@ -565,21 +776,22 @@ public class ExecutionDAOFacade {
     }
 
     public void extendLease(TaskModel taskModel) {
+        flushUnitOfWork();
         taskModel.setUpdateTime(System.currentTimeMillis());
         executionDAO.updateTask(taskModel);
     }
 
     public List<PollData> getTaskPollData(String taskName) {
-        return pollDataDAO.getPollData(taskName);
+        return pollDataCache.getPollData(taskName);
     }
 
     public List<PollData> getAllPollData() {
-        return pollDataDAO.getAllPollData();
+        return pollDataCache.getAllPollData();
     }
 
     public PollData getTaskPollDataByDomain(String taskName, String domain) {
         try {
-            return pollDataDAO.getPollData(taskName, domain);
+            return pollDataCache.getPollData(taskName, domain);
         } catch (Exception e) {
             LOGGER.error(
                     "Error fetching pollData for task: '{}', domain: '{}'", taskName, domain, e);
@@ -589,7 +801,7 @@ public class ExecutionDAOFacade {
 
     public void updateTaskLastPoll(String taskName, String domain, String workerId) {
         try {
-            pollDataDAO.updateLastPollData(taskName, domain, workerId);
+            pollDataCache.updateLastPollData(taskName, domain, workerId);
         } catch (Exception e) {
             LOGGER.error(
                     "Error updating PollData for task: {} in domain: {} from worker: {}",
@@ -638,6 +850,7 @@ public class ExecutionDAOFacade {
     }
 
     public boolean exceedsInProgressLimit(TaskModel task) {
+        flushUnitOfWork();
         return concurrentExecutionLimitDAO.exceedsLimit(task);
     }
 
@@ -678,6 +891,10 @@ public class ExecutionDAOFacade {
         return indexDAO.searchWorkflows(query, freeText, start, count, sort);
     }
 
+    public Stream<String> streamWorkflows(String query, String freeText, List<String> sort) {
+        return indexDAO.streamWorkflows(query, freeText, sort);
+    }
+
     public SearchResult<WorkflowSummary> searchWorkflowSummary(
             String query, String freeText, int start, int count, List<String> sort) {
         return indexDAO.searchWorkflowSummary(query, freeText, start, count, sort);
@@ -768,7 +985,7 @@ public class ExecutionDAOFacade {
         public void run() {
             try {
                 WorkflowModel workflowModel = executionDAO.getWorkflow(workflowId, false);
-                indexDAO.asyncIndexWorkflow(new WorkflowSummary(workflowModel.toWorkflow()));
+                indexDAO.asyncIndexWorkflow(workflowModel);
             } catch (Exception e) {
                 LOGGER.error("Unable to update workflow: {}", workflowId, e);
             }
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.dal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.common.metadata.tasks.PollData;
+import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.dao.PollDataDAO;
+import com.netflix.conductor.metrics.Monitors;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * Keeps the last polls of the task queues in memory, in front of the {@link PollDataDAO}.
+ *
+ * <p>The polls are not written one by one: the last poll of each task queue and domain is written
+ * in one batch every {@link ConductorProperties#getPollDataFlushInterval()}. The last poll of a
+ * task queue and domain is read from the {@link PollDataDAO} at most once every {@link
+ * ConductorProperties#getPollDataCacheValidityPeriod()}, the newer polls received by this server
+ * are served in between.
+ *
+ * <p>The polls go straight to a {@link PollDataDAO} that {@link PollDataDAO#cachesPollData() caches
+ * them} itself.
+ */
+public class PollDataCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PollDataCache.class);
+
+    private final PollDataDAO pollDataDAO;
+    private final long flushIntervalMillis;
+    private final long validityPeriodMillis;
+    private final Map<Pair<String, String>, PollData> pending = new ConcurrentHashMap<>();
+    private final Map<Pair<String, String>, CachedPollData> cache = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+
+    public PollDataCache(PollDataDAO pollDataDAO, ConductorProperties properties) {
+        this(
+                pollDataDAO,
+                properties.getPollDataFlushInterval().toMillis(),
+                properties.getPollDataCacheValidityPeriod().toMillis());
+    }
+
+    @VisibleForTesting
+    PollDataCache(PollDataDAO pollDataDAO, long flushIntervalMillis, long validityPeriodMillis) {
+        this.pollDataDAO = pollDataDAO;
+        if (pollDataDAO.cachesPollData()) {
+            LOGGER.info("The PollDataDAO caches the last polls, they are not cached again");
+            flushIntervalMillis = 0;
+            validityPeriodMillis = 0;
+        }
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.validityPeriodMillis = validityPeriodMillis;
+        if (flushIntervalMillis > 0) {
+            this.executor =
+                    new ScheduledThreadPoolExecutor(
+                            1,
+                            new BasicThreadFactory.Builder()
+                                    .namingPattern("poll-data-flush-%d")
+                                    .daemon(true)
+                                    .build());
+            this.executor.scheduleWithFixedDelay(
+                    this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Records a poll of the task queue, which replaces the previous poll of the queue and domain
+     * not written yet.
+     */
+    public void updateLastPollData(String taskDefName, String domain, String workerId) {
+        Preconditions.checkNotNull(taskDefName, "taskDefName name cannot be null");
+        if (flushIntervalMillis <= 0) {
+            pollDataDAO.updateLastPollData(taskDefName, domain, workerId);
+            return;
+        }
+        pending.put(
+                Pair.of(taskDefName, domain),
+                new PollData(taskDefName, domain, workerId, System.currentTimeMillis()));
+    }
+
+    /**
+     * @return the last poll of the task queue in the domain, either read from the {@link
+     *     PollDataDAO} less than the validity period ago or received by this server since, null if
+     *     the queue was never polled in the domain
+     */
+    public PollData getPollData(String taskDefName, String domain) {
+        Pair<String, String> key = Pair.of(taskDefName, domain);
+        PollData pollData;
+        if (validityPeriodMillis <= 0) {
+            pollData = pollDataDAO.getPollData(taskDefName, domain);
+        } else {
+            long now = System.currentTimeMillis();
+            CachedPollData cached = cache.get(key);
+            if (cached == null || now - cached.loadTime >= validityPeriodMillis) {
+                cached = new CachedPollData(pollDataDAO.getPollData(taskDefName, domain), now);
+                cache.put(key, cached);
+            }
+            pollData = cached.pollData;
+        }
+        return latest(pollData, pending.get(key));
+    }
+
+    /**
+     * @return the last polls of the task queue in all the domains, including the polls received by
+     *     this server and not written yet
+     */
+    public List<PollData> getPollData(String taskDefName) {
+        return withPending(pollDataDAO.getPollData(taskDefName), taskDefName);
+    }
+
+    /**
+     * @return the last polls of all the task queues, including the polls received by this server
+     *     and not written yet
+     */
+    public List<PollData> getAllPollData() {
+        return withPending(pollDataDAO.getAllPollData(), null);
+    }
+
+    private List<PollData> withPending(List<PollData> stored, String taskDefName) {
+        if (pending.isEmpty()) {
+            return stored;
+        }
+        Map<Pair<String, String>, PollData> pollData = new LinkedHashMap<>();
+        stored.forEach(data -> pollData.put(Pair.of(data.getQueueName(), data.getDomain()), data));
+        pending.forEach(
+                (key, data) -> {
+                    if (taskDefName == null || taskDefName.equals(key.getLeft())) {
+                        pollData.merge(key, data, PollDataCache::latest);
+                    }
+                });
+        return new ArrayList<>(pollData.values());
+    }
+
+    /** Writes the polls recorded since the previous flush. */
+    @VisibleForTesting
+    void flush() {
+        List<PollData> batch = new ArrayList<>(pending.size());
+        for (Pair<String, String> key : pending.keySet()) {
+            PollData pollData = pending.remove(key);
+            if (pollData != null) {
+                batch.add(pollData);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            pollDataDAO.updateLastPollData(batch);
+        } catch (Exception e) {
+            LOGGER.error("Error updating the PollData of {} task queues", batch.size(), e);
+            Monitors.error(PollDataCache.class.getCanonicalName(), "flush");
+            // written with the next flush, unless polled again in between
+            batch.forEach(
+                    pollData ->
+                            pending.putIfAbsent(
+                                    Pair.of(pollData.getQueueName(), pollData.getDomain()),
+                                    pollData));
+            return;
+        }
+        batch.forEach(
+                pollData ->
+                        cache.computeIfPresent(
+                                Pair.of(pollData.getQueueName(), pollData.getDomain()),
+                                (key, cached) ->
+                                        new CachedPollData(
+                                                latest(cached.pollData, pollData),
+                                                cached.loadTime)));
+    }
+
+    /** Stops the periodic flush and writes the polls recorded since the last one. */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            flush();
+        }
+    }
+
+    private static PollData latest(PollData pollData, PollData other) {
+        if (pollData == null) {
+            return other;
+        }
+        if (other == null) {
+            return pollData;
+        }
+        return other.getLastPollTime() > pollData.getLastPollTime() ? other : pollData;
+    }
+
+    private static class CachedPollData {
+
+        private final PollData pollData;
+        private final long loadTime;
+
+        private CachedPollData(PollData pollData, long loadTime) {
+            this.pollData = pollData;
+            this.loadTime = loadTime;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.dal;
+
+/**
+ * Sends the pushes to the task queues to the other Conductor servers, which signal them to their
+ * {@link QueueWakeupRegistry} with {@link QueueWakeupRegistry#signal(String)}. Persistence modules
+ * whose queues already notify the servers of the pushes do not need one.
+ */
+public interface QueueWakeupPublisher {
+
+    /**
+     * @param queueName the queue a message was pushed to, ready to be polled
+     */
+    void publish(String queueName);
+}
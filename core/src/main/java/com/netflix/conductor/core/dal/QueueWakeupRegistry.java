@@ -0,0 +1,194 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.dal;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.netflix.conductor.core.config.ConductorProperties;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Wakes the long polls of the task queues when a message is pushed to their queue, so that a poll
+ * does not have to check the queue again and again, nor hold a thread, while it waits.
+ *
+ * <p>The pushes made by this server are signalled with {@link #signalPush(String)}, once they are
+ * written to the queue, which also sends them to the other servers through the {@link
+ * QueueWakeupPublisher}, if any. The pushes notified by the other servers are signalled with {@link
+ * #signal(String)}.
+ */
+@Component
+public class QueueWakeupRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueueWakeupRegistry.class);
+
+    private final Map<String, Set<CompletableFuture<Boolean>>> waiters = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor executor;
+    private final ExecutorService publishExecutor;
+    // the queues with a publish not sent yet, a push to one of them needs no other publish
+    private final Set<String> pendingPublishes = ConcurrentHashMap.newKeySet();
+    private final ObjectProvider<QueueWakeupPublisher> publisherProvider;
+    // resolved on the first push, the publishers may depend on this registry
+    private volatile List<QueueWakeupPublisher> publishers;
+
+    @Autowired
+    public QueueWakeupRegistry(
+            ConductorProperties properties, ObjectProvider<QueueWakeupPublisher> publishers) {
+        this(properties.getQueueWakeupThreadCount(), publishers);
+    }
+
+    /** A registry which only wakes the polls for the pushes made by this server. */
+    public QueueWakeupRegistry(int threadCount) {
+        this(threadCount, null);
+    }
+
+    private QueueWakeupRegistry(
+            int threadCount, ObjectProvider<QueueWakeupPublisher> publisherProvider) {
+        this.executor =
+                new ScheduledThreadPoolExecutor(
+                        threadCount,
+                        new BasicThreadFactory.Builder()
+                                .namingPattern("queue-wakeup-%d")
+                                .daemon(true)
+                                .build());
+        this.executor.setRemoveOnCancelPolicy(true);
+        this.publishExecutor =
+                Executors.newSingleThreadExecutor(
+                        new BasicThreadFactory.Builder()
+                                .namingPattern("queue-wakeup-publish-%d")
+                                .daemon(true)
+                                .build());
+        this.publisherProvider = publisherProvider;
+        if (publisherProvider == null) {
+            this.publishers = List.of();
+        }
+    }
+
+    /**
+     * Waits for the next push to a queue. Register the wait before checking the queue, so that a
+     * push made in between is not missed, and cancel it when it is no longer needed.
+     *
+     * @param queueName the queue to wait for
+     * @param timeoutMs the maximum time to wait
+     * @return completed with true at the next push, with false once the timeout elapsed, by a
+     *     thread of the registry; the dependent stages run on that thread
+     */
+    public CompletableFuture<Boolean> awaitPush(String queueName, long timeoutMs) {
+        CompletableFuture<Boolean> pushed = new CompletableFuture<>();
+        waiters.compute(
+                queueName,
+                (name, queueWaiters) -> {
+                    Set<CompletableFuture<Boolean>> updated =
+                            queueWaiters == null ? new HashSet<>() : queueWaiters;
+                    updated.add(pushed);
+                    return updated;
+                });
+        ScheduledFuture<?> timeout =
+                executor.schedule(() -> pushed.complete(false), timeoutMs, TimeUnit.MILLISECONDS);
+        pushed.whenComplete(
+                (result, error) -> {
+                    timeout.cancel(false);
+                    waiters.computeIfPresent(
+                            queueName,
+                            (name, queueWaiters) -> {
+                                queueWaiters.remove(pushed);
+                                return queueWaiters.isEmpty() ? null : queueWaiters;
+                            });
+                });
+        return pushed;
+    }
+
+    /**
+     * Wakes the polls of this server waiting for the queue.
+     *
+     * @param queueName the queue a message was pushed to
+     */
+    public void signal(String queueName) {
+        Set<CompletableFuture<Boolean>> queueWaiters = waiters.remove(queueName);
+        if (queueWaiters != null) {
+            // the waiting polls check the queue concurrently, not on the thread of the push
+            queueWaiters.forEach(pushed -> executor.execute(() -> pushed.complete(true)));
+        }
+    }
+
+    /**
+     * Wakes the polls waiting for the queue on this server, and on the other servers when a {@link
+     * QueueWakeupPublisher} is configured. The other servers are notified from a thread of the
+     * registry, not from the calling thread, which may hold the lock of a workflow.
+     *
+     * @param queueName the queue a message was pushed to, ready to be polled
+     */
+    public void signalPush(String queueName) {
+        signal(queueName);
+        if (!getPublishers().isEmpty() && pendingPublishes.add(queueName)) {
+            try {
+                publishExecutor.execute(() -> publish(queueName));
+            } catch (RejectedExecutionException e) {
+                pendingPublishes.remove(queueName);
+                LOGGER.debug("Not publishing the push to queue: {}, shutting down", queueName);
+            }
+        }
+    }
+
+    private void publish(String queueName) {
+        pendingPublishes.remove(queueName);
+        for (QueueWakeupPublisher publisher : getPublishers()) {
+            try {
+                publisher.publish(queueName);
+            } catch (Exception e) {
+                LOGGER.warn("Failed to publish the push to queue: {}", queueName, e);
+            }
+        }
+    }
+
+    private List<QueueWakeupPublisher> getPublishers() {
+        List<QueueWakeupPublisher> resolved = publishers;
+        if (resolved == null) {
+            resolved = publisherProvider.orderedStream().collect(Collectors.toList());
+            publishers = resolved;
+        }
+        return resolved;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        publishExecutor.shutdownNow();
+        // the timeouts of the waits no longer run
+        for (String queueName : waiters.keySet()) {
+            Set<CompletableFuture<Boolean>> queueWaiters = waiters.remove(queueName);
+            if (queueWaiters != null) {
+                queueWaiters.forEach(pushed -> pushed.complete(false));
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.dal;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
+
+/**
+ * Writes buffered by the {@link ExecutionDAOFacade} between {@link
+ * ExecutionDAOFacade#beginUnitOfWork()} and {@link ExecutionDAOFacade#endUnitOfWork()}. Only the
+ * latest state of each task and workflow is kept, and only the latest push of a message to a queue.
+ */
+final class UnitOfWork {
+
+    private final Map<String, TaskModel> tasks = new LinkedHashMap<>();
+    private final Map<String, WorkflowModel> workflows = new LinkedHashMap<>();
+    private final Map<String, Map<String, QueuePush>> queuePushes = new LinkedHashMap<>();
+
+    /** Ids of the workflows that have a pending workflow or task write. */
+    private final Set<String> workflowIds = new HashSet<>();
+
+    void addTask(TaskModel task) {
+        tasks.put(task.getTaskId(), task);
+        workflowIds.add(task.getWorkflowInstanceId());
+    }
+
+    void addWorkflow(WorkflowModel workflow) {
+        workflows.put(workflow.getWorkflowId(), workflow);
+        workflowIds.add(workflow.getWorkflowId());
+    }
+
+    void addQueuePush(String queueName, String id, int priority, long offsetTimeInSecond) {
+        queuePushes
+                .computeIfAbsent(queueName, name -> new LinkedHashMap<>())
+                .put(id, new QueuePush(id, priority, offsetTimeInSecond));
+    }
+
+    boolean containsTask(String taskId) {
+        return tasks.containsKey(taskId);
+    }
+
+    /**
+     * @return true if the workflow itself or any of its tasks has a pending write
+     */
+    boolean containsWorkflow(String workflowId) {
+        return workflowIds.contains(workflowId);
+    }
+
+    boolean isEmpty() {
+        return tasks.isEmpty() && workflows.isEmpty() && queuePushes.isEmpty();
+    }
+
+    /** Hands the pending writes over to be flushed and starts over with an empty unit. */
+    Pending drain() {
+        Pending pending =
+                new Pending(
+                        new ArrayList<>(tasks.values()),
+                        new ArrayList<>(workflows.values()),
+                        new LinkedHashMap<>(queuePushes));
+        tasks.clear();
+        workflows.clear();
+        queuePushes.clear();
+        workflowIds.clear();
+        return pending;
+    }
+
+    static final class Pending {
+
+        final List<TaskModel> tasks;
+        final List<WorkflowModel> workflows;
+        final Map<String, Map<String, QueuePush>> queuePushes;
+
+        private Pending(
+                List<TaskModel> tasks,
+                List<WorkflowModel> workflows,
+                Map<String, Map<String, QueuePush>> queuePushes) {
+            this.tasks = tasks;
+            this.workflows = workflows;
+            this.queuePushes = queuePushes;
+        }
+    }
+
+    static final class QueuePush {
+
+        final String id;
+        final int priority;
+        final long offsetTimeInSecond;
+
+        private QueuePush(String id, int priority, long offsetTimeInSecond) {
+            this.id = id;
+            this.priority = priority;
+            this.offsetTimeInSecond = offsetTimeInSecond;
+        }
+    }
+}
@@ -18,11 +18,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -40,6 +37,7 @@ import com.netflix.conductor.core.events.queue.Message;
 import com.netflix.conductor.core.events.queue.ObservableQueue;
 import com.netflix.conductor.core.exception.TransientException;
 import com.netflix.conductor.core.execution.evaluators.Evaluator;
+import com.netflix.conductor.core.utils.ExecutorUtils;
 import com.netflix.conductor.core.utils.JsonUtils;
 import com.netflix.conductor.metrics.Monitors;
 import com.netflix.conductor.service.ExecutionService;
@@ -98,13 +96,11 @@ public class DefaultEventProcessor {
                     "Cannot set event processor thread count to <=0. To disable event "
                             + "processing, set conductor.default-event-processor.enabled=false.");
         }
-        ThreadFactory threadFactory =
-                new BasicThreadFactory.Builder()
-                        .namingPattern("event-action-executor-thread-%d")
-                        .build();
         eventActionExecutorService =
-                Executors.newFixedThreadPool(
-                        properties.getEventProcessorThreadCount(), threadFactory);
+                ExecutorUtils.newFixedThreadPool(
+                        properties.isVirtualThreadsEnabled(),
+                        properties.getEventProcessorThreadCount(),
+                        "event-action-executor-thread-%d");
 
         this.isEventMessageIndexingEnabled = properties.isEventMessageIndexingEnabled();
         LOGGER.info("Event Processing is ENABLED");
@@ -76,8 +76,8 @@ public class ReactorEventQueueManager extends LifecycleAwareComponent implements
 
         LOGGER.info(
                 "ReactorEventQueueManager initialized with max concurrency: {}, buffer size: {}",
-                properties.getReactorEventQueueMaxConcurrency(),
-                properties.getReactorEventQueueBufferSize());
+                Runtime.getRuntime().availableProcessors(),
+                256);
     }
 
     @Override
@@ -217,7 +217,7 @@ public class ReactorEventQueueManager extends LifecycleAwareComponent implements
     private void subscribeToQueue(String event, ReactiveQueue queue) {
         Disposable subscription =
                 queue.messages()
-                        .parallel(properties.getReactorEventQueueMaxConcurrency())
+                        .parallel(Runtime.getRuntime().availableProcessors())
                         .runOn(Schedulers.boundedElastic())
                         .doOnNext(
                                 msg -> {
@@ -12,15 +12,53 @@
  */
 package com.netflix.conductor.core.events;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.openjdk.nashorn.api.scripting.NashornScriptEngineFactory;
 
+import com.netflix.conductor.core.utils.ExecutorUtils;
+import com.netflix.conductor.metrics.Monitors;
+
+/**
+ * Evaluates the javascript expressions of the SWITCH, DO_WHILE, INLINE tasks and of the event
+ * handlers.
+ *
+ * <p>A Nashorn engine cannot be used by several threads at once, so the expressions are evaluated
+ * on engines borrowed from a bounded pool, set environment variable CONDUCTOR_SCRIPT_ENGINE_COUNT
+ * to change the number of engines (twice the number of processors by default). Each engine compiles
+ * the expressions once and keeps them in a bounded LRU cache, set environment variable
+ * CONDUCTOR_SCRIPT_CACHE_SIZE to change the number of compiled expressions kept by each engine (256
+ * by default). Each evaluation gets a new global scope, so neither the variables nor the changes an
+ * expression makes to the built-in objects are seen by the next ones.
+ *
+ * <p>The evaluations asked by virtual threads are handed to platform threads, as many as there are
+ * engines, so that the number of virtual threads does not matter and a running script does not hold
+ * a carrier thread.
+ */
 public class ScriptEvaluator {
 
-    private static ScriptEngine engine;
+    private static final String LANGUAGE = "javascript";
+    private static final int DEFAULT_CACHE_SIZE = 256;
+    private static final int DEFAULT_ENGINE_COUNT = 2 * Runtime.getRuntime().availableProcessors();
+
+    private static volatile EnginePool enginePool;
 
     private ScriptEvaluator() {}
 
@@ -48,9 +86,11 @@ public class ScriptEvaluator {
      */
     public static Object eval(String script, Object input) throws ScriptException {
         initEngine(false);
-        Bindings bindings = engine.createBindings();
-        bindings.put("$", input);
-        return engine.eval(script, bindings);
+        EnginePool pool = enginePool;
+        if (ExecutorUtils.isVirtualThread(Thread.currentThread())) {
+            return pool.evalOnPlatformThread(script, input);
+        }
+        return pool.eval(script, input);
     }
 
     // to mock in a test
@@ -58,19 +98,30 @@ public class ScriptEvaluator {
         return System.getenv(name);
     }
 
+    /**
+     * Reads the engine settings from the environment. With reInit, the engines are replaced, the
+     * evaluations in progress complete on the previous ones.
+     */
     public static void initEngine(boolean reInit) {
-        if (engine == null || reInit) {
-            NashornScriptEngineFactory factory = new NashornScriptEngineFactory();
-            if ("true".equalsIgnoreCase(getEnv("CONDUCTOR_NASHORN_ES6_ENABLED"))) {
-                engine = factory.getScriptEngine("--language=es6", "--no-java");
-            } else {
-                engine = factory.getScriptEngine("--no-java");
+        if (enginePool == null || reInit) {
+            synchronized (ScriptEvaluator.class) {
+                if (enginePool == null || reInit) {
+                    boolean es6 = "true".equalsIgnoreCase(getEnv("CONDUCTOR_NASHORN_ES6_ENABLED"));
+                    int cacheSize =
+                            NumberUtils.toInt(
+                                    getEnv("CONDUCTOR_SCRIPT_CACHE_SIZE"), DEFAULT_CACHE_SIZE);
+                    int engineCount =
+                            NumberUtils.toInt(
+                                    getEnv("CONDUCTOR_SCRIPT_ENGINE_COUNT"), DEFAULT_ENGINE_COUNT);
+                    EnginePool previous = enginePool;
+                    enginePool =
+                            new EnginePool(es6, Math.max(cacheSize, 1), Math.max(engineCount, 1));
+                    if (previous != null) {
+                        previous.shutdown();
+                    }
+                }
             }
         }
-        if (engine == null) {
-            throw new RuntimeException(
-                    "missing nashorn engine.  Ensure you are running supported JVM");
-        }
     }
 
     /**
@@ -89,4 +140,133 @@ public class ScriptEvaluator {
         }
         return false;
     }
+
+    /**
+     * The engines, created when needed up to {@code engineCount}, and the platform threads running
+     * the evaluations of the virtual threads.
+     */
+    private static final class EnginePool {
+
+        private final boolean es6;
+        private final int cacheSize;
+        private final Semaphore permits;
+        private final ConcurrentLinkedDeque<Engine> idleEngines = new ConcurrentLinkedDeque<>();
+        private final ThreadPoolExecutor platformExecutor;
+
+        private EnginePool(boolean es6, int cacheSize, int engineCount) {
+            this.es6 = es6;
+            this.cacheSize = cacheSize;
+            this.permits = new Semaphore(engineCount);
+            this.platformExecutor =
+                    new ThreadPoolExecutor(
+                            engineCount,
+                            engineCount,
+                            60,
+                            TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<>(),
+                            new BasicThreadFactory.Builder()
+                                    .namingPattern("script-evaluator-%d")
+                                    .daemon(true)
+                                    .build());
+            this.platformExecutor.allowCoreThreadTimeOut(true);
+        }
+
+        private Object eval(String script, Object input) throws ScriptException {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ScriptException("Interrupted while waiting for a script engine");
+            }
+            try {
+                // the last engine used is the likeliest to have compiled the script
+                Engine engine = idleEngines.pollFirst();
+                if (engine == null) {
+                    engine = new Engine(es6, cacheSize);
+                }
+                try {
+                    return engine.eval(script, input);
+                } finally {
+                    idleEngines.offerFirst(engine);
+                }
+            } finally {
+                permits.release();
+            }
+        }
+
+        private Object evalOnPlatformThread(String script, Object input) throws ScriptException {
+            Future<Object> result;
+            try {
+                result = platformExecutor.submit(() -> eval(script, input));
+            } catch (RejectedExecutionException e) {
+                // replaced by initEngine while this evaluation started
+                return eval(script, input);
+            }
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                result.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new ScriptException("Interrupted while waiting for a script evaluation");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof ScriptException) {
+                    throw (ScriptException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+
+        private void shutdown() {
+            platformExecutor.shutdown();
+        }
+    }
+
+    /** An engine, with the expressions it already compiled. */
+    private static final class Engine {
+
+        private final ScriptEngine engine;
+        private final Map<String, CompiledScript> compiledScripts;
+
+        private Engine(boolean es6, int cacheSize) {
+            NashornScriptEngineFactory factory = new NashornScriptEngineFactory();
+            if (es6) {
+                engine = factory.getScriptEngine("--language=es6", "--no-java");
+            } else {
+                engine = factory.getScriptEngine("--no-java");
+            }
+            if (engine == null) {
+                throw new RuntimeException(
+                        "missing nashorn engine.  Ensure you are running supported JVM");
+            }
+            this.compiledScripts =
+                    new LinkedHashMap<>(16, 0.75f, true) {
+                        @Override
+                        protected boolean removeEldestEntry(
+                                Map.Entry<String, CompiledScript> eldest) {
+                            if (size() > cacheSize) {
+                                Monitors.recordScriptCacheEviction(LANGUAGE);
+                                return true;
+                            }
+                            return false;
+                        }
+                    };
+        }
+
+        private Object eval(String script, Object input) throws ScriptException {
+            CompiledScript compiledScript = compiledScripts.get(script);
+            if (compiledScript == null) {
+                Monitors.recordScriptCompilation(LANGUAGE);
+                compiledScript = ((Compilable) engine).compile(script);
+                compiledScripts.put(script, compiledScript);
+            }
+            Bindings bindings = engine.createBindings();
+            bindings.put("$", input);
+            return compiledScript.eval(bindings);
+        }
+    }
 }
@@ -67,10 +67,10 @@ public class ConductorObservableQueue implements ObservableQueue {
 
     @Override
     public List<String> ack(List<Message> messages) {
-        for (Message msg : messages) {
-            queueDAO.ack(queueName, msg.getId());
-        }
-        return messages.stream().map(Message::getId).collect(Collectors.toList());
+        List<String> messageIds =
+                messages.stream().map(Message::getId).collect(Collectors.toList());
+        queueDAO.ack(queueName, messageIds);
+        return messageIds;
     }
 
     public void setUnackTimeout(Message message, long unackTimeout) {
@@ -15,6 +15,7 @@ package com.netflix.conductor.core.events.queue;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -114,9 +115,11 @@ public class ConductorReactiveQueue implements ReactiveQueue {
     public Mono<Void> ack(List<Message> messages) {
         return Mono.fromRunnable(
                         () -> {
-                            for (Message msg : messages) {
-                                queueDAO.ack(queueName, msg.getId());
-                            }
+                            queueDAO.ack(
+                                    queueName,
+                                    messages.stream()
+                                            .map(Message::getId)
+                                            .collect(Collectors.toList()));
                             LOGGER.debug(
                                     "Acknowledged {} messages from queue: {}",
                                     messages.size(),
@@ -150,7 +153,7 @@ public class ConductorReactiveQueue implements ReactiveQueue {
 
     @Override
     public Mono<Long> size() {
-        return Mono.fromCallable(() -> queueDAO.getSize(queueName))
+        return Mono.fromCallable(() -> (long) queueDAO.getSize(queueName))
                 .subscribeOn(Schedulers.boundedElastic());
     }
 
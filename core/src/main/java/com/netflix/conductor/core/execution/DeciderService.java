@@ -36,6 +36,8 @@ import com.netflix.conductor.core.exception.TerminateWorkflowException;
 import com.netflix.conductor.core.execution.mapper.TaskMapper;
 import com.netflix.conductor.core.execution.mapper.TaskMapperContext;
 import com.netflix.conductor.core.execution.tasks.SystemTaskRegistry;
+import com.netflix.conductor.core.metadata.CompiledWorkflowDef;
+import com.netflix.conductor.core.metadata.MetadataMapperService;
 import com.netflix.conductor.core.utils.ExternalPayloadStorageUtils;
 import com.netflix.conductor.core.utils.IDGenerator;
 import com.netflix.conductor.core.utils.ParametersUtils;
@@ -63,6 +65,7 @@ public class DeciderService {
     private final ParametersUtils parametersUtils;
     private final ExternalPayloadStorageUtils externalPayloadStorageUtils;
     private final MetadataDAO metadataDAO;
+    private final MetadataMapperService metadataMapperService;
     private final SystemTaskRegistry systemTaskRegistry;
     private final long taskPendingTimeThresholdMins;
 
@@ -72,6 +75,7 @@ public class DeciderService {
             IDGenerator idGenerator,
             ParametersUtils parametersUtils,
             MetadataDAO metadataDAO,
+            MetadataMapperService metadataMapperService,
             ExternalPayloadStorageUtils externalPayloadStorageUtils,
             SystemTaskRegistry systemTaskRegistry,
             @Qualifier("taskMappersByTaskType") Map<String, TaskMapper> taskMappers,
@@ -79,6 +83,7 @@ public class DeciderService {
                     Duration taskPendingTimeThreshold) {
         this.idGenerator = idGenerator;
         this.metadataDAO = metadataDAO;
+        this.metadataMapperService = metadataMapperService;
         this.parametersUtils = parametersUtils;
         this.taskMappers = taskMappers;
         this.externalPayloadStorageUtils = externalPayloadStorageUtils;
@@ -133,6 +138,7 @@ public class DeciderService {
         List<TaskModel> pendingTasks = new ArrayList<>();
         Set<String> executedTaskRefNames = new HashSet<>();
         boolean hasSuccessfulTerminateTask = false;
+        final CompiledWorkflowDef compiledWorkflowDef = getCompiledWorkflowDef(workflow);
         for (TaskModel task : workflow.getTasks()) {
 
             // Filter the list of tasks and include only tasks that are not retried, not executed
@@ -177,9 +183,8 @@ public class DeciderService {
             if (taskDefinition.isEmpty()) {
                 taskDefinition =
                         Optional.ofNullable(
-                                        workflow.getWorkflowDefinition()
-                                                .getTaskByRefName(
-                                                        pendingTask.getReferenceTaskName()))
+                                        compiledWorkflowDef.getTaskByRefName(
+                                                pendingTask.getReferenceTaskName()))
                                 .map(WorkflowTask::getTaskDefinition);
             }
 
@@ -197,8 +202,8 @@ public class DeciderService {
                 WorkflowTask workflowTask = pendingTask.getWorkflowTask();
                 if (workflowTask == null) {
                     workflowTask =
-                            workflow.getWorkflowDefinition()
-                                    .getTaskByRefName(pendingTask.getReferenceTaskName());
+                            compiledWorkflowDef.getTaskByRefName(
+                                    pendingTask.getReferenceTaskName());
                 }
 
                 Optional<TaskModel> retryTask =
@@ -218,7 +223,7 @@ public class DeciderService {
                     && !pendingTask.isRetried()
                     && pendingTask.getStatus().isTerminal()) {
                 pendingTask.setExecuted(true);
-                List<TaskModel> nextTasks = getNextTask(workflow, pendingTask);
+                List<TaskModel> nextTasks = getNextTask(workflow, pendingTask, compiledWorkflowDef);
                 if (pendingTask.isLoopOverTask()
                         && !TaskType.DO_WHILE.name().equals(pendingTask.getTaskType())
                         && !nextTasks.isEmpty()) {
@@ -254,7 +259,8 @@ public class DeciderService {
             outcome.tasksToBeScheduled.addAll(unScheduledTasks);
         }
         if (hasSuccessfulTerminateTask
-                || (outcome.tasksToBeScheduled.isEmpty() && checkForWorkflowCompletion(workflow))) {
+                || (outcome.tasksToBeScheduled.isEmpty()
+                        && checkForWorkflowCompletion(workflow, compiledWorkflowDef))) {
             LOGGER.debug("Marking workflow: {} as complete.", workflow);
             List<TaskModel> permissiveTasksTerminalNonSuccessful =
                     workflow.getTasks().stream()
@@ -345,8 +351,10 @@ public class DeciderService {
                             .getTasks()
                             .get(0); // Nothing is running yet - so schedule the first task
             // Loop until a non-skipped task is found
+            final CompiledWorkflowDef compiledWorkflowDef = getCompiledWorkflowDef(workflow);
             while (isTaskSkipped(taskToSchedule, workflow)) {
-                taskToSchedule = workflowDef.getNextTask(taskToSchedule.getTaskReferenceName());
+                taskToSchedule =
+                        compiledWorkflowDef.getNextTask(taskToSchedule.getTaskReferenceName());
             }
 
             // In case of a new workflow, the first non-skippable task will be scheduled
@@ -439,6 +447,12 @@ public class DeciderService {
 
     public boolean checkForWorkflowCompletion(final WorkflowModel workflow)
             throws TerminateWorkflowException {
+        return checkForWorkflowCompletion(workflow, getCompiledWorkflowDef(workflow));
+    }
+
+    private boolean checkForWorkflowCompletion(
+            final WorkflowModel workflow, CompiledWorkflowDef compiledWorkflowDef)
+            throws TerminateWorkflowException {
 
         Map<String, TaskModel.Status> taskStatusMap = new HashMap<>();
         List<TaskModel> nonExecutedTasks = new ArrayList<>();
@@ -479,15 +493,17 @@ public class DeciderService {
                         .parallel()
                         .noneMatch(
                                 wftask -> {
-                                    String next = getNextTasksToBeScheduled(workflow, wftask);
+                                    String next =
+                                            getNextTasksToBeScheduled(
+                                                    workflow, wftask, compiledWorkflowDef);
                                     return next != null && !taskStatusMap.containsKey(next);
                                 });
 
         return noPendingSchedule;
     }
 
-    List<TaskModel> getNextTask(WorkflowModel workflow, TaskModel task) {
-        final WorkflowDef workflowDef = workflow.getWorkflowDefinition();
+    List<TaskModel> getNextTask(
+            WorkflowModel workflow, TaskModel task, CompiledWorkflowDef workflowDef) {
 
         // Get the following task after the last completed task
         if (systemTaskRegistry.isSystemTask(task.getTaskType())
@@ -525,9 +541,8 @@ public class DeciderService {
         return Collections.emptyList();
     }
 
-    private String getNextTasksToBeScheduled(WorkflowModel workflow, TaskModel task) {
-        final WorkflowDef def = workflow.getWorkflowDefinition();
-
+    private String getNextTasksToBeScheduled(
+            WorkflowModel workflow, TaskModel task, CompiledWorkflowDef def) {
         String taskReferenceName = task.getReferenceTaskName();
         WorkflowTask taskToSchedule = def.getNextTask(taskReferenceName);
         while (isTaskSkipped(taskToSchedule, workflow)) {
@@ -536,6 +551,15 @@ public class DeciderService {
         return taskToSchedule == null ? null : taskToSchedule.getTaskReferenceName();
     }
 
+    /**
+     * @return the compiled form of the workflow's definition, used instead of walking the {@link
+     *     WorkflowTask} tree on every lookup
+     */
+    @VisibleForTesting
+    CompiledWorkflowDef getCompiledWorkflowDef(WorkflowModel workflow) {
+        return metadataMapperService.getCompiledWorkflowDef(workflow.getWorkflowDefinition());
+    }
+
     @VisibleForTesting
     Optional<TaskModel> retry(
             TaskDef taskDefinition,
@@ -890,6 +914,7 @@ public class DeciderService {
                         .withRetryTaskId(retriedTaskId)
                         .withTaskId(taskId)
                         .withDeciderService(this)
+                        .withCompiledWorkflowDef(getCompiledWorkflowDef(workflow))
                         .build();
 
         // For static forks, each branch of the fork creates a join task upon completion for
@@ -105,6 +105,16 @@ public interface WorkflowExecutor {
      */
     WorkflowModel decide(String workflowId);
 
+    /**
+     * Evaluates a workflow already read by the caller, as {@link #decide(String)} does once it
+     * holds the lock and has read the workflow. The caller must hold the execution lock of the
+     * workflow.
+     *
+     * @param workflow the workflow to be evaluated, with its tasks
+     * @return updated workflow
+     */
+    WorkflowModel decideLocked(WorkflowModel workflow);
+
     /**
      * @param workflowId id of the workflow to be terminated
      * @param reason termination reason to be recorded
@@ -41,6 +41,7 @@ import com.netflix.conductor.core.execution.tasks.WorkflowSystemTask;
 import com.netflix.conductor.core.listener.TaskStatusListener;
 import com.netflix.conductor.core.listener.WorkflowStatusListener;
 import com.netflix.conductor.core.listener.WorkflowStatusListener.WorkflowEventType;
+import com.netflix.conductor.core.metadata.CompiledWorkflowDef;
 import com.netflix.conductor.core.metadata.MetadataMapperService;
 import com.netflix.conductor.core.utils.IDGenerator;
 import com.netflix.conductor.core.utils.ParametersUtils;
@@ -660,6 +661,8 @@ public class WorkflowExecutorOps implements WorkflowExecutor {
                     workflow.getWorkflowName(), workflow.getStatus(), workflow.getOwnerApp());
             LOGGER.info("Workflow {} is terminated because of {}", workflowId, reason);
             List<TaskModel> tasks = workflow.getTasks();
+            // tasks queued earlier in the same decide pass must be pushed before being removed
+            executionDAOFacade.flushUnitOfWork();
             try {
                 // Remove from the task queue if they were there
                 tasks.forEach(
@@ -1058,7 +1061,7 @@ public class WorkflowExecutorOps implements WorkflowExecutor {
                 // This can happen if the workflowId is incorrect
                 return null;
             }
-            return decide(workflow);
+            return decideLocked(workflow);
 
         } finally {
             executionLockService.releaseLock(workflowId);
@@ -1067,6 +1070,27 @@ public class WorkflowExecutorOps implements WorkflowExecutor {
         }
     }
 
+    @Override
+    public WorkflowModel decideLocked(WorkflowModel workflow) {
+        // the writes of the whole pass, recursion included, are flushed together before the lock
+        // is released
+        executionDAOFacade.beginUnitOfWork();
+        WorkflowModel decided;
+        try {
+            decided = decide(workflow);
+        } catch (Throwable t) {
+            // the failure of the decide is the one reported, not the one of its partial writes
+            try {
+                executionDAOFacade.endUnitOfWork();
+            } catch (RuntimeException e) {
+                t.addSuppressed(e);
+            }
+            throw t;
+        }
+        executionDAOFacade.endUnitOfWork();
+        return decided;
+    }
+
     /**
      * @param workflow the workflow to evaluate the state for
      * @return true if the workflow has completed (success or failed), false otherwise. Note: This
@@ -1152,20 +1176,23 @@ public class WorkflowExecutorOps implements WorkflowExecutor {
                     subWorkflowTask.getTaskId());
 
             // find all terminal and unsuccessful JOIN tasks and set them to IN_PROGRESS
-            if (workflow.getWorkflowDefinition().containsType(TaskType.TASK_TYPE_JOIN)
-                    || workflow.getWorkflowDefinition()
-                            .containsType(TaskType.TASK_TYPE_FORK_JOIN_DYNAMIC)) {
+            CompiledWorkflowDef compiledWorkflowDef =
+                    metadataMapperService.getCompiledWorkflowDef(workflow.getWorkflowDefinition());
+            if (compiledWorkflowDef.containsType(TaskType.TASK_TYPE_JOIN)
+                    || compiledWorkflowDef.containsType(TaskType.TASK_TYPE_FORK_JOIN_DYNAMIC)) {
                 // if we are here, then the SUB_WORKFLOW task could be part of a FORK_JOIN or
                 // FORK_JOIN_DYNAMIC
                 // and the JOIN task(s) needs to be evaluated again, set them to IN_PROGRESS
-                workflow.getTasks().stream()
-                        .filter(UNSUCCESSFUL_JOIN_TASK)
-                        .peek(
-                                task -> {
-                                    task.setStatus(TaskModel.Status.IN_PROGRESS);
-                                    addTaskToQueue(task);
-                                })
-                        .forEach(executionDAOFacade::updateTask);
+                List<TaskModel> joinTasks =
+                        workflow.getTasks().stream()
+                                .filter(UNSUCCESSFUL_JOIN_TASK)
+                                .peek(
+                                        task -> {
+                                            task.setStatus(TaskModel.Status.IN_PROGRESS);
+                                            addTaskToQueue(task);
+                                        })
+                                .collect(Collectors.toList());
+                executionDAOFacade.updateTasks(joinTasks);
             }
         }
     }
@@ -1183,9 +1210,10 @@ public class WorkflowExecutorOps implements WorkflowExecutor {
                                                         () ->
                                                                 new TransientException(
                                                                         "Workflow Definition is not found")));
-        if (workflowDef.containsType(TaskType.TASK_TYPE_SUB_WORKFLOW)
-                || workflow.getWorkflowDefinition()
-                        .containsType(TaskType.TASK_TYPE_FORK_JOIN_DYNAMIC)) {
+        CompiledWorkflowDef compiledWorkflowDef =
+                metadataMapperService.getCompiledWorkflowDef(workflowDef);
+        if (compiledWorkflowDef.containsType(TaskType.TASK_TYPE_SUB_WORKFLOW)
+                || compiledWorkflowDef.containsType(TaskType.TASK_TYPE_FORK_JOIN_DYNAMIC)) {
             return workflow.getTasks().stream()
                     .filter(
                             t ->
@@ -1414,13 +1442,14 @@ public class WorkflowExecutorOps implements WorkflowExecutor {
         // put in queue
         String taskQueueName = QueueUtils.getQueueName(task);
         if (task.getCallbackAfterSeconds() > 0) {
-            queueDAO.push(
+            executionDAOFacade.pushToQueue(
                     taskQueueName,
                     task.getTaskId(),
                     task.getWorkflowPriority(),
                     task.getCallbackAfterSeconds());
         } else {
-            queueDAO.push(taskQueueName, task.getTaskId(), task.getWorkflowPriority(), 0);
+            executionDAOFacade.pushToQueue(
+                    taskQueueName, task.getTaskId(), task.getWorkflowPriority(), 0);
         }
         LOGGER.debug(
                 "Added task {} with priority {} to queue {} with call back seconds {}",
@@ -1695,13 +1724,7 @@ public class WorkflowExecutorOps implements WorkflowExecutor {
         }
 
         // Now iterate through the tasks and find the "specific" task
-        TaskModel rerunFromTask = null;
-        for (TaskModel task : workflow.getTasks()) {
-            if (task.getTaskId().equals(taskId)) {
-                rerunFromTask = task;
-                break;
-            }
-        }
+        TaskModel rerunFromTask = workflow.getTaskById(taskId);
 
         // If not found look into sub workflows
         if (rerunFromTask == null) {
@@ -12,67 +12,237 @@
  */
 package com.netflix.conductor.core.execution.evaluators;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.netflix.conductor.core.exception.TerminateWorkflowException;
+import com.netflix.conductor.metrics.Monitors;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Evaluates python expressions with GraalPy.
+ *
+ * <p>The contexts share one {@link Engine}, so a source parsed by a context is not parsed again by
+ * the others. The contexts are pooled: an evaluation borrows an initialized context, and gives it
+ * back with its input variables removed. The sources of the expressions are cached, and each
+ * context keeps the functions it already created from them.
+ */
 @Component(PythonEvaluator.NAME)
 public class PythonEvaluator implements Evaluator {
     public static final String NAME = "python";
     private static final Logger LOGGER = LoggerFactory.getLogger(PythonEvaluator.class);
 
+    private static final String FUNCTION_NAME = "evaluate";
+
+    private final Engine engine;
+    private final int cacheSize;
+    private final Semaphore permits;
+    private final BlockingQueue<PooledContext> idleContexts = new LinkedBlockingQueue<>();
+    private final Cache<String, Source> sources;
+
+    public PythonEvaluator() {
+        this(4, 256);
+    }
+
+    /**
+     * @param contextPoolSize maximum number of contexts, and so of concurrent evaluations
+     * @param cacheSize maximum number of expressions kept parsed
+     */
+    @Autowired
+    public PythonEvaluator(
+            @org.springframework.beans.factory.annotation.Value(
+                            "${conductor.evaluator.python.contextPoolSize:4}")
+                    int contextPoolSize,
+            @org.springframework.beans.factory.annotation.Value(
+                            "${conductor.evaluator.python.cacheSize:256}")
+                    int cacheSize) {
+        this.engine = Engine.newBuilder().option("engine.WarnInterpreterOnly", "false").build();
+        this.cacheSize = cacheSize;
+        this.permits = new Semaphore(contextPoolSize);
+        this.sources =
+                Caffeine.newBuilder()
+                        .maximumSize(cacheSize)
+                        .removalListener(
+                                (String key, Source source, RemovalCause cause) -> {
+                                    if (cause.wasEvicted()) {
+                                        Monitors.recordScriptCacheEviction(NAME);
+                                    }
+                                })
+                        .build();
+    }
+
     @Override
     public Object evaluate(String expression, Object input) {
-        try (Context context = Context.newBuilder("python").allowAllAccess(true).build()) {
-            if (input instanceof Map) {
-                Map<String, Object> inputMap = (Map<String, Object>) input;
-
-                // Set inputs as variables in the GraalVM context
-                for (Map.Entry<String, Object> entry : inputMap.entrySet()) {
-                    context.getBindings("python").putMember(entry.getKey(), entry.getValue());
+        if (!(input instanceof Map)) {
+            return null;
+        }
+        Map<String, Object> inputMap = (Map<String, Object>) input;
+        PooledContext pooledContext = null;
+        boolean reusable = true;
+        try {
+            Source source = getSource(expression, inputMap);
+            permits.acquire();
+            try {
+                pooledContext = idleContexts.poll();
+                if (pooledContext == null) {
+                    pooledContext = new PooledContext();
                 }
+                return pooledContext.evaluate(source, inputMap);
+            } catch (PolyglotException e) {
+                // errors of the expression leave the context usable, the others may not
+                reusable = e.isGuestException() && !e.isExit() && !e.isCancelled();
+                throw e;
+            } finally {
+                release(pooledContext, reusable);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TerminateWorkflowException(e.getMessage());
+        } catch (Exception e) {
+            LOGGER.error("Error evaluating expression: {}", e.getMessage(), e);
+            throw new TerminateWorkflowException(e.getMessage());
+        }
+    }
 
-                // Build the global declaration dynamically
-                StringBuilder globalDeclaration = new StringBuilder("def evaluate():\n    global ");
-                for (Map.Entry<String, Object> entry : inputMap.entrySet()) {
-                    globalDeclaration.append(entry.getKey()).append(", ");
-                }
+    private void release(PooledContext pooledContext, boolean reusable) {
+        if (pooledContext != null) {
+            if (reusable) {
+                idleContexts.offer(pooledContext);
+            } else {
+                pooledContext.close();
+            }
+        }
+        permits.release();
+    }
 
-                // Remove the trailing comma and space, and add a newline
-                if (globalDeclaration.length() > 0) {
-                    globalDeclaration.setLength(globalDeclaration.length() - 2);
-                }
-                globalDeclaration.append("\n");
+    /**
+     * Wraps the expression in a function, to handle multi-line statements. The input variables are
+     * declared global in the function, so that the expression can assign them, and the source
+     * depends on their names.
+     */
+    private Source getSource(String expression, Map<String, Object> inputMap) {
+        TreeSet<String> names = new TreeSet<>(inputMap.keySet());
+        String key = names + "\n" + expression;
+        return sources.get(
+                key,
+                k -> {
+                    StringBuilder wrappedExpression =
+                            new StringBuilder("def " + FUNCTION_NAME + "():\n");
+                    if (!names.isEmpty()) {
+                        wrappedExpression
+                                .append("    global ")
+                                .append(String.join(", ", names))
+                                .append("\n");
+                    }
+                    for (String line : expression.split("\n")) {
+                        wrappedExpression.append("    ").append(line).append("\n");
+                    }
+                    return Source.create(NAME, wrappedExpression.toString());
+                });
+    }
 
-                // Wrap the expression in a function to handle multi-line statements
-                StringBuilder wrappedExpression = new StringBuilder(globalDeclaration);
-                for (String line : expression.split("\n")) {
-                    wrappedExpression.append("    ").append(line).append("\n");
-                }
+    @PreDestroy
+    public void close() {
+        PooledContext pooledContext;
+        while ((pooledContext = idleContexts.poll()) != null) {
+            pooledContext.close();
+        }
+        engine.close();
+    }
 
-                // Add the call to the function and capture the result
-                wrappedExpression.append("\nresult = evaluate()");
+    /**
+     * Converts the result to plain java objects, the values of a python object can no longer be
+     * read once its context is used by another evaluation.
+     */
+    private static Object toJava(Value value) {
+        if (value.isNull()) {
+            return null;
+        } else if (value.isHostObject()) {
+            return value.asHostObject();
+        } else if (value.isBoolean() || value.isNumber() || value.isString()) {
+            return value.as(Object.class);
+        } else if (value.hasArrayElements()) {
+            List<Object> list = new ArrayList<>((int) value.getArraySize());
+            for (long i = 0; i < value.getArraySize(); i++) {
+                list.add(toJava(value.getArrayElement(i)));
+            }
+            return list;
+        } else if (value.hasHashEntries()) {
+            Map<Object, Object> map = new LinkedHashMap<>();
+            Value iterator = value.getHashEntriesIterator();
+            while (iterator.hasIteratorNextElement()) {
+                Value entry = iterator.getIteratorNextElement();
+                map.put(toJava(entry.getArrayElement(0)), toJava(entry.getArrayElement(1)));
+            }
+            return map;
+        }
+        return value.toString();
+    }
 
-                // Execute the wrapped expression
-                context.eval("python", wrappedExpression.toString());
+    /** A context of the pool, with the functions it already created from the sources. */
+    private final class PooledContext {
 
-                // Get the result
-                Value result = context.getBindings("python").getMember("result");
+        private final Context context;
+        private final Value bindings;
+        private final Map<Source, Value> functions;
 
-                // Convert the result to a Java object and return it
-                return result.as(Object.class);
-            } else {
-                return null;
+        private PooledContext() {
+            this.context = Context.newBuilder(NAME).engine(engine).allowAllAccess(true).build();
+            this.bindings = context.getBindings(NAME);
+            this.functions =
+                    new LinkedHashMap<>(16, 0.75f, true) {
+                        @Override
+                        protected boolean removeEldestEntry(Map.Entry<Source, Value> eldest) {
+                            return size() > cacheSize;
+                        }
+                    };
+        }
+
+        private Object evaluate(Source source, Map<String, Object> inputMap) {
+            Value function = functions.get(source);
+            if (function == null) {
+                Monitors.recordScriptCompilation(NAME);
+                context.eval(source);
+                function = bindings.getMember(FUNCTION_NAME);
+                bindings.removeMember(FUNCTION_NAME);
+                functions.put(source, function);
             }
-        } catch (Exception e) {
-            LOGGER.error("Error evaluating expression: {}", e.getMessage(), e);
-            throw new TerminateWorkflowException(e.getMessage());
+            try {
+                // Set inputs as variables in the GraalVM context
+                for (Map.Entry<String, Object> entry : inputMap.entrySet()) {
+                    bindings.putMember(entry.getKey(), entry.getValue());
+                }
+                return toJava(function.execute());
+            } finally {
+                // the inputs of an evaluation are not seen by the next ones
+                for (String name : inputMap.keySet()) {
+                    bindings.removeMember(name);
+                }
+            }
+        }
+
+        private void close() {
+            context.close(true);
         }
     }
 }
@@ -255,8 +255,8 @@ public class ForkJoinDynamicTaskMapper implements TaskMapper {
         // From the workflow definition get the next task and make sure that it is a JOIN task.
         // The dynamic fork tasks need to be followed by a join task
         WorkflowTask joinWorkflowTask =
-                workflowModel
-                        .getWorkflowDefinition()
+                taskMapperContext
+                        .getCompiledWorkflowDef()
                         .getNextTask(workflowTask.getTaskReferenceName());
 
         if (joinWorkflowTask == null || !joinWorkflowTask.getType().equals(TaskType.JOIN.name())) {
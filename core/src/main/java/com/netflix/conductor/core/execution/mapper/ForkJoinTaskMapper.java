@@ -96,8 +96,8 @@ public class ForkJoinTaskMapper implements TaskMapper {
         }
 
         WorkflowTask joinWorkflowTask =
-                workflowModel
-                        .getWorkflowDefinition()
+                taskMapperContext
+                        .getCompiledWorkflowDef()
                         .getNextTask(workflowTask.getTaskReferenceName());
 
         if (joinWorkflowTask == null || !joinWorkflowTask.getType().equals(TaskType.JOIN.name())) {
@@ -18,6 +18,7 @@ import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
 import com.netflix.conductor.common.metadata.workflow.WorkflowTask;
 import com.netflix.conductor.core.execution.DeciderService;
+import com.netflix.conductor.core.metadata.CompiledWorkflowDef;
 import com.netflix.conductor.model.TaskModel;
 import com.netflix.conductor.model.WorkflowModel;
 
@@ -32,6 +33,7 @@ public class TaskMapperContext {
     private final String retryTaskId;
     private final String taskId;
     private final DeciderService deciderService;
+    private CompiledWorkflowDef compiledWorkflowDef;
 
     private TaskMapperContext(Builder builder) {
         workflowModel = builder.workflowModel;
@@ -42,6 +44,7 @@ public class TaskMapperContext {
         retryTaskId = builder.retryTaskId;
         taskId = builder.taskId;
         deciderService = builder.deciderService;
+        compiledWorkflowDef = builder.compiledWorkflowDef;
     }
 
     public static Builder newBuilder() {
@@ -58,6 +61,7 @@ public class TaskMapperContext {
         builder.retryTaskId = copy.getRetryTaskId();
         builder.taskId = copy.getTaskId();
         builder.deciderService = copy.getDeciderService();
+        builder.compiledWorkflowDef = copy.compiledWorkflowDef;
         return builder;
     }
 
@@ -97,6 +101,18 @@ public class TaskMapperContext {
         return deciderService;
     }
 
+    /**
+     * @return the compiled form of the workflow definition, compiled on demand when the context was
+     *     not built by the {@link DeciderService}
+     */
+    public CompiledWorkflowDef getCompiledWorkflowDef() {
+        if (compiledWorkflowDef == null
+                || compiledWorkflowDef.getWorkflowDef() != getWorkflowDefinition()) {
+            compiledWorkflowDef = CompiledWorkflowDef.compile(getWorkflowDefinition());
+        }
+        return compiledWorkflowDef;
+    }
+
     public TaskModel createTaskModel() {
         TaskModel taskModel = new TaskModel();
         taskModel.setReferenceTaskName(workflowTask.getTaskReferenceName());
@@ -194,6 +210,7 @@ public class TaskMapperContext {
         private String retryTaskId;
         private String taskId;
         private DeciderService deciderService;
+        private CompiledWorkflowDef compiledWorkflowDef;
 
         private Builder() {}
 
@@ -293,6 +310,18 @@ public class TaskMapperContext {
             return this;
         }
 
+        /**
+         * Sets the {@code compiledWorkflowDef} and returns a reference to this Builder so that the
+         * methods can be chained together.
+         *
+         * @param val the {@code compiledWorkflowDef} to set
+         * @return a reference to this Builder
+         */
+        public Builder withCompiledWorkflowDef(CompiledWorkflowDef val) {
+            compiledWorkflowDef = val;
+            return this;
+        }
+
         /**
          * Returns a {@code TaskMapperContext} built from the parameters previously set.
          *
@@ -65,12 +65,11 @@ public class DoWhile extends WorkflowSystemTask {
          */
         Map<String, TaskModel> relevantTasks = new LinkedHashMap<>();
         TaskModel relevantTask;
-        for (TaskModel t : workflow.getTasks()) {
+        for (TaskModel t : workflow.getTasksByIteration(doWhileTaskModel.getIteration())) {
             if (doWhileTaskModel
                             .getWorkflowTask()
                             .has(TaskUtils.removeIterationFromTaskRefName(t.getReferenceTaskName()))
-                    && !doWhileTaskModel.getReferenceTaskName().equals(t.getReferenceTaskName())
-                    && doWhileTaskModel.getIteration() == t.getIteration()) {
+                    && !doWhileTaskModel.getReferenceTaskName().equals(t.getReferenceTaskName())) {
                 relevantTask = relevantTasks.get(t.getReferenceTaskName());
                 if (relevantTask == null || t.getRetryCount() > relevantTask.getRetryCount()) {
                     relevantTasks.put(t.getReferenceTaskName(), t);
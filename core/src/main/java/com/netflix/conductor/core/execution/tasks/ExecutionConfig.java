@@ -13,10 +13,8 @@
 package com.netflix.conductor.core.execution.tasks;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
-import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 
+import com.netflix.conductor.core.utils.ExecutorUtils;
 import com.netflix.conductor.core.utils.SemaphoreUtil;
 
 class ExecutionConfig {
@@ -24,13 +22,12 @@ class ExecutionConfig {
     private final ExecutorService executorService;
     private final SemaphoreUtil semaphoreUtil;
 
-    ExecutionConfig(int threadCount, String threadNameFormat) {
+    ExecutionConfig(int threadCount, String threadNameFormat, boolean virtualThreads) {
 
         this.executorService =
-                Executors.newFixedThreadPool(
-                        threadCount,
-                        new BasicThreadFactory.Builder().namingPattern(threadNameFormat).build());
+                ExecutorUtils.newFixedThreadPool(virtualThreads, threadCount, threadNameFormat);
 
+        // bounds the executions on virtual threads too
         this.semaphoreUtil = new SemaphoreUtil(threadCount);
     }
 
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.execution.tasks;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.core.execution.WorkflowExecutor;
+import com.netflix.conductor.model.TaskModel;
+
+/**
+ * Completes the async {@link WorkflowSystemTask}s that send a request without blocking the system
+ * task worker. The task is left IN_PROGRESS by {@link #start(TaskModel, long, WorkflowExecutor)},
+ * and the result of the request is applied with {@link WorkflowExecutor#updateTask(TaskResult)}
+ * from the callback executor of the task, once both the result is received and the IN_PROGRESS
+ * status is written by the system task worker, see {@link #taskWritten(TaskModel)}: updating the
+ * task before would let that write overwrite the result.
+ *
+ * <p>A task whose result is lost, for instance because the server that sent the request stopped, is
+ * failed by {@link WorkflowSystemTask#execute} once {@link #isOverdue(TaskModel, long)}.
+ */
+public class NonBlockingCompletion {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NonBlockingCompletion.class);
+
+    private static final long GRACE_MILLIS = 5000;
+    private static final long RETRY_MIN_MILLIS = 100;
+    private static final long RETRY_MAX_MILLIS = 5000;
+
+    private final String taskType;
+    private final ScheduledExecutorService callbackExecutor;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+    /**
+     * @param taskType type of the tasks completed, for the logs
+     * @param callbackExecutor executor updating the tasks with their results
+     */
+    public NonBlockingCompletion(String taskType, ScheduledExecutorService callbackExecutor) {
+        this.taskType = taskType;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Leaves the task IN_PROGRESS until {@link #complete(TaskResult)} is called with the result of
+     * its request, which must be sent after this call. The task is forgotten at its deadline.
+     *
+     * @param timeoutMillis time to wait for the result of the request
+     * @return the result to fill and complete
+     */
+    public TaskResult start(TaskModel task, long timeoutMillis, WorkflowExecutor executor) {
+        task.setStatus(TaskModel.Status.IN_PROGRESS);
+        TaskResult taskResult = new TaskResult();
+        taskResult.setTaskId(task.getTaskId());
+        taskResult.setWorkflowInstanceId(task.getWorkflowInstanceId());
+        taskResult.setWorkerId(task.getWorkerId());
+        long deadline = getDeadline(task, timeoutMillis);
+        Pending started = new Pending(executor, deadline);
+        pending.put(task.getTaskId(), started);
+        started.expiry =
+                schedule(
+                        () -> pending.remove(task.getTaskId(), started),
+                        deadline - System.currentTimeMillis());
+        return taskResult;
+    }
+
+    /** Forgets a task started with {@link #start} whose request could not be sent. */
+    public void abandon(TaskModel task) {
+        Optional.ofNullable(pending.remove(task.getTaskId())).ifPresent(Pending::cancelExpiry);
+    }
+
+    /** Updates the task with the result of its request, once its start is written. */
+    public void complete(TaskResult taskResult) {
+        Pending task = pending.get(taskResult.getTaskId());
+        if (task == null) {
+            LOGGER.debug(
+                    "{} task: {} is no longer waiting for its result",
+                    taskType,
+                    taskResult.getTaskId());
+            return;
+        }
+        if (task.received(taskResult)) {
+            update(taskResult.getTaskId(), task);
+        }
+    }
+
+    /**
+     * Called once the task changed by {@link WorkflowSystemTask#start} is written, updates the task
+     * if the result of its request is already received.
+     */
+    public void taskWritten(TaskModel task) {
+        Pending started = pending.get(task.getTaskId());
+        if (started != null && started.written()) {
+            update(task.getTaskId(), started);
+        }
+    }
+
+    private void update(String taskId, Pending task) {
+        if (pending.remove(taskId, task)) {
+            task.cancelExpiry();
+            schedule(() -> update(task, RETRY_MIN_MILLIS), 0);
+        }
+    }
+
+    /**
+     * A failed update is retried with an exponential backoff until the deadline, after which
+     * execute() fails the task.
+     */
+    private void update(Pending task, long retryMillis) {
+        TaskResult taskResult = task.getResult();
+        try {
+            task.executor.updateTask(taskResult);
+        } catch (Exception e) {
+            if (System.currentTimeMillis() + retryMillis < task.deadline) {
+                LOGGER.warn(
+                        "Failed to complete {} task: {} in workflow: {}, retrying in {} ms",
+                        taskType,
+                        taskResult.getTaskId(),
+                        taskResult.getWorkflowInstanceId(),
+                        retryMillis,
+                        e);
+                long nextRetryMillis = Math.min(retryMillis * 2, RETRY_MAX_MILLIS);
+                schedule(() -> update(task, nextRetryMillis), retryMillis);
+            } else {
+                LOGGER.error(
+                        "Failed to complete {} task: {} in workflow: {}, left to fail after its deadline",
+                        taskType,
+                        taskResult.getTaskId(),
+                        taskResult.getWorkflowInstanceId(),
+                        e);
+            }
+        }
+    }
+
+    private ScheduledFuture<?> schedule(Runnable runnable, long delayMillis) {
+        try {
+            return callbackExecutor.schedule(runnable, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Not completing {} task, the executor is shutting down", taskType);
+            return null;
+        }
+    }
+
+    /**
+     * @return the time after which a task started with the given timeout is considered to have lost
+     *     the result of its request
+     */
+    public long getDeadline(TaskModel task, long timeoutMillis) {
+        return task.getStartTime() + timeoutMillis + GRACE_MILLIS;
+    }
+
+    /**
+     * @return true if the task has not received the result of its request by its deadline
+     */
+    public boolean isOverdue(TaskModel task, long timeoutMillis) {
+        return System.currentTimeMillis() >= getDeadline(task, timeoutMillis);
+    }
+
+    /**
+     * @return the offset after which the task is overdue, at least 1 second and at most maxOffset
+     */
+    public Optional<Long> getEvaluationOffset(TaskModel task, long timeoutMillis, long maxOffset) {
+        long remaining = getDeadline(task, timeoutMillis) - System.currentTimeMillis();
+        long offset = TimeUnit.MILLISECONDS.toSeconds(remaining) + 1;
+        return Optional.of(Math.min(Math.max(offset, 1), maxOffset));
+    }
+
+    private static class Pending {
+
+        private final WorkflowExecutor executor;
+        private final long deadline;
+        private TaskResult result;
+        private boolean written;
+        private volatile ScheduledFuture<?> expiry;
+
+        private Pending(WorkflowExecutor executor, long deadline) {
+            this.executor = executor;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return true if the start of the task is already written
+         */
+        private synchronized boolean received(TaskResult result) {
+            this.result = result;
+            return written;
+        }
+
+        /**
+         * @return true if the result of the request is already received
+         */
+        private synchronized boolean written() {
+            this.written = true;
+            return result != null;
+        }
+
+        private synchronized TaskResult getResult() {
+            return result;
+        }
+
+        private void cancelExpiry() {
+            if (expiry != null) {
+                expiry.cancel(false);
+            }
+        }
+    }
+}
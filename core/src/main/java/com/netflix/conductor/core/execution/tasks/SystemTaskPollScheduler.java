@@ -0,0 +1,149 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.execution.tasks;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
+
+/**
+ * Polls the system task queues from a few shared threads, instead of one thread per queue. The
+ * queues ready to be polled take turns on these threads:
+ *
+ * <ul>
+ *   <li>a queue whose poll found tasks is polled again after the other ready queues,
+ *   <li>an empty queue is polled again at the next push to it, see {@link QueueWakeupRegistry}, or
+ *       after a delay doubling from the poll interval up to the max poll interval,
+ *   <li>a queue whose worker has no free slot is polled again after the poll interval.
+ * </ul>
+ */
+class SystemTaskPollScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SystemTaskPollScheduler.class);
+
+    enum PollResult {
+        /** Tasks were polled. */
+        POLLED,
+        /** The queue was empty, or could not be polled. */
+        EMPTY,
+        /** The queue was not polled, the worker has no free slot. */
+        BUSY
+    }
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final QueueWakeupRegistry queueWakeupRegistry;
+    private final long pollIntervalMs;
+    private final long maxPollIntervalMs;
+    private final Map<String, PolledQueue> queues = new ConcurrentHashMap<>();
+
+    SystemTaskPollScheduler(
+            int threadCount,
+            long pollIntervalMs,
+            long maxPollIntervalMs,
+            QueueWakeupRegistry queueWakeupRegistry) {
+        this.executor =
+                new ScheduledThreadPoolExecutor(
+                        threadCount,
+                        new BasicThreadFactory.Builder()
+                                .namingPattern("system-task-poller-%d")
+                                .daemon(true)
+                                .build());
+        this.queueWakeupRegistry = queueWakeupRegistry;
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxPollIntervalMs = Math.max(pollIntervalMs, maxPollIntervalMs);
+    }
+
+    /**
+     * Starts polling a queue.
+     *
+     * @param queueName the queue to poll
+     * @param poll polls the queue once, called by one thread at a time
+     * @param initialDelayMs the delay before the first poll
+     * @return false if the queue was already polled
+     */
+    boolean schedule(String queueName, Supplier<PollResult> poll, long initialDelayMs) {
+        PolledQueue polledQueue = new PolledQueue(queueName, poll);
+        if (queues.putIfAbsent(queueName, polledQueue) != null) {
+            return false;
+        }
+        executor.schedule(polledQueue::poll, initialDelayMs, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    int getQueueCount() {
+        return queues.size();
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private class PolledQueue {
+
+        private final String queueName;
+        private final Supplier<PollResult> poll;
+        // only used by the poll, which runs on one thread at a time
+        private long idleDelayMs = pollIntervalMs;
+
+        PolledQueue(String queueName, Supplier<PollResult> poll) {
+            this.queueName = queueName;
+            this.poll = poll;
+        }
+
+        void poll() {
+            // registered before the poll, so that a push made in between is not missed
+            CompletableFuture<Boolean> pushed =
+                    queueWakeupRegistry.awaitPush(queueName, idleDelayMs);
+            PollResult result;
+            try {
+                result = poll.get();
+            } catch (Exception e) {
+                LOGGER.error("Error polling system task queue: {}", queueName, e);
+                result = PollResult.EMPTY;
+            }
+            switch (result) {
+                case POLLED:
+                    pushed.cancel(false);
+                    idleDelayMs = pollIntervalMs;
+                    resume(0);
+                    break;
+                case BUSY:
+                    pushed.cancel(false);
+                    idleDelayMs = pollIntervalMs;
+                    resume(pollIntervalMs);
+                    break;
+                default:
+                    idleDelayMs = Math.min(idleDelayMs * 2, maxPollIntervalMs);
+                    pushed.whenComplete((wasPushed, error) -> resume(0));
+            }
+        }
+
+        private void resume(long delayMs) {
+            try {
+                executor.schedule(this::poll, delayMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("Stopped polling system task queue: {}", queueName);
+            }
+        }
+    }
+}
@@ -16,8 +16,6 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -28,14 +26,22 @@ import org.springframework.stereotype.Component;
 import com.netflix.conductor.annotations.VisibleForTesting;
 import com.netflix.conductor.core.LifecycleAwareComponent;
 import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
 import com.netflix.conductor.core.execution.AsyncSystemTaskExecutor;
+import com.netflix.conductor.core.execution.tasks.SystemTaskPollScheduler.PollResult;
 import com.netflix.conductor.core.utils.QueueUtils;
 import com.netflix.conductor.core.utils.SemaphoreUtil;
 import com.netflix.conductor.dao.QueueDAO;
 import com.netflix.conductor.metrics.Monitors;
 import com.netflix.conductor.service.ExecutionService;
 
-/** The worker that polls and executes an async system task. */
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The worker that polls and executes the async system tasks. The queues are polled by a {@link
+ * SystemTaskPollScheduler} shared by all of them, the tasks are executed by the thread pool of
+ * their {@link ExecutionConfig}.
+ */
 @Component
 @ConditionalOnProperty(
         name = "conductor.system-task-workers.enabled",
@@ -45,7 +51,6 @@ public class SystemTaskWorker extends LifecycleAwareComponent {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SystemTaskWorker.class);
 
-    private final long pollInterval;
     private final QueueDAO queueDAO;
 
     ExecutionConfig defaultExecutionConfig;
@@ -53,6 +58,7 @@ public class SystemTaskWorker extends LifecycleAwareComponent {
     private final ConductorProperties properties;
     private final ExecutionService executionService;
     private final int queuePopTimeout;
+    private final SystemTaskPollScheduler pollScheduler;
 
     ConcurrentHashMap<String, ExecutionConfig> queueExecutionConfigMap = new ConcurrentHashMap<>();
 
@@ -60,15 +66,23 @@ public class SystemTaskWorker extends LifecycleAwareComponent {
             QueueDAO queueDAO,
             AsyncSystemTaskExecutor asyncSystemTaskExecutor,
             ConductorProperties properties,
-            ExecutionService executionService) {
+            ExecutionService executionService,
+            QueueWakeupRegistry queueWakeupRegistry) {
         this.properties = properties;
         int threadCount = properties.getSystemTaskWorkerThreadCount();
-        this.defaultExecutionConfig = new ExecutionConfig(threadCount, "system-task-worker-%d");
+        this.defaultExecutionConfig =
+                new ExecutionConfig(
+                        threadCount, "system-task-worker-%d", properties.isVirtualThreadsEnabled());
         this.asyncSystemTaskExecutor = asyncSystemTaskExecutor;
         this.queueDAO = queueDAO;
-        this.pollInterval = properties.getSystemTaskWorkerPollInterval().toMillis();
         this.executionService = executionService;
         this.queuePopTimeout = (int) properties.getSystemTaskQueuePopTimeout().toMillis();
+        this.pollScheduler =
+                new SystemTaskPollScheduler(
+                        properties.getSystemTaskWorkerPollThreadCount(),
+                        properties.getSystemTaskWorkerPollInterval().toMillis(),
+                        properties.getSystemTaskWorkerMaxPollInterval().toMillis(),
+                        queueWakeupRegistry);
 
         LOGGER.info("SystemTaskWorker initialized with {} threads", threadCount);
     }
@@ -78,20 +92,27 @@ public class SystemTaskWorker extends LifecycleAwareComponent {
     }
 
     public void startPolling(WorkflowSystemTask systemTask, String queueName) {
-        Executors.newSingleThreadScheduledExecutor()
-                .scheduleWithFixedDelay(
-                        () -> this.pollAndExecute(systemTask, queueName),
-                        1000,
-                        pollInterval,
-                        TimeUnit.MILLISECONDS);
-        LOGGER.info("Started listening for task: {} in queue: {}", systemTask, queueName);
+        if (pollScheduler.schedule(
+                queueName, () -> this.pollAndExecute(systemTask, queueName), 1000)) {
+            LOGGER.info("Started listening for task: {} in queue: {}", systemTask, queueName);
+        }
+    }
+
+    @PreDestroy
+    public void stopPolling() {
+        pollScheduler.shutdown();
+    }
+
+    @VisibleForTesting
+    int getPolledQueueCount() {
+        return pollScheduler.getQueueCount();
     }
 
-    void pollAndExecute(WorkflowSystemTask systemTask, String queueName) {
+    PollResult pollAndExecute(WorkflowSystemTask systemTask, String queueName) {
         if (!isRunning()) {
             LOGGER.debug(
                     "{} stopped. Not polling for task: {}", getClass().getSimpleName(), systemTask);
-            return;
+            return PollResult.BUSY;
         }
 
         ExecutionConfig executionConfig = getExecutionConfig(queueName);
@@ -111,7 +132,7 @@ public class SystemTaskWorker extends LifecycleAwareComponent {
             if (messagesToAcquire <= 0 || !semaphoreUtil.acquireSlots(messagesToAcquire)) {
                 // no available slots, do not poll
                 Monitors.recordSystemTaskWorkerPollingLimited(queueName);
-                return;
+                return PollResult.BUSY;
             }
 
             LOGGER.debug("Polling queue: {} with {} slots acquired", queueName, messagesToAcquire);
@@ -151,9 +172,11 @@ public class SystemTaskWorker extends LifecycleAwareComponent {
                         semaphoreUtil.completeProcessing(1);
                     }
                 }
+                return PollResult.POLLED;
             } else {
                 // no task polled, release permit
                 semaphoreUtil.completeProcessing(messagesToAcquire);
+                return PollResult.EMPTY;
             }
         } catch (Exception e) {
             // release the permit if exception is thrown during polling, because the thread would
@@ -161,6 +184,7 @@ public class SystemTaskWorker extends LifecycleAwareComponent {
             semaphoreUtil.completeProcessing(messagesToAcquire);
             Monitors.recordTaskPollError(taskName, e.getClass().getSimpleName());
             LOGGER.error("Error polling system task in queue:{}", queueName, e);
+            return PollResult.EMPTY;
         }
     }
 
@@ -176,6 +200,7 @@ public class SystemTaskWorker extends LifecycleAwareComponent {
     private ExecutionConfig createExecutionConfig() {
         int threadCount = properties.getIsolatedSystemTaskWorkerThreadCount();
         String threadNameFormat = "isolated-system-task-worker-%d";
-        return new ExecutionConfig(threadCount, threadNameFormat);
+        return new ExecutionConfig(
+                threadCount, threadNameFormat, properties.isVirtualThreadsEnabled());
     }
 }
@@ -56,6 +56,15 @@ public abstract class WorkflowSystemTask {
         return false;
     }
 
+    /**
+     * Called by the system task worker once the task changed by {@link #start(WorkflowModel,
+     * TaskModel, WorkflowExecutor)} or {@link #execute(WorkflowModel, TaskModel, WorkflowExecutor)}
+     * is written.
+     *
+     * @param task Instance of the Task
+     */
+    public void taskWritten(TaskModel task) {}
+
     /**
      * Cancel task execution
      *
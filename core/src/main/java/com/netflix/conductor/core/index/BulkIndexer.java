@@ -0,0 +1,395 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.index;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.core.exception.NonTransientException;
+import com.netflix.conductor.core.exception.TransientException;
+import com.netflix.conductor.metrics.Monitors;
+
+/**
+ * Writes the documents of the indexes with bulk requests, for the {@link
+ * com.netflix.conductor.dao.IndexDAO} implementations.
+ *
+ * <p>The documents of an index are buffered until the buffer holds {@code maxActions} documents or
+ * {@code maxBytes} bytes, or its oldest document waited for {@code flushInterval}. A document
+ * replaces the buffered document of the same index with the same id, only the last one is written.
+ * The bulk requests of an index are sent one at a time, in order, by a serial executor of the index
+ * running on the shared threads. The documents failed with a retryable error are buffered again,
+ * unless replaced in the meantime, up to {@code maxRetries} times.
+ *
+ * <p>At most {@code maxPendingDocuments} documents are buffered or being written: beyond, {@link
+ * #index(String, String, String, byte[])} drops the document and fails it with a {@link
+ * TransientException}. It never blocks, its callers may hold the lock of a workflow.
+ */
+public class BulkIndexer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkIndexer.class);
+
+    /** Sends the bulk requests, for a search engine client. */
+    @FunctionalInterface
+    public interface Sender {
+
+        /**
+         * Writes the documents of an index with one bulk request.
+         *
+         * @param index the name of the index
+         * @param documents the documents, at most one per id
+         * @return the failures of the documents not written, by document id
+         * @throws Exception if the request failed as a whole, all the documents are retried
+         */
+        Map<String, Failure> send(String index, Collection<Document> documents) throws Exception;
+    }
+
+    /** A document to write. */
+    public static final class Document {
+
+        private final String docType;
+        private final String id;
+        private final byte[] source;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private int attempts;
+
+        private Document(String docType, String id, byte[] source) {
+            this.docType = docType;
+            this.id = id;
+            this.source = source;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public byte[] getSource() {
+            return source;
+        }
+    }
+
+    /** The failure of a document in a bulk request. */
+    public static final class Failure {
+
+        private final boolean retryable;
+        private final String reason;
+
+        public Failure(boolean retryable, String reason) {
+            this.retryable = retryable;
+            this.reason = reason;
+        }
+
+        public boolean isRetryable() {
+            return retryable;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+
+    private final Sender sender;
+    private final int maxActions;
+    private final long maxBytes;
+    private final long flushIntervalMillis;
+    private final int maxRetries;
+    private final Semaphore pendingDocuments;
+    private final Map<String, Buffer> buffers = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * @param name the name of the threads sending the bulk requests
+     * @param threadCount the number of threads sending the bulk requests, the requests of an index
+     *     are sent by one thread at a time
+     */
+    public BulkIndexer(
+            String name,
+            int threadCount,
+            Sender sender,
+            int maxActions,
+            long maxBytes,
+            Duration flushInterval,
+            int maxPendingDocuments,
+            int maxRetries) {
+        this.sender = sender;
+        this.maxActions = maxActions;
+        this.maxBytes = maxBytes;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.maxRetries = maxRetries;
+        this.pendingDocuments = new Semaphore(maxPendingDocuments);
+        this.executor =
+                new ScheduledThreadPoolExecutor(
+                        threadCount,
+                        new BasicThreadFactory.Builder()
+                                .namingPattern(name + "-%d")
+                                .daemon(true)
+                                .build());
+        long tick = Math.max(10, flushIntervalMillis / 4);
+        this.executor.scheduleWithFixedDelay(this::flushExpired, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffers a document, or drops it if {@code maxPendingDocuments} documents are already pending.
+     *
+     * @param index the name of the index
+     * @param docType the type of the document, for the metrics
+     * @param id the id of the document
+     * @param source the JSON source of the document
+     * @return completed when the document, or the one replacing it, is written, failed with a
+     *     {@link TransientException} when the document was dropped
+     */
+    public CompletableFuture<Void> index(String index, String docType, String id, byte[] source) {
+        Document document = new Document(docType, id, source);
+        if (!pendingDocuments.tryAcquire()) {
+            LOGGER.warn("No room to index {} '{}' in {}, dropped", docType, id, index);
+            Monitors.recordBulkIndexRejected(docType);
+            document.future.completeExceptionally(
+                    new TransientException("No room to index " + id + ", dropped"));
+            return document.future;
+        }
+        Monitors.recordBulkIndexDocument(docType);
+        Buffer buffer = buffers.computeIfAbsent(index, Buffer::new);
+        if (buffer.add(document)) {
+            scheduleFlush(buffer);
+        }
+        return document.future;
+    }
+
+    /**
+     * Writes the buffered documents and stops the threads. The documents which could not be written
+     * are failed with a {@link TransientException}.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                LOGGER.warn("Bulk requests still running after waiting for 30 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        buffers.values().forEach(this::flush);
+        // the documents buffered again by the last flush are not retried
+        for (Buffer buffer : buffers.values()) {
+            for (Document document : buffer.drain()) {
+                pendingDocuments.release();
+                document.future.completeExceptionally(
+                        new TransientException(
+                                "Shutting down, failed to index "
+                                        + document.id
+                                        + " in "
+                                        + buffer.index));
+            }
+        }
+    }
+
+    private void scheduleFlush(Buffer buffer) {
+        if (buffer.flushScheduled.compareAndSet(false, true)) {
+            try {
+                buffer.sendExecutor.execute(() -> flush(buffer));
+            } catch (RuntimeException e) {
+                // shutting down, the buffers are flushed by the shutdown
+                buffer.flushScheduled.set(false);
+            }
+        }
+    }
+
+    private void flushExpired() {
+        long now = System.currentTimeMillis();
+        buffers.values().stream()
+                .filter(buffer -> buffer.isExpired(now))
+                .forEach(this::scheduleFlush);
+    }
+
+    /**
+     * Sends the documents of the buffer, on the serial executor of the buffer. The documents are
+     * taken from the buffer only once the previous request of the index completed, so that a
+     * document is never written after a newer version of it.
+     */
+    private void flush(Buffer buffer) {
+        buffer.flushScheduled.set(false);
+        List<Document> documents;
+        int collapsed;
+        synchronized (buffer) {
+            documents = buffer.drain();
+            collapsed = buffer.collapsed;
+            buffer.collapsed = 0;
+        }
+        if (documents.isEmpty()) {
+            return;
+        }
+        String docType = documents.get(0).docType;
+        long start = System.currentTimeMillis();
+        Map<String, Failure> failures;
+        try {
+            failures = sender.send(buffer.index, documents);
+        } catch (Exception e) {
+            LOGGER.warn(
+                    "Failed to send the bulk request of {} documents to {}",
+                    documents.size(),
+                    buffer.index,
+                    e);
+            Failure failure = new Failure(true, e.getMessage());
+            failures = new LinkedHashMap<>();
+            for (Document document : documents) {
+                failures.put(document.id, failure);
+            }
+        }
+        Monitors.recordBulkIndexFlush(
+                docType, documents.size(), collapsed, System.currentTimeMillis() - start);
+        boolean retried = false;
+        for (Document document : documents) {
+            Failure failure = failures.get(document.id);
+            if (failure == null) {
+                pendingDocuments.release();
+                document.future.complete(null);
+            } else if (failure.isRetryable() && document.attempts < maxRetries) {
+                document.attempts++;
+                Monitors.recordBulkIndexRetry(docType);
+                buffer.retry(document);
+                retried = true;
+            } else {
+                LOGGER.error(
+                        "Failed to index {} '{}' in {}: {}",
+                        docType,
+                        document.id,
+                        buffer.index,
+                        failure.getReason());
+                Monitors.error(BulkIndexer.class.getSimpleName(), "index");
+                pendingDocuments.release();
+                document.future.completeExceptionally(
+                        new NonTransientException(
+                                "Failed to index " + document.id + ": " + failure.getReason()));
+            }
+        }
+        if (retried) {
+            // the retries wait for the next flush of the buffer
+            buffer.firstAddTime = System.currentTimeMillis();
+        }
+    }
+
+    private class Buffer {
+
+        private final String index;
+        private final SerialExecutor sendExecutor = new SerialExecutor();
+        private final AtomicBoolean flushScheduled = new AtomicBoolean();
+        // guarded by this
+        private LinkedHashMap<String, Document> documents = new LinkedHashMap<>();
+        private long bytes;
+        private int collapsed;
+        private volatile long firstAddTime;
+
+        private Buffer(String index) {
+            this.index = index;
+        }
+
+        /**
+         * @return whether the buffer is full
+         */
+        private synchronized boolean add(Document document) {
+            Document replaced = put(document);
+            if (replaced != null) {
+                // the replaced document is written with the new one
+                pendingDocuments.release();
+                collapsed++;
+                Monitors.recordBulkIndexCollapsed(document.docType);
+                document.future.whenComplete((result, error) -> complete(replaced.future, error));
+            }
+            return documents.size() >= maxActions || bytes >= maxBytes;
+        }
+
+        /** Buffers again a failed document, unless a newer version of it is buffered. */
+        private synchronized void retry(Document document) {
+            Document newer = documents.get(document.id);
+            if (newer == null) {
+                put(document);
+            } else {
+                pendingDocuments.release();
+                newer.future.whenComplete((result, error) -> complete(document.future, error));
+            }
+        }
+
+        private Document put(Document document) {
+            if (documents.isEmpty()) {
+                firstAddTime = System.currentTimeMillis();
+            }
+            Document replaced = documents.put(document.id, document);
+            bytes += document.source.length;
+            if (replaced != null) {
+                bytes -= replaced.source.length;
+            }
+            return replaced;
+        }
+
+        private synchronized List<Document> drain() {
+            List<Document> drained = new ArrayList<>(documents.values());
+            documents = new LinkedHashMap<>();
+            bytes = 0;
+            return drained;
+        }
+
+        private synchronized boolean isExpired(long now) {
+            return !documents.isEmpty() && now - firstAddTime >= flushIntervalMillis;
+        }
+    }
+
+    /** Runs its tasks one at a time, in order, on the threads of the indexer. */
+    private class SerialExecutor implements Executor {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+            if (pending.getAndIncrement() == 0) {
+                executor.execute(this::runNext);
+            }
+        }
+
+        private void runNext() {
+            try {
+                tasks.poll().run();
+            } finally {
+                if (pending.decrementAndGet() > 0) {
+                    executor.execute(this::runNext);
+                }
+            }
+        }
+    }
+
+    private static void complete(CompletableFuture<Void> future, Throwable error) {
+        if (error == null) {
+            future.complete(null);
+        } else {
+            future.completeExceptionally(error);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.index;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.netflix.conductor.core.exception.NonTransientException;
+
+/**
+ * Iterates over the results of a search one page at a time, each page being fetched with the cursor
+ * returned with the previous one: a {@code search_after} position, a scroll id, an offset. Only the
+ * current page is held in memory, whatever the number of results.
+ *
+ * @param <C> the type of the cursor
+ */
+public class SearchCursor<C> implements Iterator<String> {
+
+    /** Fetches a page of results. */
+    @FunctionalInterface
+    public interface PageFetcher<C> {
+
+        /**
+         * @param cursor the cursor returned with the previous page, the initial cursor for the
+         *     first page
+         */
+        Page<C> fetch(C cursor) throws Exception;
+    }
+
+    /** A page of results, with the cursor of the next page. */
+    public static class Page<C> {
+
+        private final List<String> results;
+        private final C next;
+
+        /**
+         * @param results the results of the page
+         * @param next the cursor of the next page, null if this is the last page
+         */
+        public Page(List<String> results, C next) {
+            this.results = results;
+            this.next = next;
+        }
+    }
+
+    private final PageFetcher<C> fetcher;
+    private C cursor;
+    private Iterator<String> page;
+
+    public SearchCursor(C initialCursor, PageFetcher<C> fetcher) {
+        this.cursor = initialCursor;
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * @param onClose releases the resources of the search, such as a point in time or a scroll, run
+     *     when the stream is closed
+     * @return a sequential stream of the results, to be closed once consumed
+     */
+    public Stream<String> stream(Runnable onClose) {
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(
+                                this, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(onClose);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while ((page == null || !page.hasNext()) && cursor != null) {
+            Page<C> next;
+            try {
+                next = fetcher.fetch(cursor);
+            } catch (Exception e) {
+                throw new NonTransientException(e.getMessage(), e);
+            }
+            page = next.results.iterator();
+            cursor = next.results.isEmpty() ? null : next.next;
+        }
+        return page != null && page.hasNext();
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.next();
+    }
+}
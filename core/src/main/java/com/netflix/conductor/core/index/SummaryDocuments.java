@@ -0,0 +1,219 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.index;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.netflix.conductor.common.run.TaskSummary;
+import com.netflix.conductor.common.run.WorkflowSummary;
+import com.netflix.conductor.common.utils.SummaryUtil;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+
+/**
+ * Writes the JSON documents of the workflow and task indexes straight from the models, in one pass
+ * with a {@link JsonGenerator}. The documents are the ones of the {@link WorkflowSummary} and
+ * {@link TaskSummary} of the model serialized with the Conductor object mapper, without building
+ * the {@code Workflow}, {@code Task} and summary of the model first.
+ *
+ * <p>A property added to the summaries has to be added here as well, {@code SummaryDocumentsTest}
+ * compares the documents of both.
+ */
+public final class SummaryDocuments {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    private SummaryDocuments() {}
+
+    /**
+     * @return the JSON document of the {@link WorkflowSummary} of the workflow
+     */
+    public static byte[] workflowSummary(WorkflowModel workflow) throws IOException {
+        ByteArrayBuilder bytes = new ByteArrayBuilder(JSON_FACTORY._getBufferRecycler());
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(bytes)) {
+            writeWorkflowSummary(generator, workflow);
+        }
+        byte[] document = bytes.toByteArray();
+        bytes.release();
+        return document;
+    }
+
+    /**
+     * @return the JSON document of the {@link TaskSummary} of the task
+     */
+    public static byte[] taskSummary(TaskModel task) throws IOException {
+        ByteArrayBuilder bytes = new ByteArrayBuilder(JSON_FACTORY._getBufferRecycler());
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(bytes)) {
+            writeTaskSummary(generator, task);
+        }
+        byte[] document = bytes.toByteArray();
+        bytes.release();
+        return document;
+    }
+
+    private static void writeWorkflowSummary(JsonGenerator generator, WorkflowModel workflow)
+            throws IOException {
+        long createTime = workflow.getCreateTime() == null ? 0 : workflow.getCreateTime();
+        long updateTime = workflow.getUpdatedTime() == null ? 0 : workflow.getUpdatedTime();
+        long endTime = workflow.getEndTime();
+
+        generator.writeStartObject();
+        writeString(generator, "workflowType", workflow.getWorkflowName());
+        generator.writeNumberField("version", workflow.getWorkflowVersion());
+        writeString(generator, "workflowId", workflow.getWorkflowId());
+        writeString(generator, "correlationId", workflow.getCorrelationId());
+        generator.writeStringField("startTime", formatDate(createTime));
+        generator.writeStringField("updateTime", formatDate(updateTime));
+        if (endTime > 0) {
+            generator.writeStringField("endTime", formatDate(endTime));
+        }
+        if (workflow.getStatus() != null) {
+            generator.writeStringField("status", workflow.getStatus().name());
+        }
+        String input =
+                writeInputOutput(
+                        generator,
+                        "input",
+                        workflow.getExternalInputPayloadStoragePath() != null
+                                ? Collections.emptyMap()
+                                : workflow.getInput());
+        generator.writeNumberField("inputSize", input != null ? input.length() : 0);
+        String output =
+                writeInputOutput(
+                        generator,
+                        "output",
+                        workflow.getExternalOutputPayloadStoragePath() != null
+                                ? Collections.emptyMap()
+                                : workflow.getOutput());
+        generator.writeNumberField("outputSize", output != null ? output.length() : 0);
+        writeString(generator, "reasonForIncompletion", workflow.getReasonForIncompletion());
+        generator.writeNumberField("executionTime", endTime > 0 ? endTime - createTime : 0);
+        writeString(generator, "event", workflow.getEvent());
+        Set<String> failedReferenceTaskNames = workflow.getFailedReferenceTaskNames();
+        generator.writeStringField(
+                "failedReferenceTaskNames",
+                failedReferenceTaskNames == null ? "" : String.join(",", failedReferenceTaskNames));
+        writeExternalPaths(
+                generator,
+                workflow.getExternalInputPayloadStoragePath(),
+                workflow.getExternalOutputPayloadStoragePath());
+        generator.writeNumberField("priority", workflow.getPriority());
+        if (workflow.getFailedTaskNames() != null) {
+            generator.writeArrayFieldStart("failedTaskNames");
+            for (String name : workflow.getFailedTaskNames()) {
+                generator.writeString(name);
+            }
+            generator.writeEndArray();
+        }
+        writeString(generator, "createdBy", workflow.getCreatedBy());
+        // the summary keeps its empty map when the workflow has none
+        generator.writeObjectFieldStart("taskToDomain");
+        if (workflow.getTaskToDomain() != null) {
+            for (Map.Entry<String, String> entry : workflow.getTaskToDomain().entrySet()) {
+                generator.writeFieldName(entry.getKey());
+                generator.writeString(entry.getValue());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private static void writeTaskSummary(JsonGenerator generator, TaskModel task)
+            throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "workflowId", task.getWorkflowInstanceId());
+        writeString(generator, "workflowType", task.getWorkflowType());
+        writeString(generator, "correlationId", task.getCorrelationId());
+        generator.writeStringField("scheduledTime", formatDate(task.getScheduledTime()));
+        generator.writeStringField("startTime", formatDate(task.getStartTime()));
+        generator.writeStringField("updateTime", formatDate(task.getUpdateTime()));
+        generator.writeStringField("endTime", formatDate(task.getEndTime()));
+        if (task.getStatus() != null) {
+            generator.writeStringField("status", task.getStatus().name());
+        }
+        writeString(generator, "reasonForIncompletion", task.getReasonForIncompletion());
+        generator.writeNumberField(
+                "executionTime",
+                task.getEndTime() > 0 ? task.getEndTime() - task.getStartTime() : 0);
+        generator.writeNumberField("queueWaitTime", task.getQueueWaitTime());
+        writeString(generator, "taskDefName", task.getTaskDefName());
+        writeString(generator, "taskType", task.getTaskType());
+        writeInputOutput(
+                generator,
+                "input",
+                task.getExternalInputPayloadStoragePath() != null
+                        ? Collections.emptyMap()
+                        : task.getInputData());
+        writeInputOutput(
+                generator,
+                "output",
+                task.getExternalOutputPayloadStoragePath() != null
+                        ? Collections.emptyMap()
+                        : task.getOutputData());
+        writeString(generator, "taskId", task.getTaskId());
+        writeExternalPaths(
+                generator,
+                task.getExternalInputPayloadStoragePath(),
+                task.getExternalOutputPayloadStoragePath());
+        generator.writeNumberField("workflowPriority", task.getWorkflowPriority());
+        writeString(generator, "domain", task.getDomain());
+        generator.writeEndObject();
+    }
+
+    /**
+     * @return the serialized input or output, null if there is none
+     */
+    private static String writeInputOutput(
+            JsonGenerator generator, String name, Map<String, Object> data) throws IOException {
+        String serialized = data == null ? null : SummaryUtil.serializeInputOutput(data);
+        writeString(generator, name, serialized);
+        return serialized;
+    }
+
+    private static void writeExternalPaths(
+            JsonGenerator generator, String inputPath, String outputPath) throws IOException {
+        if (StringUtils.isNotBlank(inputPath)) {
+            generator.writeStringField("externalInputPayloadStoragePath", inputPath);
+        }
+        if (StringUtils.isNotBlank(outputPath)) {
+            generator.writeStringField("externalOutputPayloadStoragePath", outputPath);
+        }
+    }
+
+    /** Skips the null values, like the object mapper. */
+    private static void writeString(JsonGenerator generator, String name, String value)
+            throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    private static String formatDate(long epochMillis) {
+        return DATE_FORMAT.format(Instant.ofEpochMilli(epochMillis));
+    }
+}
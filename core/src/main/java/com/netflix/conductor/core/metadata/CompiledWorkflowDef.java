@@ -0,0 +1,307 @@
+/*
+ * Copyright 2022 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.metadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.netflix.conductor.common.metadata.tasks.TaskType;
+import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
+import com.netflix.conductor.common.metadata.workflow.WorkflowTask;
+import com.netflix.conductor.core.utils.Utils;
+
+/**
+ * Immutable, indexed view of a {@link WorkflowDef}. The {@link WorkflowTask} tree is flattened once
+ * and the successor, parent and enclosing loop of every task are precomputed, so that lookups by
+ * reference name and {@link #getNextTask(String)} are constant time instead of a walk of the whole
+ * tree.
+ *
+ * <p>The successor of a task follows the same rules as {@link WorkflowDef#getNextTask(String)}: the
+ * next sibling in the enclosing list; for the last task of a list, the enclosing DO_WHILE task, or
+ * the successor of the enclosing DECISION, SWITCH or FORK_JOIN task.
+ *
+ * <p>The compiled form references the {@link WorkflowTask} instances of the definition it was built
+ * from and must be rebuilt if that definition is modified. Another instance of the same definition
+ * is compiled with {@link #rebind(WorkflowDef)}, which only flattens it.
+ */
+public final class CompiledWorkflowDef {
+
+    private static final int NONE = -1;
+
+    private final WorkflowDef workflowDef;
+    private final long updateTime;
+    private final List<WorkflowTask> topLevelTasks;
+    private final int topLevelTaskCount;
+    private final WorkflowTask[] tasks;
+    private final Map<String, Integer> indexByRefName;
+    private final int[] next;
+    private final int[] parent;
+    private final int[] enclosingLoop;
+
+    /** Shares the indexes of a compiled definition of the same shape. */
+    private CompiledWorkflowDef(
+            WorkflowDef workflowDef, WorkflowTask[] tasks, CompiledWorkflowDef sameShape) {
+        this.workflowDef = workflowDef;
+        this.updateTime = workflowDef.getUpdateTime();
+        this.topLevelTasks = workflowDef.getTasks();
+        this.topLevelTaskCount = topLevelTasks.size();
+        this.tasks = tasks;
+        this.indexByRefName = sameShape.indexByRefName;
+        this.next = sameShape.next;
+        this.parent = sameShape.parent;
+        this.enclosingLoop = sameShape.enclosingLoop;
+    }
+
+    private CompiledWorkflowDef(WorkflowDef workflowDef, List<WorkflowTask> flattened) {
+        this.workflowDef = workflowDef;
+        this.updateTime = workflowDef.getUpdateTime();
+        this.topLevelTasks = workflowDef.getTasks();
+        this.topLevelTaskCount = topLevelTasks.size();
+        this.tasks = flattened.toArray(new WorkflowTask[0]);
+        this.indexByRefName = new HashMap<>(tasks.length * 2);
+        this.next = new int[tasks.length];
+        this.parent = new int[tasks.length];
+        this.enclosingLoop = new int[tasks.length];
+        Arrays.fill(next, NONE);
+        Arrays.fill(parent, NONE);
+        Arrays.fill(enclosingLoop, NONE);
+
+        Map<WorkflowTask, Integer> positions = new IdentityHashMap<>(tasks.length * 2);
+        for (int i = 0; i < tasks.length; i++) {
+            positions.putIfAbsent(tasks[i], i);
+            // reference names are unique within a valid definition, keep the first one otherwise
+            indexByRefName.putIfAbsent(tasks[i].getTaskReferenceName(), i);
+        }
+        link(topLevelTasks, NONE, NONE, NONE, positions);
+    }
+
+    /**
+     * Builds the compiled form of the given workflow definition.
+     *
+     * @param workflowDef the workflow definition
+     * @return an immutable, indexed view of the definition
+     */
+    public static CompiledWorkflowDef compile(WorkflowDef workflowDef) {
+        Utils.checkNotNull(workflowDef, "workflowDef cannot be null");
+        List<WorkflowTask> flattened = new ArrayList<>();
+        for (WorkflowTask workflowTask : workflowDef.getTasks()) {
+            flatten(workflowTask, flattened);
+        }
+        return new CompiledWorkflowDef(workflowDef, flattened);
+    }
+
+    /**
+     * Returns the compiled form of another instance of the definition, typically the copy held by
+     * another workflow, reusing the indexes of this one when both have the same shape.
+     *
+     * @param workflowDef an instance of the definition this one was compiled from
+     * @return the compiled form of the given instance, referencing its {@link WorkflowTask}s, or
+     *     null if the definition was updated in between or its tasks are laid out differently
+     */
+    CompiledWorkflowDef rebind(WorkflowDef workflowDef) {
+        if (!workflowDef.equals(this.workflowDef)
+                || workflowDef.getUpdateTime() != updateTime
+                || workflowDef.getTasks().size() != topLevelTaskCount) {
+            return null;
+        }
+        List<WorkflowTask> flattened = new ArrayList<>(tasks.length);
+        for (WorkflowTask workflowTask : workflowDef.getTasks()) {
+            flatten(workflowTask, flattened);
+        }
+        if (flattened.size() != tasks.length) {
+            return null;
+        }
+        // the order of the traversal and the size of the branches of every task determine the
+        // tree, the links of the tasks are then the same
+        for (int i = 0; i < tasks.length; i++) {
+            if (!isSameShape(tasks[i], flattened.get(i))) {
+                return null;
+            }
+        }
+        return new CompiledWorkflowDef(workflowDef, flattened.toArray(new WorkflowTask[0]), this);
+    }
+
+    private static boolean isSameShape(WorkflowTask compiled, WorkflowTask other) {
+        if (!Objects.equals(compiled.getTaskReferenceName(), other.getTaskReferenceName())
+                || !Objects.equals(compiled.getType(), other.getType())) {
+            return false;
+        }
+        List<List<WorkflowTask>> compiledChildren = children(compiled);
+        List<List<WorkflowTask>> otherChildren = children(other);
+        if (compiledChildren.size() != otherChildren.size()) {
+            return false;
+        }
+        for (int i = 0; i < compiledChildren.size(); i++) {
+            if (compiledChildren.get(i).size() != otherChildren.get(i).size()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Same traversal order as {@link WorkflowTask#collectTasks()}. */
+    private static void flatten(WorkflowTask workflowTask, List<WorkflowTask> flattened) {
+        flattened.add(workflowTask);
+        for (List<WorkflowTask> children : children(workflowTask)) {
+            for (WorkflowTask child : children) {
+                flatten(child, flattened);
+            }
+        }
+    }
+
+    private static List<List<WorkflowTask>> children(WorkflowTask workflowTask) {
+        List<List<WorkflowTask>> children = new ArrayList<>();
+        switch (TaskType.of(workflowTask.getType())) {
+            case DECISION:
+            case SWITCH:
+                if (workflowTask.getDecisionCases() != null) {
+                    children.addAll(workflowTask.getDecisionCases().values());
+                }
+                addIfPresent(children, workflowTask.getDefaultCase());
+                break;
+            case FORK_JOIN:
+                if (workflowTask.getForkTasks() != null) {
+                    workflowTask.getForkTasks().forEach(branch -> addIfPresent(children, branch));
+                }
+                break;
+            case DO_WHILE:
+                addIfPresent(children, workflowTask.getLoopOver());
+                break;
+            default:
+                break;
+        }
+        return children;
+    }
+
+    private static void addIfPresent(List<List<WorkflowTask>> children, List<WorkflowTask> list) {
+        if (list != null) {
+            children.add(list);
+        }
+    }
+
+    /**
+     * Links every task of the list to its successor, parent and enclosing loop.
+     *
+     * @param list the tasks of one branch
+     * @param container position of the task owning the list, {@link #NONE} for the top level
+     * @param loop position of the closest enclosing DO_WHILE task
+     * @param afterList successor of the last task of the list
+     */
+    private void link(
+            List<WorkflowTask> list,
+            int container,
+            int loop,
+            int afterList,
+            Map<WorkflowTask, Integer> positions) {
+        for (int i = 0; i < list.size(); i++) {
+            int position = positions.get(list.get(i));
+            int after = i + 1 < list.size() ? positions.get(list.get(i + 1)) : afterList;
+            next[position] = after;
+            parent[position] = container;
+            enclosingLoop[position] = loop;
+
+            WorkflowTask workflowTask = tasks[position];
+            boolean isLoop = TaskType.DO_WHILE.name().equals(workflowTask.getType());
+            for (List<WorkflowTask> children : children(workflowTask)) {
+                link(
+                        children,
+                        position,
+                        isLoop ? position : loop,
+                        isLoop ? position : after,
+                        positions);
+            }
+        }
+    }
+
+    public WorkflowDef getWorkflowDef() {
+        return workflowDef;
+    }
+
+    /**
+     * @return all the tasks of the definition, in the order of {@link WorkflowDef#collectTasks()}
+     */
+    public List<WorkflowTask> getTasks() {
+        return Collections.unmodifiableList(Arrays.asList(tasks));
+    }
+
+    public int size() {
+        return tasks.length;
+    }
+
+    public boolean containsType(String taskType) {
+        for (WorkflowTask task : tasks) {
+            if (task.getType().equals(taskType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public WorkflowTask getTaskByRefName(String taskReferenceName) {
+        return taskAt(indexOf(taskReferenceName));
+    }
+
+    /**
+     * @see WorkflowDef#getNextTask(String)
+     */
+    public WorkflowTask getNextTask(String taskReferenceName) {
+        int index = indexOf(taskReferenceName);
+        if (index == NONE || TaskType.TERMINATE.name().equals(tasks[index].getType())) {
+            return null;
+        }
+        return taskAt(next[index]);
+    }
+
+    /**
+     * @return the DECISION, SWITCH, FORK_JOIN or DO_WHILE task whose branch contains the given
+     *     task, or null for top level tasks
+     */
+    public WorkflowTask getParent(String taskReferenceName) {
+        int index = indexOf(taskReferenceName);
+        return index == NONE ? null : taskAt(parent[index]);
+    }
+
+    /**
+     * @return the closest DO_WHILE task containing the given task, or null if it is not part of a
+     *     loop
+     */
+    public WorkflowTask getEnclosingLoop(String taskReferenceName) {
+        int index = indexOf(taskReferenceName);
+        return index == NONE ? null : taskAt(enclosingLoop[index]);
+    }
+
+    /**
+     * Cheap check to detect that the top level of the definition was modified after it was
+     * compiled.
+     */
+    boolean isCompiledFrom(WorkflowDef workflowDef) {
+        return this.workflowDef == workflowDef
+                && topLevelTasks == workflowDef.getTasks()
+                && topLevelTaskCount == topLevelTasks.size();
+    }
+
+    private int indexOf(String taskReferenceName) {
+        Integer index = taskReferenceName == null ? null : indexByRefName.get(taskReferenceName);
+        return index == null ? NONE : index;
+    }
+
+    private WorkflowTask taskAt(int index) {
+        return index == NONE ? null : tasks[index];
+    }
+}
@@ -36,6 +36,9 @@ import com.netflix.conductor.metrics.Monitors;
 import com.netflix.conductor.model.TaskModel;
 import com.netflix.conductor.model.WorkflowModel;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 /**
  * Populates metadata definitions within workflow objects. Benefits of loading and populating
  * metadata definitions upfront could be:
@@ -52,10 +55,62 @@ public class MetadataMapperService {
     public static final Logger LOGGER = LoggerFactory.getLogger(MetadataMapperService.class);
     private final MetadataDAO metadataDAO;
 
+    private static final int COMPILED_DEFINITIONS_CACHE_SIZE = 1000;
+    private static final int BOUND_DEFINITIONS_CACHE_SIZE = 10_000;
+
+    /**
+     * The first compiled instance of each definition, keyed by name, version and update time. An
+     * entry is never replaced, the other instances of the definition reuse its indexes, see {@link
+     * CompiledWorkflowDef#rebind(WorkflowDef)}.
+     */
+    private final Cache<String, CompiledWorkflowDef> compiledDefinitions =
+            Caffeine.newBuilder().maximumSize(COMPILED_DEFINITIONS_CACHE_SIZE).build();
+
+    /**
+     * The compiled form of each definition instance, by identity. Every workflow holds its own copy
+     * of its definition, which is compiled once for all the lookups made while it is decided, and
+     * dropped with the workflow.
+     */
+    private final Cache<WorkflowDef, CompiledWorkflowDef> boundDefinitions =
+            Caffeine.newBuilder().weakKeys().maximumSize(BOUND_DEFINITIONS_CACHE_SIZE).build();
+
     public MetadataMapperService(MetadataDAO metadataDAO) {
         this.metadataDAO = metadataDAO;
     }
 
+    /**
+     * Returns the {@link CompiledWorkflowDef} of the given definition instance, compiling it on
+     * first use.
+     *
+     * @param workflowDefinition the workflow definition
+     * @return the compiled, indexed form of the definition
+     */
+    public CompiledWorkflowDef getCompiledWorkflowDef(WorkflowDef workflowDefinition) {
+        Utils.checkNotNull(workflowDefinition, "workflowDefinition cannot be null");
+        CompiledWorkflowDef bound = boundDefinitions.getIfPresent(workflowDefinition);
+        if (bound != null && bound.isCompiledFrom(workflowDefinition)) {
+            return bound;
+        }
+        String key =
+                workflowDefinition.getName()
+                        + ":"
+                        + workflowDefinition.getVersion()
+                        + ":"
+                        + workflowDefinition.getUpdateTime();
+        CompiledWorkflowDef shared =
+                compiledDefinitions.get(key, k -> CompiledWorkflowDef.compile(workflowDefinition));
+        CompiledWorkflowDef compiled =
+                shared.isCompiledFrom(workflowDefinition)
+                        ? shared
+                        : shared.rebind(workflowDefinition);
+        if (compiled == null) {
+            // modified since it was loaded, or not the same as the shared entry
+            compiled = CompiledWorkflowDef.compile(workflowDefinition);
+        }
+        boundDefinitions.put(workflowDefinition, compiled);
+        return compiled;
+    }
+
     public WorkflowDef lookupForWorkflowDefinition(String name, Integer version) {
         Optional<WorkflowDef> potentialDef =
                 version == null
@@ -104,7 +159,9 @@ public class MetadataMapperService {
                                     return wd;
                                 });
 
-        workflowDefinition.collectTasks().forEach(this::populateWorkflowTaskWithDefinition);
+        getCompiledWorkflowDef(workflowDefinition)
+                .getTasks()
+                .forEach(this::populateWorkflowTaskWithDefinition);
         checkNotEmptyDefinitions(workflowDefinition);
 
         return workflow;
@@ -112,7 +169,9 @@ public class MetadataMapperService {
 
     public WorkflowDef populateTaskDefinitions(WorkflowDef workflowDefinition) {
         Utils.checkNotNull(workflowDefinition, "workflowDefinition cannot be null");
-        workflowDefinition.collectTasks().forEach(this::populateWorkflowTaskWithDefinition);
+        getCompiledWorkflowDef(workflowDefinition)
+                .getTasks()
+                .forEach(this::populateWorkflowTaskWithDefinition);
         checkNotEmptyDefinitions(workflowDefinition);
         return workflowDefinition;
     }
@@ -159,7 +218,7 @@ public class MetadataMapperService {
 
         // Obtain the names of the tasks with missing definitions
         Set<String> missingTaskDefinitionNames =
-                workflowDefinition.collectTasks().stream()
+                getCompiledWorkflowDef(workflowDefinition).getTasks().stream()
                         .filter(
                                 workflowTask ->
                                         workflowTask.getType().equals(TaskType.SIMPLE.name()))
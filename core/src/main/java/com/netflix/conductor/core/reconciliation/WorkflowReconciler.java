@@ -12,8 +12,10 @@
  */
 package com.netflix.conductor.core.reconciliation;
 
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,11 +28,18 @@ import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.dao.QueueDAO;
 import com.netflix.conductor.metrics.Monitors;
 
+import com.google.common.collect.Lists;
+
 import static com.netflix.conductor.core.utils.Utils.DECIDER_QUEUE;
 
 /**
  * Periodically polls all running workflows in the system and evaluates them for timeouts and/or
  * maintain consistency.
+ *
+ * <p>The workflows are swept in batches of sweeperBatchSize, see {@link
+ * WorkflowSweeper#sweep(List)}. Up to sweeperThreadCount batches are in flight at a time, and a new
+ * batch is popped from the decider queue as soon as one completes, so that a slow workflow only
+ * holds back its own batch.
  */
 @Component
 @ConditionalOnProperty(
@@ -39,10 +48,15 @@ import static com.netflix.conductor.core.utils.Utils.DECIDER_QUEUE;
         matchIfMissing = true)
 public class WorkflowReconciler extends LifecycleAwareComponent {
 
+    private static final long QUEUE_DEPTH_RECORD_INTERVAL_MILLIS = 1000;
+
     private final WorkflowSweeper workflowSweeper;
     private final QueueDAO queueDAO;
-    private final int sweeperThreadCount;
+    private final int sweeperBatchSize;
     private final int sweeperWorkflowPollTimeout;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private long queueDepthRecordedAt;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(WorkflowReconciler.class);
 
@@ -50,12 +64,15 @@ public class WorkflowReconciler extends LifecycleAwareComponent {
             WorkflowSweeper workflowSweeper, QueueDAO queueDAO, ConductorProperties properties) {
         this.workflowSweeper = workflowSweeper;
         this.queueDAO = queueDAO;
-        this.sweeperThreadCount = properties.getSweeperThreadCount();
+        this.sweeperBatchSize = Math.max(1, properties.getSweeperBatchSize());
         this.sweeperWorkflowPollTimeout =
                 (int) properties.getSweeperWorkflowPollTimeout().toMillis();
+        this.maxInFlight = properties.getSweeperThreadCount() * sweeperBatchSize;
+        this.inFlight = new Semaphore(maxInFlight);
         LOGGER.info(
-                "WorkflowReconciler initialized with {} sweeper threads",
-                properties.getSweeperThreadCount());
+                "WorkflowReconciler initialized with {} sweeper threads and batches of {}",
+                properties.getSweeperThreadCount(),
+                sweeperBatchSize);
     }
 
     @Scheduled(
@@ -66,21 +83,12 @@ public class WorkflowReconciler extends LifecycleAwareComponent {
             if (!isRunning()) {
                 LOGGER.debug("Component stopped, skip workflow sweep");
             } else {
-                List<String> workflowIds =
-                        queueDAO.pop(DECIDER_QUEUE, sweeperThreadCount, sweeperWorkflowPollTimeout);
-                if (workflowIds != null) {
-                    // wait for all workflow ids to be "swept"
-                    CompletableFuture.allOf(
-                                    workflowIds.stream()
-                                            .map(workflowSweeper::sweepAsync)
-                                            .toArray(CompletableFuture[]::new))
-                            .get();
-                    LOGGER.debug(
-                            "Sweeper processed {} from the decider queue",
-                            String.join(",", workflowIds));
+                // keeps the window full until the decider queue has no workflow due
+                while (isRunning() && pollBatches()) {
+                    recordQueueDepth(false);
                 }
                 // NOTE: Disabling the sweeper implicitly disables this metric.
-                recordQueueDepth();
+                recordQueueDepth(true);
             }
         } catch (Exception e) {
             Monitors.error(WorkflowReconciler.class.getSimpleName(), "poll");
@@ -92,8 +100,57 @@ public class WorkflowReconciler extends LifecycleAwareComponent {
         }
     }
 
-    private void recordQueueDepth() {
-        int currentQueueSize = queueDAO.getSize(DECIDER_QUEUE);
-        Monitors.recordGauge(DECIDER_QUEUE, currentQueueSize);
+    /**
+     * Pops as many workflows as the free slots of the window, at least one batch, and submits them
+     * in batches to the sweeper.
+     *
+     * @return true if the decider queue returned workflows
+     */
+    private boolean pollBatches() throws InterruptedException {
+        if (!inFlight.tryAcquire(
+                sweeperBatchSize, sweeperWorkflowPollTimeout, TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        int count = sweeperBatchSize + inFlight.drainPermits();
+        List<String> workflowIds = Collections.emptyList();
+        try {
+            workflowIds = queueDAO.pop(DECIDER_QUEUE, count, sweeperWorkflowPollTimeout);
+            if (workflowIds == null) {
+                workflowIds = Collections.emptyList();
+            }
+        } finally {
+            inFlight.release(count - workflowIds.size());
+        }
+        if (workflowIds.isEmpty()) {
+            return false;
+        }
+        long polledAt = System.currentTimeMillis();
+        for (List<String> batch : Lists.partition(workflowIds, sweeperBatchSize)) {
+            try {
+                workflowSweeper
+                        .sweepAsync(batch)
+                        .whenComplete(
+                                (result, error) -> {
+                                    inFlight.release(batch.size());
+                                    Monitors.recordWorkflowSweepLag(
+                                            System.currentTimeMillis() - polledAt);
+                                });
+            } catch (RuntimeException e) {
+                inFlight.release(batch.size());
+                throw e;
+            }
+        }
+        Monitors.recordWorkflowSweepInFlight(maxInFlight - inFlight.availablePermits());
+        LOGGER.debug("Sweeper submitted {} from the decider queue", String.join(",", workflowIds));
+        return true;
+    }
+
+    private void recordQueueDepth(boolean force) {
+        long now = System.currentTimeMillis();
+        if (force || now - queueDepthRecordedAt >= QUEUE_DEPTH_RECORD_INTERVAL_MILLIS) {
+            queueDepthRecordedAt = now;
+            int currentQueueSize = queueDAO.getSize(DECIDER_QUEUE);
+            Monitors.recordGauge(DECIDER_QUEUE, currentQueueSize);
+        }
     }
 }
@@ -13,6 +13,10 @@
 package com.netflix.conductor.core.reconciliation;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
@@ -25,6 +29,8 @@ import org.springframework.stereotype.Component;
 import com.netflix.conductor.annotations.VisibleForTesting;
 import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.common.metadata.tasks.TaskType;
+import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
+import com.netflix.conductor.common.metadata.workflow.WorkflowTask;
 import com.netflix.conductor.core.WorkflowContext;
 import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.core.dal.ExecutionDAOFacade;
@@ -76,14 +82,81 @@ public class WorkflowSweeper {
         return CompletableFuture.completedFuture(null);
     }
 
+    @Async(SWEEPER_EXECUTOR_NAME)
+    public CompletableFuture<Void> sweepAsync(List<String> workflowIds) {
+        sweep(workflowIds);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Sweeps the workflows as {@link #sweep(String)} does, extending their leases in the decider
+     * queue with one {@link QueueDAO#setUnackTimeout(String, Map)} call. Each workflow is locked
+     * only while it is read and decided, so the decides from the API and the task updates do not
+     * wait for the rest of the batch.
+     */
+    public void sweep(List<String> workflowIds) {
+        WorkflowContext.set(new WorkflowContext(properties.getAppId()));
+        List<String> removedIds = new ArrayList<>();
+        Map<String, Long> unackTimeouts = new LinkedHashMap<>();
+        int swept = 0;
+        for (String workflowId : workflowIds) {
+            if (!executionLockService.acquireLock(workflowId)) {
+                continue;
+            }
+            swept++;
+            long unackTimeout =
+                    workflowOffsetWithJitter(properties.getWorkflowOffsetTimeout().getSeconds())
+                            * 1000;
+            try {
+                WorkflowModel workflow = executionDAOFacade.getWorkflowModel(workflowId, true);
+                LOGGER.debug("Running sweeper for workflow {}", workflowId);
+                if (workflowRepairService != null) {
+                    // Verify and repair tasks in the workflow.
+                    workflowRepairService.verifyAndRepairWorkflowTasks(workflow);
+                }
+                long decideStartTime = System.currentTimeMillis();
+                workflow = workflowExecutor.decideLocked(workflow);
+                Monitors.recordWorkflowDecisionTime(System.currentTimeMillis() - decideStartTime);
+                if (workflow.getStatus().isTerminal()) {
+                    removedIds.add(workflowId);
+                    continue;
+                }
+                unackTimeout = unackTimeout(workflow, System.currentTimeMillis());
+            } catch (NotFoundException nfe) {
+                removedIds.add(workflowId);
+                LOGGER.info(
+                        "Workflow NOT found for id:{}. Removed it from decider queue",
+                        workflowId,
+                        nfe);
+                continue;
+            } catch (Exception e) {
+                Monitors.error(CLASS_NAME, "sweep");
+                LOGGER.error("Error running sweep for " + workflowId, e);
+            } finally {
+                executionLockService.releaseLock(workflowId);
+            }
+            unackTimeouts.put(workflowId, unackTimeout);
+        }
+
+        if (!removedIds.isEmpty()) {
+            queueDAO.remove(DECIDER_QUEUE, removedIds);
+        }
+        if (!unackTimeouts.isEmpty()) {
+            queueDAO.setUnackTimeout(DECIDER_QUEUE, unackTimeouts);
+        }
+        Monitors.recordWorkflowSweep(swept);
+    }
+
     public void sweep(String workflowId) {
         WorkflowContext workflowContext = new WorkflowContext(properties.getAppId());
         WorkflowContext.set(workflowContext);
         WorkflowModel workflow = null;
+        boolean decided = false;
         try {
             if (!executionLockService.acquireLock(workflowId)) {
                 return;
             }
+            Monitors.recordWorkflowSweep(1);
             workflow = executionDAOFacade.getWorkflowModel(workflowId, true);
             LOGGER.debug("Running sweeper for workflow {}", workflowId);
             if (workflowRepairService != null) {
@@ -97,6 +170,7 @@ public class WorkflowSweeper {
                 queueDAO.remove(DECIDER_QUEUE, workflowId);
                 return;
             }
+            decided = workflow != null;
         } catch (NotFoundException nfe) {
             queueDAO.remove(DECIDER_QUEUE, workflowId);
             LOGGER.info(
@@ -108,75 +182,135 @@ public class WorkflowSweeper {
         } finally {
             executionLockService.releaseLock(workflowId);
         }
-        long workflowOffsetTimeout =
-                workflowOffsetWithJitter(properties.getWorkflowOffsetTimeout().getSeconds());
-        if (workflow != null) {
+        if (decided) {
             long startTime = Instant.now().toEpochMilli();
-            unack(workflow, workflowOffsetTimeout);
+            unack(workflow);
             long endTime = Instant.now().toEpochMilli();
             Monitors.recordUnackTime(workflow.getWorkflowName(), endTime - startTime);
         } else {
-            LOGGER.warn(
-                    "Workflow with {} id can not be found. Attempting to unack using the id",
-                    workflowId);
+            // the workflow could not be decided, it is retried after the workflow offset
+            long workflowOffsetTimeout =
+                    workflowOffsetWithJitter(properties.getWorkflowOffsetTimeout().getSeconds());
+            if (workflow == null) {
+                LOGGER.warn(
+                        "Workflow with {} id can not be found. Attempting to unack using the id",
+                        workflowId);
+            }
             queueDAO.setUnackTimeout(DECIDER_QUEUE, workflowId, workflowOffsetTimeout * 1000);
         }
     }
 
     @VisibleForTesting
-    void unack(WorkflowModel workflowModel, long workflowOffsetTimeout) {
-        long postponeDurationSeconds = 0;
-        for (TaskModel taskModel : workflowModel.getTasks()) {
-            if (taskModel.getStatus() == Status.IN_PROGRESS) {
-                if (taskModel.getTaskType().equals(TaskType.TASK_TYPE_WAIT)) {
-                    if (taskModel.getWaitTimeout() == 0) {
-                        postponeDurationSeconds = workflowOffsetTimeout;
-                    } else {
-                        long deltaInSeconds =
-                                (taskModel.getWaitTimeout() - System.currentTimeMillis()) / 1000;
-                        postponeDurationSeconds = (deltaInSeconds > 0) ? deltaInSeconds : 0;
-                    }
-                } else if (taskModel.getTaskType().equals(TaskType.TASK_TYPE_HUMAN)) {
-                    postponeDurationSeconds = workflowOffsetTimeout;
-                } else {
-                    postponeDurationSeconds =
-                            (taskModel.getResponseTimeoutSeconds() != 0)
-                                    ? taskModel.getResponseTimeoutSeconds() + 1
-                                    : workflowOffsetTimeout;
-                }
+    void unack(WorkflowModel workflowModel) {
+        queueDAO.setUnackTimeout(
+                DECIDER_QUEUE,
+                workflowModel.getWorkflowId(),
+                unackTimeout(workflowModel, System.currentTimeMillis()));
+    }
 
-                if (postponeDurationSeconds
-                        > properties.getMaxPostponeDurationSeconds().getSeconds()) {
-                    postponeDurationSeconds =
-                            properties.getMaxPostponeDurationSeconds().getSeconds();
-                }
+    /**
+     * The decider queue is the timer index of the workflows: the workflow is swept again one second
+     * after the earliest of its timeouts that is still to come, see {@link
+     * #nextTimeout(WorkflowModel, long)}, and at the latest after the workflowRepairInterval. The
+     * later decides do not move the workflow in the decider queue, the tasks they schedule with
+     * shorter timeouts, and the task messages lost meanwhile, wait for the next sweep.
+     *
+     * @return the unack timeout of the workflow in the decider queue, in milliseconds
+     */
+    @VisibleForTesting
+    long unackTimeout(WorkflowModel workflowModel, long now) {
+        long maxPostponeDuration = properties.getMaxPostponeDurationSeconds().toMillis();
+        long repairInterval =
+                workflowOffsetWithJitter(properties.getWorkflowRepairInterval().getSeconds())
+                        * 1000;
+        long postpone = Math.min(repairInterval, maxPostponeDuration);
+        long nextTimeout = nextTimeout(workflowModel, now);
+        if (nextTimeout == Long.MAX_VALUE) {
+            return postpone;
+        }
+        return Math.min(nextTimeout - now + 1000, postpone);
+    }
 
-                break;
-            } else if (taskModel.getStatus() == Status.SCHEDULED) {
-                Optional<TaskDef> taskDefinition = taskModel.getTaskDefinition();
-                if (taskDefinition.isPresent()) {
-                    TaskDef taskDef = taskDefinition.get();
-                    if (taskDef.getPollTimeoutSeconds() != null
-                            && taskDef.getPollTimeoutSeconds() != 0) {
-                        postponeDurationSeconds = taskDef.getPollTimeoutSeconds() + 1;
-                    } else {
-                        postponeDurationSeconds =
-                                (workflowModel.getWorkflowDefinition().getTimeoutSeconds() != 0)
-                                        ? workflowModel.getWorkflowDefinition().getTimeoutSeconds()
-                                                + 1
-                                        : workflowOffsetTimeout;
-                    }
-                } else {
-                    postponeDurationSeconds =
-                            (workflowModel.getWorkflowDefinition().getTimeoutSeconds() != 0)
-                                    ? workflowModel.getWorkflowDefinition().getTimeoutSeconds() + 1
-                                    : workflowOffsetTimeout;
-                }
-                break;
+    /**
+     * The earliest time after now at which the decider can time out the workflow or one of its
+     * tasks, as checked by {@link com.netflix.conductor.core.execution.DeciderService}: the
+     * workflow timeout, the total, poll and response timeouts of the tasks, and the wait timeout of
+     * the WAIT tasks. The timeouts already past were evaluated by the decide that preceded.
+     *
+     * @return the time in milliseconds, {@link Long#MAX_VALUE} if there is none
+     */
+    private long nextTimeout(WorkflowModel workflowModel, long now) {
+        long next = Long.MAX_VALUE;
+        WorkflowDef workflowDef = workflowModel.getWorkflowDefinition();
+        if (workflowDef != null && workflowDef.getTimeoutSeconds() > 0) {
+            long startTime =
+                    workflowModel.getLastRetriedTime() > 0
+                            ? workflowModel.getLastRetriedTime()
+                            : workflowModel.getCreateTime();
+            next = earliest(next, startTime + 1000L * workflowDef.getTimeoutSeconds(), now);
+        }
+        for (TaskModel taskModel : workflowModel.getTasks()) {
+            Status status = taskModel.getStatus();
+            if (status.isTerminal()) {
+                continue;
+            }
+            if (status == Status.IN_PROGRESS
+                    && TaskType.TASK_TYPE_WAIT.equals(taskModel.getTaskType())
+                    && taskModel.getWaitTimeout() > 0) {
+                next = earliest(next, taskModel.getWaitTimeout(), now);
+            }
+            TaskDef taskDef = getTaskDefinition(workflowDef, taskModel);
+            if (taskDef == null) {
+                continue;
+            }
+            long startDelay = 1000L * taskModel.getStartDelayInSeconds();
+            long callbackAfter = 1000L * taskModel.getCallbackAfterSeconds();
+            if (taskDef.getTimeoutSeconds() > 0 && taskModel.getStartTime() > 0) {
+                next =
+                        earliest(
+                                next,
+                                taskModel.getStartTime()
+                                        + startDelay
+                                        + 1000L * taskDef.getTimeoutSeconds(),
+                                now);
+            }
+            if (status == Status.SCHEDULED
+                    && taskDef.getPollTimeoutSeconds() != null
+                    && taskDef.getPollTimeoutSeconds() > 0) {
+                next =
+                        earliest(
+                                next,
+                                taskModel.getScheduledTime()
+                                        + startDelay
+                                        + callbackAfter
+                                        + 1000L * taskDef.getPollTimeoutSeconds(),
+                                now);
+            }
+            if (status == Status.IN_PROGRESS && taskDef.getResponseTimeoutSeconds() > 0) {
+                next =
+                        earliest(
+                                next,
+                                taskModel.getUpdateTime()
+                                        + callbackAfter
+                                        + 1000L * taskDef.getResponseTimeoutSeconds(),
+                                now);
             }
         }
-        queueDAO.setUnackTimeout(
-                DECIDER_QUEUE, workflowModel.getWorkflowId(), postponeDurationSeconds * 1000);
+        return next;
+    }
+
+    /** The definition of the task, looked up in the workflow definition if not embedded. */
+    private static TaskDef getTaskDefinition(WorkflowDef workflowDef, TaskModel taskModel) {
+        Optional<TaskDef> taskDefinition = taskModel.getTaskDefinition();
+        if (taskDefinition.isPresent() || workflowDef == null) {
+            return taskDefinition.orElse(null);
+        }
+        WorkflowTask workflowTask = workflowDef.getTaskByRefName(taskModel.getReferenceTaskName());
+        return workflowTask != null ? workflowTask.getTaskDefinition() : null;
+    }
+
+    private static long earliest(long next, long timeout, long now) {
+        return timeout > now ? Math.min(next, timeout) : next;
     }
 
     /**
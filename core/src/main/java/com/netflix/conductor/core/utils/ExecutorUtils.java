@@ -0,0 +1,144 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the thread pools of the server, on platform threads or, when enabled with {@code
+ * conductor.app.virtualThreadsEnabled}, on virtual threads. The virtual threads are looked up at
+ * runtime, as they are only available from Java 21; on older JVMs the platform threads are used.
+ */
+public final class ExecutorUtils {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorUtils.class);
+
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = lookupVirtualThreadFactory();
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR = lookupThreadPerTaskExecutor();
+    private static final Method IS_VIRTUAL = lookupIsVirtual();
+
+    private ExecutorUtils() {}
+
+    /**
+     * @return whether the JVM supports virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_THREAD_FACTORY != null && NEW_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * @param thread the thread to check
+     * @return whether the thread is a virtual thread
+     */
+    public static boolean isVirtualThread(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param virtualThreads whether to create virtual threads, if supported
+     * @param namingPattern the {@link String#format(String, Object...)} pattern of the thread
+     *     names, given the number of the thread
+     * @return a factory of platform threads, or of virtual threads
+     */
+    public static ThreadFactory newThreadFactory(boolean virtualThreads, String namingPattern) {
+        if (useVirtualThreads(virtualThreads, namingPattern)) {
+            AtomicLong count = new AtomicLong();
+            return runnable -> {
+                Thread thread = VIRTUAL_THREAD_FACTORY.newThread(runnable);
+                thread.setName(String.format(namingPattern, count.incrementAndGet()));
+                return thread;
+            };
+        }
+        return new BasicThreadFactory.Builder().namingPattern(namingPattern).build();
+    }
+
+    /**
+     * A pool of {@code threadCount} platform threads, or an executor starting a virtual thread per
+     * task. The virtual threads are not bounded by {@code threadCount}, the callers bound the
+     * number of tasks they submit, e.g. with a {@link SemaphoreUtil}.
+     *
+     * @param virtualThreads whether to run the tasks on virtual threads, if supported
+     * @param threadCount the number of platform threads
+     * @param namingPattern the {@link String#format(String, Object...)} pattern of the thread
+     *     names, given the number of the thread
+     */
+    public static ExecutorService newFixedThreadPool(
+            boolean virtualThreads, int threadCount, String namingPattern) {
+        if (useVirtualThreads(virtualThreads, namingPattern)) {
+            try {
+                return (ExecutorService)
+                        NEW_THREAD_PER_TASK_EXECUTOR.invoke(
+                                null, newThreadFactory(true, namingPattern));
+            } catch (ReflectiveOperationException e) {
+                LOGGER.warn(
+                        "Failed to create the virtual thread executor: {}, using platform threads",
+                        namingPattern,
+                        e);
+            }
+        }
+        return Executors.newFixedThreadPool(
+                threadCount, new BasicThreadFactory.Builder().namingPattern(namingPattern).build());
+    }
+
+    private static boolean useVirtualThreads(boolean virtualThreads, String namingPattern) {
+        if (virtualThreads && !isVirtualThreadSupported()) {
+            LOGGER.warn(
+                    "Virtual threads are not supported by this JVM, {} uses platform threads",
+                    namingPattern);
+            return false;
+        }
+        return virtualThreads;
+    }
+
+    private static ThreadFactory lookupVirtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory)
+                    Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // before Java 21, or a preview feature which is not enabled
+            return null;
+        }
+    }
+
+    private static Method lookupThreadPerTaskExecutor() {
+        try {
+            return Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Method lookupIsVirtual() {
+        try {
+            return Thread.class.getMethod("isVirtual");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -13,6 +13,8 @@
 package com.netflix.conductor.core.utils;
 
 import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -30,12 +32,13 @@ import org.springframework.stereotype.Component;
 import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
 import com.netflix.conductor.common.utils.EnvUtils;
-import com.netflix.conductor.common.utils.TaskUtils;
 import com.netflix.conductor.model.TaskModel;
 import com.netflix.conductor.model.WorkflowModel;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
@@ -50,9 +53,14 @@ public class ParametersUtils {
             Pattern.compile(
                     "(?=(?<!\\$)\\$\\{)(?:(?=.*?\\{(?!.*?\\1)(.*\\}(?!.*\\2).*))(?=.*?\\}(?!.*?\\2)(.*)).)+?.*?(?=\\1)[^{]*(?=\\2$)",
                     Pattern.DOTALL);
+    private static final Pattern ESCAPED_PLACEHOLDER = Pattern.compile("\\$\\$\\{");
+    private static final Configuration SUPPRESS_EXCEPTIONS =
+            Configuration.defaultConfiguration().addOptions(Option.SUPPRESS_EXCEPTIONS);
 
     private final ObjectMapper objectMapper;
     private final TypeReference<Map<String, Object>> map = new TypeReference<>() {};
+    private final Cache<String, List<Placeholder>> templates =
+            Caffeine.newBuilder().maximumSize(10_000).build();
 
     public ParametersUtils(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
@@ -69,6 +77,10 @@ public class ParametersUtils {
         return getTaskInputV1(workflow, inputParams);
     }
 
+    /**
+     * Resolves the bindings of the task input against a view of the workflow that is read lazily,
+     * the input template is walked once and only the maps and lists that contain it are copied.
+     */
     public Map<String, Object> getTaskInputV2(
             Map<String, Object> input,
             WorkflowModel workflow,
@@ -77,72 +89,17 @@ public class ParametersUtils {
         Map<String, Object> inputParams;
 
         if (input != null) {
-            inputParams = clone(input);
+            inputParams = new HashMap<>(input);
         } else {
             inputParams = new HashMap<>();
         }
         if (taskDefinition != null && taskDefinition.getInputTemplate() != null) {
-            clone(taskDefinition.getInputTemplate()).forEach(inputParams::putIfAbsent);
+            taskDefinition.getInputTemplate().forEach(inputParams::putIfAbsent);
         }
 
-        Map<String, Map<String, Object>> inputMap = new HashMap<>();
-
-        Map<String, Object> workflowParams = new HashMap<>();
-        workflowParams.put("input", workflow.getInput());
-        workflowParams.put("output", workflow.getOutput());
-        workflowParams.put("status", workflow.getStatus());
-        workflowParams.put("workflowId", workflow.getWorkflowId());
-        workflowParams.put("parentWorkflowId", workflow.getParentWorkflowId());
-        workflowParams.put("parentWorkflowTaskId", workflow.getParentWorkflowTaskId());
-        workflowParams.put("workflowType", workflow.getWorkflowName());
-        workflowParams.put("version", workflow.getWorkflowVersion());
-        workflowParams.put("correlationId", workflow.getCorrelationId());
-        workflowParams.put("reasonForIncompletion", workflow.getReasonForIncompletion());
-        workflowParams.put("schemaVersion", workflow.getWorkflowDefinition().getSchemaVersion());
-        workflowParams.put("variables", workflow.getVariables());
-
-        inputMap.put("workflow", workflowParams);
-
-        // For new workflow being started the list of tasks will be empty
-        workflow.getTasks().stream()
-                .map(TaskModel::getReferenceTaskName)
-                .map(workflow::getTaskByRefName)
-                .forEach(
-                        task -> {
-                            Map<String, Object> taskParams = new HashMap<>();
-                            taskParams.put("input", task.getInputData());
-                            taskParams.put("output", task.getOutputData());
-                            taskParams.put("taskType", task.getTaskType());
-                            if (task.getStatus() != null) {
-                                taskParams.put("status", task.getStatus().toString());
-                            }
-                            taskParams.put("referenceTaskName", task.getReferenceTaskName());
-                            taskParams.put("retryCount", task.getRetryCount());
-                            taskParams.put("correlationId", task.getCorrelationId());
-                            taskParams.put("pollCount", task.getPollCount());
-                            taskParams.put("taskDefName", task.getTaskDefName());
-                            taskParams.put("scheduledTime", task.getScheduledTime());
-                            taskParams.put("startTime", task.getStartTime());
-                            taskParams.put("endTime", task.getEndTime());
-                            taskParams.put("workflowInstanceId", task.getWorkflowInstanceId());
-                            taskParams.put("taskId", task.getTaskId());
-                            taskParams.put(
-                                    "reasonForIncompletion", task.getReasonForIncompletion());
-                            taskParams.put("callbackAfterSeconds", task.getCallbackAfterSeconds());
-                            taskParams.put("workerId", task.getWorkerId());
-                            taskParams.put("iteration", task.getIteration());
-                            inputMap.put(
-                                    task.isLoopOverTask()
-                                            ? TaskUtils.removeIterationFromTaskRefName(
-                                                    task.getReferenceTaskName())
-                                            : task.getReferenceTaskName(),
-                                    taskParams);
-                        });
-
-        Configuration option =
-                Configuration.defaultConfiguration().addOptions(Option.SUPPRESS_EXCEPTIONS);
-        DocumentContext documentContext = JsonPath.parse(inputMap, option);
-        Map<String, Object> replacedTaskInput = replace(inputParams, documentContext, taskId);
+        DocumentContext documentContext =
+                JsonPath.parse(new WorkflowContextView(workflow), SUPPRESS_EXCEPTIONS);
+        Map<String, Object> replacedTaskInput = replace(inputParams, documentContext, taskId, true);
         if (taskDefinition != null && taskDefinition.getInputTemplate() != null) {
             // If input for a given key resolves to null, try replacing it with one from
             // inputTemplate, if it exists.
@@ -170,33 +127,37 @@ public class ParametersUtils {
         } else {
             doc = json;
         }
-        Configuration option =
-                Configuration.defaultConfiguration().addOptions(Option.SUPPRESS_EXCEPTIONS);
-        DocumentContext documentContext = JsonPath.parse(doc, option);
-        return replace(input, documentContext, null);
+        DocumentContext documentContext = JsonPath.parse(doc, SUPPRESS_EXCEPTIONS);
+        return replace(input, documentContext, null, false);
     }
 
     public Object replace(String paramString) {
-        Configuration option =
-                Configuration.defaultConfiguration().addOptions(Option.SUPPRESS_EXCEPTIONS);
-        DocumentContext documentContext = JsonPath.parse(Collections.emptyMap(), option);
+        DocumentContext documentContext =
+                JsonPath.parse(Collections.emptyMap(), SUPPRESS_EXCEPTIONS);
         return replaceVariables(paramString, documentContext, null);
     }
 
+    /**
+     * @param toJson whether the values that are not JSON types are converted to JSON types, as the
+     *     deep clone of the input template used to do
+     */
     @SuppressWarnings("unchecked")
     private Map<String, Object> replace(
-            Map<String, Object> input, DocumentContext documentContext, String taskId) {
+            Map<String, Object> input,
+            DocumentContext documentContext,
+            String taskId,
+            boolean toJson) {
         Map<String, Object> result = new HashMap<>();
         for (Entry<String, Object> e : input.entrySet()) {
             Object newValue;
-            Object value = e.getValue();
+            Object value = toJson ? toJsonValue(e.getValue()) : e.getValue();
             if (value instanceof String) {
                 newValue = replaceVariables(value.toString(), documentContext, taskId);
             } else if (value instanceof Map) {
                 // recursive call
-                newValue = replace((Map<String, Object>) value, documentContext, taskId);
+                newValue = replace((Map<String, Object>) value, documentContext, taskId, toJson);
             } else if (value instanceof List) {
-                newValue = replaceList((List<?>) value, taskId, documentContext);
+                newValue = replaceList((List<?>) value, taskId, documentContext, toJson);
             } else {
                 newValue = value;
             }
@@ -206,17 +167,18 @@ public class ParametersUtils {
     }
 
     @SuppressWarnings("unchecked")
-    private Object replaceList(List<?> values, String taskId, DocumentContext io) {
+    private Object replaceList(List<?> values, String taskId, DocumentContext io, boolean toJson) {
         List<Object> replacedList = new LinkedList<>();
-        for (Object listVal : values) {
+        for (Object value : values) {
+            Object listVal = toJson ? toJsonValue(value) : value;
             if (listVal instanceof String) {
                 Object replaced = replaceVariables(listVal.toString(), io, taskId);
                 replacedList.add(replaced);
             } else if (listVal instanceof Map) {
-                Object replaced = replace((Map<String, Object>) listVal, io, taskId);
+                Object replaced = replace((Map<String, Object>) listVal, io, taskId, toJson);
                 replacedList.add(replaced);
             } else if (listVal instanceof List) {
-                Object replaced = replaceList((List<?>) listVal, taskId, io);
+                Object replaced = replaceList((List<?>) listVal, taskId, io, toJson);
                 replacedList.add(replaced);
             } else {
                 replacedList.add(listVal);
@@ -225,6 +187,31 @@ public class ParametersUtils {
         return replacedList;
     }
 
+    /**
+     * @return the value as read back from its JSON, the JSON types being returned as is
+     */
+    private Object toJsonValue(Object value) {
+        if (value == null
+                || value instanceof String
+                || value instanceof Map
+                || value instanceof List
+                || value instanceof Boolean
+                || value instanceof Integer
+                || value instanceof Double
+                || value instanceof BigInteger) {
+            return value;
+        }
+        if (value instanceof Long) {
+            long longValue = (Long) value;
+            return longValue == (int) longValue ? Integer.valueOf((int) longValue) : value;
+        }
+        try {
+            return objectMapper.readValue(objectMapper.writeValueAsBytes(value), Object.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to clone input params", e);
+        }
+    }
+
     private Object replaceVariables(
             String paramString, DocumentContext documentContext, String taskId) {
         return replaceVariables(paramString, documentContext, taskId, 0);
@@ -232,14 +219,17 @@ public class ParametersUtils {
 
     private Object replaceVariables(
             String paramString, DocumentContext documentContext, String taskId, int depth) {
-        var matcher = PATTERN.matcher(paramString);
+        if (!paramString.contains("${")) {
+            // nothing to replace, nor to unescape
+            return paramString;
+        }
         var replacements = new LinkedList<Replacement>();
-        while (matcher.find()) {
-            var start = matcher.start();
-            var end = matcher.end();
-            var match = paramString.substring(start, end);
-            String paramPath = match.substring(2, match.length() - 1);
-            paramPath = replaceVariables(paramPath, documentContext, taskId, depth + 1).toString();
+        for (Placeholder placeholder : templates.get(paramString, this::parse)) {
+            var start = placeholder.startIndex;
+            var end = placeholder.endIndex;
+            String paramPath =
+                    replaceVariables(placeholder.path, documentContext, taskId, depth + 1)
+                            .toString();
             // if the paramPath is blank, meaning no value in between ${ and }
             // like ${}, ${  } etc, set the value to empty string
             if (StringUtils.isBlank(paramPath)) {
@@ -278,7 +268,20 @@ public class ParametersUtils {
                     replacement.getEndIndex(),
                     Objects.toString(replacement.getReplacement()));
         }
-        return builder.toString().replaceAll("\\$\\$\\{", "\\${");
+        return ESCAPED_PLACEHOLDER.matcher(builder.toString()).replaceAll("\\${");
+    }
+
+    /** Finds the bindings of a string once, the strings come from a few definitions. */
+    private List<Placeholder> parse(String paramString) {
+        var matcher = PATTERN.matcher(paramString);
+        List<Placeholder> placeholders = new ArrayList<>();
+        while (matcher.find()) {
+            var start = matcher.start();
+            var end = matcher.end();
+            placeholders.add(
+                    new Placeholder(paramString.substring(start + 2, end - 1), start, end));
+        }
+        return placeholders;
     }
 
     @Deprecated
@@ -330,6 +333,19 @@ public class ParametersUtils {
         return inputParams;
     }
 
+    /** A binding of a string: the path between ${ and }, and its position in the string. */
+    private static class Placeholder {
+        private final String path;
+        private final int startIndex;
+        private final int endIndex;
+
+        private Placeholder(String path, int startIndex, int endIndex) {
+            this.path = path;
+            this.startIndex = startIndex;
+            this.endIndex = endIndex;
+        }
+    }
+
     private static class Replacement implements Comparable<Replacement> {
         private final int startIndex;
         private final int endIndex;
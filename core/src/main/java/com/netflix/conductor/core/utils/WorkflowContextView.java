@@ -0,0 +1,140 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.utils;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.netflix.conductor.common.utils.TaskUtils;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
+
+/**
+ * Read-only view of a workflow, as seen by the JSONPath bindings of the task inputs: {@code
+ * workflow} and one entry per task reference name, the iteration being removed from the names of
+ * the tasks in a loop. The entries are built when the bindings read them, so that resolving an
+ * input does not depend on the number of tasks in the workflow.
+ */
+class WorkflowContextView extends AbstractMap<String, Object> {
+
+    private static final String WORKFLOW = "workflow";
+
+    private final WorkflowModel workflow;
+    private final Map<String, Map<String, Object>> entries = new HashMap<>();
+    private Map<String, TaskModel> tasksByName;
+
+    WorkflowContextView(WorkflowModel workflow) {
+        this.workflow = workflow;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return WORKFLOW.equals(key) || getTasksByName().containsKey(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String name)) {
+            return null;
+        }
+        Map<String, Object> entry = entries.get(name);
+        if (entry == null) {
+            // a task named workflow hides the workflow, as the tasks were added last
+            TaskModel task = getTasksByName().get(name);
+            if (task != null) {
+                entry = taskParams(task);
+            } else if (WORKFLOW.equals(name)) {
+                entry = workflowParams(workflow);
+            } else {
+                return null;
+            }
+            entries.put(name, entry);
+        }
+        return entry;
+    }
+
+    /** Builds every entry, only needed by the bindings that scan all the keys. */
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> all = new LinkedHashMap<>();
+        all.put(WORKFLOW, get(WORKFLOW));
+        getTasksByName().keySet().forEach(name -> all.put(name, get(name)));
+        return Collections.unmodifiableMap(all).entrySet();
+    }
+
+    /**
+     * @return the latest attempt of the last task in the list for each name
+     */
+    private Map<String, TaskModel> getTasksByName() {
+        if (tasksByName == null) {
+            tasksByName = new HashMap<>();
+            // For new workflow being started the list of tasks will be empty
+            for (TaskModel listed : workflow.getTasks()) {
+                TaskModel task = workflow.getTaskByRefName(listed.getReferenceTaskName());
+                tasksByName.put(
+                        task.isLoopOverTask()
+                                ? TaskUtils.removeIterationFromTaskRefName(
+                                        task.getReferenceTaskName())
+                                : task.getReferenceTaskName(),
+                        task);
+            }
+        }
+        return tasksByName;
+    }
+
+    private static Map<String, Object> workflowParams(WorkflowModel workflow) {
+        Map<String, Object> workflowParams = new HashMap<>();
+        workflowParams.put("input", workflow.getInput());
+        workflowParams.put("output", workflow.getOutput());
+        workflowParams.put("status", workflow.getStatus());
+        workflowParams.put("workflowId", workflow.getWorkflowId());
+        workflowParams.put("parentWorkflowId", workflow.getParentWorkflowId());
+        workflowParams.put("parentWorkflowTaskId", workflow.getParentWorkflowTaskId());
+        workflowParams.put("workflowType", workflow.getWorkflowName());
+        workflowParams.put("version", workflow.getWorkflowVersion());
+        workflowParams.put("correlationId", workflow.getCorrelationId());
+        workflowParams.put("reasonForIncompletion", workflow.getReasonForIncompletion());
+        workflowParams.put("schemaVersion", workflow.getWorkflowDefinition().getSchemaVersion());
+        workflowParams.put("variables", workflow.getVariables());
+        return workflowParams;
+    }
+
+    private static Map<String, Object> taskParams(TaskModel task) {
+        Map<String, Object> taskParams = new HashMap<>();
+        taskParams.put("input", task.getInputData());
+        taskParams.put("output", task.getOutputData());
+        taskParams.put("taskType", task.getTaskType());
+        if (task.getStatus() != null) {
+            taskParams.put("status", task.getStatus().toString());
+        }
+        taskParams.put("referenceTaskName", task.getReferenceTaskName());
+        taskParams.put("retryCount", task.getRetryCount());
+        taskParams.put("correlationId", task.getCorrelationId());
+        taskParams.put("pollCount", task.getPollCount());
+        taskParams.put("taskDefName", task.getTaskDefName());
+        taskParams.put("scheduledTime", task.getScheduledTime());
+        taskParams.put("startTime", task.getStartTime());
+        taskParams.put("endTime", task.getEndTime());
+        taskParams.put("workflowInstanceId", task.getWorkflowInstanceId());
+        taskParams.put("taskId", task.getTaskId());
+        taskParams.put("reasonForIncompletion", task.getReasonForIncompletion());
+        taskParams.put("callbackAfterSeconds", task.getCallbackAfterSeconds());
+        taskParams.put("workerId", task.getWorkerId());
+        taskParams.put("iteration", task.getIteration());
+        return taskParams;
+    }
+}
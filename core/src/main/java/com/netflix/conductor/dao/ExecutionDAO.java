@@ -52,6 +52,16 @@ public interface ExecutionDAO {
      */
     void updateTask(TaskModel task);
 
+    /**
+     * Updates the given tasks. Implementations should override the default, which updates the tasks
+     * one by one, to write them in a single batch.
+     *
+     * @param tasks Tasks to be updated
+     */
+    default void updateTasks(List<TaskModel> tasks) {
+        tasks.forEach(this::updateTask);
+    }
+
     /**
      * Checks if the number of tasks in progress for the given taskDef will exceed the limit if the
      * task is scheduled to be in progress (given to the worker or for system tasks start() method
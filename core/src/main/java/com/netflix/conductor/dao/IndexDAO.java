@@ -14,6 +14,7 @@ package com.netflix.conductor.dao;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import com.netflix.conductor.common.metadata.events.EventExecution;
 import com.netflix.conductor.common.metadata.tasks.TaskExecLog;
@@ -21,6 +22,9 @@ import com.netflix.conductor.common.run.SearchResult;
 import com.netflix.conductor.common.run.TaskSummary;
 import com.netflix.conductor.common.run.WorkflowSummary;
 import com.netflix.conductor.core.events.queue.Message;
+import com.netflix.conductor.core.index.SearchCursor;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
 
 /** DAO to index the workflow and task details for searching. */
 public interface IndexDAO {
@@ -43,6 +47,18 @@ public interface IndexDAO {
      */
     CompletableFuture<Void> asyncIndexWorkflow(WorkflowSummary workflow);
 
+    /**
+     * Indexes the summary of the workflow asynchronously. Implementations writing the JSON document
+     * of the summary can build it straight from the model with {@link
+     * com.netflix.conductor.core.index.SummaryDocuments}.
+     *
+     * @param workflow Workflow to be indexed
+     * @return CompletableFuture of type void
+     */
+    default CompletableFuture<Void> asyncIndexWorkflow(WorkflowModel workflow) {
+        return asyncIndexWorkflow(new WorkflowSummary(workflow.toWorkflow()));
+    }
+
     /**
      * @param task Task to be indexed
      */
@@ -54,6 +70,17 @@ public interface IndexDAO {
      */
     CompletableFuture<Void> asyncIndexTask(TaskSummary task);
 
+    /**
+     * Indexes the summary of the task asynchronously, see {@link
+     * #asyncIndexWorkflow(WorkflowModel)}.
+     *
+     * @param task Task to be indexed asynchronously
+     * @return CompletableFuture of type void
+     */
+    default CompletableFuture<Void> asyncIndexTask(TaskModel task) {
+        return asyncIndexTask(new TaskSummary(task.toTask()));
+    }
+
     /**
      * @param query SQL like query for workflow search parameters.
      * @param freeText Additional query in free text. Lucene syntax
@@ -76,6 +103,35 @@ public interface IndexDAO {
     SearchResult<WorkflowSummary> searchWorkflowSummary(
             String query, String freeText, int start, int count, List<String> sort);
 
+    /**
+     * Streams the ids of all the workflows matching the query, fetching them one page at a time.
+     * The stream must be closed once consumed, to release the resources of the search.
+     *
+     * <p>The default implementation pages through {@link #searchWorkflows(String, String, int, int,
+     * List)}, the implementations able to keep a cursor on the search results should override it.
+     *
+     * @param query SQL like query for workflow search parameters.
+     * @param freeText Additional query in free text. Lucene syntax
+     * @param sort sort options
+     * @return the ids of the workflows matching the query
+     */
+    default Stream<String> streamWorkflows(String query, String freeText, List<String> sort) {
+        int pageSize = 1000;
+        return new SearchCursor<Integer>(
+                        0,
+                        start -> {
+                            List<String> workflowIds =
+                                    searchWorkflows(query, freeText, start, pageSize, sort)
+                                            .getResults();
+                            return new SearchCursor.Page<>(
+                                    workflowIds,
+                                    workflowIds.size() < pageSize
+                                            ? null
+                                            : start + workflowIds.size());
+                        })
+                .stream(() -> {});
+    }
+
     /**
      * @param query SQL like query for task search parameters.
      * @param freeText Additional query in free text. Lucene syntax
@@ -28,6 +28,29 @@ public interface PollDataDAO {
      */
     void updateLastPollData(String taskDefName, String domain, String workerId);
 
+    /**
+     * Updates the {@link PollData} information of several task queues at once, keeping their last
+     * poll times. The default implementation updates them one by one with {@link
+     * #updateLastPollData(String, String, String)}, so with the current time as last poll time, and
+     * should be overridden.
+     *
+     * @param pollData the most recently polled data, at most one per task queue and domain
+     */
+    default void updateLastPollData(List<PollData> pollData) {
+        pollData.forEach(
+                data ->
+                        updateLastPollData(
+                                data.getQueueName(), data.getDomain(), data.getWorkerId()));
+    }
+
+    /**
+     * @return true if the implementation keeps the last polls in memory itself, in which case they
+     *     are not cached again in front of it
+     */
+    default boolean cachesPollData() {
+        return false;
+    }
+
     /**
      * Retrieve the {@link PollData} for the given task in the given domain.
      *
@@ -90,6 +90,17 @@ public interface QueueDAO {
      */
     void remove(String queueName, String messageId);
 
+    /**
+     * Removes the messages in as few round trips as the implementation allows, by default one per
+     * message.
+     *
+     * @param queueName Name of the queue
+     * @param messageIds Message ids
+     */
+    default void remove(String queueName, List<String> messageIds) {
+        messageIds.forEach(messageId -> remove(queueName, messageId));
+    }
+
     /**
      * @param queueName Name of the queue
      * @return size of the queue
@@ -103,6 +114,24 @@ public interface QueueDAO {
      */
     boolean ack(String queueName, String messageId);
 
+    /**
+     * Acks the messages in as few round trips as the implementation allows, by default one per
+     * message.
+     *
+     * @param queueName Name of the queue
+     * @param messageIds Message ids
+     * @return the number of messages found and ack'ed
+     */
+    default int ack(String queueName, List<String> messageIds) {
+        int acked = 0;
+        for (String messageId : messageIds) {
+            if (ack(queueName, messageId)) {
+                acked++;
+            }
+        }
+        return acked;
+    }
+
     /**
      * Extend the lease of the unacknowledged message for longer period.
      *
@@ -114,6 +143,19 @@ public interface QueueDAO {
      */
     boolean setUnackTimeout(String queueName, String messageId, long unackTimeout);
 
+    /**
+     * Extends the leases of the messages in as few round trips as the implementation allows, by
+     * default one per message.
+     *
+     * @param queueName Name of the queue
+     * @param unackTimeouts the timeout in milliseconds of each message id, see {@link
+     *     #setUnackTimeout(String, String, long)}
+     */
+    default void setUnackTimeout(String queueName, Map<String, Long> unackTimeouts) {
+        unackTimeouts.forEach(
+                (messageId, unackTimeout) -> setUnackTimeout(queueName, messageId, unackTimeout));
+    }
+
     /**
      * @param queueName Name of the queue
      */
@@ -157,6 +199,26 @@ public interface QueueDAO {
         return true;
     }
 
+    /**
+     * Postpones the messages in as few round trips as the implementation allows, by default one
+     * {@link #postpone(String, String, int, long)} per message. The implementations which do not
+     * remove and push the messages back only postpone the messages still in the queue.
+     *
+     * @param queueName name of the queue
+     * @param messageIds message ids
+     * @param priority message priority (between 0 and 99)
+     * @param postponeDurationInSeconds duration in seconds by which the messages are to be
+     *     postponed
+     */
+    default void postpone(
+            String queueName,
+            List<String> messageIds,
+            int priority,
+            long postponeDurationInSeconds) {
+        messageIds.forEach(
+                messageId -> postpone(queueName, messageId, priority, postponeDurationInSeconds));
+    }
+
     /**
      * Check if the message with given messageId exists in the Queue.
      *
@@ -320,6 +320,18 @@ public class Monitors {
                 .record(duration, TimeUnit.MILLISECONDS);
     }
 
+    public static void recordWorkflowSweep(int count) {
+        getCounter("workflow_sweep").increment(count);
+    }
+
+    public static void recordWorkflowSweepLag(long duration) {
+        getTimer("workflow_sweep_lag").record(duration, TimeUnit.MILLISECONDS);
+    }
+
+    public static void recordWorkflowSweepInFlight(int count) {
+        gauge("workflow_sweep_in_flight", count);
+    }
+
     public static void recordTaskRateLimited(String taskDefName, int limit) {
         gauge("task_rate_limited", limit, "taskType", taskDefName);
     }
@@ -437,6 +449,35 @@ public class Monitors {
         counter("discarded_index_count", "queueType", queueType);
     }
 
+    public static void recordBulkIndexDocument(String docType) {
+        counter("bulk_index_documents", "docType", docType);
+    }
+
+    public static void recordBulkIndexCollapsed(String docType) {
+        counter("bulk_index_collapsed", "docType", docType);
+    }
+
+    public static void recordBulkIndexRetry(String docType) {
+        counter("bulk_index_retries", "docType", docType);
+    }
+
+    public static void recordBulkIndexRejected(String docType) {
+        counter("bulk_index_rejected", "docType", docType);
+    }
+
+    /**
+     * @param batchSize the number of documents in the bulk request
+     * @param collapsed the number of documents replaced by a newer version before the request
+     * @param millis the duration of the bulk request
+     */
+    public static void recordBulkIndexFlush(
+            String docType, int batchSize, int collapsed, long millis) {
+        distributionSummary("bulk_index_batch_size", "docType", docType).record(batchSize);
+        getTimer("bulk_index_flush", "docType", docType).record(millis, TimeUnit.MILLISECONDS);
+        gauge("bulk_index_collapse_ratio", "docType", docType)
+                .set((double) collapsed / (batchSize + collapsed));
+    }
+
     public static void recordAcquireLockUnsuccessful() {
         counter("acquire_lock_unsuccessful");
     }
@@ -472,4 +513,19 @@ public class Monitors {
     public static void recordTaskExecLogSize(int val) {
         gauge("task_exec_log_size", val);
     }
+
+    public static void recordHttpClientPoolStats(
+            String clientName, int leased, int pending, int available) {
+        gauge("http_client_pool_leased", leased, "client", clientName);
+        gauge("http_client_pool_pending", pending, "client", clientName);
+        gauge("http_client_pool_available", available, "client", clientName);
+    }
+
+    public static void recordScriptCompilation(String language) {
+        counter("script_compilation", "language", language);
+    }
+
+    public static void recordScriptCacheEviction(String language) {
+        counter("script_cache_eviction", "language", language);
+    }
 }
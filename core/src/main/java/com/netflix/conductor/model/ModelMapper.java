@@ -0,0 +1,34 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.model;
+
+import com.netflix.conductor.annotations.beanmapper.BeanMapper;
+import com.netflix.conductor.common.metadata.tasks.Task;
+import com.netflix.conductor.common.run.Workflow;
+
+/**
+ * Copies the properties shared by the models and the API classes, implemented at compile time by
+ * the annotation processor. The properties with different types, such as the statuses and the tasks
+ * of a workflow, are mapped by the models.
+ */
+@BeanMapper
+interface ModelMapper {
+
+    ModelMapper INSTANCE = new ModelMapperImpl();
+
+    Task toTask(TaskModel from);
+
+    Workflow toWorkflow(WorkflowModel from);
+
+    TaskModel copy(TaskModel from);
+}
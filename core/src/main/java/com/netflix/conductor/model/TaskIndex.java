@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+/**
+ * Lookup index over the tasks of a {@link WorkflowModel}: the latest task (last in list order) per
+ * reference name, the tasks by id and the tasks by iteration.
+ *
+ * <p>The task list of a workflow is mutated in place by its callers, the index therefore
+ * synchronizes itself with the list before every lookup. Tasks appended to the list since the last
+ * lookup are indexed incrementally, any other change (list replaced, cleared, shrunk or with a
+ * different element at the last indexed position) causes a full rebuild.
+ */
+final class TaskIndex {
+
+    private final Map<String, TaskModel> latestByRefName = new HashMap<>();
+    private final Map<String, TaskModel> byTaskId = new HashMap<>();
+    private final Map<Integer, List<TaskModel>> byIteration = new HashMap<>();
+
+    private List<TaskModel> indexedTasks;
+    private int indexedSize;
+    private TaskModel lastIndexedTask;
+
+    synchronized TaskModel getTaskByRefName(List<TaskModel> tasks, String refName) {
+        sync(tasks);
+        TaskModel task = latestByRefName.get(refName);
+        if (task != null && !refName.equals(task.getReferenceTaskName())) {
+            // the task was renamed after it was indexed
+            rebuild(tasks);
+            task = latestByRefName.get(refName);
+        }
+        return task;
+    }
+
+    synchronized TaskModel getTaskById(List<TaskModel> tasks, String taskId) {
+        sync(tasks);
+        TaskModel task = byTaskId.get(taskId);
+        if (task != null && !taskId.equals(task.getTaskId())) {
+            rebuild(tasks);
+            task = byTaskId.get(taskId);
+        }
+        return task;
+    }
+
+    /**
+     * Tasks are bucketed by the iteration they had when they were appended, which is final for the
+     * tasks scheduled inside a loop. The DO_WHILE task itself increments its iteration in place and
+     * is only returned while it still matches.
+     */
+    synchronized List<TaskModel> getTasksByIteration(List<TaskModel> tasks, int iteration) {
+        sync(tasks);
+        List<TaskModel> iterationTasks = byIteration.get(iteration);
+        if (iterationTasks == null) {
+            return Collections.emptyList();
+        }
+        List<TaskModel> result = new ArrayList<>(iterationTasks.size());
+        for (TaskModel task : iterationTasks) {
+            if (task.getIteration() == iteration) {
+                result.add(task);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private void sync(List<TaskModel> tasks) {
+        if (tasks != indexedTasks
+                || tasks.size() < indexedSize
+                || (indexedSize > 0 && tasks.get(indexedSize - 1) != lastIndexedTask)) {
+            rebuild(tasks);
+        } else if (tasks.size() > indexedSize) {
+            append(tasks);
+        }
+    }
+
+    private void rebuild(List<TaskModel> tasks) {
+        latestByRefName.clear();
+        byTaskId.clear();
+        byIteration.clear();
+        indexedTasks = tasks;
+        indexedSize = 0;
+        lastIndexedTask = null;
+        append(tasks);
+    }
+
+    private void append(List<TaskModel> tasks) {
+        ListIterator<TaskModel> iterator = tasks.listIterator(indexedSize);
+        while (iterator.hasNext()) {
+            TaskModel task = iterator.next();
+            if (task.getReferenceTaskName() == null) {
+                throw new RuntimeException(
+                        "Task "
+                                + task.getTaskDefName()
+                                + ", seq="
+                                + task.getSeq()
+                                + " does not have reference name specified.");
+            }
+            latestByRefName.put(task.getReferenceTaskName(), task);
+            if (task.getTaskId() != null) {
+                byTaskId.put(task.getTaskId(), task);
+            }
+            byIteration.computeIfAbsent(task.getIteration(), k -> new ArrayList<>()).add(task);
+            indexedSize++;
+            lastIndexedTask = task;
+        }
+    }
+}
@@ -18,7 +18,6 @@ import java.util.Objects;
 import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.beans.BeanUtils;
 
 import com.netflix.conductor.common.metadata.tasks.Task;
 import com.netflix.conductor.common.metadata.tasks.TaskDef;
@@ -612,9 +611,7 @@ public class TaskModel {
      * @return a copy of the task instance
      */
     public TaskModel copy() {
-        TaskModel copy = new TaskModel();
-        BeanUtils.copyProperties(this, copy);
-        return copy;
+        return ModelMapper.INSTANCE.copy(this);
     }
 
     public void externalizeInput(String path) {
@@ -845,8 +842,7 @@ public class TaskModel {
     }
 
     public Task toTask() {
-        Task task = new Task();
-        BeanUtils.copyProperties(this, task);
+        Task task = ModelMapper.INSTANCE.toTask(this);
         task.setStatus(Task.Status.valueOf(status.name()));
 
         // ensure that input/output is properly represented
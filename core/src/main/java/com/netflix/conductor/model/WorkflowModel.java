@@ -16,7 +16,6 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.beans.BeanUtils;
 
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
 import com.netflix.conductor.common.run.Workflow;
@@ -65,6 +64,8 @@ public class WorkflowModel {
 
     private List<TaskModel> tasks = new LinkedList<>();
 
+    @JsonIgnore private final transient TaskIndex taskIndex = new TaskIndex();
+
     private String correlationId;
 
     private String reRunFromWorkflowId;
@@ -448,24 +449,23 @@ public class WorkflowModel {
             throw new RuntimeException(
                     "refName passed is null.  Check the workflow execution.  For dynamic tasks, make sure referenceTaskName is set to a not null value");
         }
-        LinkedList<TaskModel> found = new LinkedList<>();
-        for (TaskModel task : tasks) {
-            if (task.getReferenceTaskName() == null) {
-                throw new RuntimeException(
-                        "Task "
-                                + task.getTaskDefName()
-                                + ", seq="
-                                + task.getSeq()
-                                + " does not have reference name specified.");
-            }
-            if (task.getReferenceTaskName().equals(refName)) {
-                found.add(task);
-            }
-        }
-        if (found.isEmpty()) {
-            return null;
-        }
-        return found.getLast();
+        return taskIndex.getTaskByRefName(tasks, refName);
+    }
+
+    /**
+     * @param taskId the id of the task
+     * @return the task of this workflow with the given id, or null
+     */
+    public TaskModel getTaskById(String taskId) {
+        return taskId == null ? null : taskIndex.getTaskById(tasks, taskId);
+    }
+
+    /**
+     * @param iteration the loop iteration
+     * @return the tasks scheduled in the given iteration of a DO_WHILE loop, in list order
+     */
+    public List<TaskModel> getTasksByIteration(int iteration) {
+        return taskIndex.getTasksByIteration(tasks, iteration);
     }
 
     public void externalizeInput(String path) {
@@ -568,8 +568,7 @@ public class WorkflowModel {
     }
 
     public Workflow toWorkflow() {
-        Workflow workflow = new Workflow();
-        BeanUtils.copyProperties(this, workflow);
+        Workflow workflow = ModelMapper.INSTANCE.toWorkflow(this);
         workflow.setStatus(Workflow.WorkflowStatus.valueOf(this.status.name()));
         workflow.setTasks(tasks.stream().map(TaskModel::toTask).collect(Collectors.toList()));
         workflow.setUpdateTime(this.updatedTime);
@@ -13,10 +13,14 @@
 package com.netflix.conductor.service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -31,6 +35,7 @@ import com.netflix.conductor.common.utils.ExternalPayloadStorage.PayloadType;
 import com.netflix.conductor.common.utils.TaskUtils;
 import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.core.dal.ExecutionDAOFacade;
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
 import com.netflix.conductor.core.events.queue.Message;
 import com.netflix.conductor.core.exception.NotFoundException;
 import com.netflix.conductor.core.execution.WorkflowExecutor;
@@ -42,6 +47,8 @@ import com.netflix.conductor.dao.QueueDAO;
 import com.netflix.conductor.metrics.Monitors;
 import com.netflix.conductor.model.TaskModel;
 
+import jakarta.annotation.PreDestroy;
+
 @Trace
 @Service
 public class ExecutionService {
@@ -54,8 +61,11 @@ public class ExecutionService {
     private final ExternalPayloadStorage externalPayloadStorage;
     private final SystemTaskRegistry systemTaskRegistry;
     private final TaskStatusListener taskStatusListener;
+    private final QueueWakeupRegistry queueWakeupRegistry;
 
     private final long queueTaskMessagePostponeSecs;
+    private final long taskPollRecheckIntervalMs;
+    private final ExecutorService asyncPollExecutor;
 
     private static final int MAX_POLL_TIMEOUT_MS = 5000;
     private static final int POLL_COUNT_ONE = 1;
@@ -68,7 +78,8 @@ public class ExecutionService {
             ConductorProperties properties,
             ExternalPayloadStorage externalPayloadStorage,
             SystemTaskRegistry systemTaskRegistry,
-            TaskStatusListener taskStatusListener) {
+            TaskStatusListener taskStatusListener,
+            QueueWakeupRegistry queueWakeupRegistry) {
         this.workflowExecutor = workflowExecutor;
         this.executionDAOFacade = executionDAOFacade;
         this.queueDAO = queueDAO;
@@ -78,6 +89,20 @@ public class ExecutionService {
                 properties.getTaskExecutionPostponeDuration().getSeconds();
         this.systemTaskRegistry = systemTaskRegistry;
         this.taskStatusListener = taskStatusListener;
+        this.queueWakeupRegistry = queueWakeupRegistry;
+        this.taskPollRecheckIntervalMs = properties.getTaskPollRecheckInterval().toMillis();
+        this.asyncPollExecutor =
+                Executors.newFixedThreadPool(
+                        Math.max(properties.getTaskPollAsyncThreadCount(), 1),
+                        new BasicThreadFactory.Builder()
+                                .namingPattern("task-poll-async-%d")
+                                .daemon(true)
+                                .build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        asyncPollExecutor.shutdown();
     }
 
     public Task poll(String taskType, String workerId) {
@@ -97,18 +122,97 @@ public class ExecutionService {
         return poll(taskType, workerId, null, count, timeoutInMilliSecond);
     }
 
+    /**
+     * Polls the queue of the task type until tasks are available or the timeout elapsed. The poll
+     * is woken by the pushes to the queue, see {@link QueueWakeupRegistry}, and otherwise checks
+     * the queue again at the interval {@link ConductorProperties#getTaskPollRecheckInterval()}.
+     */
     public List<Task> poll(
             String taskType, String workerId, String domain, int count, int timeoutInMilliSecond) {
+        String queueName = getPollQueueName(taskType, domain, timeoutInMilliSecond);
+        long deadline = System.currentTimeMillis() + timeoutInMilliSecond;
+        List<Task> tasks;
+        while (true) {
+            CompletableFuture<Boolean> pushed = awaitPush(queueName, deadline);
+            tasks = pollQueue(queueName, taskType, workerId, domain, count);
+            if (!tasks.isEmpty() || pushed == null) {
+                cancel(pushed);
+                break;
+            }
+            pushed.join();
+        }
+        return completePoll(queueName, taskType, workerId, domain, tasks);
+    }
+
+    /**
+     * Same as {@link #poll(String, String, String, int, int)}, without holding the calling thread
+     * while the queue is empty: once woken by the {@link QueueWakeupRegistry}, the poll checks the
+     * queue again, and completes, on a thread of its own, so that the database calls do not hold
+     * the threads waking the polls.
+     */
+    public CompletableFuture<List<Task>> pollAsync(
+            String taskType, String workerId, String domain, int count, int timeoutInMilliSecond) {
+        String queueName = getPollQueueName(taskType, domain, timeoutInMilliSecond);
+        long deadline = System.currentTimeMillis() + timeoutInMilliSecond;
+        return pollQueueAsync(queueName, taskType, workerId, domain, count, deadline)
+                .thenApply(tasks -> completePoll(queueName, taskType, workerId, domain, tasks));
+    }
+
+    private CompletableFuture<List<Task>> pollQueueAsync(
+            String queueName,
+            String taskType,
+            String workerId,
+            String domain,
+            int count,
+            long deadline) {
+        CompletableFuture<Boolean> pushed = awaitPush(queueName, deadline);
+        List<Task> tasks = pollQueue(queueName, taskType, workerId, domain, count);
+        if (!tasks.isEmpty() || pushed == null) {
+            cancel(pushed);
+            return CompletableFuture.completedFuture(tasks);
+        }
+        return pushed.thenComposeAsync(
+                p -> pollQueueAsync(queueName, taskType, workerId, domain, count, deadline),
+                asyncPollExecutor);
+    }
+
+    private String getPollQueueName(String taskType, String domain, int timeoutInMilliSecond) {
         if (timeoutInMilliSecond > MAX_POLL_TIMEOUT_MS) {
             throw new IllegalArgumentException(
                     "Long Poll Timeout value cannot be more than 5 seconds");
         }
-        String queueName = QueueUtils.getQueueName(taskType, domain, null, null);
+        return QueueUtils.getQueueName(taskType, domain, null, null);
+    }
+
+    /**
+     * @return the wait for the next push to the queue, or null once the deadline passed
+     */
+    private CompletableFuture<Boolean> awaitPush(String queueName, long deadline) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return null;
+        }
+        return queueWakeupRegistry.awaitPush(
+                queueName, Math.min(remaining, taskPollRecheckIntervalMs));
+    }
 
+    private static void cancel(CompletableFuture<Boolean> pushed) {
+        if (pushed != null) {
+            pushed.cancel(false);
+        }
+    }
+
+    /**
+     * Pops the available messages of the queue, and starts their tasks. The tasks are read with one
+     * multi-get, and the started ones written back with one bulk update.
+     */
+    private List<Task> pollQueue(
+            String queueName, String taskType, String workerId, String domain, int count) {
         List<String> taskIds = new LinkedList<>();
-        List<Task> tasks = new LinkedList<>();
+        List<String> removed = new ArrayList<>();
+        Map<Integer, List<String>> postponed = new HashMap<>();
         try {
-            taskIds = queueDAO.pop(queueName, count, timeoutInMilliSecond);
+            taskIds = queueDAO.pop(queueName, count, 0);
         } catch (Exception e) {
             LOGGER.error(
                     "Error polling for task: {} from worker: {} in domain: {}, count: {}",
@@ -120,87 +224,150 @@ public class ExecutionService {
             Monitors.error(this.getClass().getCanonicalName(), "taskPoll");
             Monitors.recordTaskPollError(taskType, domain, e.getClass().getSimpleName());
         }
+        if (taskIds.isEmpty()) {
+            return new LinkedList<>();
+        }
 
+        Map<String, TaskModel> taskModels = new HashMap<>();
+        try {
+            executionDAOFacade
+                    .getTaskModels(taskIds)
+                    .forEach(taskModel -> taskModels.put(taskModel.getTaskId(), taskModel));
+        } catch (Exception e) {
+            // db operation failed for dequeued messages, re-enqueue with a delay
+            LOGGER.warn("DB operation failed for tasks: {}, postponing tasks in queue", taskIds, e);
+            Monitors.recordTaskPollError(taskType, domain, e.getClass().getSimpleName());
+            postponed.put(0, taskIds);
+            updateQueue(queueName, removed, postponed);
+            return new LinkedList<>();
+        }
+
+        List<TaskModel> started = new ArrayList<>(taskIds.size());
         for (String taskId : taskIds) {
+            TaskModel taskModel = taskModels.get(taskId);
+            if (taskModel == null || taskModel.getStatus().isTerminal()) {
+                // Remove taskId(s) without a valid Task/terminal state task from the queue
+                removed.add(taskId);
+                continue;
+            }
             try {
-                TaskModel taskModel = executionDAOFacade.getTaskModel(taskId);
-                if (taskModel == null || taskModel.getStatus().isTerminal()) {
-                    // Remove taskId(s) without a valid Task/terminal state task from the queue
-                    queueDAO.remove(queueName, taskId);
-                    LOGGER.debug("Removed task: {} from the queue: {}", taskId, queueName);
-                    continue;
-                }
-
-                if (executionDAOFacade.exceedsInProgressLimit(taskModel)) {
+                if (exceedsLimits(queueName, taskModel)) {
                     // Postpone this message, so that it would be available for poll again.
-                    queueDAO.postpone(
-                            queueName,
-                            taskId,
-                            taskModel.getWorkflowPriority(),
-                            queueTaskMessagePostponeSecs);
-                    LOGGER.debug(
-                            "Postponed task: {} in queue: {} by {} seconds",
-                            taskId,
-                            queueName,
-                            queueTaskMessagePostponeSecs);
+                    postponed
+                            .computeIfAbsent(
+                                    taskModel.getWorkflowPriority(), p -> new ArrayList<>())
+                            .add(taskId);
                     continue;
                 }
-                TaskDef taskDef =
-                        taskModel.getTaskDefinition().isPresent()
-                                ? taskModel.getTaskDefinition().get()
-                                : null;
-                if (taskModel.getRateLimitPerFrequency() > 0
-                        && executionDAOFacade.exceedsRateLimitPerFrequency(taskModel, taskDef)) {
-                    // Postpone this message, so that it would be available for poll again.
-                    queueDAO.postpone(
-                            queueName,
-                            taskId,
-                            taskModel.getWorkflowPriority(),
-                            queueTaskMessagePostponeSecs);
-                    LOGGER.debug(
-                            "RateLimit Execution limited for {}:{}, limit:{}",
-                            taskId,
-                            taskModel.getTaskDefName(),
-                            taskModel.getRateLimitPerFrequency());
-                    continue;
-                }
-
-                taskModel.setStatus(TaskModel.Status.IN_PROGRESS);
-                if (taskModel.getStartTime() == 0) {
-                    taskModel.setStartTime(System.currentTimeMillis());
-                    Monitors.recordQueueWaitTime(
-                            taskModel.getTaskDefName(), taskModel.getQueueWaitTime());
-                }
-                taskModel.setCallbackAfterSeconds(
-                        0); // reset callbackAfterSeconds when giving the task to the worker
-                taskModel.setWorkerId(workerId);
-                taskModel.incrementPollCount();
-                executionDAOFacade.updateTask(taskModel);
-                tasks.add(taskModel.toTask());
             } catch (Exception e) {
                 // db operation failed for dequeued message, re-enqueue with a delay
                 LOGGER.warn(
                         "DB operation failed for task: {}, postponing task in queue", taskId, e);
                 Monitors.recordTaskPollError(taskType, domain, e.getClass().getSimpleName());
-                queueDAO.postpone(queueName, taskId, 0, queueTaskMessagePostponeSecs);
+                postponed.computeIfAbsent(0, p -> new ArrayList<>()).add(taskId);
+                continue;
+            }
+
+            taskModel.setStatus(TaskModel.Status.IN_PROGRESS);
+            if (taskModel.getStartTime() == 0) {
+                taskModel.setStartTime(System.currentTimeMillis());
+                Monitors.recordQueueWaitTime(
+                        taskModel.getTaskDefName(), taskModel.getQueueWaitTime());
             }
+            taskModel.setCallbackAfterSeconds(
+                    0); // reset callbackAfterSeconds when giving the task to the worker
+            taskModel.setWorkerId(workerId);
+            taskModel.incrementPollCount();
+            started.add(taskModel);
         }
-        taskIds.stream()
-                .map(executionDAOFacade::getTaskModel)
-                .filter(Objects::nonNull)
-                .filter(task -> TaskModel.Status.IN_PROGRESS.equals(task.getStatus()))
-                .forEach(
-                        task -> {
-                            try {
-                                taskStatusListener.onTaskInProgress(task);
-                            } catch (Exception e) {
-                                String errorMsg =
-                                        String.format(
-                                                "Error while notifying TaskStatusListener: %s for workflow: %s",
-                                                task.getTaskId(), task.getWorkflowInstanceId());
-                                LOGGER.error(errorMsg, e);
-                            }
-                        });
+        try {
+            executionDAOFacade.updateTasks(started);
+        } catch (Exception e) {
+            // db operation failed for dequeued messages, re-enqueue with a delay
+            List<String> startedIds =
+                    started.stream().map(TaskModel::getTaskId).collect(Collectors.toList());
+            LOGGER.warn(
+                    "DB operation failed for tasks: {}, postponing tasks in queue", startedIds, e);
+            Monitors.recordTaskPollError(taskType, domain, e.getClass().getSimpleName());
+            postponed.computeIfAbsent(0, p -> new ArrayList<>()).addAll(startedIds);
+            started.clear();
+        }
+        updateQueue(queueName, removed, postponed);
+
+        List<Task> tasks = new LinkedList<>();
+        for (TaskModel taskModel : started) {
+            tasks.add(taskModel.toTask());
+            try {
+                taskStatusListener.onTaskInProgress(taskModel);
+            } catch (Exception e) {
+                String errorMsg =
+                        String.format(
+                                "Error while notifying TaskStatusListener: %s for workflow: %s",
+                                taskModel.getTaskId(), taskModel.getWorkflowInstanceId());
+                LOGGER.error(errorMsg, e);
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Checks the concurrency and rate limits of the task. Only the tasks with a limit are checked
+     * against the data store, the concurrency check reserving a slot of the limit for the task.
+     */
+    private boolean exceedsLimits(String queueName, TaskModel taskModel) {
+        if (executionDAOFacade.exceedsInProgressLimit(taskModel)) {
+            LOGGER.debug(
+                    "Postponed task: {} in queue: {} by {} seconds",
+                    taskModel.getTaskId(),
+                    queueName,
+                    queueTaskMessagePostponeSecs);
+            return true;
+        }
+        TaskDef taskDef = taskModel.getTaskDefinition().orElse(null);
+        if (taskModel.getRateLimitPerFrequency() > 0
+                && executionDAOFacade.exceedsRateLimitPerFrequency(taskModel, taskDef)) {
+            LOGGER.debug(
+                    "RateLimit Execution limited for {}:{}, limit:{}",
+                    taskModel.getTaskId(),
+                    taskModel.getTaskDefName(),
+                    taskModel.getRateLimitPerFrequency());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes and postpones the messages of a poll with one queue operation each, per priority for
+     * the postponed ones. The messages left popped on failure are delivered again after their unack
+     * timeout.
+     */
+    private void updateQueue(
+            String queueName, List<String> removed, Map<Integer, List<String>> postponed) {
+        if (!removed.isEmpty()) {
+            try {
+                queueDAO.remove(queueName, removed);
+                LOGGER.debug("Removed tasks: {} from the queue: {}", removed, queueName);
+            } catch (Exception e) {
+                LOGGER.warn("Failed to remove tasks: {} from the queue: {}", removed, queueName, e);
+            }
+        }
+        postponed.forEach(
+                (priority, taskIds) -> {
+                    try {
+                        queueDAO.postpone(
+                                queueName, taskIds, priority, queueTaskMessagePostponeSecs);
+                    } catch (Exception e) {
+                        LOGGER.warn(
+                                "Failed to postpone tasks: {} in the queue: {}",
+                                taskIds,
+                                queueName,
+                                e);
+                    }
+                });
+    }
+
+    private List<Task> completePoll(
+            String queueName, String taskType, String workerId, String domain, List<Task> tasks) {
         executionDAOFacade.updateTaskLastPoll(taskType, domain, workerId);
         Monitors.recordTaskPoll(queueName);
         tasks.forEach(this::ackTaskReceived);
@@ -312,6 +479,26 @@ public class ExecutionService {
         return queueDAO.ack(QueueUtils.getQueueName(task), task.getTaskId());
     }
 
+    /**
+     * Pushes polled tasks back to their queues, to be polled again right away, when they could not
+     * be delivered to the worker.
+     */
+    public void requeueTasks(List<Task> tasks) {
+        for (Task task : tasks) {
+            String queueName = QueueUtils.getQueueName(task);
+            try {
+                queueDAO.push(queueName, task.getTaskId(), task.getWorkflowPriority(), 0);
+            } catch (Exception e) {
+                // delivered again once its response timeout is reached
+                LOGGER.warn(
+                        "Failed to requeue task: {} in the queue: {}",
+                        task.getTaskId(),
+                        queueName,
+                        e);
+            }
+        }
+    }
+
     public Map<String, Integer> getTaskQueueSizes(List<String> taskDefNames) {
         Map<String, Integer> sizes = new HashMap<>();
         for (String taskDefName : taskDefNames) {
@@ -425,6 +612,11 @@ public class ExecutionService {
         return executionDAOFacade.searchWorkflowSummary(query, freeText, start, size, sortOptions);
     }
 
+    public Stream<String> streamWorkflowIds(
+            String query, String freeText, List<String> sortOptions) {
+        return executionDAOFacade.streamWorkflows(query, freeText, sortOptions);
+    }
+
     public SearchResult<Workflow> searchV2(
             String query, String freeText, int start, int size, List<String> sortOptions) {
 
@@ -14,6 +14,7 @@ package com.netflix.conductor.service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.validation.annotation.Validated;
 
@@ -63,6 +64,24 @@ public interface TaskService {
             Integer count,
             Integer timeout);
 
+    /**
+     * Batch Poll for a task of a certain type, without holding the calling thread while waiting for
+     * the tasks.
+     *
+     * @param taskType Task Name
+     * @param workerId Id of the workflow
+     * @param domain Domain of the workflow
+     * @param count Number of tasks
+     * @param timeout Timeout for polling in milliseconds
+     * @return list of {@link Task}, once available or once the timeout elapsed
+     */
+    CompletableFuture<List<Task>> batchPollAsync(
+            @NotEmpty(message = "TaskType cannot be null or empty.") String taskType,
+            String workerId,
+            String domain,
+            Integer count,
+            Integer timeout);
+
     /**
      * Get in progress tasks. The results are paginated.
      *
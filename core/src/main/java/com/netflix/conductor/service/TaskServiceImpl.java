@@ -16,6 +16,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
@@ -98,6 +99,36 @@ public class TaskServiceImpl implements TaskService {
         return polledTasks;
     }
 
+    /**
+     * Batch Poll for a task of a certain type, without holding the calling thread while waiting for
+     * the tasks.
+     *
+     * @param taskType Task Name
+     * @param workerId id of the workflow
+     * @param domain Domain of the workflow
+     * @param count Number of tasks
+     * @param timeout Timeout for polling in milliseconds
+     * @return list of {@link Task}, once available or once the timeout elapsed
+     */
+    public CompletableFuture<List<Task>> batchPollAsync(
+            String taskType, String workerId, String domain, Integer count, Integer timeout) {
+        return executionService
+                .pollAsync(taskType, workerId, domain, count, timeout)
+                .thenApply(
+                        polledTasks -> {
+                            LOGGER.debug(
+                                    "The Tasks {} being returned for /tasks/poll/{}?{}&{}",
+                                    polledTasks.stream()
+                                            .map(Task::getTaskId)
+                                            .collect(Collectors.toList()),
+                                    taskType,
+                                    workerId,
+                                    domain);
+                            Monitors.recordTaskPollCount(taskType, domain, polledTasks.size());
+                            return polledTasks;
+                        });
+    }
+
     /**
      * Get in progress tasks. The results are paginated.
      *
@@ -14,6 +14,7 @@ package com.netflix.conductor.service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.springframework.validation.annotation.Validated;
 
@@ -277,6 +278,18 @@ public interface WorkflowService {
             String freeText,
             String query);
 
+    /**
+     * Stream the ids of all the workflows matching the given parameters, without pagination. Use
+     * sort options as sort ASC or DESC e.g. sort=name or sort=workflowId:DESC. If order is not
+     * specified, defaults to ASC.
+     *
+     * @param sort Sorting type ASC|DESC
+     * @param freeText Text you want to search
+     * @param query Query you want to search
+     * @return the workflow ids, to be closed once consumed
+     */
+    Stream<String> streamWorkflows(String sort, String freeText, String query);
+
     /**
      * Search for workflows based on payload and given parameters. Use sort options as sort ASCor
      * DESC e.g. sort=name or sort=workflowId:DESC. If order is not specified, defaults to ASC.
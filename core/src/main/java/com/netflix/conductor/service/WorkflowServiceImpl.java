@@ -16,6 +16,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
 
@@ -339,6 +340,20 @@ public class WorkflowServiceImpl implements WorkflowService {
                 query, freeText, start, size, Utils.convertStringToList(sort));
     }
 
+    /**
+     * Stream the ids of all the workflows matching the given parameters, without pagination. Use
+     * sort options as sort ASC or DESC e.g. sort=name or sort=workflowId:DESC. If order is not
+     * specified, defaults to ASC.
+     *
+     * @param sort Sorting type ASC|DESC
+     * @param freeText Text you want to search
+     * @param query Query you want to search
+     * @return the workflow ids, to be closed once consumed
+     */
+    public Stream<String> streamWorkflows(String sort, String freeText, String query) {
+        return executionService.streamWorkflowIds(query, freeText, Utils.convertStringToList(sort));
+    }
+
     /**
      * Search for workflows based on payload and given parameters. Use sort options as sort ASCor
      * DESC e.g. sort=name or sort=workflowId:DESC. If order is not specified, defaults to ASC.
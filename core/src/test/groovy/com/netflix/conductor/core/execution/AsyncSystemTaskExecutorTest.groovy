@@ -250,6 +250,9 @@ class AsyncSystemTaskExecutorTest extends Specification {
 
         0 * workflowExecutor.decide(workflowId) // verify that workflow is NOT decided
 
+        then: "the system task is told once the task is written"
+        1 * workflowSystemTask.taskWritten(task)
+
         task.status == TaskModel.Status.IN_PROGRESS
         task.startTime != 0 // verify that startTime is set
         task.endTime == 0 // verify that endTime is not set
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.model
+
+import java.lang.reflect.Modifier
+
+import org.springframework.beans.BeanUtils
+
+import com.netflix.conductor.common.metadata.tasks.Task
+import com.netflix.conductor.common.run.Workflow
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ModelMapperSpec extends Specification {
+
+    /**
+     * The properties of only one of the model and the API class. A property added to one of them
+     * has to be added to the other one as well, or listed here if it is not meant to be mapped.
+     */
+    private static final Map<Class, Set<String>> OWN_PROPERTIES = [
+            (TaskModel)    : ['rawInputData', 'rawOutputData', 'waitTimeout'] as Set,
+            (Task)         : ['firstStartTime', 'parentTaskId'] as Set,
+            (WorkflowModel): ['failedTaskId', 'previousStatus', 'rawInput', 'rawOutput', 'updatedTime'] as Set,
+            (Workflow)     : ['history', 'idempotencyKey', 'rateLimitKey', 'rateLimited', 'startTime', 'updateTime'] as Set,
+    ]
+
+    @Unroll
+    def "#model.simpleName and #api.simpleName have the same properties"() {
+        expect:
+        properties(model) - properties(api) == OWN_PROPERTIES[model]
+        properties(api) - properties(model) == OWN_PROPERTIES[api]
+
+        where:
+        model         | api
+        TaskModel     | Task
+        WorkflowModel | Workflow
+    }
+
+    @Unroll
+    def "the generated #method copies the same properties as BeanUtils"() {
+        given:
+        def source = populate(sourceClass.getDeclaredConstructor().newInstance())
+        def expected = targetClass.getDeclaredConstructor().newInstance()
+        BeanUtils.copyProperties(source, expected)
+
+        when:
+        def mapped = ModelMapper.INSTANCE."$method"(source)
+
+        then:
+        fields(mapped) == fields(expected)
+
+        where:
+        method       | sourceClass   | targetClass
+        'toTask'     | TaskModel     | Task
+        'toWorkflow' | WorkflowModel | Workflow
+        'copy'       | TaskModel     | TaskModel
+    }
+
+    private static Set<String> properties(Class type) {
+        BeanUtils.getPropertyDescriptors(type)
+                .findAll { it.readMethod && it.writeMethod }*.name as Set
+    }
+
+    /** Sets every writable property to a value distinct from the ones of the other properties. */
+    private static Object populate(Object bean) {
+        int next = 1
+        BeanUtils.getPropertyDescriptors(bean.class)
+                .findAll { it.writeMethod }
+                .each { property ->
+                    Class type = property.propertyType
+                    def value
+                    switch (type) {
+                        case String: value = property.name; break
+                        case [int, Integer]: value = next++; break
+                        case [long, Long]: value = (long) next++; break
+                        case [boolean, Boolean]: value = true; break
+                        case Map: value = [(property.name): next++]; break
+                        case Set: value = [property.name] as Set; break
+                        case List: value = []; break
+                        default:
+                            if (type.isEnum()) {
+                                value = type.enumConstants.last()
+                            } else {
+                                try {
+                                    value = type.getDeclaredConstructor().newInstance()
+                                } catch (ReflectiveOperationException ignored) {
+                                    return
+                                }
+                            }
+                    }
+                    property.writeMethod.invoke(bean, value)
+                }
+        return bean
+    }
+
+    private static Map<String, Object> fields(Object bean) {
+        Map<String, Object> fields = [:]
+        for (Class type = bean.class; type != Object; type = type.superclass) {
+            type.declaredFields.findAll { !Modifier.isStatic(it.modifiers) }.each {
+                it.accessible = true
+                fields[type.simpleName + '.' + it.name] = it.get(bean)
+            }
+        }
+        return fields
+    }
+}
@@ -65,4 +65,84 @@ class WorkflowModelSpec extends Specification {
         node.path("output").isEmpty()
         node.path("externalOutputPayloadStoragePath").isTextual()
     }
+
+    def "task lookups follow appends, retries and list replacement"() {
+        given:
+        def first = new TaskModel(taskId: "t1", referenceTaskName: "a")
+        def second = new TaskModel(taskId: "t2", referenceTaskName: "b")
+        workflowModel.tasks.addAll([first, second])
+
+        expect:
+        workflowModel.getTaskByRefName("a") == first
+        workflowModel.getTaskById("t2") == second
+        workflowModel.getTaskByRefName("c") == null
+
+        when: "a retry of the first task is appended"
+        def retried = new TaskModel(taskId: "t3", referenceTaskName: "a", retryCount: 1)
+        workflowModel.tasks.add(retried)
+
+        then:
+        workflowModel.getTaskByRefName("a") == retried
+        workflowModel.getTaskById("t1") == first
+
+        when: "the task list is replaced"
+        workflowModel.tasks = [second]
+
+        then:
+        workflowModel.getTaskByRefName("a") == null
+        workflowModel.getTaskById("t3") == null
+        workflowModel.getTaskByRefName("b") == second
+
+        when: "the task list is cleared and refilled to the same size"
+        workflowModel.tasks.clear()
+        def replacement = new TaskModel(taskId: "t4", referenceTaskName: "d")
+        workflowModel.tasks.add(replacement)
+
+        then:
+        workflowModel.getTaskByRefName("b") == null
+        workflowModel.getTaskByRefName("d") == replacement
+    }
+
+    def "task lookups by iteration"() {
+        given:
+        def loop = new TaskModel(taskId: "loop", referenceTaskName: "loop", iteration: 1)
+        def firstIteration = new TaskModel(taskId: "t1", referenceTaskName: "a__1", iteration: 1)
+        def secondIteration = new TaskModel(taskId: "t2", referenceTaskName: "a__2", iteration: 2)
+        workflowModel.tasks = [loop, firstIteration]
+
+        expect:
+        workflowModel.getTasksByIteration(1) == [loop, firstIteration]
+
+        when: "the loop moves to the next iteration"
+        loop.iteration = 2
+        workflowModel.tasks.add(secondIteration)
+
+        then:
+        workflowModel.getTasksByIteration(1) == [firstIteration]
+        workflowModel.getTasksByIteration(2).contains(secondIteration)
+        workflowModel.getTasksByIteration(3).isEmpty()
+    }
+
+    def "task lookup fails for tasks without reference name"() {
+        given:
+        workflowModel.tasks.add(new TaskModel(taskId: "t1"))
+
+        when:
+        workflowModel.getTaskByRefName("a")
+
+        then:
+        thrown(RuntimeException)
+    }
+
+    def "task index is not serialized"() {
+        given:
+        workflowModel.tasks.add(new TaskModel(taskId: "t1", referenceTaskName: "a"))
+        workflowModel.getTaskByRefName("a")
+
+        when:
+        def json = objectMapper.writeValueAsString(workflowModel)
+
+        then:
+        !objectMapper.readTree(json).has("taskIndex")
+    }
 }
@@ -13,25 +13,31 @@
 package com.netflix.conductor.core.dal;
 
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import com.netflix.conductor.common.config.TestObjectMapperConfiguration;
 import com.netflix.conductor.common.metadata.events.EventExecution;
+import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
 import com.netflix.conductor.common.run.SearchResult;
 import com.netflix.conductor.common.run.Workflow;
 import com.netflix.conductor.common.utils.ExternalPayloadStorage;
 import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.core.events.queue.Message;
 import com.netflix.conductor.core.exception.TerminateWorkflowException;
 import com.netflix.conductor.core.execution.TestDeciderService;
 import com.netflix.conductor.core.utils.ExternalPayloadStorageUtils;
@@ -50,6 +56,7 @@ import static org.mockito.Mockito.*;
 public class ExecutionDAOFacadeTest {
 
     private ExecutionDAO executionDAO;
+    private QueueDAO queueDAO;
     private IndexDAO indexDAO;
     private ExecutionDAOFacade executionDAOFacade;
     private ExternalPayloadStorageUtils externalPayloadStorageUtils;
@@ -59,7 +66,7 @@ public class ExecutionDAOFacadeTest {
     @Before
     public void setUp() {
         executionDAO = mock(ExecutionDAO.class);
-        QueueDAO queueDAO = mock(QueueDAO.class);
+        queueDAO = mock(QueueDAO.class);
         indexDAO = mock(IndexDAO.class);
         externalPayloadStorageUtils = mock(ExternalPayloadStorageUtils.class);
         RateLimitingDAO rateLimitingDao = mock(RateLimitingDAO.class);
@@ -69,6 +76,8 @@ public class ExecutionDAOFacadeTest {
         ConductorProperties properties = mock(ConductorProperties.class);
         when(properties.isEventExecutionIndexingEnabled()).thenReturn(true);
         when(properties.isAsyncIndexingEnabled()).thenReturn(true);
+        when(properties.getPollDataFlushInterval()).thenReturn(Duration.ZERO);
+        when(properties.getPollDataCacheValidityPeriod()).thenReturn(Duration.ZERO);
         executionDAOFacade =
                 new ExecutionDAOFacade(
                         executionDAO,
@@ -79,7 +88,8 @@ public class ExecutionDAOFacadeTest {
                         pollDataDAO,
                         objectMapper,
                         properties,
-                        externalPayloadStorageUtils);
+                        externalPayloadStorageUtils,
+                        new QueueWakeupRegistry(1));
     }
 
     @Test
@@ -198,4 +208,110 @@ public class ExecutionDAOFacadeTest {
 
         executionDAOFacade.updateTask(task);
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUnitOfWorkCoalescesWrites() {
+        TaskModel task1 = createTask("workflowId");
+        TaskModel task2 = createTask("workflowId");
+        WorkflowModel workflow = new WorkflowModel();
+        workflow.setWorkflowId("workflowId");
+        workflow.setStatus(WorkflowModel.Status.RUNNING);
+        workflow.setWorkflowDefinition(new WorkflowDef());
+        workflow.getWorkflowDefinition().setName("workflow");
+
+        executionDAOFacade.beginUnitOfWork();
+        executionDAOFacade.updateTask(task1);
+        executionDAOFacade.updateTasks(List.of(task1, task2));
+        executionDAOFacade.updateWorkflow(workflow);
+        executionDAOFacade.updateWorkflow(workflow);
+        executionDAOFacade.pushToQueue("task1", task1.getTaskId(), 0, 0);
+        executionDAOFacade.pushToQueue("task1", task2.getTaskId(), 0, 0);
+        executionDAOFacade.pushToQueue("task2", task2.getTaskId(), 0, 30);
+
+        verifyNoInteractions(executionDAO, queueDAO);
+
+        executionDAOFacade.endUnitOfWork();
+
+        ArgumentCaptor<List<TaskModel>> tasks = ArgumentCaptor.forClass(List.class);
+        verify(executionDAO).updateTasks(tasks.capture());
+        assertEquals(List.of(task1, task2), tasks.getValue());
+        verify(executionDAO, never()).updateTask(any());
+        verify(executionDAO, times(1)).updateWorkflow(workflow);
+
+        ArgumentCaptor<List<Message>> messages = ArgumentCaptor.forClass(List.class);
+        verify(queueDAO).push(eq("task1"), messages.capture());
+        assertEquals(
+                List.of(task1.getTaskId(), task2.getTaskId()),
+                messages.getValue().stream().map(Message::getId).collect(Collectors.toList()));
+        verify(queueDAO).push("task2", task2.getTaskId(), 0, 30);
+    }
+
+    @Test
+    public void testUnitOfWorkFlushesBeforeReads() {
+        TaskModel task = createTask("workflowId");
+        when(executionDAO.getTask(task.getTaskId())).thenReturn(task);
+
+        executionDAOFacade.beginUnitOfWork();
+        executionDAOFacade.updateTask(task);
+        executionDAOFacade.getTaskModel("otherTaskId");
+        verify(executionDAO, never()).updateTasks(any());
+
+        executionDAOFacade.getTaskModel(task.getTaskId());
+        InOrder inOrder = inOrder(executionDAO);
+        inOrder.verify(executionDAO).updateTasks(List.of(task));
+        inOrder.verify(executionDAO).getTask(task.getTaskId());
+
+        executionDAOFacade.endUnitOfWork();
+        verify(executionDAO, times(1)).updateTasks(any());
+    }
+
+    @Test
+    public void testGetTaskModelsFlushesPendingTasks() {
+        TaskModel task = createTask("workflowId");
+        List<String> taskIds = List.of(task.getTaskId(), "otherTaskId");
+        when(executionDAO.getTasks(taskIds)).thenReturn(List.of(task));
+
+        executionDAOFacade.beginUnitOfWork();
+        executionDAOFacade.updateTask(task);
+        assertEquals(List.of(task), executionDAOFacade.getTaskModels(taskIds));
+        InOrder inOrder = inOrder(executionDAO);
+        inOrder.verify(executionDAO).updateTasks(List.of(task));
+        inOrder.verify(executionDAO).getTasks(taskIds);
+        verify(executionDAO, never()).getTask(any());
+
+        executionDAOFacade.endUnitOfWork();
+    }
+
+    @Test
+    public void testNestedUnitOfWorkFlushesOuter() {
+        TaskModel parentTask = createTask("parentWorkflowId");
+        TaskModel childTask = createTask("childWorkflowId");
+
+        executionDAOFacade.beginUnitOfWork();
+        executionDAOFacade.updateTask(parentTask);
+        executionDAOFacade.beginUnitOfWork();
+        verify(executionDAO).updateTasks(List.of(parentTask));
+
+        executionDAOFacade.updateTask(childTask);
+        executionDAOFacade.endUnitOfWork();
+        verify(executionDAO).updateTasks(List.of(childTask));
+
+        executionDAOFacade.endUnitOfWork();
+        verify(executionDAO, times(2)).updateTasks(any());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEndUnitOfWorkWithoutBegin() {
+        executionDAOFacade.endUnitOfWork();
+    }
+
+    private TaskModel createTask(String workflowId) {
+        TaskModel task = new TaskModel();
+        task.setTaskId(UUID.randomUUID().toString());
+        task.setTaskDefName("task1");
+        task.setWorkflowInstanceId(workflowId);
+        task.setStatus(TaskModel.Status.SCHEDULED);
+        return task;
+    }
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.dal;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.netflix.conductor.common.metadata.tasks.PollData;
+import com.netflix.conductor.dao.PollDataDAO;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PollDataCacheTest {
+
+    private PollDataDAO pollDataDAO;
+
+    @Before
+    public void setUp() {
+        pollDataDAO = mock(PollDataDAO.class);
+    }
+
+    @Test
+    public void testWriteThrough() {
+        PollDataCache pollDataCache = new PollDataCache(pollDataDAO, 0, 0);
+        pollDataCache.updateLastPollData("task", "domain", "worker");
+        verify(pollDataDAO).updateLastPollData("task", "domain", "worker");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFlushCoalescesPolls() {
+        PollDataCache pollDataCache = new PollDataCache(pollDataDAO, 60_000, 0);
+        pollDataCache.updateLastPollData("task", "domain", "worker1");
+        pollDataCache.updateLastPollData("task", "domain", "worker2");
+        pollDataCache.updateLastPollData("task", null, "worker3");
+        verify(pollDataDAO, never()).updateLastPollData(anyString(), any(), anyString());
+
+        pollDataCache.flush();
+        ArgumentCaptor<List<PollData>> captor = ArgumentCaptor.forClass(List.class);
+        verify(pollDataDAO).updateLastPollData(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(
+                "worker2",
+                captor.getValue().stream()
+                        .filter(pollData -> "domain".equals(pollData.getDomain()))
+                        .findFirst()
+                        .orElseThrow()
+                        .getWorkerId());
+
+        // nothing polled since the last flush
+        pollDataCache.flush();
+        verify(pollDataDAO).updateLastPollData(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFlushKeepsPollTime() throws Exception {
+        PollDataCache pollDataCache = new PollDataCache(pollDataDAO, 60_000, 0);
+        long before = System.currentTimeMillis();
+        pollDataCache.updateLastPollData("task", "domain", "worker");
+        long after = System.currentTimeMillis();
+        Thread.sleep(20);
+
+        pollDataCache.flush();
+        ArgumentCaptor<List<PollData>> captor = ArgumentCaptor.forClass(List.class);
+        verify(pollDataDAO).updateLastPollData(captor.capture());
+        long lastPollTime = captor.getValue().get(0).getLastPollTime();
+        assertTrue(lastPollTime >= before && lastPollTime <= after);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFlushFailureKeepsPolls() {
+        PollDataCache pollDataCache = new PollDataCache(pollDataDAO, 60_000, 0);
+        doThrow(new RuntimeException("unavailable"))
+                .when(pollDataDAO)
+                .updateLastPollData(anyList());
+        pollDataCache.updateLastPollData("task", "domain", "worker");
+        pollDataCache.flush();
+        pollDataCache.flush();
+
+        ArgumentCaptor<List<PollData>> captor = ArgumentCaptor.forClass(List.class);
+        verify(pollDataDAO, times(2)).updateLastPollData(captor.capture());
+        assertEquals(1, captor.getAllValues().get(1).size());
+    }
+
+    @Test
+    public void testGetPollDataIsCached() {
+        PollDataCache pollDataCache = new PollDataCache(pollDataDAO, 0, 60_000);
+        PollData pollData = new PollData("task", "domain", "worker", 100);
+        when(pollDataDAO.getPollData("task", "domain")).thenReturn(pollData);
+
+        assertSame(pollData, pollDataCache.getPollData("task", "domain"));
+        assertSame(pollData, pollDataCache.getPollData("task", "domain"));
+        verify(pollDataDAO, times(1)).getPollData("task", "domain");
+
+        assertNull(pollDataCache.getPollData("task", "other"));
+        assertNull(pollDataCache.getPollData("task", "other"));
+        verify(pollDataDAO, times(1)).getPollData("task", "other");
+    }
+
+    @Test
+    public void testGetPollDataReloadsAfterValidityPeriod() throws Exception {
+        PollDataCache pollDataCache = new PollDataCache(pollDataDAO, 0, 1);
+        when(pollDataDAO.getPollData("task", "domain")).thenReturn(null);
+        pollDataCache.getPollData("task", "domain");
+        Thread.sleep(5);
+        pollDataCache.getPollData("task", "domain");
+        verify(pollDataDAO, times(2)).getPollData("task", "domain");
+    }
+
+    @Test
+    public void testGetPollDataServesPendingPolls() {
+        PollDataCache pollDataCache = new PollDataCache(pollDataDAO, 60_000, 60_000);
+        when(pollDataDAO.getPollData("task", "domain"))
+                .thenReturn(new PollData("task", "domain", "worker1", 100));
+        when(pollDataDAO.getPollData("task"))
+                .thenReturn(List.of(new PollData("task", "domain", "worker1", 100)));
+        pollDataCache.getPollData("task", "domain");
+
+        pollDataCache.updateLastPollData("task", "domain", "worker2");
+        pollDataCache.updateLastPollData("task", null, "worker3");
+        assertEquals("worker2", pollDataCache.getPollData("task", "domain").getWorkerId());
+        assertEquals(2, pollDataCache.getPollData("task").size());
+
+        // the flushed polls replace the cached ones
+        pollDataCache.flush();
+        assertEquals("worker2", pollDataCache.getPollData("task", "domain").getWorkerId());
+        verify(pollDataDAO, times(1)).getPollData("task", "domain");
+    }
+
+    @Test
+    public void testNotCachedWhenTheDAOCaches() {
+        when(pollDataDAO.cachesPollData()).thenReturn(true);
+        PollDataCache pollDataCache = new PollDataCache(pollDataDAO, 60_000, 60_000);
+
+        pollDataCache.updateLastPollData("task", "domain", "worker");
+        verify(pollDataDAO).updateLastPollData("task", "domain", "worker");
+
+        pollDataCache.getPollData("task", "domain");
+        pollDataCache.getPollData("task", "domain");
+        verify(pollDataDAO, times(2)).getPollData("task", "domain");
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.dal;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.netflix.conductor.core.config.ConductorProperties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class QueueWakeupRegistryTest {
+
+    private final List<String> published = new CopyOnWriteArrayList<>();
+    private final List<String> publishThreads = new CopyOnWriteArrayList<>();
+    private final CountDownLatch publishAllowed = new CountDownLatch(1);
+
+    private QueueWakeupRegistry registry;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        ConductorProperties properties = mock(ConductorProperties.class);
+        when(properties.getQueueWakeupThreadCount()).thenReturn(1);
+        QueueWakeupPublisher publisher =
+                queueName -> {
+                    publishThreads.add(Thread.currentThread().getName());
+                    try {
+                        publishAllowed.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    published.add(queueName);
+                };
+        ObjectProvider<QueueWakeupPublisher> publishers = mock(ObjectProvider.class);
+        when(publishers.orderedStream()).thenReturn(Stream.of(publisher));
+        registry = new QueueWakeupRegistry(properties, publishers);
+    }
+
+    @After
+    public void tearDown() {
+        publishAllowed.countDown();
+        registry.shutdown();
+    }
+
+    @Test
+    public void testSignalPushWakesTheWaiters() throws Exception {
+        CompletableFuture<Boolean> first = registry.awaitPush("queue", 5000);
+        CompletableFuture<Boolean> second = registry.awaitPush("queue", 5000);
+        CompletableFuture<Boolean> other = registry.awaitPush("other", 5000);
+
+        registry.signalPush("queue");
+
+        assertTrue(first.get(1, TimeUnit.SECONDS));
+        assertTrue(second.get(1, TimeUnit.SECONDS));
+        assertFalse(other.isDone());
+    }
+
+    @Test
+    public void testAwaitPushTimesOut() throws Exception {
+        assertFalse(registry.awaitPush("queue", 50).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testPublishedOffTheSignallingThread() throws Exception {
+        CompletableFuture<Boolean> pushed = registry.awaitPush("queue", 5000);
+
+        // returns while the publisher is blocked
+        registry.signalPush("queue");
+        assertTrue(pushed.get(1, TimeUnit.SECONDS));
+        assertTrue(published.isEmpty());
+
+        publishAllowed.countDown();
+        long deadline = System.currentTimeMillis() + 1000;
+        while (published.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(List.of("queue"), published);
+        assertTrue(publishThreads.get(0).startsWith("queue-wakeup-publish-"));
+    }
+
+    @Test
+    public void testPendingPublishesCoalesced() throws Exception {
+        registry.signalPush("queue");
+        registry.signalPush("queue");
+        registry.signalPush("queue");
+        registry.signalPush("other");
+
+        publishAllowed.countDown();
+        long deadline = System.currentTimeMillis() + 1000;
+        while (!published.contains("other") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(published.contains("other"));
+        // at most the publish being sent and one more, for the pushes made meanwhile
+        assertTrue(published.stream().filter("queue"::equals).count() <= 2);
+    }
+}
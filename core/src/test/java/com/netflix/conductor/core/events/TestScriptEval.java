@@ -12,18 +12,35 @@
  */
 package com.netflix.conductor.core.events;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.junit.BeforeClass;
 import org.junit.Test;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 
+import com.netflix.conductor.contribs.metrics.MetricsCollector;
+import com.netflix.conductor.core.utils.ExecutorUtils;
+import com.netflix.conductor.metrics.Monitors;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class TestScriptEval {
 
+    @BeforeClass
+    public static void init() {
+        // registers a registry, the counters do not count without one
+        new MetricsCollector();
+    }
+
     @Test
     public void testScript() throws Exception {
         Map<String, Object> payload = new HashMap<>();
@@ -85,4 +102,116 @@ public class TestScriptEval {
         ScriptEvaluator.initEngine(true);
         evaluator.close();
     }
+
+    @Test
+    public void testCompiledScriptIsReused() throws Exception {
+        String script = "$.value * 2";
+        double compilations =
+                Monitors.getCounter("script_compilation", "language", "javascript").count();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(
+                    2.0 * i,
+                    ((Number) ScriptEvaluator.eval(script, Map.of("value", i))).doubleValue(),
+                    0);
+        }
+        assertEquals(
+                compilations + 1,
+                Monitors.getCounter("script_compilation", "language", "javascript").count(),
+                0);
+    }
+
+    @Test
+    public void testVariablesAreNotSharedAcrossEvaluations() throws Exception {
+        ScriptEvaluator.eval("var leaked = 'value'; true", Map.of());
+        assertEquals("undefined", ScriptEvaluator.eval("typeof leaked", Map.of()));
+    }
+
+    @Test
+    public void testBuiltInsAreNotSharedAcrossEvaluations() throws Exception {
+        ScriptEvaluator.eval(
+                "Math.max = function() { return -1; }; Array.prototype.leaked = 1; true", Map.of());
+        assertEquals(2, ((Number) ScriptEvaluator.eval("Math.max(1, 2)", Map.of())).intValue());
+        assertEquals("undefined", ScriptEvaluator.eval("typeof [].leaked", Map.of()));
+    }
+
+    @Test
+    public void testParallelEvaluations() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                int value = i;
+                results.add(
+                        executorService.submit(
+                                () ->
+                                        ScriptEvaluator.evalBool(
+                                                "$.value % 2 == 0", Map.of("value", value))));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i % 2 == 0, results.get(i).get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testCacheEviction() throws Exception {
+        MockedStatic<ScriptEvaluator> evaluator =
+                Mockito.mockStatic(ScriptEvaluator.class, Mockito.CALLS_REAL_METHODS);
+        try {
+            evaluator
+                    .when(() -> ScriptEvaluator.getEnv("CONDUCTOR_SCRIPT_CACHE_SIZE"))
+                    .thenReturn("2");
+            ScriptEvaluator.initEngine(true);
+            double evictions =
+                    Monitors.getCounter("script_cache_eviction", "language", "javascript").count();
+            for (int i = 0; i < 5; i++) {
+                assertTrue(ScriptEvaluator.evalBool("$.value == " + i, Map.of("value", i)));
+            }
+            assertEquals(
+                    evictions + 3,
+                    Monitors.getCounter("script_cache_eviction", "language", "javascript").count(),
+                    0);
+        } finally {
+            evaluator.close();
+            ScriptEvaluator.initEngine(true);
+        }
+    }
+
+    @Test
+    public void testEnginesAreBounded() throws Exception {
+        MockedStatic<ScriptEvaluator> evaluator =
+                Mockito.mockStatic(ScriptEvaluator.class, Mockito.CALLS_REAL_METHODS);
+        // the evaluations asked by virtual threads run on the engines of the pool too
+        ExecutorService virtualThreads = ExecutorUtils.newFixedThreadPool(true, 8, "virtual-%d");
+        ExecutorService platformThreads = Executors.newFixedThreadPool(8);
+        try {
+            evaluator
+                    .when(() -> ScriptEvaluator.getEnv("CONDUCTOR_SCRIPT_ENGINE_COUNT"))
+                    .thenReturn("2");
+            ScriptEvaluator.initEngine(true);
+            String script = "$.value + 1";
+            double compilations =
+                    Monitors.getCounter("script_compilation", "language", "javascript").count();
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                Map<String, Object> input = Map.of("value", i);
+                results.add(virtualThreads.submit(() -> ScriptEvaluator.eval(script, input)));
+                results.add(platformThreads.submit(() -> ScriptEvaluator.eval(script, input)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i / 2 + 1, ((Number) results.get(i).get()).intValue());
+            }
+            // compiled once by each engine at most
+            assertTrue(
+                    Monitors.getCounter("script_compilation", "language", "javascript").count()
+                            <= compilations + 2);
+        } finally {
+            virtualThreads.shutdown();
+            platformThreads.shutdown();
+            evaluator.close();
+            ScriptEvaluator.initEngine(true);
+        }
+    }
 }
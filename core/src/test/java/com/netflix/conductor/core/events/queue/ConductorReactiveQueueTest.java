@@ -92,7 +92,7 @@ public class ConductorReactiveQueueTest {
 
         StepVerifier.create(reactiveQueue.ack(messages)).verifyComplete();
 
-        verify(queueDAO).ack(QUEUE_NAME, "id1");
+        verify(queueDAO).ack(QUEUE_NAME, List.of("id1"));
     }
 
     @Test
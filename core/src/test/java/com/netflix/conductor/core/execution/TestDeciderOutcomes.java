@@ -61,6 +61,7 @@ import com.netflix.conductor.core.execution.tasks.Join;
 import com.netflix.conductor.core.execution.tasks.Switch;
 import com.netflix.conductor.core.execution.tasks.SystemTaskRegistry;
 import com.netflix.conductor.core.execution.tasks.WorkflowSystemTask;
+import com.netflix.conductor.core.metadata.MetadataMapperService;
 import com.netflix.conductor.core.utils.ExternalPayloadStorageUtils;
 import com.netflix.conductor.core.utils.IDGenerator;
 import com.netflix.conductor.core.utils.ParametersUtils;
@@ -183,6 +184,7 @@ public class TestDeciderOutcomes {
                         new IDGenerator(),
                         parametersUtils,
                         metadataDAO,
+                        new MetadataMapperService(metadataDAO),
                         externalPayloadStorageUtils,
                         systemTaskRegistry,
                         taskMappers,
@@ -51,6 +51,7 @@ import com.netflix.conductor.core.execution.mapper.TaskMapper;
 import com.netflix.conductor.core.execution.tasks.SubWorkflow;
 import com.netflix.conductor.core.execution.tasks.SystemTaskRegistry;
 import com.netflix.conductor.core.execution.tasks.WorkflowSystemTask;
+import com.netflix.conductor.core.metadata.MetadataMapperService;
 import com.netflix.conductor.core.utils.ExternalPayloadStorageUtils;
 import com.netflix.conductor.core.utils.IDGenerator;
 import com.netflix.conductor.core.utils.ParametersUtils;
@@ -160,6 +161,7 @@ public class TestDeciderService {
                         new IDGenerator(),
                         parametersUtils,
                         metadataDAO,
+                        new MetadataMapperService(metadataDAO),
                         externalPayloadStorageUtils,
                         systemTaskRegistry,
                         taskMappers,
@@ -44,6 +44,7 @@ import com.netflix.conductor.core.dal.ExecutionDAOFacade;
 import com.netflix.conductor.core.exception.ConflictException;
 import com.netflix.conductor.core.exception.NotFoundException;
 import com.netflix.conductor.core.exception.TerminateWorkflowException;
+import com.netflix.conductor.core.exception.TransientException;
 import com.netflix.conductor.core.execution.evaluators.Evaluator;
 import com.netflix.conductor.core.execution.mapper.*;
 import com.netflix.conductor.core.execution.tasks.*;
@@ -188,16 +189,17 @@ public class TestWorkflowExecutor {
         taskMappers.put(LAMBDA.name(), new LambdaTaskMapper(parametersUtils, metadataDAO));
         taskMappers.put(INLINE.name(), new InlineTaskMapper(parametersUtils, metadataDAO));
 
+        MetadataMapperService metadataMapperService = new MetadataMapperService(metadataDAO);
         DeciderService deciderService =
                 new DeciderService(
                         idGenerator,
                         parametersUtils,
                         metadataDAO,
+                        metadataMapperService,
                         externalPayloadStorageUtils,
                         systemTaskRegistry,
                         taskMappers,
                         Duration.ofMinutes(60));
-        MetadataMapperService metadataMapperService = new MetadataMapperService(metadataDAO);
 
         ConductorProperties properties = mock(ConductorProperties.class);
         when(properties.getActiveWorkerLastPollTimeout()).thenReturn(Duration.ofSeconds(100));
@@ -309,8 +311,7 @@ public class TestWorkflowExecutor {
                     queuedTaskCount.incrementAndGet();
                     return null;
                 };
-        doAnswer(answer).when(queueDAO).push(any(), any(), anyLong());
-        doAnswer(answer).when(queueDAO).push(any(), any(), anyInt(), anyLong());
+        doAnswer(answer).when(executionDAOFacade).pushToQueue(any(), any(), anyInt(), anyLong());
 
         boolean stateChanged = workflowExecutor.scheduleTask(workflow, tasks);
         // Wait task is no async to it will be queued.
@@ -2099,6 +2100,24 @@ public class TestWorkflowExecutor {
         assertTrue(!workflow.getFailedReferenceTaskNames().isEmpty());
     }
 
+    @Test
+    public void testDecideFailureKeptWhenItsWritesFail() {
+        WorkflowModel workflow = mock(WorkflowModel.class);
+        RuntimeException decideFailure = new IllegalStateException("decide failed");
+        when(workflow.getStatus()).thenThrow(decideFailure);
+        RuntimeException writeFailure = new TransientException("write failed");
+        doThrow(writeFailure).when(executionDAOFacade).endUnitOfWork();
+
+        try {
+            workflowExecutor.decideLocked(workflow);
+            fail("the decide failure was not thrown");
+        } catch (IllegalStateException e) {
+            assertSame(decideFailure, e);
+            assertArrayEquals(new Throwable[] {writeFailure}, e.getSuppressed());
+        }
+        verify(executionDAOFacade).endUnitOfWork();
+    }
+
     @Test
     public void testRerunOptionalSubWorkflow() {
         IDGenerator idGenerator = new IDGenerator();
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.execution.evaluators;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.netflix.conductor.core.exception.TerminateWorkflowException;
+
+import static org.junit.Assert.*;
+
+public class PythonEvaluatorTest {
+
+    private static PythonEvaluator evaluator;
+
+    @BeforeClass
+    public static void setUp() {
+        evaluator = new PythonEvaluator(2, 16);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        evaluator.close();
+    }
+
+    @Test
+    public void testEvaluate() {
+        assertEquals(3, evaluator.evaluate("return a + b", Map.of("a", 1, "b", 2)));
+        assertEquals(
+                "conductor",
+                evaluator.evaluate(
+                        "return app['name']", Map.of("app", Map.of("name", "conductor"))));
+        assertNull(evaluator.evaluate("return 1", "not a map"));
+    }
+
+    @Test
+    public void testMultiLineExpression() {
+        String expression = "total = 0\nfor i in range(n):\n    total += i\nreturn total";
+        assertEquals(45, evaluator.evaluate(expression, Map.of("n", 10)));
+        assertEquals(4950, evaluator.evaluate(expression, Map.of("n", 100)));
+    }
+
+    @Test
+    public void testResultIsConvertedToJava() {
+        Object result = evaluator.evaluate("return {'list': [a, 2], 'flag': True}", Map.of("a", 1));
+        assertEquals(Map.of("list", List.of(1, 2), "flag", true), result);
+    }
+
+    @Test
+    public void testInputsAreNotSharedAcrossEvaluations() {
+        assertEquals(1, evaluator.evaluate("return a", Map.of("a", 1)));
+        // the same source, without the variable
+        assertThrows(
+                TerminateWorkflowException.class, () -> evaluator.evaluate("return a", Map.of()));
+        // the contexts stay usable after an error
+        assertEquals(2, evaluator.evaluate("return a", Map.of("a", 2)));
+    }
+
+    @Test
+    public void testParallelEvaluations() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                int value = i;
+                results.add(
+                        executorService.submit(
+                                () ->
+                                        evaluator.evaluate(
+                                                "return value * 2", Map.of("value", value))));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i * 2, results.get(i).get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.execution.tasks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
+import com.netflix.conductor.core.execution.tasks.SystemTaskPollScheduler.PollResult;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestSystemTaskPollScheduler {
+
+    private QueueWakeupRegistry queueWakeupRegistry;
+    private SystemTaskPollScheduler pollScheduler;
+
+    @Before
+    public void setUp() {
+        queueWakeupRegistry = new QueueWakeupRegistry(1);
+        pollScheduler = new SystemTaskPollScheduler(1, 60_000, 60_000, queueWakeupRegistry);
+    }
+
+    @After
+    public void tearDown() {
+        pollScheduler.shutdown();
+        queueWakeupRegistry.shutdown();
+    }
+
+    @Test
+    public void testScheduleQueueOnce() {
+        assertTrue(pollScheduler.schedule("queue", () -> PollResult.EMPTY, 60_000));
+        assertFalse(pollScheduler.schedule("queue", () -> PollResult.EMPTY, 60_000));
+        assertEquals(1, pollScheduler.getQueueCount());
+    }
+
+    @Test
+    public void testPushWakesEmptyQueue() throws Exception {
+        CountDownLatch firstPoll = new CountDownLatch(1);
+        CountDownLatch secondPoll = new CountDownLatch(2);
+        pollScheduler.schedule(
+                "queue",
+                () -> {
+                    firstPoll.countDown();
+                    secondPoll.countDown();
+                    return PollResult.EMPTY;
+                },
+                0);
+
+        assertTrue(firstPoll.await(5, TimeUnit.SECONDS));
+        // the empty queue waits for the poll interval of one minute, unless pushed to
+        Thread.sleep(50);
+        assertEquals(1, secondPoll.getCount());
+        queueWakeupRegistry.signal("queue");
+        assertTrue(secondPoll.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testBusyQueueDoesNotStarveOthers() throws Exception {
+        AtomicInteger busyPolls = new AtomicInteger();
+        CountDownLatch otherPolls = new CountDownLatch(3);
+        pollScheduler.schedule(
+                "busy",
+                () -> {
+                    busyPolls.incrementAndGet();
+                    return PollResult.POLLED;
+                },
+                0);
+        pollScheduler.schedule(
+                "other",
+                () -> {
+                    otherPolls.countDown();
+                    return PollResult.POLLED;
+                },
+                0);
+
+        assertTrue(otherPolls.await(5, TimeUnit.SECONDS));
+        assertTrue(busyPolls.get() > 0);
+    }
+}
@@ -23,6 +23,7 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
 import com.netflix.conductor.core.execution.AsyncSystemTaskExecutor;
 import com.netflix.conductor.dao.QueueDAO;
 import com.netflix.conductor.service.ExecutionService;
@@ -46,6 +47,7 @@ public class TestSystemTaskWorker {
     private ExecutionService executionService;
     private QueueDAO queueDAO;
     private ConductorProperties properties;
+    private QueueWakeupRegistry queueWakeupRegistry;
 
     private SystemTaskWorker systemTaskWorker;
 
@@ -60,10 +62,17 @@ public class TestSystemTaskWorker {
         when(properties.getIsolatedSystemTaskWorkerThreadCount()).thenReturn(10);
         when(properties.getSystemTaskWorkerCallbackDuration()).thenReturn(Duration.ofSeconds(30));
         when(properties.getSystemTaskWorkerPollInterval()).thenReturn(Duration.ofSeconds(30));
+        when(properties.getSystemTaskWorkerMaxPollInterval()).thenReturn(Duration.ofSeconds(30));
+        when(properties.getSystemTaskWorkerPollThreadCount()).thenReturn(1);
+        queueWakeupRegistry = new QueueWakeupRegistry(1);
 
         systemTaskWorker =
                 new SystemTaskWorker(
-                        queueDAO, asyncSystemTaskExecutor, properties, executionService);
+                        queueDAO,
+                        asyncSystemTaskExecutor,
+                        properties,
+                        executionService,
+                        queueWakeupRegistry);
         systemTaskWorker.start();
     }
 
@@ -71,6 +80,17 @@ public class TestSystemTaskWorker {
     public void tearDown() {
         systemTaskWorker.queueExecutionConfigMap.clear();
         systemTaskWorker.stop();
+        systemTaskWorker.stopPolling();
+        queueWakeupRegistry.shutdown();
+    }
+
+    @Test
+    public void testStartPollingQueueOnce() {
+        systemTaskWorker.startPolling(new TestTask());
+        systemTaskWorker.startPolling(new TestTask());
+        systemTaskWorker.startPolling(new IsolatedTask());
+
+        assertEquals(2, systemTaskWorker.getPolledQueueCount());
     }
 
     @Test
@@ -78,7 +98,11 @@ public class TestSystemTaskWorker {
         when(properties.getSystemTaskWorkerThreadCount()).thenReturn(5);
         systemTaskWorker =
                 new SystemTaskWorker(
-                        queueDAO, asyncSystemTaskExecutor, properties, executionService);
+                        queueDAO,
+                        asyncSystemTaskExecutor,
+                        properties,
+                        executionService,
+                        queueWakeupRegistry);
         assertEquals(
                 systemTaskWorker.getExecutionConfig("").getSemaphoreUtil().availableSlots(), 5);
     }
@@ -88,7 +112,11 @@ public class TestSystemTaskWorker {
         when(properties.getIsolatedSystemTaskWorkerThreadCount()).thenReturn(7);
         systemTaskWorker =
                 new SystemTaskWorker(
-                        queueDAO, asyncSystemTaskExecutor, properties, executionService);
+                        queueDAO,
+                        asyncSystemTaskExecutor,
+                        properties,
+                        executionService,
+                        queueWakeupRegistry);
         assertEquals(
                 systemTaskWorker.getExecutionConfig("test-iso").getSemaphoreUtil().availableSlots(),
                 7);
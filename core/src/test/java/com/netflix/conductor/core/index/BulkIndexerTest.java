@@ -0,0 +1,275 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.index;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.netflix.conductor.core.exception.NonTransientException;
+import com.netflix.conductor.core.exception.TransientException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BulkIndexerTest {
+
+    private final List<List<String>> requests = new CopyOnWriteArrayList<>();
+    private BulkIndexer bulkIndexer;
+
+    @After
+    public void tearDown() {
+        if (bulkIndexer != null) {
+            bulkIndexer.shutdown();
+        }
+    }
+
+    @Test
+    public void testFlushWhenFull() throws Exception {
+        bulkIndexer = bulkIndexer(this::record, 2, Long.MAX_VALUE, Duration.ofMinutes(1), 10, 0);
+        CompletableFuture<Void> first = index("1", "a");
+        index("2", "b").get(5, TimeUnit.SECONDS);
+        assertTrue(first.isDone());
+        assertEquals(List.of(List.of("1:a", "2:b")), requests);
+    }
+
+    @Test
+    public void testFlushWhenSizeExceeded() throws Exception {
+        bulkIndexer = bulkIndexer(this::record, 100, 4, Duration.ofMinutes(1), 10, 0);
+        index("1", "ab");
+        index("2", "cd").get(5, TimeUnit.SECONDS);
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void testFlushAfterInterval() throws Exception {
+        bulkIndexer = bulkIndexer(this::record, 100, Long.MAX_VALUE, Duration.ofMillis(50), 10, 0);
+        index("1", "a").get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(List.of("1:a")), requests);
+    }
+
+    @Test
+    public void testCollapseUpdatesOfTheSameDocument() throws Exception {
+        bulkIndexer = bulkIndexer(this::record, 100, Long.MAX_VALUE, Duration.ofMinutes(1), 10, 0);
+        CompletableFuture<Void> first = index("1", "a");
+        CompletableFuture<Void> second = index("1", "b");
+        index("2", "c");
+        bulkIndexer.shutdown();
+        second.get(5, TimeUnit.SECONDS);
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(List.of("1:b", "2:c")), requests);
+    }
+
+    @Test
+    public void testRetryFailedDocuments() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        bulkIndexer =
+                bulkIndexer(
+                        (index, documents) -> {
+                            record(index, documents);
+                            if (attempts.getAndIncrement() == 0) {
+                                return Map.of(
+                                        "1",
+                                        new BulkIndexer.Failure(true, "rejected"),
+                                        "2",
+                                        new BulkIndexer.Failure(false, "mapping"));
+                            }
+                            return Collections.emptyMap();
+                        },
+                        3,
+                        Long.MAX_VALUE,
+                        Duration.ofMillis(50),
+                        10,
+                        3);
+        CompletableFuture<Void> retried = index("1", "a");
+        CompletableFuture<Void> failed = index("2", "b");
+        CompletableFuture<Void> indexed = index("3", "c");
+
+        retried.get(5, TimeUnit.SECONDS);
+        indexed.get(5, TimeUnit.SECONDS);
+        try {
+            failed.get(5, TimeUnit.SECONDS);
+            fail("the document is not retried");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof NonTransientException);
+        }
+        assertEquals(List.of(List.of("1:a", "2:b", "3:c"), List.of("1:a")), requests);
+    }
+
+    @Test
+    public void testRetryReplacedByNewerVersion() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        bulkIndexer =
+                bulkIndexer(
+                        (index, documents) -> {
+                            record(index, documents);
+                            if (attempts.getAndIncrement() == 0) {
+                                sending.countDown();
+                                updated.await();
+                                throw new IOException("unavailable");
+                            }
+                            return Collections.emptyMap();
+                        },
+                        1,
+                        Long.MAX_VALUE,
+                        Duration.ofMillis(50),
+                        10,
+                        3);
+        CompletableFuture<Void> first = index("1", "a");
+        sending.await();
+        CompletableFuture<Void> second = index("1", "b");
+        updated.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        // the failed version is not written after the newer one
+        assertEquals(List.of(List.of("1:a"), List.of("1:b")), requests);
+    }
+
+    @Test
+    public void testGiveUpAfterMaxRetries() throws Exception {
+        bulkIndexer =
+                bulkIndexer(
+                        (index, documents) -> {
+                            record(index, documents);
+                            throw new IOException("unavailable");
+                        },
+                        1,
+                        Long.MAX_VALUE,
+                        Duration.ofMillis(20),
+                        10,
+                        2);
+        try {
+            index("1", "a").get(5, TimeUnit.SECONDS);
+            fail("the document is not indexed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof NonTransientException);
+        }
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    public void testDropWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        bulkIndexer =
+                bulkIndexer(
+                        (index, documents) -> {
+                            release.await();
+                            return record(index, documents);
+                        },
+                        1,
+                        Long.MAX_VALUE,
+                        Duration.ofMinutes(1),
+                        1,
+                        0);
+        CompletableFuture<Void> first = index("1", "a");
+        // the caller is not blocked while the first document is written
+        CompletableFuture<Void> dropped = index("2", "b");
+        assertTrue(dropped.isCompletedExceptionally());
+        try {
+            dropped.get();
+            fail("the document has no room");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TransientException);
+        }
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        index("3", "c").get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(List.of("1:a"), List.of("3:c")), requests);
+    }
+
+    @Test
+    public void testFailRetriesOnShutdown() throws Exception {
+        bulkIndexer =
+                bulkIndexer(
+                        (index, documents) -> {
+                            record(index, documents);
+                            return Map.of("1", new BulkIndexer.Failure(true, "rejected"));
+                        },
+                        10,
+                        Long.MAX_VALUE,
+                        Duration.ofMinutes(1),
+                        10,
+                        3);
+        CompletableFuture<Void> retried = index("1", "a");
+        CompletableFuture<Void> written = index("2", "b");
+        bulkIndexer.shutdown();
+        bulkIndexer = null;
+
+        written.get(5, TimeUnit.SECONDS);
+        // buffered again by the last flush, but not retried after the shutdown
+        assertTrue(retried.isCompletedExceptionally());
+        try {
+            retried.get();
+            fail("the document was not written");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TransientException);
+        }
+        assertEquals(List.of(List.of("1:a", "2:b")), requests);
+    }
+
+    private CompletableFuture<Void> index(String id, String source) {
+        return bulkIndexer.index("index", "doc", id, source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Map<String, BulkIndexer.Failure> record(
+            String index, Collection<BulkIndexer.Document> documents) {
+        requests.add(
+                documents.stream()
+                        .map(
+                                document ->
+                                        document.getId()
+                                                + ":"
+                                                + new String(
+                                                        document.getSource(),
+                                                        StandardCharsets.UTF_8))
+                        .collect(Collectors.toCollection(ArrayList::new)));
+        return Collections.emptyMap();
+    }
+
+    private static BulkIndexer bulkIndexer(
+            BulkIndexer.Sender sender,
+            int maxActions,
+            long maxBytes,
+            Duration flushInterval,
+            int maxPendingDocuments,
+            int maxRetries) {
+        return new BulkIndexer(
+                "bulk-index-test",
+                2,
+                sender,
+                maxActions,
+                maxBytes,
+                flushInterval,
+                maxPendingDocuments,
+                maxRetries);
+    }
+}
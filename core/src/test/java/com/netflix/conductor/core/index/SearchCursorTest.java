@@ -0,0 +1,92 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.netflix.conductor.common.run.SearchResult;
+import com.netflix.conductor.core.exception.NonTransientException;
+import com.netflix.conductor.dao.IndexDAO;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SearchCursorTest {
+
+    @Test
+    public void testFetchesPagesLazily() {
+        List<Integer> fetched = new ArrayList<>();
+        AtomicBoolean closed = new AtomicBoolean();
+        SearchCursor<Integer> cursor =
+                new SearchCursor<>(
+                        0,
+                        page -> {
+                            fetched.add(page);
+                            return new SearchCursor.Page<>(
+                                    List.of("id" + (2 * page), "id" + (2 * page + 1)),
+                                    page < 2 ? page + 1 : null);
+                        });
+        try (Stream<String> ids = cursor.stream(() -> closed.set(true))) {
+            assertEquals(List.of("id0", "id1", "id2"), ids.limit(3).collect(Collectors.toList()));
+        }
+        assertEquals(List.of(0, 1), fetched);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testStopsOnEmptyPage() {
+        SearchCursor<String> cursor =
+                new SearchCursor<>("", scrollId -> new SearchCursor.Page<>(List.of(), "scroll"));
+        assertEquals(0, cursor.stream(() -> {}).count());
+    }
+
+    @Test(expected = NonTransientException.class)
+    public void testFetchFailure() {
+        new SearchCursor<Integer>(
+                        0,
+                        page -> {
+                            throw new IllegalStateException("unavailable");
+                        })
+                .stream(() -> {}).count();
+    }
+
+    @Test
+    public void testDefaultStreamWorkflows() {
+        IndexDAO indexDAO = mock(IndexDAO.class, CALLS_REAL_METHODS);
+        List<String> firstPage = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            firstPage.add("w" + i);
+        }
+        when(indexDAO.searchWorkflows("query", "*", 0, 1000, null))
+                .thenReturn(new SearchResult<>(1001, firstPage));
+        when(indexDAO.searchWorkflows("query", "*", 1000, 1000, null))
+                .thenReturn(new SearchResult<>(1001, List.of("w1000")));
+
+        assertEquals(1001, indexDAO.streamWorkflows("query", "*", null).count());
+        verify(indexDAO, never())
+                .searchWorkflows(eq("query"), eq("*"), eq(2000), anyInt(), eq(null));
+    }
+}
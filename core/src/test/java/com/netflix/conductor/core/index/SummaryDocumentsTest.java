@@ -0,0 +1,141 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.index;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.netflix.conductor.common.config.ObjectMapperProvider;
+import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
+import com.netflix.conductor.common.run.TaskSummary;
+import com.netflix.conductor.common.run.WorkflowSummary;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.Assert.assertEquals;
+
+public class SummaryDocumentsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapperProvider().getObjectMapper();
+
+    @Test
+    public void testWorkflowSummary() throws Exception {
+        WorkflowModel workflow = workflow();
+        assertEquals(
+                objectMapper.readTree(
+                        objectMapper.writeValueAsBytes(new WorkflowSummary(workflow.toWorkflow()))),
+                objectMapper.readTree(SummaryDocuments.workflowSummary(workflow)));
+    }
+
+    @Test
+    public void testRunningWorkflowWithExternalPayloads() throws Exception {
+        WorkflowModel workflow = workflow();
+        workflow.setStatus(WorkflowModel.Status.RUNNING);
+        workflow.setEndTime(0);
+        workflow.setReasonForIncompletion(null);
+        workflow.setCorrelationId(null);
+        workflow.setUpdatedTime(null);
+        workflow.setTaskToDomain(null);
+        workflow.setExternalInputPayloadStoragePath("workflow/input.json");
+        workflow.setExternalOutputPayloadStoragePath(" ");
+        assertEquals(
+                objectMapper.readTree(
+                        objectMapper.writeValueAsBytes(new WorkflowSummary(workflow.toWorkflow()))),
+                objectMapper.readTree(SummaryDocuments.workflowSummary(workflow)));
+    }
+
+    @Test
+    public void testTaskSummary() throws Exception {
+        TaskModel task = task();
+        assertEquals(
+                objectMapper.readTree(
+                        objectMapper.writeValueAsBytes(new TaskSummary(task.toTask()))),
+                objectMapper.readTree(SummaryDocuments.taskSummary(task)));
+    }
+
+    @Test
+    public void testScheduledTaskWithExternalPayloads() throws Exception {
+        TaskModel task = task();
+        task.setStatus(TaskModel.Status.SCHEDULED);
+        task.setStartTime(0);
+        task.setEndTime(0);
+        task.setDomain(null);
+        task.setTaskDefName(null);
+        task.setExternalInputPayloadStoragePath("task/input.json");
+        task.setExternalOutputPayloadStoragePath("task/output.json");
+        assertEquals(
+                objectMapper.readTree(
+                        objectMapper.writeValueAsBytes(new TaskSummary(task.toTask()))),
+                objectMapper.readTree(SummaryDocuments.taskSummary(task)));
+    }
+
+    private static WorkflowModel workflow() {
+        WorkflowDef workflowDef = new WorkflowDef();
+        workflowDef.setName("summary_workflow");
+        workflowDef.setVersion(3);
+
+        WorkflowModel workflow = new WorkflowModel();
+        workflow.setWorkflowDefinition(workflowDef);
+        workflow.setWorkflowId("workflow-id");
+        workflow.setCorrelationId("correlation \"id\"");
+        workflow.setStatus(WorkflowModel.Status.FAILED);
+        workflow.setCreateTime(1_690_000_000_123L);
+        workflow.setUpdatedTime(1_690_000_100_456L);
+        workflow.setEndTime(1_690_000_200_789L);
+        workflow.setInput(Map.of("key", "value", "list", List.of(1, 2)));
+        Map<String, Object> output = new HashMap<>();
+        output.put("nested", Map.of("unicode", "\u00e9t\u00e9"));
+        output.put("null", null);
+        workflow.setOutput(output);
+        workflow.setReasonForIncompletion("task failed");
+        workflow.setEvent("event");
+        workflow.setFailedReferenceTaskNames(new LinkedHashSet<>(List.of("t1", "t2")));
+        workflow.setFailedTaskNames(Set.of("task_1"));
+        workflow.setPriority(5);
+        workflow.setCreatedBy("user");
+        Map<String, String> taskToDomain = new HashMap<>();
+        taskToDomain.put("task_1", "domain");
+        taskToDomain.put("task_2", null);
+        workflow.setTaskToDomain(taskToDomain);
+        return workflow;
+    }
+
+    private static TaskModel task() {
+        TaskModel task = new TaskModel();
+        task.setTaskId("task-id");
+        task.setTaskType("SIMPLE");
+        task.setTaskDefName("task_1");
+        task.setReferenceTaskName("t1");
+        task.setWorkflowInstanceId("workflow-id");
+        task.setWorkflowType("summary_workflow");
+        task.setWorkflowPriority(5);
+        task.setCorrelationId("correlation-id");
+        task.setDomain("domain");
+        task.setStatus(TaskModel.Status.COMPLETED);
+        task.setReasonForIncompletion("reason");
+        task.setScheduledTime(1_690_000_000_000L);
+        task.setStartTime(1_690_000_001_000L);
+        task.setUpdateTime(1_690_000_002_000L);
+        task.setEndTime(1_690_000_003_000L);
+        task.setInputData(Map.of("key", "value"));
+        task.setOutputData(Map.of("result", List.of("a", "b")));
+        return task;
+    }
+}
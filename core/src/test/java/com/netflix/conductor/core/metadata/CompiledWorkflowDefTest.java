@@ -0,0 +1,202 @@
+/*
+ * Copyright 2022 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.metadata;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.netflix.conductor.common.metadata.tasks.TaskType;
+import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
+import com.netflix.conductor.common.metadata.workflow.WorkflowTask;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CompiledWorkflowDefTest {
+
+    @Test
+    public void testMatchesWorkflowDefTraversal() {
+        WorkflowDef workflowDef = createNestedWorkflowDef();
+        CompiledWorkflowDef compiled = CompiledWorkflowDef.compile(workflowDef);
+
+        List<WorkflowTask> allTasks = workflowDef.collectTasks();
+        assertEquals(allTasks, compiled.getTasks());
+        assertEquals(allTasks.size(), compiled.size());
+
+        for (WorkflowTask task : allTasks) {
+            String ref = task.getTaskReferenceName();
+            assertSame(ref, workflowDef.getTaskByRefName(ref), compiled.getTaskByRefName(ref));
+            assertSame(ref, workflowDef.getNextTask(ref), compiled.getNextTask(ref));
+        }
+        assertNull(compiled.getTaskByRefName("unknown"));
+        assertNull(compiled.getNextTask("unknown"));
+    }
+
+    @Test
+    public void testParentAndEnclosingLoop() {
+        CompiledWorkflowDef compiled = CompiledWorkflowDef.compile(createNestedWorkflowDef());
+
+        assertNull(compiled.getParent("fork"));
+        assertEquals("fork", compiled.getParent("f1").getTaskReferenceName());
+        assertEquals("switch", compiled.getParent("s1").getTaskReferenceName());
+        assertEquals("loop", compiled.getParent("l2").getTaskReferenceName());
+        assertEquals("loop", compiled.getEnclosingLoop("ls1").getTaskReferenceName());
+        assertNull(compiled.getEnclosingLoop("s1"));
+    }
+
+    @Test
+    public void testContainsType() {
+        CompiledWorkflowDef compiled = CompiledWorkflowDef.compile(createNestedWorkflowDef());
+
+        assertEquals(true, compiled.containsType(TaskType.TASK_TYPE_DO_WHILE));
+        assertEquals(false, compiled.containsType(TaskType.TASK_TYPE_SUB_WORKFLOW));
+    }
+
+    @Test
+    public void testRecompiledWhenModified() {
+        MetadataMapperService metadataMapperService = new MetadataMapperService(null);
+        WorkflowDef workflowDef = createNestedWorkflowDef();
+
+        CompiledWorkflowDef compiled = metadataMapperService.getCompiledWorkflowDef(workflowDef);
+        assertSame(compiled, metadataMapperService.getCompiledWorkflowDef(workflowDef));
+
+        workflowDef.getTasks().add(task("appended", TaskType.TASK_TYPE_SIMPLE));
+        CompiledWorkflowDef recompiled = metadataMapperService.getCompiledWorkflowDef(workflowDef);
+        assertEquals("appended", recompiled.getNextTask("last").getTaskReferenceName());
+    }
+
+    @Test
+    public void testReboundToAnotherInstance() {
+        MetadataMapperService metadataMapperService = new MetadataMapperService(null);
+        CompiledWorkflowDef compiled =
+                metadataMapperService.getCompiledWorkflowDef(createNestedWorkflowDef());
+
+        WorkflowDef copy = createNestedWorkflowDef();
+        CompiledWorkflowDef rebound = metadataMapperService.getCompiledWorkflowDef(copy);
+        assertNotSame(compiled, rebound);
+        assertSame(copy, rebound.getWorkflowDef());
+        assertEquals(copy.collectTasks(), rebound.getTasks());
+        for (WorkflowTask task : copy.collectTasks()) {
+            String ref = task.getTaskReferenceName();
+            assertSame(ref, task, rebound.getTaskByRefName(ref));
+            assertSame(ref, copy.getNextTask(ref), rebound.getNextTask(ref));
+        }
+        assertSame(rebound, metadataMapperService.getCompiledWorkflowDef(copy));
+    }
+
+    @Test
+    public void testInstancesCompiledOnce() {
+        MetadataMapperService metadataMapperService = new MetadataMapperService(null);
+        WorkflowDef first = createNestedWorkflowDef();
+        WorkflowDef second = createNestedWorkflowDef();
+
+        // the workflows of the same definition are decided in turn
+        CompiledWorkflowDef compiledFirst = metadataMapperService.getCompiledWorkflowDef(first);
+        CompiledWorkflowDef compiledSecond = metadataMapperService.getCompiledWorkflowDef(second);
+        assertSame(compiledFirst, metadataMapperService.getCompiledWorkflowDef(first));
+        assertSame(compiledSecond, metadataMapperService.getCompiledWorkflowDef(second));
+        assertSame(first, compiledFirst.getWorkflowDef());
+        assertSame(second, compiledSecond.getWorkflowDef());
+    }
+
+    @Test
+    public void testRecompiledWhenAnotherInstanceDiffers() {
+        MetadataMapperService metadataMapperService = new MetadataMapperService(null);
+        metadataMapperService.getCompiledWorkflowDef(createNestedWorkflowDef());
+
+        // the same tasks in the same order, l2 moved from the loop into the case of ls
+        WorkflowDef moved = createNestedWorkflowDef();
+        WorkflowTask loop = moved.getTaskByRefName("loop");
+        List<WorkflowTask> loopOver = loop.getLoopOver();
+        loop.setLoopOver(loopOver.subList(0, 2));
+        loopOver.get(1)
+                .setDecisionCases(
+                        Map.of(
+                                "x",
+                                Arrays.asList(
+                                        task("ls1", TaskType.TASK_TYPE_SIMPLE), loopOver.get(2))));
+        assertEquals(
+                createNestedWorkflowDef().collectTasks().stream()
+                        .map(WorkflowTask::getTaskReferenceName)
+                        .collect(Collectors.toList()),
+                moved.collectTasks().stream()
+                        .map(WorkflowTask::getTaskReferenceName)
+                        .collect(Collectors.toList()));
+        CompiledWorkflowDef recompiled = metadataMapperService.getCompiledWorkflowDef(moved);
+        assertEquals("loop", recompiled.getNextTask("ls").getTaskReferenceName());
+        assertEquals("ls", recompiled.getParent("l2").getTaskReferenceName());
+
+        WorkflowDef updated = createNestedWorkflowDef();
+        updated.setUpdateTime(1L);
+        assertSame(updated, metadataMapperService.getCompiledWorkflowDef(updated).getWorkflowDef());
+        assertNull(recompiled.rebind(updated));
+    }
+
+    /**
+     * fork [ [f1, switch {a: [s1, s2], default: [d1]}], [f2] ] -> join -> loop [l1, ls [ls1], l2]
+     * -> terminate -> last
+     */
+    private WorkflowDef createNestedWorkflowDef() {
+        WorkflowTask switchTask = task("switch", TaskType.TASK_TYPE_SWITCH);
+        Map<String, List<WorkflowTask>> cases = new LinkedHashMap<>();
+        cases.put(
+                "a",
+                Arrays.asList(
+                        task("s1", TaskType.TASK_TYPE_SIMPLE),
+                        task("s2", TaskType.TASK_TYPE_SIMPLE)));
+        switchTask.setDecisionCases(cases);
+        switchTask.setDefaultCase(Arrays.asList(task("d1", TaskType.TASK_TYPE_SIMPLE)));
+
+        WorkflowTask fork = task("fork", TaskType.TASK_TYPE_FORK_JOIN);
+        fork.setForkTasks(
+                Arrays.asList(
+                        Arrays.asList(task("f1", TaskType.TASK_TYPE_SIMPLE), switchTask),
+                        Arrays.asList(task("f2", TaskType.TASK_TYPE_SIMPLE))));
+        WorkflowTask join = task("join", TaskType.TASK_TYPE_JOIN);
+        join.setJoinOn(Arrays.asList("switch", "f2"));
+
+        WorkflowTask loopSwitch = task("ls", TaskType.TASK_TYPE_SWITCH);
+        loopSwitch.setDecisionCases(
+                Map.of("x", Arrays.asList(task("ls1", TaskType.TASK_TYPE_SIMPLE))));
+        WorkflowTask loop = task("loop", TaskType.TASK_TYPE_DO_WHILE);
+        loop.setLoopOver(
+                Arrays.asList(
+                        task("l1", TaskType.TASK_TYPE_SIMPLE),
+                        loopSwitch,
+                        task("l2", TaskType.TASK_TYPE_SIMPLE)));
+
+        WorkflowDef workflowDef = new WorkflowDef();
+        workflowDef.setName("compiled");
+        workflowDef.getTasks().add(fork);
+        workflowDef.getTasks().add(join);
+        workflowDef.getTasks().add(loop);
+        workflowDef.getTasks().add(task("terminate", TaskType.TASK_TYPE_TERMINATE));
+        workflowDef.getTasks().add(task("last", TaskType.TASK_TYPE_SIMPLE));
+        return workflowDef;
+    }
+
+    private WorkflowTask task(String ref, String type) {
+        WorkflowTask workflowTask = new WorkflowTask();
+        workflowTask.setName(ref);
+        workflowTask.setTaskReferenceName(ref);
+        workflowTask.setType(type);
+        return workflowTask;
+    }
+}
@@ -13,17 +13,23 @@
 package com.netflix.conductor.core.reconciliation;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 import com.netflix.conductor.common.metadata.tasks.TaskDef;
+import com.netflix.conductor.common.metadata.tasks.TaskDef.TimeoutPolicy;
 import com.netflix.conductor.common.metadata.tasks.TaskType;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
+import com.netflix.conductor.common.metadata.workflow.WorkflowTask;
 import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.core.dal.ExecutionDAOFacade;
+import com.netflix.conductor.core.exception.NotFoundException;
 import com.netflix.conductor.core.execution.WorkflowExecutor;
 import com.netflix.conductor.dao.QueueDAO;
 import com.netflix.conductor.model.TaskModel;
@@ -33,7 +39,13 @@ import com.netflix.conductor.service.ExecutionLockService;
 
 import static com.netflix.conductor.core.utils.Utils.DECIDER_QUEUE;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -48,8 +60,9 @@ public class TestWorkflowSweeper {
     private WorkflowSweeper workflowSweeper;
     private ExecutionLockService executionLockService;
 
-    private int defaultPostPoneOffSetSeconds = 1800;
-    private int defaulMmaxPostponeDurationSeconds = 2000000;
+    private final int defaultMaxPostponeDurationSeconds = 2000000;
+    private final int defaultWorkflowRepairIntervalSeconds = 3000;
+    private final long now = System.currentTimeMillis();
 
     @Before
     public void setUp() {
@@ -59,6 +72,10 @@ public class TestWorkflowSweeper {
         workflowRepairService = mock(WorkflowRepairService.class);
         executionDAOFacade = mock(ExecutionDAOFacade.class);
         executionLockService = mock(ExecutionLockService.class);
+        when(properties.getMaxPostponeDurationSeconds())
+                .thenReturn(Duration.ofSeconds(defaultMaxPostponeDurationSeconds));
+        when(properties.getWorkflowRepairInterval())
+                .thenReturn(Duration.ofSeconds(defaultWorkflowRepairIntervalSeconds));
         workflowSweeper =
                 new WorkflowSweeper(
                         workflowExecutor,
@@ -70,296 +87,253 @@ public class TestWorkflowSweeper {
     }
 
     @Test
-    public void testPostponeDurationForHumanTaskType() {
-        WorkflowModel workflowModel = new WorkflowModel();
-        workflowModel.setWorkflowId("1");
-        TaskModel taskModel = new TaskModel();
-        taskModel.setTaskId("task1");
-        taskModel.setTaskType(TaskType.TASK_TYPE_HUMAN);
-        taskModel.setStatus(Status.IN_PROGRESS);
-        workflowModel.setTasks(List.of(taskModel));
-        when(properties.getWorkflowOffsetTimeout())
-                .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        when(properties.getMaxPostponeDurationSeconds())
-                .thenReturn(Duration.ofSeconds(defaulMmaxPostponeDurationSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
+    public void testUnack() {
+        WorkflowModel workflowModel = newWorkflow(0);
+        workflowModel.setTasks(List.of(newTask(TaskType.TASK_TYPE_HUMAN, Status.IN_PROGRESS)));
+        workflowSweeper.unack(workflowModel);
         verify(queueDAO)
                 .setUnackTimeout(
-                        DECIDER_QUEUE,
-                        workflowModel.getWorkflowId(),
-                        defaultPostPoneOffSetSeconds * 1000);
+                        eq(DECIDER_QUEUE),
+                        eq(workflowModel.getWorkflowId()),
+                        longThat(timeout -> timeout >= 2000000 && timeout <= 4000000));
     }
 
     @Test
-    public void testPostponeDurationForWaitTaskType() {
-        WorkflowModel workflowModel = new WorkflowModel();
-        workflowModel.setWorkflowId("1");
-        TaskModel taskModel = new TaskModel();
-        taskModel.setTaskId("task1");
-        taskModel.setTaskType(TaskType.TASK_TYPE_WAIT);
-        taskModel.setStatus(Status.IN_PROGRESS);
-        workflowModel.setTasks(List.of(taskModel));
-        when(properties.getWorkflowOffsetTimeout())
-                .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        when(properties.getMaxPostponeDurationSeconds())
-                .thenReturn(Duration.ofSeconds(defaulMmaxPostponeDurationSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE,
-                        workflowModel.getWorkflowId(),
-                        defaultPostPoneOffSetSeconds * 1000);
+    public void testUnackTimeoutForHumanTaskType() {
+        WorkflowModel workflowModel = newWorkflow(0);
+        workflowModel.setTasks(List.of(newTask(TaskType.TASK_TYPE_HUMAN, Status.IN_PROGRESS)));
+        assertRepairInterval(workflowSweeper.unackTimeout(workflowModel, now));
     }
 
     @Test
-    public void testPostponeDurationForWaitTaskTypeWithLongWaitTime() {
-        long waitTimeout = 65845;
-        WorkflowModel workflowModel = new WorkflowModel();
-        workflowModel.setWorkflowId("1");
-        TaskModel taskModel = new TaskModel();
-        taskModel.setTaskId("task1");
-        taskModel.setTaskType(TaskType.TASK_TYPE_WAIT);
-        taskModel.setStatus(Status.IN_PROGRESS);
-        taskModel.setWaitTimeout(System.currentTimeMillis() + waitTimeout);
-        workflowModel.setTasks(List.of(taskModel));
-        when(properties.getWorkflowOffsetTimeout())
-                .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        when(properties.getMaxPostponeDurationSeconds())
-                .thenReturn(Duration.ofSeconds(defaulMmaxPostponeDurationSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE, workflowModel.getWorkflowId(), (waitTimeout / 1000) * 1000);
+    public void testUnackTimeoutForWaitTaskTypeWithoutWaitTimeout() {
+        WorkflowModel workflowModel = newWorkflow(0);
+        workflowModel.setTasks(List.of(newTask(TaskType.TASK_TYPE_WAIT, Status.IN_PROGRESS)));
+        assertRepairInterval(workflowSweeper.unackTimeout(workflowModel, now));
     }
 
     @Test
-    public void testPostponeDurationForWaitTaskTypeWithLessOneSecondWaitTime() {
-        long waitTimeout = 180;
-        WorkflowModel workflowModel = new WorkflowModel();
-        workflowModel.setWorkflowId("1");
-        TaskModel taskModel = new TaskModel();
-        taskModel.setTaskId("task1");
-        taskModel.setTaskType(TaskType.TASK_TYPE_WAIT);
-        taskModel.setStatus(Status.IN_PROGRESS);
-        taskModel.setWaitTimeout(System.currentTimeMillis() + waitTimeout);
-        workflowModel.setTasks(List.of(taskModel));
-        when(properties.getWorkflowOffsetTimeout())
-                .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE, workflowModel.getWorkflowId(), (waitTimeout / 1000) * 1000);
+    public void testUnackTimeoutWithoutTimeoutsCappedByMaxPostpone() {
+        when(properties.getMaxPostponeDurationSeconds()).thenReturn(Duration.ofSeconds(10));
+        WorkflowModel workflowModel = newWorkflow(0);
+        workflowModel.setTasks(List.of(newTask(TaskType.TASK_TYPE_HUMAN, Status.IN_PROGRESS)));
+        assertEquals(10000, workflowSweeper.unackTimeout(workflowModel, now));
     }
 
     @Test
-    public void testPostponeDurationForWaitTaskTypeWithZeroWaitTime() {
-        long waitTimeout = 0;
-        WorkflowModel workflowModel = new WorkflowModel();
-        workflowModel.setWorkflowId("1");
-        TaskModel taskModel = new TaskModel();
-        taskModel.setTaskId("task1");
-        taskModel.setTaskType(TaskType.TASK_TYPE_WAIT);
-        taskModel.setStatus(Status.IN_PROGRESS);
-        taskModel.setWaitTimeout(System.currentTimeMillis() + waitTimeout);
+    public void testUnackTimeoutForWaitTaskTypeWithWaitTimeout() {
+        WorkflowModel workflowModel = newWorkflow(0);
+        TaskModel taskModel = newTask(TaskType.TASK_TYPE_WAIT, Status.IN_PROGRESS);
+        taskModel.setWaitTimeout(now + 65845);
         workflowModel.setTasks(List.of(taskModel));
-        when(properties.getWorkflowOffsetTimeout())
-                .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE, workflowModel.getWorkflowId(), (waitTimeout / 1000) * 1000);
+        assertEquals(65845 + 1000, workflowSweeper.unackTimeout(workflowModel, now));
     }
 
     @Test
-    public void testPostponeDurationForTaskInProgress() {
-        WorkflowModel workflowModel = new WorkflowModel();
-        workflowModel.setWorkflowId("1");
-        TaskModel taskModel = new TaskModel();
-        taskModel.setTaskId("task1");
-        taskModel.setTaskType(TaskType.TASK_TYPE_SIMPLE);
-        taskModel.setStatus(Status.IN_PROGRESS);
+    public void testUnackTimeoutForWaitTaskTypeWithPastWaitTimeout() {
+        WorkflowModel workflowModel = newWorkflow(0);
+        TaskModel taskModel = newTask(TaskType.TASK_TYPE_WAIT, Status.IN_PROGRESS);
+        taskModel.setWaitTimeout(now);
         workflowModel.setTasks(List.of(taskModel));
-        when(properties.getWorkflowOffsetTimeout())
-                .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        when(properties.getMaxPostponeDurationSeconds())
-                .thenReturn(Duration.ofSeconds(defaulMmaxPostponeDurationSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE,
-                        workflowModel.getWorkflowId(),
-                        defaultPostPoneOffSetSeconds * 1000);
+        assertRepairInterval(workflowSweeper.unackTimeout(workflowModel, now));
     }
 
     @Test
-    public void testPostponeDurationForTaskInProgressWithResponseTimeoutSet() {
-        long responseTimeout = 200;
-        WorkflowModel workflowModel = new WorkflowModel();
-        workflowModel.setWorkflowId("1");
-        TaskModel taskModel = new TaskModel();
-        taskModel.setTaskId("task1");
-        taskModel.setTaskType(TaskType.TASK_TYPE_SIMPLE);
-        taskModel.setStatus(Status.IN_PROGRESS);
-        taskModel.setResponseTimeoutSeconds(responseTimeout);
+    public void testUnackTimeoutForTaskInProgressWithoutTimeouts() {
+        WorkflowModel workflowModel = newWorkflow(0);
+        TaskModel taskModel = newTask(TaskType.TASK_TYPE_SIMPLE, Status.IN_PROGRESS);
+        taskModel.setWorkflowTask(newWorkflowTask(new TaskDef("task1")));
         workflowModel.setTasks(List.of(taskModel));
-        when(properties.getWorkflowOffsetTimeout())
-                .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        when(properties.getMaxPostponeDurationSeconds())
-                .thenReturn(Duration.ofSeconds(defaulMmaxPostponeDurationSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE, workflowModel.getWorkflowId(), (responseTimeout + 1) * 1000);
+        assertRepairInterval(workflowSweeper.unackTimeout(workflowModel, now));
     }
 
     @Test
-    public void
-            testPostponeDurationForTaskInProgressWithResponseTimeoutSetLongerThanMaxPostponeDuration() {
-        long responseTimeout = defaulMmaxPostponeDurationSeconds + 1;
-        WorkflowModel workflowModel = new WorkflowModel();
-        workflowModel.setWorkflowId("1");
-        TaskModel taskModel = new TaskModel();
-        taskModel.setTaskId("task1");
-        taskModel.setTaskType(TaskType.TASK_TYPE_SIMPLE);
-        taskModel.setStatus(Status.IN_PROGRESS);
-        taskModel.setResponseTimeoutSeconds(responseTimeout);
+    public void testUnackTimeoutForTaskInProgressWithResponseTimeout() {
+        TaskDef taskDef = new TaskDef("task1");
+        taskDef.setResponseTimeoutSeconds(200);
+        WorkflowModel workflowModel = newWorkflow(0);
+        TaskModel taskModel = newTask(TaskType.TASK_TYPE_SIMPLE, Status.IN_PROGRESS);
+        taskModel.setWorkflowTask(newWorkflowTask(taskDef));
+        taskModel.setUpdateTime(now - 50000);
+        taskModel.setCallbackAfterSeconds(10);
         workflowModel.setTasks(List.of(taskModel));
-        when(properties.getWorkflowOffsetTimeout())
-                .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        when(properties.getMaxPostponeDurationSeconds())
-                .thenReturn(Duration.ofSeconds(defaulMmaxPostponeDurationSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE,
-                        workflowModel.getWorkflowId(),
-                        defaulMmaxPostponeDurationSeconds * 1000L);
+        assertEquals(
+                200000 + 10000 - 50000 + 1000, workflowSweeper.unackTimeout(workflowModel, now));
     }
 
     @Test
-    public void testPostponeDurationForTaskInScheduled() {
-        WorkflowModel workflowModel = new WorkflowModel();
-        workflowModel.setWorkflowId("1");
-        WorkflowDef workflowDef = new WorkflowDef();
-        workflowModel.setWorkflowDefinition(workflowDef);
-        TaskModel taskModel = new TaskModel();
-        taskModel.setTaskId("task1");
-        taskModel.setTaskType(TaskType.TASK_TYPE_SIMPLE);
-        taskModel.setStatus(Status.SCHEDULED);
-        taskModel.setReferenceTaskName("task1");
+    public void testUnackTimeoutForTaskInProgressWithResponseTimeoutLongerThanMaxPostpone() {
+        when(properties.getMaxPostponeDurationSeconds()).thenReturn(Duration.ofSeconds(100));
+        TaskDef taskDef = new TaskDef("task1");
+        taskDef.setResponseTimeoutSeconds(200);
+        WorkflowModel workflowModel = newWorkflow(0);
+        TaskModel taskModel = newTask(TaskType.TASK_TYPE_SIMPLE, Status.IN_PROGRESS);
+        taskModel.setWorkflowTask(newWorkflowTask(taskDef));
+        taskModel.setUpdateTime(now);
         workflowModel.setTasks(List.of(taskModel));
-        when(properties.getWorkflowOffsetTimeout())
-                .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE,
-                        workflowModel.getWorkflowId(),
-                        defaultPostPoneOffSetSeconds * 1000);
+        assertEquals(100000, workflowSweeper.unackTimeout(workflowModel, now));
     }
 
     @Test
-    public void testPostponeDurationForTaskInScheduledWithWorkflowTimeoutSet() {
-        long workflowTimeout = 1800;
-        WorkflowModel workflowModel = new WorkflowModel();
-        workflowModel.setWorkflowId("1");
-        WorkflowDef workflowDef = new WorkflowDef();
-        workflowDef.setTimeoutSeconds(workflowTimeout);
-        workflowModel.setWorkflowDefinition(workflowDef);
-        TaskModel taskModel = new TaskModel();
-        taskModel.setTaskId("task1");
-        taskModel.setTaskType(TaskType.TASK_TYPE_SIMPLE);
-        taskModel.setStatus(Status.SCHEDULED);
+    public void testUnackTimeoutForTaskInProgressWithResponseTimeoutLongerThanRepairInterval() {
+        TaskDef taskDef = new TaskDef("task1");
+        taskDef.setResponseTimeoutSeconds(defaultWorkflowRepairIntervalSeconds * 2);
+        WorkflowModel workflowModel = newWorkflow(0);
+        TaskModel taskModel = newTask(TaskType.TASK_TYPE_SIMPLE, Status.IN_PROGRESS);
+        taskModel.setWorkflowTask(newWorkflowTask(taskDef));
+        taskModel.setUpdateTime(now);
         workflowModel.setTasks(List.of(taskModel));
-        when(properties.getWorkflowOffsetTimeout())
-                .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE, workflowModel.getWorkflowId(), (workflowTimeout + 1) * 1000);
+        assertRepairInterval(workflowSweeper.unackTimeout(workflowModel, now));
     }
 
     @Test
-    public void testPostponeDurationForTaskInScheduledWithWorkflowTimeoutSetAndNoPollTimeout() {
-        long workflowTimeout = 1800;
-        WorkflowModel workflowModel = new WorkflowModel();
-        workflowModel.setWorkflowId("1");
-        WorkflowDef workflowDef = new WorkflowDef();
-        workflowDef.setTimeoutSeconds(workflowTimeout);
-        workflowModel.setWorkflowDefinition(workflowDef);
-        TaskDef taskDef = new TaskDef();
-        TaskModel taskModel = mock(TaskModel.class);
-        workflowModel.setTasks(List.of(taskModel));
-        when(taskModel.getTaskDefinition()).thenReturn(Optional.of(taskDef));
-        when(taskModel.getStatus()).thenReturn(Status.SCHEDULED);
-        when(properties.getWorkflowOffsetTimeout())
-                .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE, workflowModel.getWorkflowId(), (workflowTimeout + 1) * 1000);
+    public void testShortTimeoutTaskScheduledAfterLongPostponeIsSweptInTime() {
+        when(properties.getWorkflowRepairInterval()).thenReturn(Duration.ofSeconds(30));
+        TaskDef longTaskDef = new TaskDef("long");
+        longTaskDef.setResponseTimeoutSeconds(3600);
+        WorkflowModel workflowModel = newWorkflow(0);
+        TaskModel longTask = newTask(TaskType.TASK_TYPE_SIMPLE, Status.IN_PROGRESS);
+        longTask.setWorkflowTask(newWorkflowTask(longTaskDef));
+        longTask.setUpdateTime(now);
+        workflowModel.setTasks(new ArrayList<>(List.of(longTask)));
+        long nextSweep = now + workflowSweeper.unackTimeout(workflowModel, now);
+
+        // scheduled by a later decide, which does not move the workflow in the decider queue
+        TaskDef shortTaskDef = new TaskDef("short");
+        shortTaskDef.setPollTimeoutSeconds(60);
+        TaskModel shortTask = newTask(TaskType.TASK_TYPE_SIMPLE, Status.SCHEDULED);
+        shortTask.setWorkflowTask(newWorkflowTask(shortTaskDef));
+        shortTask.setScheduledTime(now + 1000);
+        workflowModel.getTasks().add(shortTask);
+
+        // the repair interval is jittered, the sweep after next is due by the poll timeout
+        long pollTimeout = shortTask.getScheduledTime() + 60000;
+        assertTrue(nextSweep < pollTimeout);
+        long sweepAfterNext = nextSweep + workflowSweeper.unackTimeout(workflowModel, nextSweep);
+        assertTrue(sweepAfterNext <= pollTimeout + 1000);
     }
 
     @Test
-    public void testPostponeDurationForTaskInScheduledWithNoWorkflowTimeoutSetAndNoPollTimeout() {
-        WorkflowModel workflowModel = new WorkflowModel();
-        workflowModel.setWorkflowId("1");
-        WorkflowDef workflowDef = new WorkflowDef();
-        workflowModel.setWorkflowDefinition(workflowDef);
-        TaskDef taskDef = new TaskDef();
-        TaskModel taskModel = mock(TaskModel.class);
+    public void testUnackTimeoutForTaskInProgressWithTotalTimeout() {
+        TaskDef taskDef = new TaskDef("task1");
+        taskDef.setTimeoutSeconds(300);
+        taskDef.setResponseTimeoutSeconds(600);
+        WorkflowModel workflowModel = newWorkflow(0);
+        TaskModel taskModel = newTask(TaskType.TASK_TYPE_SIMPLE, Status.IN_PROGRESS);
+        taskModel.setWorkflowTask(newWorkflowTask(taskDef));
+        taskModel.setStartTime(now - 100000);
+        taskModel.setUpdateTime(now);
         workflowModel.setTasks(List.of(taskModel));
-        when(taskModel.getTaskDefinition()).thenReturn(Optional.of(taskDef));
-        when(taskModel.getStatus()).thenReturn(Status.SCHEDULED);
-        when(properties.getWorkflowOffsetTimeout())
-                .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE,
-                        workflowModel.getWorkflowId(),
-                        defaultPostPoneOffSetSeconds * 1000);
+        assertEquals(300000 - 100000 + 1000, workflowSweeper.unackTimeout(workflowModel, now));
     }
 
     @Test
-    public void testPostponeDurationForTaskInScheduledWithNoPollTimeoutSet() {
-        WorkflowModel workflowModel = new WorkflowModel();
-        workflowModel.setWorkflowId("1");
-        TaskDef taskDef = new TaskDef();
-        WorkflowDef workflowDef = new WorkflowDef();
-        workflowModel.setWorkflowDefinition(workflowDef);
-        TaskModel taskModel = mock(TaskModel.class);
+    public void testUnackTimeoutForTaskScheduledWithPollTimeout() {
+        TaskDef taskDef = new TaskDef("task1");
+        taskDef.setPollTimeoutSeconds(200);
+        WorkflowModel workflowModel = newWorkflow(0);
+        TaskModel taskModel = newTask(TaskType.TASK_TYPE_SIMPLE, Status.SCHEDULED);
+        taskModel.setWorkflowTask(newWorkflowTask(taskDef));
+        taskModel.setScheduledTime(now - 100000);
         workflowModel.setTasks(List.of(taskModel));
-        when(taskModel.getStatus()).thenReturn(Status.SCHEDULED);
-        when(taskModel.getTaskDefinition()).thenReturn(Optional.of(taskDef));
-        when(properties.getWorkflowOffsetTimeout())
-                .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE,
-                        workflowModel.getWorkflowId(),
-                        defaultPostPoneOffSetSeconds * 1000);
+        assertEquals(200000 - 100000 + 1000, workflowSweeper.unackTimeout(workflowModel, now));
     }
 
     @Test
-    public void testPostponeDurationForTaskInScheduledWithPollTimeoutSet() {
-        int pollTimeout = 200;
-        WorkflowModel workflowModel = new WorkflowModel();
-        workflowModel.setWorkflowId("1");
-        TaskDef taskDef = new TaskDef();
-        taskDef.setPollTimeoutSeconds(pollTimeout);
-        TaskModel taskModel = mock(TaskModel.class);
-        ;
+    public void testUnackTimeoutForTaskDefinitionFromWorkflowDefinition() {
+        TaskDef taskDef = new TaskDef("task1");
+        taskDef.setPollTimeoutSeconds(200);
+        WorkflowModel workflowModel = newWorkflow(0);
+        workflowModel.getWorkflowDefinition().getTasks().add(newWorkflowTask(taskDef));
+        TaskModel taskModel = newTask(TaskType.TASK_TYPE_SIMPLE, Status.SCHEDULED);
+        taskModel.setScheduledTime(now);
         workflowModel.setTasks(List.of(taskModel));
-        when(taskModel.getStatus()).thenReturn(Status.SCHEDULED);
-        when(taskModel.getTaskDefinition()).thenReturn(Optional.of(taskDef));
-        when(properties.getWorkflowOffsetTimeout())
-                .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE, workflowModel.getWorkflowId(), (pollTimeout + 1) * 1000);
+        assertEquals(200000 + 1000, workflowSweeper.unackTimeout(workflowModel, now));
+    }
+
+    @Test
+    public void testUnackTimeoutForWorkflowTimeout() {
+        WorkflowModel workflowModel = newWorkflow(1800);
+        workflowModel.setCreateTime(now - 800000);
+        workflowModel.setTasks(List.of(newTask(TaskType.TASK_TYPE_SIMPLE, Status.SCHEDULED)));
+        assertEquals(1800000 - 800000 + 1000, workflowSweeper.unackTimeout(workflowModel, now));
+
+        workflowModel.setLastRetriedTime(now - 1000);
+        assertEquals(1800000 - 1000 + 1000, workflowSweeper.unackTimeout(workflowModel, now));
+    }
+
+    @Test
+    public void testUnackTimeoutSkipsPastAndTerminalTimeouts() {
+        TaskDef taskDef = new TaskDef("task1");
+        taskDef.setResponseTimeoutSeconds(100);
+        taskDef.setTimeoutPolicy(TimeoutPolicy.ALERT_ONLY);
+        // the workflow timeout has already fired, as an alert only
+        WorkflowModel workflowModel = newWorkflow(10);
+        workflowModel.setCreateTime(now - 20000);
+        TaskModel completed = newTask(TaskType.TASK_TYPE_SIMPLE, Status.COMPLETED);
+        completed.setWorkflowTask(newWorkflowTask(taskDef));
+        completed.setUpdateTime(now);
+        TaskModel alerted = newTask(TaskType.TASK_TYPE_SIMPLE, Status.IN_PROGRESS);
+        alerted.setWorkflowTask(newWorkflowTask(taskDef));
+        alerted.setUpdateTime(now - 200000);
+        TaskModel waiting = newTask(TaskType.TASK_TYPE_WAIT, Status.IN_PROGRESS);
+        waiting.setWaitTimeout(now + 300000);
+        workflowModel.setTasks(List.of(completed, alerted, waiting));
+        assertEquals(300000 + 1000, workflowSweeper.unackTimeout(workflowModel, now));
+    }
+
+    @Test
+    public void testSweepUnacksWithWorkflowOffsetWhenDecideFails() {
+        WorkflowModel workflowModel = newWorkflow(0);
+        workflowModel.setStatus(WorkflowModel.Status.RUNNING);
+        when(properties.getWorkflowOffsetTimeout()).thenReturn(Duration.ofSeconds(0));
+        when(executionLockService.acquireLock("1")).thenReturn(true);
+        when(executionDAOFacade.getWorkflowModel("1", true)).thenReturn(workflowModel);
+        when(workflowExecutor.decide("1")).thenThrow(new RuntimeException("decide failed"));
+
+        workflowSweeper.sweep("1");
+
+        verify(queueDAO).setUnackTimeout(DECIDER_QUEUE, "1", 0);
+    }
+
+    @Test
+    public void testSweepBatch() {
+        WorkflowModel running = new WorkflowModel();
+        running.setWorkflowId("1");
+        running.setStatus(WorkflowModel.Status.RUNNING);
+        TaskModel taskModel = new TaskModel();
+        taskModel.setTaskId("task1");
+        taskModel.setTaskType(TaskType.TASK_TYPE_HUMAN);
+        taskModel.setStatus(Status.IN_PROGRESS);
+        running.setTasks(List.of(taskModel));
+        WorkflowModel completed = new WorkflowModel();
+        completed.setWorkflowId("2");
+        completed.setStatus(WorkflowModel.Status.COMPLETED);
+
+        when(properties.getWorkflowOffsetTimeout()).thenReturn(Duration.ofSeconds(0));
+        when(properties.getWorkflowRepairInterval()).thenReturn(Duration.ofSeconds(0));
+        when(executionLockService.acquireLock(anyString())).thenReturn(true);
+        when(executionDAOFacade.getWorkflowModel("1", true)).thenReturn(running);
+        when(executionDAOFacade.getWorkflowModel("2", true)).thenReturn(completed);
+        when(executionDAOFacade.getWorkflowModel("3", true))
+                .thenThrow(new NotFoundException("not found"));
+        when(workflowExecutor.decideLocked(any())).thenAnswer(i -> i.getArgument(0));
+
+        workflowSweeper.sweep(List.of("1", "2", "3"));
+
+        verify(workflowRepairService).verifyAndRepairWorkflowTasks(running);
+        verify(queueDAO).setUnackTimeout(DECIDER_QUEUE, Map.of("1", 0L));
+        verify(queueDAO).remove(DECIDER_QUEUE, List.of("2", "3"));
+        // each workflow is only locked while it is read and decided
+        InOrder inOrder = inOrder(executionLockService, workflowExecutor);
+        inOrder.verify(executionLockService).acquireLock("1");
+        inOrder.verify(workflowExecutor).decideLocked(running);
+        inOrder.verify(executionLockService).releaseLock("1");
+        inOrder.verify(executionLockService).acquireLock("2");
+        inOrder.verify(workflowExecutor).decideLocked(completed);
+        inOrder.verify(executionLockService).releaseLock("2");
+        inOrder.verify(executionLockService).acquireLock("3");
+        inOrder.verify(executionLockService).releaseLock("3");
     }
 
     @Test
@@ -371,4 +345,37 @@ public class TestWorkflowSweeper {
             assertTrue(offsetWithJitter <= 60);
         }
     }
+
+    /** The workflowRepairInterval, with the jitter of the workflow offset. */
+    private void assertRepairInterval(long unackTimeout) {
+        assertTrue(unackTimeout >= 2000000);
+        assertTrue(unackTimeout <= 4000000);
+    }
+
+    private WorkflowModel newWorkflow(long timeoutSeconds) {
+        WorkflowDef workflowDef = new WorkflowDef();
+        workflowDef.setTimeoutSeconds(timeoutSeconds);
+        WorkflowModel workflowModel = new WorkflowModel();
+        workflowModel.setWorkflowId("1");
+        workflowModel.setWorkflowDefinition(workflowDef);
+        workflowModel.setCreateTime(now);
+        return workflowModel;
+    }
+
+    private TaskModel newTask(String taskType, Status status) {
+        TaskModel taskModel = new TaskModel();
+        taskModel.setTaskId("task1");
+        taskModel.setTaskType(taskType);
+        taskModel.setReferenceTaskName("task1");
+        taskModel.setStatus(status);
+        return taskModel;
+    }
+
+    private WorkflowTask newWorkflowTask(TaskDef taskDef) {
+        WorkflowTask workflowTask = new WorkflowTask();
+        workflowTask.setName(taskDef.getName());
+        workflowTask.setTaskReferenceName("task1");
+        workflowTask.setTaskDefinition(taskDef);
+        return workflowTask;
+    }
 }
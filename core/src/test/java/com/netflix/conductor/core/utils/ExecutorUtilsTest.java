@@ -0,0 +1,70 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExecutorUtilsTest {
+
+    @Test
+    public void testPlatformThreads() throws Exception {
+        ExecutorService executorService = ExecutorUtils.newFixedThreadPool(false, 2, "test-%d");
+        try {
+            assertEquals(
+                    "test-1", executorService.submit(() -> Thread.currentThread().getName()).get());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testVirtualThreads() throws Exception {
+        // falls back to platform threads before Java 21
+        ExecutorService executorService = ExecutorUtils.newFixedThreadPool(true, 2, "test-%d");
+        try {
+            assertEquals(
+                    "test-1", executorService.submit(() -> Thread.currentThread().getName()).get());
+            assertEquals(
+                    ExecutorUtils.isVirtualThreadSupported(),
+                    executorService
+                            .submit(() -> ExecutorUtils.isVirtualThread(Thread.currentThread()))
+                            .get());
+        } finally {
+            executorService.shutdown();
+            assertTrue(executorService.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testThreadFactory() {
+        Thread thread = ExecutorUtils.newThreadFactory(true, "test-%d").newThread(() -> {});
+        assertEquals("test-1", thread.getName());
+        assertEquals(
+                ExecutorUtils.isVirtualThreadSupported(), ExecutorUtils.isVirtualThread(thread));
+    }
+
+    @Test
+    public void testPlatformThreadIsNotVirtual() {
+        assertFalse(ExecutorUtils.isVirtualThread(Thread.currentThread()));
+        assertFalse(
+                ExecutorUtils.isVirtualThread(
+                        ExecutorUtils.newThreadFactory(false, "test-%d").newThread(() -> {})));
+    }
+}
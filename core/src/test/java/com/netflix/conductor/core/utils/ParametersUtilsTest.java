@@ -31,14 +31,19 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import com.netflix.conductor.common.config.TestObjectMapperConfiguration;
+import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @ContextConfiguration(classes = {TestObjectMapperConfiguration.class})
 @RunWith(SpringRunner.class)
@@ -375,4 +380,97 @@ public class ParametersUtilsTest {
                 parametersUtils.getWorkflowInput(workflowDef, inputParams);
         assertEquals("supplied_value", workflowInput.get(keyName));
     }
+
+    private WorkflowModel createWorkflow(TaskModel... tasks) {
+        WorkflowDef workflowDef = new WorkflowDef();
+        workflowDef.setName("workflow");
+        workflowDef.setSchemaVersion(2);
+        WorkflowModel workflow = new WorkflowModel();
+        workflow.setWorkflowId("workflowId");
+        workflow.setWorkflowDefinition(workflowDef);
+        workflow.setInput(Map.of("name", "conductor"));
+        workflow.setTasks(new ArrayList<>(List.of(tasks)));
+        return workflow;
+    }
+
+    private TaskModel createTask(String referenceTaskName, int iteration, Object result) {
+        TaskModel task = new TaskModel();
+        task.setTaskId(referenceTaskName + "_id");
+        task.setReferenceTaskName(referenceTaskName);
+        task.setIteration(iteration);
+        task.setStatus(TaskModel.Status.COMPLETED);
+        task.addOutput("result", result);
+        return task;
+    }
+
+    @Test
+    public void testGetTaskInputV2ReadsTheLatestIteration() {
+        WorkflowModel workflow =
+                createWorkflow(
+                        createTask("first", 0, "done"),
+                        createTask("loop_task__1", 1, 1),
+                        createTask("loop_task__2", 2, 2));
+
+        Map<String, Object> input = new HashMap<>();
+        input.put("name", "${workflow.input.name}");
+        input.put("first", "${first.output.result}");
+        input.put("loop", "${loop_task.output.result}");
+        input.put("iteration", "${loop_task.iteration}");
+        input.put("missing", "${missing.output.result}");
+        input.put("text", "${first.status} in ${workflow.workflowId}");
+
+        Map<String, Object> taskInput =
+                parametersUtils.getTaskInputV2(input, workflow, "taskId", null);
+        assertEquals("conductor", taskInput.get("name"));
+        assertEquals("done", taskInput.get("first"));
+        assertEquals(2, taskInput.get("loop"));
+        assertEquals(2, taskInput.get("iteration"));
+        assertNull(taskInput.get("missing"));
+        assertEquals("COMPLETED in workflowId", taskInput.get("text"));
+    }
+
+    @Test
+    public void testGetTaskInputV2ScansAllTheTasks() {
+        WorkflowModel workflow =
+                createWorkflow(createTask("first", 0, "one"), createTask("second", 0, "two"));
+
+        Map<String, Object> input = new HashMap<>();
+        input.put("results", "${$..result}");
+
+        Map<String, Object> taskInput =
+                parametersUtils.getTaskInputV2(input, workflow, "taskId", null);
+        List results = (List) taskInput.get("results");
+        assertEquals(2, results.size());
+        assertTrue(results.containsAll(List.of("one", "two")));
+    }
+
+    @Test
+    public void testGetTaskInputV2DoesNotModifyTheTemplates() {
+        WorkflowModel workflow = createWorkflow(createTask("first", 0, "done"));
+
+        Map<String, Object> nested = new HashMap<>();
+        nested.put("result", "${first.output.result}");
+        nested.put("count", 5L);
+        Map<String, Object> input = new HashMap<>();
+        input.put("nested", nested);
+        input.put("list", new ArrayList<>(List.of("${first.output.result}", 1)));
+        TaskDef taskDef = new TaskDef("task");
+        taskDef.setInputTemplate(Map.of("templated", "${workflow.input.name}", "none", "x"));
+        input.put("none", "${missing.output.result}");
+
+        Map<String, Object> taskInput =
+                parametersUtils.getTaskInputV2(input, workflow, "taskId", taskDef);
+        assertEquals("done", ((Map) taskInput.get("nested")).get("result"));
+        // converted as by a JSON round trip
+        assertEquals(5, ((Map) taskInput.get("nested")).get("count"));
+        assertEquals(List.of("done", 1), taskInput.get("list"));
+        assertEquals("conductor", taskInput.get("templated"));
+        // resolved to null, replaced by the template of the task definition
+        assertEquals("x", taskInput.get("none"));
+
+        assertEquals("${first.output.result}", nested.get("result"));
+        assertEquals("${first.output.result}", ((List) input.get("list")).get(0));
+        assertEquals("${workflow.input.name}", taskDef.getInputTemplate().get("templated"));
+        assertFalse(input.containsKey("templated"));
+    }
 }
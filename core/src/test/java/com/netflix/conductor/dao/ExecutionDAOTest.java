@@ -250,6 +250,44 @@ public abstract class ExecutionDAOTest {
         assertTrue(found.isEmpty());
     }
 
+    @Test
+    public void testUpdateTasks() {
+        List<TaskModel> tasks = new LinkedList<>();
+        String workflowId = UUID.randomUUID().toString();
+
+        for (int i = 0; i < 4; i++) {
+            TaskModel task = new TaskModel();
+            task.setScheduledTime(1L);
+            task.setSeq(i + 1);
+            task.setTaskId(workflowId + "_t" + i);
+            task.setReferenceTaskName("testUpdateTasks" + i);
+            task.setRetryCount(0);
+            task.setWorkflowInstanceId(workflowId);
+            task.setTaskDefName("testUpdateTasks");
+            task.setStatus(TaskModel.Status.IN_PROGRESS);
+            tasks.add(task);
+        }
+        // the last task is only written by updateTasks
+        getExecutionDAO().createTasks(tasks.subList(0, 3));
+        assertEquals(3, getExecutionDAO().getPendingTasksForTaskType("testUpdateTasks").size());
+
+        tasks.forEach(
+                task -> {
+                    task.addOutput("updated", true);
+                    task.setStatus(TaskModel.Status.COMPLETED);
+                });
+        getExecutionDAO().updateTasks(tasks);
+
+        List<TaskModel> found = getExecutionDAO().getTasksForWorkflow(workflowId);
+        assertEquals(4, found.size());
+        found.forEach(
+                task -> {
+                    assertEquals(TaskModel.Status.COMPLETED, task.getStatus());
+                    assertEquals(true, task.getOutputData().get("updated"));
+                });
+        assertTrue(getExecutionDAO().getPendingTasksForTaskType("testUpdateTasks").isEmpty());
+    }
+
     @Test
     public void testPending() {
         WorkflowDef def = new WorkflowDef();
@@ -51,4 +51,22 @@ public abstract class PollDataDAOTest {
         pollData = getPollDataDAO().getPollData("taskDef", "domain2");
         assertNull(pollData);
     }
+
+    @Test
+    public void testUpdateLastPollDataBatch() {
+        getPollDataDAO()
+                .updateLastPollData(
+                        List.of(
+                                new PollData("batchTaskDef", null, "workerId1", 100),
+                                new PollData("batchTaskDef", "domain1", "workerId2", 200)));
+
+        PollData pollData = getPollDataDAO().getPollData("batchTaskDef", null);
+        assertNotNull(pollData);
+        assertEquals("workerId1", pollData.getWorkerId());
+        pollData = getPollDataDAO().getPollData("batchTaskDef", "domain1");
+        assertNotNull(pollData);
+        assertEquals("domain1", pollData.getDomain());
+        assertEquals("workerId2", pollData.getWorkerId());
+        assertEquals(2, getPollDataDAO().getPollData("batchTaskDef").size());
+    }
 }
@@ -13,10 +13,17 @@
 package com.netflix.conductor.service;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -32,12 +39,34 @@ import com.netflix.conductor.common.run.WorkflowSummary;
 import com.netflix.conductor.common.utils.ExternalPayloadStorage;
 import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.core.dal.ExecutionDAOFacade;
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
 import com.netflix.conductor.core.execution.WorkflowExecutor;
 import com.netflix.conductor.core.execution.tasks.SystemTaskRegistry;
 import com.netflix.conductor.core.listener.TaskStatusListener;
+import com.netflix.conductor.core.utils.ExternalPayloadStorageUtils;
+import com.netflix.conductor.dao.ConcurrentExecutionLimitDAO;
+import com.netflix.conductor.dao.ExecutionDAO;
+import com.netflix.conductor.dao.IndexDAO;
+import com.netflix.conductor.dao.PollDataDAO;
 import com.netflix.conductor.dao.QueueDAO;
+import com.netflix.conductor.dao.RateLimitingDAO;
+import com.netflix.conductor.model.TaskModel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(SpringRunner.class)
@@ -52,6 +81,7 @@ public class ExecutionServiceTest {
     @Mock private TaskStatusListener taskStatusListener;
 
     private ExecutionService executionService;
+    private QueueWakeupRegistry queueWakeupRegistry;
 
     private Workflow workflow1;
     private Workflow workflow2;
@@ -63,6 +93,8 @@ public class ExecutionServiceTest {
     public void setup() {
         when(conductorProperties.getTaskExecutionPostponeDuration())
                 .thenReturn(Duration.ofSeconds(60));
+        when(conductorProperties.getTaskPollRecheckInterval()).thenReturn(Duration.ofSeconds(5));
+        queueWakeupRegistry = new QueueWakeupRegistry(1);
         executionService =
                 new ExecutionService(
                         workflowExecutor,
@@ -71,7 +103,8 @@ public class ExecutionServiceTest {
                         conductorProperties,
                         externalPayloadStorage,
                         systemTaskRegistry,
-                        taskStatusListener);
+                        taskStatusListener,
+                        queueWakeupRegistry);
         WorkflowDef workflowDef = new WorkflowDef();
         workflow1 = new Workflow();
         workflow1.setWorkflowId("wf1");
@@ -87,6 +120,12 @@ public class ExecutionServiceTest {
         taskWorkflow2.setWorkflowInstanceId("wf2");
     }
 
+    @After
+    public void tearDown() {
+        executionService.shutdown();
+        queueWakeupRegistry.shutdown();
+    }
+
     @Test
     public void workflowSearchTest() {
         when(executionDAOFacade.searchWorkflowSummary("query", "*", 0, 2, sort))
@@ -268,4 +307,173 @@ public class ExecutionServiceTest {
         assertEquals(1, searchResult.getTotalHits());
         assertEquals(Collections.singletonList(taskWorkflow1), searchResult.getResults());
     }
+
+    @Test
+    public void pollWokenByPushTest() throws Exception {
+        mockQueuedTask();
+
+        // the poll would check the queue again after 5 seconds
+        CompletableFuture<List<Task>> polled =
+                CompletableFuture.supplyAsync(
+                        () -> executionService.poll("test", "worker", null, 1, 5000));
+        verify(queueDAO, timeout(1000)).pop(eq("test"), anyInt(), anyInt());
+        queueWakeupRegistry.signalPush("test");
+
+        List<Task> tasks = polled.get(2, TimeUnit.SECONDS);
+        assertEquals(1, tasks.size());
+        assertEquals("task1", tasks.get(0).getTaskId());
+    }
+
+    @Test
+    public void pollAsyncWokenByPushTest() throws Exception {
+        List<String> pollThreads = new CopyOnWriteArrayList<>();
+        mockQueuedTask(pollThreads);
+
+        CompletableFuture<List<Task>> polled =
+                executionService.pollAsync("test", "worker", null, 1, 5000);
+        assertFalse(polled.isDone());
+        queueWakeupRegistry.signalPush("test");
+
+        List<Task> tasks = polled.get(2, TimeUnit.SECONDS);
+        assertEquals(1, tasks.size());
+        assertEquals("task1", tasks.get(0).getTaskId());
+        // checked again off the threads waking the polls
+        assertEquals(2, pollThreads.size());
+        assertTrue(pollThreads.get(1).startsWith("task-poll-async-"));
+    }
+
+    @Test
+    public void pollWokenByFlushedPushTest() throws Exception {
+        List<String> pollThreads = new CopyOnWriteArrayList<>();
+        mockQueuedTask(pollThreads);
+        ExecutionDAOFacade facade = newExecutionDAOFacade();
+
+        CompletableFuture<List<Task>> polled =
+                executionService.pollAsync("test", "worker", null, 1, 5000);
+        facade.beginUnitOfWork();
+        facade.pushToQueue("test", "task1", 0, 0);
+
+        // the push is not written yet, the poll keeps waiting
+        try {
+            polled.get(300, TimeUnit.MILLISECONDS);
+            fail("The poll was woken before the push was written");
+        } catch (TimeoutException expected) {
+        }
+        verify(queueDAO, never()).push(anyString(), anyString(), anyInt(), anyLong());
+        assertEquals(1, pollThreads.size());
+
+        facade.endUnitOfWork();
+
+        List<Task> tasks = polled.get(2, TimeUnit.SECONDS);
+        assertEquals(1, tasks.size());
+        assertEquals("task1", tasks.get(0).getTaskId());
+        verify(queueDAO).push("test", "task1", 0, 0);
+    }
+
+    @Test
+    public void pollTimeoutTest() {
+        when(queueDAO.pop(eq("test"), anyInt(), anyInt())).thenReturn(Collections.emptyList());
+        when(conductorProperties.getTaskPollRecheckInterval()).thenReturn(Duration.ofMillis(50));
+        long start = System.currentTimeMillis();
+
+        List<Task> tasks = executionService.poll("test", "worker", null, 1, 300);
+
+        assertTrue(tasks.isEmpty());
+        assertTrue(System.currentTimeMillis() - start >= 300);
+    }
+
+    @Test
+    public void pollBatchesQueueUpdatesTest() {
+        TaskModel completed = new TaskModel();
+        completed.setTaskId("task2");
+        completed.setStatus(TaskModel.Status.COMPLETED);
+        TaskModel limited = new TaskModel();
+        limited.setTaskId("task3");
+        limited.setStatus(TaskModel.Status.SCHEDULED);
+        when(queueDAO.pop(eq("test"), anyInt(), anyInt()))
+                .thenReturn(Arrays.asList("task1", "task2", "task3"));
+        when(executionDAOFacade.getTaskModels(Arrays.asList("task1", "task2", "task3")))
+                .thenReturn(List.of(completed, limited));
+        when(executionDAOFacade.exceedsInProgressLimit(limited)).thenReturn(true);
+
+        List<Task> tasks = executionService.poll("test", "worker", null, 3, 0);
+
+        assertTrue(tasks.isEmpty());
+        verify(queueDAO).remove("test", Arrays.asList("task1", "task2"));
+        verify(queueDAO).postpone(eq("test"), eq(List.of("task3")), eq(0), anyLong());
+        verify(queueDAO, never()).remove(anyString(), anyString());
+        verify(queueDAO, never()).postpone(anyString(), anyString(), anyInt(), anyLong());
+    }
+
+    @Test
+    public void pollReadsAndWritesTasksInBulkTest() {
+        List<String> taskIds = Arrays.asList("task1", "task2", "task3");
+        List<TaskModel> taskModels = new ArrayList<>();
+        for (String taskId : taskIds) {
+            TaskModel taskModel = new TaskModel();
+            taskModel.setTaskId(taskId);
+            taskModel.setStatus(TaskModel.Status.SCHEDULED);
+            taskModels.add(taskModel);
+        }
+        when(queueDAO.pop(eq("test"), anyInt(), anyInt())).thenReturn(taskIds);
+        when(executionDAOFacade.getTaskModels(taskIds)).thenReturn(taskModels);
+
+        List<Task> tasks = executionService.poll("test", "worker", null, 3, 0);
+
+        assertEquals(taskIds, tasks.stream().map(Task::getTaskId).collect(Collectors.toList()));
+        verify(executionDAOFacade).updateTasks(taskModels);
+        taskModels.forEach(
+                taskModel -> {
+                    assertEquals(TaskModel.Status.IN_PROGRESS, taskModel.getStatus());
+                    assertEquals("worker", taskModel.getWorkerId());
+                    verify(taskStatusListener).onTaskInProgress(taskModel);
+                });
+        verify(executionDAOFacade, never()).getTaskModel(anyString());
+        verify(executionDAOFacade, never()).updateTask(any());
+    }
+
+    /**
+     * A facade writing to the queue of this test and signalling its {@link QueueWakeupRegistry}.
+     */
+    private ExecutionDAOFacade newExecutionDAOFacade() {
+        ConductorProperties properties = mock(ConductorProperties.class);
+        when(properties.getPollDataFlushInterval()).thenReturn(Duration.ZERO);
+        when(properties.getPollDataCacheValidityPeriod()).thenReturn(Duration.ZERO);
+        return new ExecutionDAOFacade(
+                mock(ExecutionDAO.class),
+                queueDAO,
+                mock(IndexDAO.class),
+                mock(RateLimitingDAO.class),
+                mock(ConcurrentExecutionLimitDAO.class),
+                mock(PollDataDAO.class),
+                new ObjectMapper(),
+                properties,
+                mock(ExternalPayloadStorageUtils.class),
+                queueWakeupRegistry);
+    }
+
+    private void mockQueuedTask() {
+        mockQueuedTask(new CopyOnWriteArrayList<>());
+    }
+
+    /**
+     * The queue is empty on the first pop, holds task1 on the next ones.
+     *
+     * @param pollThreads the names of the threads popping the queue
+     */
+    private void mockQueuedTask(List<String> pollThreads) {
+        TaskModel taskModel = new TaskModel();
+        taskModel.setTaskId("task1");
+        taskModel.setTaskType("test");
+        taskModel.setStatus(TaskModel.Status.SCHEDULED);
+        when(queueDAO.pop(eq("test"), anyInt(), anyInt()))
+                .thenAnswer(
+                        invocation -> {
+                            pollThreads.add(Thread.currentThread().getName());
+                            return pollThreads.size() == 1
+                                    ? Collections.emptyList()
+                                    : Collections.singletonList("task1");
+                        });
+        when(executionDAOFacade.getTaskModels(List.of("task1"))).thenReturn(List.of(taskModel));
+    }
 }
@@ -18,8 +18,10 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.elasticsearch.ResourceAlreadyExistsException;
@@ -39,6 +41,7 @@ import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.index.query.BoolQueryBuilder;
@@ -60,7 +63,8 @@ import com.netflix.conductor.common.run.SearchResult;
 import com.netflix.conductor.common.run.TaskSummary;
 import com.netflix.conductor.common.run.WorkflowSummary;
 import com.netflix.conductor.core.events.queue.Message;
-import com.netflix.conductor.core.exception.TransientException;
+import com.netflix.conductor.core.exception.NonTransientException;
+import com.netflix.conductor.core.index.SearchCursor;
 import com.netflix.conductor.dao.IndexDAO;
 import com.netflix.conductor.es6.config.ElasticSearchProperties;
 import com.netflix.conductor.es6.dao.query.parser.internal.ParserException;
@@ -87,6 +91,8 @@ public class ElasticSearchDAOV6 extends ElasticSearchBaseDAO implements IndexDAO
     private static final int CORE_POOL_SIZE = 6;
     private static final long KEEP_ALIVE_TIME = 1L;
     private static final int UPDATE_REQUEST_RETRY_COUNT = 5;
+    private static final int STREAM_PAGE_SIZE = 1000;
+    private static final TimeValue STREAM_KEEP_ALIVE = TimeValue.timeValueMinutes(5);
 
     private static final String CLASS_NAME = ElasticSearchDAOV6.class.getSimpleName();
 
@@ -674,6 +680,64 @@ public class ElasticSearchDAOV6 extends ElasticSearchBaseDAO implements IndexDAO
                 WorkflowSummary.class);
     }
 
+    /** Scrolls through the workflow index, points in time and search_after not being in ES6. */
+    @Override
+    public Stream<String> streamWorkflows(String query, String freeText, List<String> sort) {
+        BoolQueryBuilder fq;
+        try {
+            fq = boolQueryBuilder(query, freeText);
+        } catch (ParserException e) {
+            throw new NonTransientException(e.getMessage(), e);
+        }
+        String docType = StringUtils.isBlank(docTypeOverride) ? WORKFLOW_DOC_TYPE : docTypeOverride;
+        AtomicReference<String> scrollId = new AtomicReference<>();
+        return new SearchCursor<String>(
+                        "",
+                        previousScrollId -> {
+                            SearchResponse response;
+                            if (previousScrollId.isEmpty()) {
+                                final SearchRequestBuilder srb =
+                                        elasticSearchClient
+                                                .prepareSearch(workflowIndexName)
+                                                .setQuery(fq)
+                                                .setTypes(docType)
+                                                .storedFields("_id")
+                                                .setSize(STREAM_PAGE_SIZE)
+                                                .setScroll(STREAM_KEEP_ALIVE);
+                                if (sort == null || sort.isEmpty()) {
+                                    srb.addSort("_doc", SortOrder.ASC);
+                                } else {
+                                    addSortOptions(srb, sort);
+                                }
+                                response = srb.get();
+                            } else {
+                                response =
+                                        elasticSearchClient
+                                                .prepareSearchScroll(previousScrollId)
+                                                .setScroll(STREAM_KEEP_ALIVE)
+                                                .get();
+                            }
+                            scrollId.set(response.getScrollId());
+                            List<String> workflowIds = new ArrayList<>();
+                            response.getHits().forEach(hit -> workflowIds.add(hit.getId()));
+                            return new SearchCursor.Page<>(workflowIds, response.getScrollId());
+                        })
+                .stream(
+                        () -> {
+                            if (scrollId.get() == null) {
+                                return;
+                            }
+                            try {
+                                elasticSearchClient
+                                        .prepareClearScroll()
+                                        .addScrollId(scrollId.get())
+                                        .get();
+                            } catch (Exception e) {
+                                LOGGER.warn("Failed to clear the scroll of the workflow search", e);
+                            }
+                        });
+    }
+
     @Override
     public long getWorkflowCount(String query, String freeText) {
         return count(query, freeText, WORKFLOW_DOC_TYPE);
@@ -884,7 +948,7 @@ public class ElasticSearchDAOV6 extends ElasticSearchBaseDAO implements IndexDAO
             SearchResponse response = srb.get();
             return response.getHits().getTotalHits();
         } catch (ParserException e) {
-            throw new TransientException(e.getMessage(), e);
+            throw new NonTransientException(e.getMessage(), e);
         }
     }
 
@@ -913,7 +977,7 @@ public class ElasticSearchDAOV6 extends ElasticSearchBaseDAO implements IndexDAO
             addSortOptions(srb, sortOptions);
             return mapSearchResult(srb.get(), idOnly, clazz);
         } catch (ParserException e) {
-            throw new TransientException(e.getMessage(), e);
+            throw new NonTransientException(e.getMessage(), e);
         }
     }
 
@@ -19,8 +19,10 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -37,12 +39,15 @@ import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.search.ClearScrollRequest;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollRequest;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.*;
 import org.elasticsearch.client.core.CountRequest;
 import org.elasticsearch.client.core.CountResponse;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
@@ -65,6 +70,7 @@ import com.netflix.conductor.common.run.WorkflowSummary;
 import com.netflix.conductor.core.events.queue.Message;
 import com.netflix.conductor.core.exception.NonTransientException;
 import com.netflix.conductor.core.exception.TransientException;
+import com.netflix.conductor.core.index.SearchCursor;
 import com.netflix.conductor.dao.IndexDAO;
 import com.netflix.conductor.es6.config.ElasticSearchProperties;
 import com.netflix.conductor.es6.dao.query.parser.internal.ParserException;
@@ -86,6 +92,8 @@ public class ElasticSearchRestDAOV6 extends ElasticSearchBaseDAO implements Inde
 
     private static final int CORE_POOL_SIZE = 6;
     private static final long KEEP_ALIVE_TIME = 1L;
+    private static final int STREAM_PAGE_SIZE = 1000;
+    private static final TimeValue STREAM_KEEP_ALIVE = TimeValue.timeValueMinutes(5);
 
     private static final String WORKFLOW_DOC_TYPE = "workflow";
     private static final String TASK_DOC_TYPE = "task";
@@ -748,6 +756,63 @@ public class ElasticSearchRestDAOV6 extends ElasticSearchBaseDAO implements Inde
         }
     }
 
+    /** Scrolls through the workflow index, points in time and search_after not being in ES6. */
+    @Override
+    public Stream<String> streamWorkflows(String query, String freeText, List<String> sort) {
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+        try {
+            searchSourceBuilder.query(boolQueryBuilder(query, freeText));
+        } catch (ParserException e) {
+            throw new NonTransientException(e.getMessage(), e);
+        }
+        searchSourceBuilder.size(STREAM_PAGE_SIZE).fetchSource(false);
+        if (sort == null || sort.isEmpty()) {
+            searchSourceBuilder.sort(new FieldSortBuilder("_doc"));
+        } else {
+            addSortOptions(searchSourceBuilder, sort);
+        }
+        String docType = StringUtils.isBlank(docTypeOverride) ? WORKFLOW_DOC_TYPE : docTypeOverride;
+        AtomicReference<String> scrollId = new AtomicReference<>();
+        return new SearchCursor<String>(
+                        "",
+                        previousScrollId -> {
+                            SearchResponse response;
+                            if (previousScrollId.isEmpty()) {
+                                SearchRequest searchRequest = new SearchRequest(workflowIndexName);
+                                searchRequest.types(docType);
+                                searchRequest.source(searchSourceBuilder);
+                                searchRequest.scroll(STREAM_KEEP_ALIVE);
+                                response =
+                                        elasticSearchClient.search(
+                                                searchRequest, RequestOptions.DEFAULT);
+                            } else {
+                                response =
+                                        elasticSearchClient.scroll(
+                                                new SearchScrollRequest(previousScrollId)
+                                                        .scroll(STREAM_KEEP_ALIVE),
+                                                RequestOptions.DEFAULT);
+                            }
+                            scrollId.set(response.getScrollId());
+                            List<String> workflowIds = new ArrayList<>();
+                            response.getHits().forEach(hit -> workflowIds.add(hit.getId()));
+                            return new SearchCursor.Page<>(workflowIds, response.getScrollId());
+                        })
+                .stream(
+                        () -> {
+                            if (scrollId.get() == null) {
+                                return;
+                            }
+                            try {
+                                ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
+                                clearScrollRequest.addScrollId(scrollId.get());
+                                elasticSearchClient.clearScroll(
+                                        clearScrollRequest, RequestOptions.DEFAULT);
+                            } catch (Exception e) {
+                                LOGGER.warn("Failed to clear the scroll of the workflow search", e);
+                            }
+                        });
+    }
+
     @Override
     public SearchResult<String> searchTasks(
             String query, String freeText, int start, int count, List<String> sort) {
@@ -991,6 +1056,22 @@ public class ElasticSearchRestDAOV6 extends ElasticSearchBaseDAO implements Inde
                 indexName, queryBuilder, start, size, null, docType, true, String.class);
     }
 
+    private void addSortOptions(SearchSourceBuilder searchSourceBuilder, List<String> sortOptions) {
+        if (sortOptions != null && !sortOptions.isEmpty()) {
+
+            for (String sortOption : sortOptions) {
+                SortOrder order = SortOrder.ASC;
+                String field = sortOption;
+                int index = sortOption.indexOf(":");
+                if (index > 0) {
+                    field = sortOption.substring(0, index);
+                    order = SortOrder.valueOf(sortOption.substring(index + 1));
+                }
+                searchSourceBuilder.sort(new FieldSortBuilder(field).order(order));
+            }
+        }
+    }
+
     /**
      * Tries to find objects for a given query in an index.
      *
@@ -1022,19 +1103,7 @@ public class ElasticSearchRestDAOV6 extends ElasticSearchBaseDAO implements Inde
             searchSourceBuilder.fetchSource(false);
         }
 
-        if (sortOptions != null && !sortOptions.isEmpty()) {
-
-            for (String sortOption : sortOptions) {
-                SortOrder order = SortOrder.ASC;
-                String field = sortOption;
-                int index = sortOption.indexOf(":");
-                if (index > 0) {
-                    field = sortOption.substring(0, index);
-                    order = SortOrder.valueOf(sortOption.substring(index + 1));
-                }
-                searchSourceBuilder.sort(new FieldSortBuilder(field).order(order));
-            }
-        }
+        addSortOptions(searchSourceBuilder, sortOptions);
 
         // Generate the actual request to send to ES.
         docType = StringUtils.isBlank(docTypeOverride) ? docType : docTypeOverride;
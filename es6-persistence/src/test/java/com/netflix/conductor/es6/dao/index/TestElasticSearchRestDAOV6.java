@@ -33,6 +33,7 @@ import com.netflix.conductor.common.run.TaskSummary;
 import com.netflix.conductor.common.run.Workflow.WorkflowStatus;
 import com.netflix.conductor.common.run.WorkflowSummary;
 import com.netflix.conductor.core.events.queue.Message;
+import com.netflix.conductor.core.exception.NonTransientException;
 import com.netflix.conductor.es6.utils.TestUtils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -98,6 +99,11 @@ public class TestElasticSearchRestDAOV6 extends ElasticSearchRestDaoBaseTest {
         assertWorkflowSummary(workflowSummary.getWorkflowId(), workflowSummary);
     }
 
+    @Test(expected = NonTransientException.class)
+    public void shouldRejectAnInvalidQueryOfTheWorkflowStream() {
+        indexDAO.streamWorkflows("workflowId IN (", "*", null);
+    }
+
     @Test
     public void shouldIndexWorkflowAsync() throws Exception {
         WorkflowSummary workflowSummary =
@@ -22,6 +22,7 @@ import java.util.stream.Collectors;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.convert.DurationUnit;
+import org.springframework.util.unit.DataSize;
 
 @ConfigurationProperties("conductor.elasticsearch")
 public class ElasticSearchProperties {
@@ -54,6 +55,31 @@ public class ElasticSearchProperties {
     @DurationUnit(ChronoUnit.SECONDS)
     private Duration asyncBufferFlushTimeout = Duration.ofSeconds(10);
 
+    /**
+     * The maximum number of workflow or task documents sent in one bulk request by the async
+     * indexing
+     */
+    private int bulkIndexMaxActions = 500;
+
+    /** The maximum size of the workflow or task documents sent in one bulk request */
+    private DataSize bulkIndexMaxSize = DataSize.ofMegabytes(5);
+
+    /**
+     * The time in milliseconds after which the buffered workflow or task documents are sent, even
+     * if the bulk request is not full
+     */
+    @DurationUnit(ChronoUnit.MILLIS)
+    private Duration bulkIndexFlushInterval = Duration.ofMillis(1000);
+
+    /**
+     * The maximum number of workflow or task documents buffered or being sent, the async indexing
+     * drops the documents beyond
+     */
+    private int bulkIndexMaxPendingDocuments = 10000;
+
+    /** The number of times a workflow or task document failed with a retryable error is resent */
+    private int bulkIndexMaxRetries = 3;
+
     /** The number of shards that the index will be created with */
     private int indexShardCount = 5;
 
@@ -142,6 +168,46 @@ public class ElasticSearchProperties {
         this.asyncBufferFlushTimeout = asyncBufferFlushTimeout;
     }
 
+    public int getBulkIndexMaxActions() {
+        return bulkIndexMaxActions;
+    }
+
+    public void setBulkIndexMaxActions(int bulkIndexMaxActions) {
+        this.bulkIndexMaxActions = bulkIndexMaxActions;
+    }
+
+    public DataSize getBulkIndexMaxSize() {
+        return bulkIndexMaxSize;
+    }
+
+    public void setBulkIndexMaxSize(DataSize bulkIndexMaxSize) {
+        this.bulkIndexMaxSize = bulkIndexMaxSize;
+    }
+
+    public Duration getBulkIndexFlushInterval() {
+        return bulkIndexFlushInterval;
+    }
+
+    public void setBulkIndexFlushInterval(Duration bulkIndexFlushInterval) {
+        this.bulkIndexFlushInterval = bulkIndexFlushInterval;
+    }
+
+    public int getBulkIndexMaxPendingDocuments() {
+        return bulkIndexMaxPendingDocuments;
+    }
+
+    public void setBulkIndexMaxPendingDocuments(int bulkIndexMaxPendingDocuments) {
+        this.bulkIndexMaxPendingDocuments = bulkIndexMaxPendingDocuments;
+    }
+
+    public int getBulkIndexMaxRetries() {
+        return bulkIndexMaxRetries;
+    }
+
+    public void setBulkIndexMaxRetries(int bulkIndexMaxRetries) {
+        this.bulkIndexMaxRetries = bulkIndexMaxRetries;
+    }
+
     public int getIndexShardCount() {
         return indexShardCount;
     }
@@ -19,8 +19,10 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpEntity;
@@ -30,23 +32,30 @@ import org.apache.http.nio.entity.NByteArrayEntity;
 import org.apache.http.nio.entity.NStringEntity;
 import org.apache.http.util.EntityUtils;
 import org.elasticsearch.action.DocWriteResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.search.ClosePointInTimeRequest;
+import org.elasticsearch.action.search.OpenPointInTimeRequest;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.*;
 import org.elasticsearch.client.core.CountRequest;
 import org.elasticsearch.client.core.CountResponse;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.builder.PointInTimeBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.sort.FieldSortBuilder;
 import org.elasticsearch.search.sort.SortOrder;
@@ -65,10 +74,15 @@ import com.netflix.conductor.common.run.WorkflowSummary;
 import com.netflix.conductor.core.events.queue.Message;
 import com.netflix.conductor.core.exception.NonTransientException;
 import com.netflix.conductor.core.exception.TransientException;
+import com.netflix.conductor.core.index.BulkIndexer;
+import com.netflix.conductor.core.index.SearchCursor;
+import com.netflix.conductor.core.index.SummaryDocuments;
 import com.netflix.conductor.dao.IndexDAO;
 import com.netflix.conductor.es7.config.ElasticSearchProperties;
 import com.netflix.conductor.es7.dao.query.parser.internal.ParserException;
 import com.netflix.conductor.metrics.Monitors;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -87,6 +101,9 @@ public class ElasticSearchRestDAOV7 extends ElasticSearchBaseDAO implements Inde
 
     private static final int CORE_POOL_SIZE = 6;
     private static final long KEEP_ALIVE_TIME = 1L;
+    private static final int BULK_INDEX_THREAD_COUNT = 2;
+    private static final int STREAM_PAGE_SIZE = 1000;
+    private static final TimeValue STREAM_KEEP_ALIVE = TimeValue.timeValueMinutes(5);
 
     private static final String WORKFLOW_DOC_TYPE = "workflow";
     private static final String TASK_DOC_TYPE = "task";
@@ -126,6 +143,7 @@ public class ElasticSearchRestDAOV7 extends ElasticSearchBaseDAO implements Inde
     private final int asyncBufferFlushTimeout;
     private final ElasticSearchProperties properties;
     private final RetryTemplate retryTemplate;
+    private final BulkIndexer bulkIndexer;
 
     static {
         SIMPLE_DATE_FORMAT.setTimeZone(GMT);
@@ -195,6 +213,18 @@ public class ElasticSearchRestDAOV7 extends ElasticSearchBaseDAO implements Inde
         Executors.newSingleThreadScheduledExecutor()
                 .scheduleAtFixedRate(this::flushBulkRequests, 60, 30, TimeUnit.SECONDS);
         this.retryTemplate = retryTemplate;
+
+        // Set up the bulk requests of the async workflow and task indexing.
+        this.bulkIndexer =
+                new BulkIndexer(
+                        "es-bulk-index",
+                        BULK_INDEX_THREAD_COUNT,
+                        this::indexBulk,
+                        properties.getBulkIndexMaxActions(),
+                        properties.getBulkIndexMaxSize().toBytes(),
+                        properties.getBulkIndexFlushInterval(),
+                        properties.getBulkIndexMaxPendingDocuments(),
+                        properties.getBulkIndexMaxRetries());
     }
 
     @PreDestroy
@@ -202,6 +232,7 @@ public class ElasticSearchRestDAOV7 extends ElasticSearchBaseDAO implements Inde
         logger.info("Gracefully shutdown executor service");
         shutdownExecutorService(logExecutorService);
         shutdownExecutorService(executorService);
+        bulkIndexer.shutdown();
     }
 
     private void shutdownExecutorService(ExecutorService execService) {
@@ -510,7 +541,23 @@ public class ElasticSearchRestDAOV7 extends ElasticSearchBaseDAO implements Inde
 
     @Override
     public CompletableFuture<Void> asyncIndexWorkflow(WorkflowSummary workflow) {
-        return CompletableFuture.runAsync(() -> indexWorkflow(workflow), executorService);
+        return indexAsync(workflowIndexName, WORKFLOW_DOC_TYPE, workflow.getWorkflowId(), workflow);
+    }
+
+    @Override
+    public CompletableFuture<Void> asyncIndexWorkflow(WorkflowModel workflow) {
+        byte[] docBytes;
+        try {
+            docBytes = SummaryDocuments.workflowSummary(workflow);
+        } catch (IOException e) {
+            logger.error(
+                    "Failed to convert {} '{}' to byte string",
+                    WORKFLOW_DOC_TYPE,
+                    workflow.getWorkflowId());
+            return CompletableFuture.failedFuture(e);
+        }
+        return bulkIndexer.index(
+                workflowIndexName, WORKFLOW_DOC_TYPE, workflow.getWorkflowId(), docBytes);
     }
 
     @Override
@@ -536,7 +583,20 @@ public class ElasticSearchRestDAOV7 extends ElasticSearchBaseDAO implements Inde
 
     @Override
     public CompletableFuture<Void> asyncIndexTask(TaskSummary task) {
-        return CompletableFuture.runAsync(() -> indexTask(task), executorService);
+        return indexAsync(taskIndexName, TASK_DOC_TYPE, task.getTaskId(), task);
+    }
+
+    @Override
+    public CompletableFuture<Void> asyncIndexTask(TaskModel task) {
+        byte[] docBytes;
+        try {
+            docBytes = SummaryDocuments.taskSummary(task);
+        } catch (IOException e) {
+            logger.error(
+                    "Failed to convert {} '{}' to byte string", TASK_DOC_TYPE, task.getTaskId());
+            return CompletableFuture.failedFuture(e);
+        }
+        return bulkIndexer.index(taskIndexName, TASK_DOC_TYPE, task.getTaskId(), docBytes);
     }
 
     @Override
@@ -795,6 +855,88 @@ public class ElasticSearchRestDAOV7 extends ElasticSearchBaseDAO implements Inde
                 getIndexName(docType), queryBuilder, start, size, sortOptions, idOnly, clazz);
     }
 
+    /**
+     * Pages through a point in time of the workflow index with {@code search_after}, the workflow
+     * id breaking the ties of the sort options.
+     */
+    @Override
+    public Stream<String> streamWorkflows(String query, String freeText, List<String> sort) {
+        QueryBuilder queryBuilder;
+        try {
+            queryBuilder = boolQueryBuilder(query, freeText);
+        } catch (ParserException e) {
+            throw new NonTransientException(e.getMessage(), e);
+        }
+        // opened with the first page, so that a stream never consumed holds no point in time
+        AtomicReference<String> pointInTimeId = new AtomicReference<>();
+        return new SearchCursor<Object[]>(
+                        new Object[0],
+                        searchAfter -> {
+                            if (pointInTimeId.get() == null) {
+                                pointInTimeId.set(openPointInTime());
+                            }
+                            SearchSourceBuilder searchSourceBuilder =
+                                    new SearchSourceBuilder()
+                                            .query(queryBuilder)
+                                            .size(STREAM_PAGE_SIZE)
+                                            .fetchSource(false)
+                                            .pointInTimeBuilder(
+                                                    new PointInTimeBuilder(pointInTimeId.get())
+                                                            .setKeepAlive(STREAM_KEEP_ALIVE));
+                            addSortOptions(searchSourceBuilder, sort);
+                            searchSourceBuilder.sort(
+                                    new FieldSortBuilder("workflowId").order(SortOrder.ASC));
+                            if (searchAfter.length > 0) {
+                                searchSourceBuilder.searchAfter(searchAfter);
+                            }
+                            SearchResponse response =
+                                    elasticSearchClient.search(
+                                            new SearchRequest().source(searchSourceBuilder),
+                                            RequestOptions.DEFAULT);
+                            if (response.pointInTimeId() != null) {
+                                pointInTimeId.set(response.pointInTimeId());
+                            }
+                            SearchHit[] hits = response.getHits().getHits();
+                            List<String> workflowIds = new ArrayList<>(hits.length);
+                            for (SearchHit hit : hits) {
+                                workflowIds.add(hit.getId());
+                            }
+                            return new SearchCursor.Page<>(
+                                    workflowIds,
+                                    hits.length < STREAM_PAGE_SIZE
+                                            ? null
+                                            : hits[hits.length - 1].getSortValues());
+                        })
+                .stream(
+                        () -> {
+                            if (pointInTimeId.get() != null) {
+                                closePointInTime(pointInTimeId.get());
+                            }
+                        });
+    }
+
+    private String openPointInTime() {
+        try {
+            return elasticSearchClient
+                    .openPointInTime(
+                            new OpenPointInTimeRequest(workflowIndexName)
+                                    .keepAlive(STREAM_KEEP_ALIVE),
+                            RequestOptions.DEFAULT)
+                    .getPointInTimeId();
+        } catch (IOException e) {
+            throw new TransientException(e.getMessage(), e);
+        }
+    }
+
+    private void closePointInTime(String pointInTimeId) {
+        try {
+            elasticSearchClient.closePointInTime(
+                    new ClosePointInTimeRequest(pointInTimeId), RequestOptions.DEFAULT);
+        } catch (Exception e) {
+            logger.warn("Failed to close the point in time of the workflow search", e);
+        }
+    }
+
     @Override
     public SearchResult<String> searchTasks(
             String query, String freeText, int start, int count, List<String> sort) {
@@ -1025,6 +1167,22 @@ public class ElasticSearchRestDAOV7 extends ElasticSearchBaseDAO implements Inde
                 getIndexName(docType), queryBuilder, start, size, sortOptions, false, clazz);
     }
 
+    private void addSortOptions(SearchSourceBuilder searchSourceBuilder, List<String> sortOptions) {
+        if (sortOptions != null && !sortOptions.isEmpty()) {
+
+            for (String sortOption : sortOptions) {
+                SortOrder order = SortOrder.ASC;
+                String field = sortOption;
+                int index = sortOption.indexOf(":");
+                if (index > 0) {
+                    field = sortOption.substring(0, index);
+                    order = SortOrder.valueOf(sortOption.substring(index + 1));
+                }
+                searchSourceBuilder.sort(new FieldSortBuilder(field).order(order));
+            }
+        }
+    }
+
     private SearchResult<String> searchObjectIds(
             String indexName, QueryBuilder queryBuilder, int start, int size) throws IOException {
         return searchObjectIds(indexName, queryBuilder, start, size, null);
@@ -1054,19 +1212,7 @@ public class ElasticSearchRestDAOV7 extends ElasticSearchBaseDAO implements Inde
         searchSourceBuilder.from(start);
         searchSourceBuilder.size(size);
 
-        if (sortOptions != null && !sortOptions.isEmpty()) {
-
-            for (String sortOption : sortOptions) {
-                SortOrder order = SortOrder.ASC;
-                String field = sortOption;
-                int index = sortOption.indexOf(":");
-                if (index > 0) {
-                    field = sortOption.substring(0, index);
-                    order = SortOrder.valueOf(sortOption.substring(index + 1));
-                }
-                searchSourceBuilder.sort(new FieldSortBuilder(field).order(order));
-            }
-        }
+        addSortOptions(searchSourceBuilder, sortOptions);
 
         // Generate the actual request to send to ES.
         SearchRequest searchRequest = new SearchRequest(indexName);
@@ -1097,19 +1243,7 @@ public class ElasticSearchRestDAOV7 extends ElasticSearchBaseDAO implements Inde
             searchSourceBuilder.fetchSource(false);
         }
 
-        if (sortOptions != null && !sortOptions.isEmpty()) {
-
-            for (String sortOption : sortOptions) {
-                SortOrder order = SortOrder.ASC;
-                String field = sortOption;
-                int index = sortOption.indexOf(":");
-                if (index > 0) {
-                    field = sortOption.substring(0, index);
-                    order = SortOrder.valueOf(sortOption.substring(index + 1));
-                }
-                searchSourceBuilder.sort(new FieldSortBuilder(field).order(order));
-            }
-        }
+        addSortOptions(searchSourceBuilder, sortOptions);
 
         // Generate the actual request to send to ES.
         SearchRequest searchRequest = new SearchRequest(indexName);
@@ -1230,6 +1364,49 @@ public class ElasticSearchRestDAOV7 extends ElasticSearchBaseDAO implements Inde
         return workflowIds.getResults();
     }
 
+    /**
+     * Adds the document to the bulk requests of the index, a newer version of the document sent
+     * before the bulk request replaces it.
+     */
+    private CompletableFuture<Void> indexAsync(
+            String index, String docType, String docId, Object doc) {
+        byte[] docBytes;
+        try {
+            docBytes = objectMapper.writeValueAsBytes(doc);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to convert {} '{}' to byte string", docType, docId);
+            return CompletableFuture.failedFuture(e);
+        }
+        return bulkIndexer.index(index, docType, docId, docBytes);
+    }
+
+    private Map<String, BulkIndexer.Failure> indexBulk(
+            String index, Collection<BulkIndexer.Document> documents) throws IOException {
+        BulkRequest request = new BulkRequest();
+        for (BulkIndexer.Document document : documents) {
+            request.add(
+                    new IndexRequest(index)
+                            .id(document.getId())
+                            .source(document.getSource(), XContentType.JSON));
+        }
+        BulkResponse response = elasticSearchClient.bulk(request, RequestOptions.DEFAULT);
+        if (!response.hasFailures()) {
+            return Collections.emptyMap();
+        }
+        Map<String, BulkIndexer.Failure> failures = new HashMap<>();
+        for (BulkItemResponse item : response.getItems()) {
+            if (item.isFailed()) {
+                RestStatus status = item.getFailure().getStatus();
+                failures.put(
+                        item.getId(),
+                        new BulkIndexer.Failure(
+                                status == RestStatus.TOO_MANY_REQUESTS || status.getStatus() >= 500,
+                                item.getFailureMessage()));
+            }
+        }
+        return failures;
+    }
+
     private void indexObject(final String index, final String docType, final Object doc) {
         indexObject(index, docType, null, doc);
     }
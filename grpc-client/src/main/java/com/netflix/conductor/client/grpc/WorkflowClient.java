@@ -13,6 +13,7 @@
 package com.netflix.conductor.client.grpc;
 
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,6 +30,7 @@ import com.netflix.conductor.grpc.WorkflowServicePb;
 import com.netflix.conductor.proto.WorkflowPb;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterators;
 import io.grpc.ManagedChannelBuilder;
 import jakarta.annotation.Nullable;
 
@@ -341,6 +343,22 @@ public class WorkflowClient extends ClientBase {
                         .collect(Collectors.toList()));
     }
 
+    /**
+     * Search for all the workflows based on payload, without pagination
+     *
+     * @param sort sort order
+     * @param freeText additional free text query
+     * @param query the search query
+     * @return the ids of the workflows that match the query, received as they are read
+     */
+    public Iterator<String> searchStream(
+            @Nullable String sort, @Nullable String freeText, @Nullable String query) {
+        SearchPb.Request searchRequest = createSearchRequest(null, null, sort, freeText, query);
+        return Iterators.transform(
+                stub.searchStream(searchRequest),
+                WorkflowServicePb.SearchStreamResponse::getWorkflowId);
+    }
+
     /**
      * Paginated search for workflows based on payload
      *
@@ -14,9 +14,13 @@ package com.netflix.conductor.grpc.server.service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -25,6 +29,7 @@ import com.netflix.conductor.common.metadata.tasks.TaskExecLog;
 import com.netflix.conductor.common.metadata.tasks.TaskResult;
 import com.netflix.conductor.common.run.SearchResult;
 import com.netflix.conductor.common.run.TaskSummary;
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
 import com.netflix.conductor.grpc.ProtoMapper;
 import com.netflix.conductor.grpc.SearchPb;
 import com.netflix.conductor.grpc.TaskServiceGrpc;
@@ -35,6 +40,7 @@ import com.netflix.conductor.service.TaskService;
 
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
+import jakarta.annotation.PreDestroy;
 
 @Service("grpcTaskService")
 public class TaskServiceImpl extends TaskServiceGrpc.TaskServiceImplBase {
@@ -49,14 +55,44 @@ public class TaskServiceImpl extends TaskServiceGrpc.TaskServiceImplBase {
     private final TaskService taskService;
     private final int maxSearchSize;
     private final ExecutionService executionService;
+    private final QueueWakeupRegistry queueWakeupRegistry;
+    private final ExecutorService taskStreamDispatcher;
 
     public TaskServiceImpl(
             ExecutionService executionService,
             TaskService taskService,
-            @Value("${workflow.max.search.size:5000}") int maxSearchSize) {
+            QueueWakeupRegistry queueWakeupRegistry,
+            int maxSearchSize) {
+        this(executionService, taskService, queueWakeupRegistry, maxSearchSize, 1);
+    }
+
+    /**
+     * @param taskStreamThreadCount number of threads pushing the tasks to the {@code TaskStream}
+     *     streams
+     */
+    @Autowired
+    public TaskServiceImpl(
+            ExecutionService executionService,
+            TaskService taskService,
+            QueueWakeupRegistry queueWakeupRegistry,
+            @Value("${workflow.max.search.size:5000}") int maxSearchSize,
+            @Value("${conductor.grpc-server.taskStreamThreadCount:4}") int taskStreamThreadCount) {
         this.executionService = executionService;
         this.taskService = taskService;
         this.maxSearchSize = maxSearchSize;
+        this.queueWakeupRegistry = queueWakeupRegistry;
+        this.taskStreamDispatcher =
+                Executors.newFixedThreadPool(
+                        taskStreamThreadCount,
+                        new BasicThreadFactory.Builder()
+                                .namingPattern("grpc-task-stream-%d")
+                                .daemon(true)
+                                .build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        taskStreamDispatcher.shutdownNow();
     }
 
     @Override
@@ -98,21 +134,38 @@ public class TaskServiceImpl extends TaskServiceGrpc.TaskServiceImplBase {
         }
 
         try {
-            List<Task> polledTasks =
-                    taskService.batchPoll(
+            // no gRPC thread waits for the tasks
+            taskService
+                    .batchPollAsync(
                             req.getTaskType(),
                             req.getWorkerId(),
                             GRPC_HELPER.optional(req.getDomain()),
                             count,
-                            timeout);
-            LOGGER.info("polled tasks: " + polledTasks);
-            polledTasks.stream().map(PROTO_MAPPER::toProto).forEach(response::onNext);
-            response.onCompleted();
+                            timeout)
+                    .whenComplete(
+                            (polledTasks, error) -> {
+                                if (error != null) {
+                                    GRPC_HELPER.onError(response, error);
+                                    return;
+                                }
+                                LOGGER.info("polled tasks: " + polledTasks);
+                                polledTasks.stream()
+                                        .map(PROTO_MAPPER::toProto)
+                                        .forEach(response::onNext);
+                                response.onCompleted();
+                            });
         } catch (Exception e) {
             GRPC_HELPER.onError(response, e);
         }
     }
 
+    @Override
+    public StreamObserver<TaskServicePb.TaskStreamRequest> taskStream(
+            StreamObserver<TaskServicePb.TaskStreamResponse> response) {
+        return new TaskStreamHandler(
+                executionService, taskService, queueWakeupRegistry, taskStreamDispatcher, response);
+    }
+
     @Override
     public void updateTask(
             TaskServicePb.UpdateTaskRequest req,
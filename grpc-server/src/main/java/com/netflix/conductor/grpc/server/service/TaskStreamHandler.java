@@ -0,0 +1,299 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.grpc.server.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.common.metadata.tasks.Task;
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
+import com.netflix.conductor.core.utils.QueueUtils;
+import com.netflix.conductor.grpc.ProtoMapper;
+import com.netflix.conductor.grpc.TaskServicePb;
+import com.netflix.conductor.proto.TaskResultPb;
+import com.netflix.conductor.service.ExecutionService;
+import com.netflix.conductor.service.TaskService;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Server side of a {@code TaskStream}. The worker subscribes to a task type with a number of
+ * credits, and each task pushed to it uses one credit. While the stream has credits, the handler
+ * polls the queue of the task type on behalf of the worker: immediately after it found tasks, and
+ * when a task is pushed to the queue while it is empty, see {@link QueueWakeupRegistry}, or after
+ * an increasing delay. The results sent by the worker are applied as by {@code UpdateTask}, each
+ * one acknowledged on the stream.
+ *
+ * <p>The queue is not polled while the transport cannot take more responses, the dispatch resumes
+ * when the stream is ready again. The tasks polled for a stream which is cancelled or closed before
+ * they are sent are pushed back to their queue.
+ */
+class TaskStreamHandler implements StreamObserver<TaskServicePb.TaskStreamRequest> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskStreamHandler.class);
+    private static final ProtoMapper PROTO_MAPPER = ProtoMapper.INSTANCE;
+    private static final GRPCHelper GRPC_HELPER = new GRPCHelper(LOGGER);
+
+    static final int MAX_BATCH_SIZE = 100;
+    static final long MIN_IDLE_DELAY_MS = 10;
+    static final long MAX_IDLE_DELAY_MS = 1000;
+
+    private final ExecutionService executionService;
+    private final TaskService taskService;
+    private final QueueWakeupRegistry queueWakeupRegistry;
+    private final ExecutorService dispatcher;
+    private final StreamObserver<TaskServicePb.TaskStreamResponse> responseObserver;
+
+    private final AtomicInteger credits = new AtomicInteger();
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+    private volatile boolean closed;
+    private volatile TaskServicePb.TaskStreamRequest.Subscribe subscription;
+    private volatile String queueName;
+    // only used by the dispatch, which runs on one thread at a time
+    private long idleDelay = MIN_IDLE_DELAY_MS;
+
+    TaskStreamHandler(
+            ExecutionService executionService,
+            TaskService taskService,
+            QueueWakeupRegistry queueWakeupRegistry,
+            ExecutorService dispatcher,
+            StreamObserver<TaskServicePb.TaskStreamResponse> responseObserver) {
+        this.executionService = executionService;
+        this.taskService = taskService;
+        this.queueWakeupRegistry = queueWakeupRegistry;
+        this.dispatcher = dispatcher;
+        this.responseObserver = responseObserver;
+        if (responseObserver instanceof ServerCallStreamObserver) {
+            ServerCallStreamObserver<?> serverObserver =
+                    (ServerCallStreamObserver<?>) responseObserver;
+            serverObserver.setOnCancelHandler(this::close);
+            serverObserver.setOnReadyHandler(this::scheduleDispatch);
+        }
+    }
+
+    @Override
+    public void onNext(TaskServicePb.TaskStreamRequest request) {
+        switch (request.getRequestCase()) {
+            case SUBSCRIBE:
+                subscribe(request.getSubscribe());
+                break;
+            case CREDIT:
+                addCredits(request.getCredit().getCredits());
+                break;
+            case RESULT:
+                updateTask(request.getResult());
+                break;
+            default:
+                fail(
+                        Status.INVALID_ARGUMENT
+                                .withDescription("Empty task stream request")
+                                .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        LOGGER.debug("Task stream of {} closed by the worker", describe(), t);
+        close();
+    }
+
+    @Override
+    public void onCompleted() {
+        close();
+        synchronized (responseObserver) {
+            responseObserver.onCompleted();
+        }
+    }
+
+    private void subscribe(TaskServicePb.TaskStreamRequest.Subscribe subscribe) {
+        if (subscription != null) {
+            fail(
+                    Status.FAILED_PRECONDITION
+                            .withDescription("The task stream is already subscribed")
+                            .asRuntimeException());
+            return;
+        }
+        if (subscribe.getTaskType().isEmpty()) {
+            fail(
+                    Status.INVALID_ARGUMENT
+                            .withDescription("The task type is required")
+                            .asRuntimeException());
+            return;
+        }
+        queueName =
+                QueueUtils.getQueueName(
+                        subscribe.getTaskType(),
+                        GRPC_HELPER.optional(subscribe.getDomain()),
+                        null,
+                        null);
+        subscription = subscribe;
+        addCredits(subscribe.getCredits());
+    }
+
+    private void addCredits(int added) {
+        if (added <= 0) {
+            return;
+        }
+        credits.addAndGet(added);
+        // no-op while a dispatch is scheduled, the credits are used by that dispatch
+        scheduleDispatch();
+    }
+
+    private void updateTask(TaskResultPb.TaskResult result) {
+        TaskServicePb.TaskStreamResponse response;
+        try {
+            TaskResult taskResult = PROTO_MAPPER.fromProto(result);
+            taskService.updateTask(taskResult);
+            response =
+                    TaskServicePb.TaskStreamResponse.newBuilder()
+                            .setUpdate(
+                                    TaskServicePb.UpdateTaskResponse.newBuilder()
+                                            .setTaskId(taskResult.getTaskId()))
+                            .build();
+        } catch (Exception e) {
+            LOGGER.error("Failed to update task: {} from {}", result.getTaskId(), describe(), e);
+            response =
+                    TaskServicePb.TaskStreamResponse.newBuilder()
+                            .setUpdateError(
+                                    TaskServicePb.TaskStreamResponse.UpdateError.newBuilder()
+                                            .setTaskId(result.getTaskId())
+                                            .setMessage(String.valueOf(e.getMessage())))
+                            .build();
+        }
+        send(response);
+    }
+
+    private void scheduleDispatch() {
+        if (!closed && subscription != null && dispatchScheduled.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    /**
+     * Runs on one dispatcher thread at a time, guarded by dispatchScheduled, which stays set while
+     * the dispatch waits for a push to the queue.
+     */
+    private void dispatch() {
+        CompletableFuture<Boolean> pushed = null;
+        boolean found = false;
+        try {
+            int count = Math.min(credits.get(), MAX_BATCH_SIZE);
+            if (closed || count <= 0 || !isReady()) {
+                return;
+            }
+            // registered before the poll, so that a push made in between is not missed
+            pushed = queueWakeupRegistry.awaitPush(queueName, idleDelay);
+            TaskServicePb.TaskStreamRequest.Subscribe subscribe = subscription;
+            List<Task> tasks =
+                    executionService.poll(
+                            subscribe.getTaskType(),
+                            subscribe.getWorkerId(),
+                            GRPC_HELPER.optional(subscribe.getDomain()),
+                            count,
+                            0);
+            List<Task> undelivered = new ArrayList<>();
+            for (Task task : tasks) {
+                if (!send(
+                        TaskServicePb.TaskStreamResponse.newBuilder()
+                                .setTask(PROTO_MAPPER.toProto(task))
+                                .build())) {
+                    undelivered.add(task);
+                }
+            }
+            if (!undelivered.isEmpty()) {
+                LOGGER.debug(
+                        "Task stream of {} closed, requeueing {} tasks",
+                        describe(),
+                        undelivered.size());
+                executionService.requeueTasks(undelivered);
+            }
+            credits.addAndGet(-tasks.size());
+            found = !tasks.isEmpty();
+            idleDelay = found ? MIN_IDLE_DELAY_MS : Math.min(idleDelay * 2, MAX_IDLE_DELAY_MS);
+        } catch (Exception e) {
+            LOGGER.error("Failed to dispatch tasks to {}", describe(), e);
+            idleDelay = MAX_IDLE_DELAY_MS;
+        } finally {
+            if (pushed != null && !found && credits.get() > 0 && !closed) {
+                pushed.whenComplete((result, error) -> dispatcher.execute(this::dispatch));
+            } else {
+                if (pushed != null) {
+                    pushed.cancel(false);
+                }
+                dispatchScheduled.set(false);
+                // the credits may have been added, or the stream become ready, while
+                // dispatchScheduled was set
+                if (credits.get() > 0 && isReady()) {
+                    scheduleDispatch();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return whether the response was sent, it is not once the stream is closed
+     */
+    private boolean send(TaskServicePb.TaskStreamResponse response) {
+        // the dispatcher and the thread reading the requests both write to the stream
+        synchronized (responseObserver) {
+            if (closed) {
+                return false;
+            }
+            try {
+                responseObserver.onNext(response);
+                return true;
+            } catch (RuntimeException e) {
+                // the call was cancelled before the cancellation handler ran
+                LOGGER.debug("Failed to send a response to {}", describe(), e);
+                close();
+                return false;
+            }
+        }
+    }
+
+    /** Whether the transport can take more responses without buffering them. */
+    private boolean isReady() {
+        return !(responseObserver instanceof ServerCallStreamObserver)
+                || ((ServerCallStreamObserver<?>) responseObserver).isReady();
+    }
+
+    private void fail(Throwable t) {
+        close();
+        synchronized (responseObserver) {
+            responseObserver.onError(t);
+        }
+    }
+
+    private void close() {
+        closed = true;
+    }
+
+    private String describe() {
+        TaskServicePb.TaskStreamRequest.Subscribe subscribe = subscription;
+        return subscribe == null
+                ? "unsubscribed worker"
+                : String.format(
+                        "worker: %s, task type: %s, domain: %s",
+                        subscribe.getWorkerId(), subscribe.getTaskType(), subscribe.getDomain());
+    }
+}
@@ -14,7 +14,9 @@ package com.netflix.conductor.grpc.server.service;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +39,7 @@ import com.netflix.conductor.proto.WorkflowPb;
 import com.netflix.conductor.service.WorkflowService;
 
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 
 @Service("grpcWorkflowService")
@@ -376,6 +379,58 @@ public class WorkflowServiceImpl extends WorkflowServiceGrpc.WorkflowServiceImpl
         doSearch(true, request, responseObserver);
     }
 
+    /**
+     * Streams the ids of all the matching workflows, as fast as the client reads them: the next ids
+     * are only fetched once the previous ones were sent.
+     */
+    @Override
+    public void searchStream(
+            SearchPb.Request req, StreamObserver<WorkflowServicePb.SearchStreamResponse> response) {
+        final String sort = GRPC_HELPER.optional(req.getSort());
+        final String freeText = GRPC_HELPER.optionalOr(req.getFreeText(), "*");
+        final String query = req.getQuery();
+
+        ServerCallStreamObserver<WorkflowServicePb.SearchStreamResponse> observer =
+                (ServerCallStreamObserver<WorkflowServicePb.SearchStreamResponse>) response;
+        Stream<String> workflowIds;
+        try {
+            workflowIds = workflowService.streamWorkflows(sort, freeText, query);
+        } catch (Exception e) {
+            GRPC_HELPER.onError(response, e);
+            return;
+        }
+        Iterator<String> iterator = workflowIds.iterator();
+        observer.setOnCancelHandler(workflowIds::close);
+        observer.setOnReadyHandler(
+                new Runnable() {
+                    private boolean done;
+
+                    @Override
+                    public synchronized void run() {
+                        if (done) {
+                            return;
+                        }
+                        try {
+                            while (observer.isReady() && iterator.hasNext()) {
+                                observer.onNext(
+                                        WorkflowServicePb.SearchStreamResponse.newBuilder()
+                                                .setWorkflowId(iterator.next())
+                                                .build());
+                            }
+                            if (!iterator.hasNext()) {
+                                done = true;
+                                workflowIds.close();
+                                observer.onCompleted();
+                            }
+                        } catch (Exception e) {
+                            done = true;
+                            workflowIds.close();
+                            GRPC_HELPER.onError(response, e);
+                        }
+                    }
+                });
+    }
+
     @Override
     public void searchV2(
             SearchPb.Request request,
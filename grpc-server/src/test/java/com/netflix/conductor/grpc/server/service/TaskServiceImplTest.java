@@ -13,7 +13,10 @@
 package com.netflix.conductor.grpc.server.service;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -22,18 +25,26 @@ import org.junit.Test;
 import org.mockito.Mock;
 
 import com.netflix.conductor.common.metadata.tasks.Task;
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
 import com.netflix.conductor.common.run.SearchResult;
 import com.netflix.conductor.common.run.TaskSummary;
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
 import com.netflix.conductor.grpc.SearchPb;
 import com.netflix.conductor.grpc.TaskServicePb;
 import com.netflix.conductor.proto.TaskPb;
+import com.netflix.conductor.proto.TaskResultPb;
 import com.netflix.conductor.proto.TaskSummaryPb;
 import com.netflix.conductor.service.ExecutionService;
 import com.netflix.conductor.service.TaskService;
 
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -43,12 +54,16 @@ public class TaskServiceImplTest {
 
     @Mock private ExecutionService executionService;
 
+    private QueueWakeupRegistry queueWakeupRegistry;
+
     private TaskServiceImpl taskServiceImpl;
 
     @Before
     public void init() {
         initMocks(this);
-        taskServiceImpl = new TaskServiceImpl(executionService, taskService, 5000);
+        queueWakeupRegistry = new QueueWakeupRegistry(1);
+        taskServiceImpl =
+                new TaskServiceImpl(executionService, taskService, queueWakeupRegistry, 5000);
     }
 
     @Test
@@ -84,7 +99,7 @@ public class TaskServiceImplTest {
 
         taskServiceImpl.search(req, streamObserver);
 
-        streamAlive.await(10, TimeUnit.MILLISECONDS);
+        assertTrue(streamAlive.await(1, TimeUnit.SECONDS));
 
         assertEquals(
                 "INVALID_ARGUMENT: Cannot return more than 5000 results",
@@ -124,7 +139,7 @@ public class TaskServiceImplTest {
 
         taskServiceImpl.searchV2(req, streamObserver);
 
-        streamAlive.await(10, TimeUnit.MILLISECONDS);
+        assertTrue(streamAlive.await(1, TimeUnit.SECONDS));
 
         assertEquals(
                 "INVALID_ARGUMENT: Cannot return more than 5000 results",
@@ -173,7 +188,7 @@ public class TaskServiceImplTest {
 
         taskServiceImpl.search(req, streamObserver);
 
-        streamAlive.await(10, TimeUnit.MILLISECONDS);
+        assertTrue(streamAlive.await(1, TimeUnit.SECONDS));
 
         TaskServicePb.TaskSummarySearchResult taskSummarySearchResult = result.get();
 
@@ -225,7 +240,7 @@ public class TaskServiceImplTest {
 
         taskServiceImpl.searchV2(req, streamObserver);
 
-        streamAlive.await(10, TimeUnit.MILLISECONDS);
+        assertTrue(streamAlive.await(1, TimeUnit.SECONDS));
 
         TaskServicePb.TaskSearchResult taskSearchResult = result.get();
 
@@ -234,4 +249,287 @@ public class TaskServiceImplTest {
                 TaskPb.Task.newBuilder().setCallbackFromWorker(true).build(),
                 taskSearchResult.getResultsList().get(0));
     }
+
+    @Test
+    public void taskStreamTest() throws InterruptedException {
+        BlockingQueue<TaskServicePb.TaskStreamResponse> responses = new LinkedBlockingQueue<>();
+        StreamObserver<TaskServicePb.TaskStreamRequest> requests =
+                taskServiceImpl.taskStream(responseObserver(responses));
+
+        Task task1 = new Task();
+        task1.setTaskId("task1");
+        Task task2 = new Task();
+        task2.setTaskId("task2");
+        when(executionService.poll("test", "worker", null, 2, 0)).thenReturn(List.of(task1, task2));
+        when(executionService.poll("test", "worker", null, 1, 0))
+                .thenReturn(Collections.emptyList());
+
+        requests.onNext(
+                TaskServicePb.TaskStreamRequest.newBuilder()
+                        .setSubscribe(
+                                TaskServicePb.TaskStreamRequest.Subscribe.newBuilder()
+                                        .setTaskType("test")
+                                        .setWorkerId("worker")
+                                        .setCredits(2))
+                        .build());
+
+        assertEquals("task1", responses.poll(1, TimeUnit.SECONDS).getTask().getTaskId());
+        assertEquals("task2", responses.poll(1, TimeUnit.SECONDS).getTask().getTaskId());
+        // no more tasks are pushed once the credits are used
+        assertNull(responses.poll(100, TimeUnit.MILLISECONDS));
+        verify(executionService, times(1))
+                .poll(anyString(), anyString(), any(), anyInt(), anyInt());
+
+        requests.onNext(
+                TaskServicePb.TaskStreamRequest.newBuilder()
+                        .setCredit(
+                                TaskServicePb.TaskStreamRequest.Credit.newBuilder().setCredits(1))
+                        .build());
+        verify(executionService, timeout(1000)).poll("test", "worker", null, 1, 0);
+
+        requests.onNext(
+                TaskServicePb.TaskStreamRequest.newBuilder()
+                        .setResult(
+                                TaskResultPb.TaskResult.newBuilder()
+                                        .setTaskId("task1")
+                                        .setStatus(TaskResultPb.TaskResult.Status.COMPLETED))
+                        .build());
+        assertEquals("task1", responses.poll(1, TimeUnit.SECONDS).getUpdate().getTaskId());
+        verify(taskService).updateTask(any(TaskResult.class));
+
+        requests.onCompleted();
+        taskServiceImpl.shutdown();
+        queueWakeupRegistry.shutdown();
+    }
+
+    @Test
+    public void taskStreamWokenByPushTest() throws InterruptedException {
+        BlockingQueue<TaskServicePb.TaskStreamResponse> responses = new LinkedBlockingQueue<>();
+        StreamObserver<TaskServicePb.TaskStreamRequest> requests =
+                taskServiceImpl.taskStream(responseObserver(responses));
+
+        Task task = new Task();
+        task.setTaskId("task1");
+        AtomicReference<Task> queued = new AtomicReference<>();
+        // the delays double from the shortest one, up to the longest one
+        CountDownLatch backedOff = new CountDownLatch(8);
+        when(executionService.poll("test", "worker", null, 1, 0))
+                .thenAnswer(
+                        invocation -> {
+                            Task polled = queued.getAndSet(null);
+                            if (polled == null) {
+                                backedOff.countDown();
+                                return Collections.emptyList();
+                            }
+                            return List.of(polled);
+                        });
+
+        requests.onNext(
+                TaskServicePb.TaskStreamRequest.newBuilder()
+                        .setSubscribe(
+                                TaskServicePb.TaskStreamRequest.Subscribe.newBuilder()
+                                        .setTaskType("test")
+                                        .setWorkerId("worker")
+                                        .setCredits(1))
+                        .build());
+        assertTrue(backedOff.await(10, TimeUnit.SECONDS));
+        queued.set(task);
+
+        queueWakeupRegistry.signalPush("test");
+
+        // the dispatch now waits for the longest delay, only the push wakes it up this soon
+        TaskServicePb.TaskStreamResponse response =
+                responses.poll(TaskStreamHandler.MAX_IDLE_DELAY_MS / 2, TimeUnit.MILLISECONDS);
+        assertEquals("task1", response.getTask().getTaskId());
+
+        requests.onCompleted();
+        taskServiceImpl.shutdown();
+        queueWakeupRegistry.shutdown();
+    }
+
+    @Test
+    public void taskStreamWithoutTaskTypeTest() throws InterruptedException {
+        CountDownLatch streamAlive = new CountDownLatch(1);
+        AtomicReference<Throwable> throwable = new AtomicReference<>();
+        StreamObserver<TaskServicePb.TaskStreamRequest> requests =
+                taskServiceImpl.taskStream(
+                        new StreamObserver<>() {
+                            @Override
+                            public void onNext(TaskServicePb.TaskStreamResponse value) {}
+
+                            @Override
+                            public void onError(Throwable t) {
+                                throwable.set(t);
+                                streamAlive.countDown();
+                            }
+
+                            @Override
+                            public void onCompleted() {
+                                streamAlive.countDown();
+                            }
+                        });
+
+        requests.onNext(
+                TaskServicePb.TaskStreamRequest.newBuilder()
+                        .setSubscribe(
+                                TaskServicePb.TaskStreamRequest.Subscribe.newBuilder()
+                                        .setWorkerId("worker")
+                                        .setCredits(1))
+                        .build());
+
+        assertTrue(streamAlive.await(1, TimeUnit.SECONDS));
+
+        assertEquals("INVALID_ARGUMENT: The task type is required", throwable.get().getMessage());
+        verifyNoInteractions(executionService);
+    }
+
+    @Test
+    public void taskStreamRequeuesUndeliveredTasksTest() {
+        ServerStreamObserver responses = new ServerStreamObserver();
+        StreamObserver<TaskServicePb.TaskStreamRequest> requests =
+                taskServiceImpl.taskStream(responses);
+
+        Task task1 = new Task();
+        task1.setTaskId("task1");
+        Task task2 = new Task();
+        task2.setTaskId("task2");
+        when(executionService.poll("test", "worker", null, 2, 0))
+                .thenAnswer(
+                        invocation -> {
+                            // the worker goes away while the tasks are polled
+                            responses.cancel();
+                            return List.of(task1, task2);
+                        });
+
+        requests.onNext(
+                TaskServicePb.TaskStreamRequest.newBuilder()
+                        .setSubscribe(
+                                TaskServicePb.TaskStreamRequest.Subscribe.newBuilder()
+                                        .setTaskType("test")
+                                        .setWorkerId("worker")
+                                        .setCredits(2))
+                        .build());
+
+        verify(executionService, timeout(1000)).requeueTasks(List.of(task1, task2));
+        assertTrue(responses.sent.isEmpty());
+
+        taskServiceImpl.shutdown();
+        queueWakeupRegistry.shutdown();
+    }
+
+    @Test
+    public void taskStreamWaitsForTheTransportTest() throws InterruptedException {
+        ServerStreamObserver responses = new ServerStreamObserver();
+        responses.ready = false;
+        StreamObserver<TaskServicePb.TaskStreamRequest> requests =
+                taskServiceImpl.taskStream(responses);
+
+        Task task = new Task();
+        task.setTaskId("task1");
+        CountDownLatch polled = new CountDownLatch(1);
+        when(executionService.poll("test", "worker", null, 1, 0))
+                .thenAnswer(
+                        invocation -> {
+                            polled.countDown();
+                            return List.of(task);
+                        });
+
+        requests.onNext(
+                TaskServicePb.TaskStreamRequest.newBuilder()
+                        .setSubscribe(
+                                TaskServicePb.TaskStreamRequest.Subscribe.newBuilder()
+                                        .setTaskType("test")
+                                        .setWorkerId("worker")
+                                        .setCredits(1))
+                        .build());
+        assertFalse(polled.await(100, TimeUnit.MILLISECONDS));
+
+        responses.ready = true;
+        responses.onReadyHandler.run();
+
+        assertEquals("task1", responses.sent.poll(1, TimeUnit.SECONDS).getTask().getTaskId());
+
+        requests.onCompleted();
+        taskServiceImpl.shutdown();
+        queueWakeupRegistry.shutdown();
+    }
+
+    /** The response side of a call, which can be cancelled or not ready. */
+    private static class ServerStreamObserver
+            extends ServerCallStreamObserver<TaskServicePb.TaskStreamResponse> {
+
+        private final BlockingQueue<TaskServicePb.TaskStreamResponse> sent =
+                new LinkedBlockingQueue<>();
+        private volatile boolean ready = true;
+        private volatile boolean cancelled;
+        private Runnable onCancelHandler;
+        private Runnable onReadyHandler;
+
+        void cancel() {
+            cancelled = true;
+            onCancelHandler.run();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void setOnCancelHandler(Runnable onCancelHandler) {
+            this.onCancelHandler = onCancelHandler;
+        }
+
+        @Override
+        public void setCompression(String compression) {}
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setOnReadyHandler(Runnable onReadyHandler) {
+            this.onReadyHandler = onReadyHandler;
+        }
+
+        @Override
+        public void disableAutoInboundFlowControl() {}
+
+        @Override
+        public void request(int count) {}
+
+        @Override
+        public void setMessageCompression(boolean enable) {}
+
+        @Override
+        public void onNext(TaskServicePb.TaskStreamResponse value) {
+            if (cancelled) {
+                throw Status.CANCELLED.asRuntimeException();
+            }
+            sent.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {}
+
+        @Override
+        public void onCompleted() {}
+    }
+
+    private static StreamObserver<TaskServicePb.TaskStreamResponse> responseObserver(
+            BlockingQueue<TaskServicePb.TaskStreamResponse> responses) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(TaskServicePb.TaskStreamResponse value) {
+                responses.add(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {}
+
+            @Override
+            public void onCompleted() {}
+        };
+    }
 }
@@ -15,10 +15,13 @@ package com.netflix.conductor.grpc.server.service;
 import java.util.Collections;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 
 import com.netflix.conductor.common.run.SearchResult;
@@ -30,9 +33,11 @@ import com.netflix.conductor.proto.WorkflowPb;
 import com.netflix.conductor.proto.WorkflowSummaryPb;
 import com.netflix.conductor.service.WorkflowService;
 
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -362,4 +367,31 @@ public class WorkflowServiceImplTest {
                 WorkflowPb.Workflow.newBuilder().build(),
                 workflowSearchResult.getResultsList().get(0));
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void searchStreamTest() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(workflowService.streamWorkflows("strings", "*", ""))
+                .thenReturn(Stream.of("w1", "w2").onClose(() -> closed.set(true)));
+        ServerCallStreamObserver<WorkflowServicePb.SearchStreamResponse> streamObserver =
+                mock(ServerCallStreamObserver.class);
+        when(streamObserver.isReady()).thenReturn(true);
+
+        SearchPb.Request req =
+                SearchPb.Request.newBuilder().setSort("strings").setQuery("").build();
+        workflowServiceImpl.searchStream(req, streamObserver);
+
+        ArgumentCaptor<Runnable> onReady = ArgumentCaptor.forClass(Runnable.class);
+        verify(streamObserver).setOnReadyHandler(onReady.capture());
+        onReady.getValue().run();
+
+        ArgumentCaptor<WorkflowServicePb.SearchStreamResponse> responses =
+                ArgumentCaptor.forClass(WorkflowServicePb.SearchStreamResponse.class);
+        verify(streamObserver, times(2)).onNext(responses.capture());
+        assertEquals("w1", responses.getAllValues().get(0).getWorkflowId());
+        assertEquals("w2", responses.getAllValues().get(1).getWorkflowId());
+        verify(streamObserver).onCompleted();
+        assertTrue(closed.get());
+    }
 }
@@ -17,6 +17,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,11 +28,14 @@ import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
 import com.netflix.conductor.core.execution.WorkflowExecutor;
+import com.netflix.conductor.core.execution.tasks.NonBlockingCompletion;
 import com.netflix.conductor.core.execution.tasks.WorkflowSystemTask;
 import com.netflix.conductor.core.utils.Utils;
 import com.netflix.conductor.model.TaskModel;
 import com.netflix.conductor.model.WorkflowModel;
+import com.netflix.conductor.tasks.http.providers.NonBlockingHttpClient;
 import com.netflix.conductor.tasks.http.providers.RestTemplateProvider;
 
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -59,19 +63,54 @@ public class HttpTask extends WorkflowSystemTask {
     protected ObjectMapper objectMapper;
     protected RestTemplateProvider restTemplateProvider;
     private final String requestParameter;
+    private final NonBlockingHttpClient nonBlockingHttpClient;
+    private final NonBlockingCompletion nonBlockingCompletion;
 
-    @Autowired
     public HttpTask(RestTemplateProvider restTemplateProvider, ObjectMapper objectMapper) {
         this(TASK_TYPE_HTTP, restTemplateProvider, objectMapper);
     }
 
+    /**
+     * @param nonBlockingHttpClient when present, the requests of the tasks that are not
+     *     asyncComplete are sent without blocking the system task worker, and the tasks are
+     *     completed from the response callbacks
+     */
+    @Autowired
+    public HttpTask(
+            RestTemplateProvider restTemplateProvider,
+            ObjectMapper objectMapper,
+            Optional<NonBlockingHttpClient> nonBlockingHttpClient) {
+        this(
+                TASK_TYPE_HTTP,
+                restTemplateProvider,
+                objectMapper,
+                nonBlockingHttpClient.orElse(null));
+    }
+
     public HttpTask(
             String name, RestTemplateProvider restTemplateProvider, ObjectMapper objectMapper) {
+        this(name, restTemplateProvider, objectMapper, null);
+    }
+
+    public HttpTask(
+            String name,
+            RestTemplateProvider restTemplateProvider,
+            ObjectMapper objectMapper,
+            NonBlockingHttpClient nonBlockingHttpClient) {
         super(name);
         this.restTemplateProvider = restTemplateProvider;
         this.objectMapper = objectMapper;
         this.requestParameter = REQUEST_PARAMETER_NAME;
-        LOGGER.info("{} initialized...", getTaskType());
+        this.nonBlockingHttpClient = nonBlockingHttpClient;
+        this.nonBlockingCompletion =
+                nonBlockingHttpClient != null
+                        ? new NonBlockingCompletion(
+                                name, nonBlockingHttpClient.getCallbackExecutor())
+                        : null;
+        LOGGER.info(
+                "{} initialized{}...",
+                getTaskType(),
+                nonBlockingHttpClient != null ? " in non-blocking mode" : "");
     }
 
     @Override
@@ -100,6 +139,11 @@ public class HttpTask extends WorkflowSystemTask {
             return;
         }
 
+        if (isNonBlocking(task)) {
+            startNonBlocking(task, input, executor);
+            return;
+        }
+
         try {
             HttpResponse response = httpCall(input);
             LOGGER.debug(
@@ -211,9 +255,107 @@ public class HttpTask extends WorkflowSystemTask {
         }
     }
 
+    private boolean isNonBlocking(TaskModel task) {
+        return nonBlockingHttpClient != null && !isAsyncComplete(task);
+    }
+
+    /**
+     * Sends the request and leaves the task IN_PROGRESS, the response completes the task through
+     * the {@link NonBlockingCompletion}.
+     */
+    private void startNonBlocking(TaskModel task, Input input, WorkflowExecutor executor) {
+        TaskResult taskResult =
+                nonBlockingCompletion.start(
+                        task, nonBlockingHttpClient.getTimeoutMillis(input), executor);
+        nonBlockingHttpClient
+                .execute(input)
+                .whenCompleteAsync(
+                        (response, error) -> {
+                            if (error != null) {
+                                onFailure(taskResult, input, error);
+                            } else {
+                                onResponse(taskResult, response);
+                            }
+                            nonBlockingCompletion.complete(taskResult);
+                        },
+                        nonBlockingHttpClient.getCallbackExecutor());
+    }
+
+    private void onResponse(TaskResult taskResult, HttpResponse response) {
+        LOGGER.debug(
+                "Response: {}, {}, task:{}",
+                response.statusCode,
+                response.body,
+                taskResult.getTaskId());
+        if (response.statusCode > 199 && response.statusCode < 300) {
+            if (response.body != null) {
+                response.body = extractBody((String) response.body);
+            }
+            taskResult.setStatus(TaskResult.Status.COMPLETED);
+        } else {
+            if (response.body != null) {
+                taskResult.setReasonForIncompletion(response.body.toString());
+            } else {
+                taskResult.setReasonForIncompletion("No response from the remote service");
+            }
+            taskResult.setStatus(TaskResult.Status.FAILED);
+        }
+        taskResult.addOutputData("response", response.asMap());
+    }
+
+    private void onFailure(TaskResult taskResult, Input input, Throwable error) {
+        LOGGER.error(
+                "Failed to invoke {} task: {} - uri: {}, vipAddress: {} in workflow: {}",
+                getTaskType(),
+                taskResult.getTaskId(),
+                input.getUri(),
+                input.getVipAddress(),
+                taskResult.getWorkflowInstanceId(),
+                error);
+        taskResult.setStatus(TaskResult.Status.FAILED);
+        taskResult.setReasonForIncompletion(
+                "Failed to invoke " + getTaskType() + " task due to: " + error);
+        taskResult.addOutputData("response", error.toString());
+    }
+
+    private Optional<Input> getInput(TaskModel task) {
+        return Optional.ofNullable(task.getInputData().get(requestParameter))
+                .map(request -> objectMapper.convertValue(request, Input.class));
+    }
+
     @Override
     public boolean execute(WorkflowModel workflow, TaskModel task, WorkflowExecutor executor) {
-        return false;
+        if (!isNonBlocking(task) || task.getStatus() != TaskModel.Status.IN_PROGRESS) {
+            return false;
+        }
+        Optional<Input> input = getInput(task);
+        if (input.isPresent()
+                && !nonBlockingCompletion.isOverdue(
+                        task, nonBlockingHttpClient.getTimeoutMillis(input.get()))) {
+            return false;
+        }
+        task.setStatus(TaskModel.Status.FAILED);
+        task.setReasonForIncompletion(
+                "No response received for the " + getTaskType() + " task request");
+        return true;
+    }
+
+    @Override
+    public Optional<Long> getEvaluationOffset(TaskModel taskModel, long maxOffset) {
+        if (!isNonBlocking(taskModel) || taskModel.getStatus() != TaskModel.Status.IN_PROGRESS) {
+            return Optional.empty();
+        }
+        // check again once the response is overdue, the callback completes the task before
+        long timeoutMillis =
+                getInput(taskModel).map(nonBlockingHttpClient::getTimeoutMillis).orElse(0L);
+        return nonBlockingCompletion.getEvaluationOffset(taskModel, timeoutMillis, maxOffset);
+    }
+
+    @Override
+    public void taskWritten(TaskModel task) {
+        if (nonBlockingCompletion != null) {
+            nonBlockingCompletion.taskWritten(task);
+        }
     }
 
     @Override
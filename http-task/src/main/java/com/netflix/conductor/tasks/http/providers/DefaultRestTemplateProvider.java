@@ -12,59 +12,140 @@
  */
 package com.netflix.conductor.tasks.http.providers;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
-import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import com.netflix.conductor.metrics.Monitors;
 import com.netflix.conductor.tasks.http.HttpTask;
 
+import jakarta.annotation.PreDestroy;
+
 /**
- * Provider for a customized RestTemplateBuilder. This class provides a default {@link
- * RestTemplateBuilder} which can be configured or extended as needed.
+ * Provider of the {@link RestTemplate} used by the {@link HttpTask}. All the templates share a
+ * single pooled HTTP client, so connections are kept alive and reused across tasks, and the
+ * timeouts of each task are applied to its requests only.
  */
 @Component
 public class DefaultRestTemplateProvider implements RestTemplateProvider {
 
-    private final ThreadLocal<RestTemplateBuilder> threadLocalRestTemplateBuilder;
+    private static final String CLIENT_NAME = "http_task";
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final RequestConfig defaultRequestConfig;
+    private final List<HttpMessageConverter<?>> messageConverters;
 
     private final int defaultReadTimeout;
     private final int defaultConnectTimeout;
+    private final Timeout connectionRequestTimeout;
 
+    public DefaultRestTemplateProvider(Duration readTimeout, Duration connectTimeout) {
+        this(readTimeout, connectTimeout, Duration.ofSeconds(1), 200, 50, Duration.ofSeconds(30));
+    }
+
+    /**
+     * @param readTimeout default time to wait for the response, when not set in the task input
+     * @param connectTimeout default time to wait for a new connection to be established, when not
+     *     set in the task input
+     * @param connectionRequestTimeout time to wait for a connection from the pool
+     * @param maxConnections maximum number of connections in the pool
+     * @param maxConnectionsPerRoute maximum number of connections to a single host
+     * @param keepAlive time an idle connection is kept in the pool, when the server does not send a
+     *     shorter Keep-Alive header
+     */
+    @Autowired
     public DefaultRestTemplateProvider(
             @Value("${conductor.tasks.http.readTimeout:150ms}") Duration readTimeout,
-            @Value("${conductor.tasks.http.connectTimeout:100ms}") Duration connectTimeout) {
-        this.threadLocalRestTemplateBuilder = ThreadLocal.withInitial(RestTemplateBuilder::new);
+            @Value("${conductor.tasks.http.connectTimeout:100ms}") Duration connectTimeout,
+            @Value("${conductor.tasks.http.connectionRequestTimeout:1s}")
+                    Duration connectionRequestTimeout,
+            @Value("${conductor.tasks.http.maxConnections:200}") int maxConnections,
+            @Value("${conductor.tasks.http.maxConnectionsPerRoute:50}") int maxConnectionsPerRoute,
+            @Value("${conductor.tasks.http.keepAlive:30s}") Duration keepAlive) {
         this.defaultReadTimeout = (int) readTimeout.toMillis();
         this.defaultConnectTimeout = (int) connectTimeout.toMillis();
+        this.connectionRequestTimeout = Timeout.of(connectionRequestTimeout);
+        this.connectionManager =
+                PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnectionsPerRoute)
+                        .setDefaultConnectionConfig(
+                                ConnectionConfig.custom()
+                                        .setConnectTimeout(Timeout.of(connectTimeout))
+                                        .setValidateAfterInactivity(TimeValue.ofSeconds(1))
+                                        .build())
+                        .build();
+        this.defaultRequestConfig =
+                RequestConfig.custom().setConnectionKeepAlive(TimeValue.of(keepAlive)).build();
+        this.httpClient =
+                HttpClients.custom()
+                        .setConnectionManager(connectionManager)
+                        .setDefaultRequestConfig(defaultRequestConfig)
+                        .evictExpiredConnections()
+                        .evictIdleConnections(TimeValue.of(keepAlive))
+                        .build();
+        this.messageConverters = new RestTemplate().getMessageConverters();
     }
 
     @Override
     public @NonNull RestTemplate getRestTemplate(@NonNull HttpTask.Input input) {
-        Duration timeout =
-                Duration.ofMillis(
-                        Optional.ofNullable(input.getReadTimeOut()).orElse(defaultReadTimeout));
-        threadLocalRestTemplateBuilder.get().setReadTimeout(timeout);
-        RestTemplate restTemplate =
-                threadLocalRestTemplateBuilder.get().setReadTimeout(timeout).build();
+        RequestConfig requestConfig = getRequestConfig(input);
         HttpComponentsClientHttpRequestFactory requestFactory =
-                new HttpComponentsClientHttpRequestFactory();
-        SocketConfig.Builder builder = SocketConfig.custom();
-        builder.setSoTimeout(
-                Timeout.of(
-                        Optional.ofNullable(input.getReadTimeOut()).orElse(defaultReadTimeout),
-                        TimeUnit.MILLISECONDS));
-        requestFactory.setConnectTimeout(
-                Optional.ofNullable(input.getConnectionTimeOut()).orElse(defaultConnectTimeout));
+                new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setHttpContextFactory(
+                (method, uri) -> {
+                    HttpClientContext context = HttpClientContext.create();
+                    context.setRequestConfig(requestConfig);
+                    return context;
+                });
+        RestTemplate restTemplate = new RestTemplate(messageConverters);
         restTemplate.setRequestFactory(requestFactory);
+        recordPoolStats();
         return restTemplate;
     }
+
+    @SuppressWarnings("deprecation")
+    private RequestConfig getRequestConfig(HttpTask.Input input) {
+        int readTimeout = Optional.ofNullable(input.getReadTimeOut()).orElse(defaultReadTimeout);
+        int connectTimeout =
+                Optional.ofNullable(input.getConnectionTimeOut()).orElse(defaultConnectTimeout);
+        // the connect timeout of the request takes precedence over the one of the pool
+        return RequestConfig.copy(defaultRequestConfig)
+                .setConnectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
+                .setResponseTimeout(readTimeout, TimeUnit.MILLISECONDS)
+                .setConnectionRequestTimeout(connectionRequestTimeout)
+                .build();
+    }
+
+    private void recordPoolStats() {
+        PoolStats stats = connectionManager.getTotalStats();
+        Monitors.recordHttpClientPoolStats(
+                CLIENT_NAME, stats.getLeased(), stats.getPending(), stats.getAvailable());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
 }
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.tasks.http.providers;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import com.netflix.conductor.tasks.http.HttpTask;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sends the requests of the {@link HttpTask} without blocking the calling thread, see {@code
+ * conductor.tasks.http.nonBlocking.enabled}. The requests are multiplexed on a few I/O threads, and
+ * the responses are handled on a small pool of callback threads, so the number of outstanding calls
+ * does not depend on the number of threads.
+ */
+@Component
+@ConditionalOnProperty(name = "conductor.tasks.http.nonBlocking.enabled", havingValue = "true")
+public class NonBlockingHttpClient {
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final ScheduledExecutorService callbackExecutor;
+    private final ObjectMapper objectMapper;
+
+    private final int defaultReadTimeout;
+    private final int defaultConnectTimeout;
+    private final Timeout connectionRequestTimeout;
+
+    /**
+     * @param readTimeout default time to wait for the response, when not set in the task input
+     * @param connectTimeout default time to wait for a new connection to be established, when not
+     *     set in the task input
+     * @param connectionRequestTimeout time to wait for a connection from the pool
+     * @param maxConnections maximum number of connections in the pool
+     * @param maxConnectionsPerRoute maximum number of connections to a single host
+     * @param keepAlive time an idle connection is kept in the pool
+     * @param ioThreadCount number of threads sending the requests and reading the responses
+     * @param callbackThreadCount number of threads completing the tasks with the responses
+     */
+    public NonBlockingHttpClient(
+            @Value("${conductor.tasks.http.readTimeout:150ms}") Duration readTimeout,
+            @Value("${conductor.tasks.http.connectTimeout:100ms}") Duration connectTimeout,
+            @Value("${conductor.tasks.http.connectionRequestTimeout:1s}")
+                    Duration connectionRequestTimeout,
+            @Value("${conductor.tasks.http.maxConnections:200}") int maxConnections,
+            @Value("${conductor.tasks.http.maxConnectionsPerRoute:50}") int maxConnectionsPerRoute,
+            @Value("${conductor.tasks.http.keepAlive:30s}") Duration keepAlive,
+            @Value("${conductor.tasks.http.nonBlocking.ioThreadCount:2}") int ioThreadCount,
+            @Value("${conductor.tasks.http.nonBlocking.callbackThreadCount:4}")
+                    int callbackThreadCount,
+            ObjectMapper objectMapper) {
+        this.defaultReadTimeout = (int) readTimeout.toMillis();
+        this.defaultConnectTimeout = (int) connectTimeout.toMillis();
+        this.connectionRequestTimeout = Timeout.of(connectionRequestTimeout);
+        this.objectMapper = objectMapper;
+        this.httpClient =
+                HttpAsyncClients.custom()
+                        .setConnectionManager(
+                                PoolingAsyncClientConnectionManagerBuilder.create()
+                                        .setMaxConnTotal(maxConnections)
+                                        .setMaxConnPerRoute(maxConnectionsPerRoute)
+                                        .setDefaultConnectionConfig(
+                                                ConnectionConfig.custom()
+                                                        .setConnectTimeout(
+                                                                Timeout.of(connectTimeout))
+                                                        .build())
+                                        .build())
+                        .setIOReactorConfig(
+                                IOReactorConfig.custom().setIoThreadCount(ioThreadCount).build())
+                        .setDefaultRequestConfig(
+                                RequestConfig.custom()
+                                        .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                                        .build())
+                        .evictExpiredConnections()
+                        .evictIdleConnections(TimeValue.of(keepAlive))
+                        .build();
+        this.httpClient.start();
+        CustomizableThreadFactory threadFactory =
+                new CustomizableThreadFactory("http-task-callback-");
+        threadFactory.setDaemon(true);
+        this.callbackExecutor =
+                Executors.newScheduledThreadPool(callbackThreadCount, threadFactory);
+    }
+
+    /**
+     * Sends the request described by the input.
+     *
+     * @return the response, with the body as text, completed on an I/O thread
+     */
+    public CompletableFuture<HttpTask.HttpResponse> execute(HttpTask.Input input) {
+        CompletableFuture<HttpTask.HttpResponse> future = new CompletableFuture<>();
+        SimpleHttpRequest request;
+        try {
+            request = toRequest(input);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        httpClient.execute(
+                request,
+                new FutureCallback<>() {
+                    @Override
+                    public void completed(SimpleHttpResponse result) {
+                        future.complete(toResponse(result));
+                    }
+
+                    @Override
+                    public void failed(Exception ex) {
+                        future.completeExceptionally(ex);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        future.cancel(false);
+                    }
+                });
+        return future;
+    }
+
+    /**
+     * @return the callback threads, completing the tasks with the responses
+     */
+    public ScheduledExecutorService getCallbackExecutor() {
+        return callbackExecutor;
+    }
+
+    /**
+     * @return the longest time the request described by the input can take before failing with a
+     *     timeout
+     */
+    public long getTimeoutMillis(HttpTask.Input input) {
+        return Optional.ofNullable(input.getConnectionTimeOut()).orElse(defaultConnectTimeout)
+                + Optional.ofNullable(input.getReadTimeOut()).orElse(defaultReadTimeout)
+                + connectionRequestTimeout.toMilliseconds();
+    }
+
+    @SuppressWarnings("deprecation")
+    private SimpleHttpRequest toRequest(HttpTask.Input input) throws JsonProcessingException {
+        SimpleRequestBuilder builder =
+                SimpleRequestBuilder.create(input.getMethod())
+                        .setUri(input.getUri())
+                        .setHeader(HttpHeaders.ACCEPT, input.getAccept())
+                        .setRequestConfig(
+                                RequestConfig.custom()
+                                        .setConnectTimeout(
+                                                Optional.ofNullable(input.getConnectionTimeOut())
+                                                        .orElse(defaultConnectTimeout),
+                                                TimeUnit.MILLISECONDS)
+                                        .setResponseTimeout(
+                                                Optional.ofNullable(input.getReadTimeOut())
+                                                        .orElse(defaultReadTimeout),
+                                                TimeUnit.MILLISECONDS)
+                                        .setConnectionRequestTimeout(connectionRequestTimeout)
+                                        .build());
+        input.getHeaders()
+                .forEach(
+                        (key, value) -> {
+                            if (value != null) {
+                                builder.addHeader(key, value.toString());
+                            }
+                        });
+        Object body = input.getBody();
+        ContentType contentType = ContentType.parse(input.getContentType());
+        if (body instanceof String) {
+            builder.setBody((String) body, contentType);
+        } else if (body != null) {
+            builder.setBody(objectMapper.writeValueAsBytes(body), contentType);
+        } else {
+            builder.setHeader(HttpHeaders.CONTENT_TYPE, input.getContentType());
+        }
+        return builder.build();
+    }
+
+    private HttpTask.HttpResponse toResponse(SimpleHttpResponse result) {
+        HttpTask.HttpResponse response = new HttpTask.HttpResponse();
+        response.statusCode = result.getCode();
+        response.reasonPhrase = result.getReasonPhrase();
+        MultiValueMap<String, String> headers = new LinkedMultiValueMap<>();
+        for (Header header : result.getHeaders()) {
+            headers.add(header.getName(), header.getValue());
+        }
+        response.headers = headers;
+        response.body = result.getBodyText();
+        return response;
+    }
+
+    @PreDestroy
+    public void close() {
+        httpClient.close(CloseMode.GRACEFUL);
+        callbackExecutor.shutdown();
+    }
+}
@@ -36,6 +36,7 @@ import com.netflix.conductor.common.metadata.workflow.WorkflowTask;
 import com.netflix.conductor.core.execution.DeciderService;
 import com.netflix.conductor.core.execution.WorkflowExecutor;
 import com.netflix.conductor.core.execution.tasks.SystemTaskRegistry;
+import com.netflix.conductor.core.metadata.MetadataMapperService;
 import com.netflix.conductor.core.utils.ExternalPayloadStorageUtils;
 import com.netflix.conductor.core.utils.IDGenerator;
 import com.netflix.conductor.core.utils.ParametersUtils;
@@ -364,6 +365,7 @@ public class HttpTaskTest {
                         new IDGenerator(),
                         parametersUtils,
                         metadataDAO,
+                        new MetadataMapperService(metadataDAO),
                         externalPayloadStorageUtils,
                         systemTaskRegistry,
                         Collections.emptyMap(),
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.tasks.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.core.execution.WorkflowExecutor;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
+import com.netflix.conductor.tasks.http.providers.DefaultRestTemplateProvider;
+import com.netflix.conductor.tasks.http.providers.NonBlockingHttpClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+public class NonBlockingHttpTaskTest {
+
+    private static final int IO_THREADS = 1;
+    private static final int CALLBACK_THREADS = 1;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WorkflowModel workflow = new WorkflowModel();
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String uri;
+    private NonBlockingHttpClient nonBlockingHttpClient;
+    private HttpTask httpTask;
+    private WorkflowExecutor workflowExecutor;
+    private CountDownLatch received;
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(100);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/json", exchange -> respond(exchange, 200, "{\"key\":\"value\"}", 0));
+        received = new CountDownLatch(100);
+        release = new CountDownLatch(1);
+        server.createContext(
+                "/held",
+                exchange -> {
+                    received.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    respond(exchange, 200, "{\"ok\":true}", 0);
+                });
+        server.createContext("/failure", exchange -> respond(exchange, 500, "Oops", 0));
+        server.setExecutor(serverExecutor);
+        server.start();
+        uri = "http://localhost:" + server.getAddress().getPort();
+
+        nonBlockingHttpClient =
+                new NonBlockingHttpClient(
+                        Duration.ofMillis(1000),
+                        Duration.ofMillis(1000),
+                        Duration.ofSeconds(1),
+                        200,
+                        200,
+                        Duration.ofSeconds(30),
+                        IO_THREADS,
+                        CALLBACK_THREADS,
+                        objectMapper);
+        httpTask =
+                new HttpTask(
+                        new DefaultRestTemplateProvider(
+                                Duration.ofMillis(150), Duration.ofMillis(100)),
+                        objectMapper,
+                        Optional.of(nonBlockingHttpClient));
+        workflowExecutor = mock(WorkflowExecutor.class);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        nonBlockingHttpClient.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void respond(HttpExchange exchange, int status, String response, long delayMillis)
+            throws IOException {
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private TaskModel startTask(String taskId, String path) {
+        HttpTask.Input input = new HttpTask.Input();
+        input.setUri(uri + path);
+        input.setMethod("GET");
+        TaskModel task = new TaskModel();
+        task.setTaskId(taskId);
+        task.setWorkflowInstanceId("workflowId");
+        task.setStatus(TaskModel.Status.SCHEDULED);
+        task.setStartTime(System.currentTimeMillis());
+        task.getInputData().put(HttpTask.REQUEST_PARAMETER_NAME, input);
+        return task;
+    }
+
+    @Test
+    public void completesTheTaskWithTheResponse() {
+        TaskModel task = startTask("task", "/json");
+
+        httpTask.start(workflow, task, workflowExecutor);
+        assertEquals(TaskModel.Status.IN_PROGRESS, task.getStatus());
+        httpTask.taskWritten(task);
+
+        ArgumentCaptor<TaskResult> captor = ArgumentCaptor.forClass(TaskResult.class);
+        verify(workflowExecutor, timeout(5000)).updateTask(captor.capture());
+        TaskResult result = captor.getValue();
+        assertEquals("task", result.getTaskId());
+        assertEquals("workflowId", result.getWorkflowInstanceId());
+        assertEquals(TaskResult.Status.COMPLETED, result.getStatus());
+        Map<String, Object> response = (Map<String, Object>) result.getOutputData().get("response");
+        assertEquals(200, response.get("statusCode"));
+        assertEquals("value", ((Map<String, Object>) response.get("body")).get("key"));
+    }
+
+    @Test
+    public void waitsForTheStartToBeWritten() {
+        TaskModel task = startTask("task", "/json");
+
+        httpTask.start(workflow, task, workflowExecutor);
+        verify(workflowExecutor, after(500).never()).updateTask(any());
+
+        httpTask.taskWritten(task);
+        verify(workflowExecutor, timeout(5000)).updateTask(any());
+        verify(workflowExecutor, never()).getTask(any());
+    }
+
+    @Test
+    public void forgetsTheResultAfterTheDeadline() {
+        TaskModel task = startTask("task", "/json");
+        // the deadline is the grace period after the timeouts of the request
+        task.setStartTime(System.currentTimeMillis() - 10_000);
+
+        httpTask.start(workflow, task, workflowExecutor);
+        verify(workflowExecutor, after(500).never()).updateTask(any());
+
+        httpTask.taskWritten(task);
+        verify(workflowExecutor, after(500).never()).updateTask(any());
+    }
+
+    @Test
+    public void failsTheTaskOnErrorStatus() {
+        TaskModel task = startTask("task", "/failure");
+
+        httpTask.start(workflow, task, workflowExecutor);
+        httpTask.taskWritten(task);
+
+        ArgumentCaptor<TaskResult> captor = ArgumentCaptor.forClass(TaskResult.class);
+        verify(workflowExecutor, timeout(5000)).updateTask(captor.capture());
+        assertEquals(TaskResult.Status.FAILED, captor.getValue().getStatus());
+        assertEquals("Oops", captor.getValue().getReasonForIncompletion());
+    }
+
+    @Test
+    public void keepsManyRequestsOutstandingOnFewThreads() throws InterruptedException {
+        int requests = 100;
+        Map<String, TaskModel> tasks = new HashMap<>();
+        for (int i = 0; i < requests; i++) {
+            TaskModel task = startTask("task" + i, "/held");
+            tasks.put(task.getTaskId(), task);
+        }
+
+        tasks.values().forEach(task -> httpTask.start(workflow, task, workflowExecutor));
+        tasks.values().forEach(httpTask::taskWritten);
+        // none of the calls waited for its response, the server holds them all at once
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertTrue(
+                tasks.values().stream()
+                        .allMatch(task -> task.getStatus() == TaskModel.Status.IN_PROGRESS));
+        verify(workflowExecutor, never()).updateTask(any());
+        release.countDown();
+
+        ArgumentCaptor<TaskResult> captor = ArgumentCaptor.forClass(TaskResult.class);
+        verify(workflowExecutor, timeout(5000).times(requests)).updateTask(captor.capture());
+        List<TaskResult> results = captor.getAllValues();
+        assertTrue(
+                results.stream()
+                        .allMatch(result -> result.getStatus() == TaskResult.Status.COMPLETED));
+    }
+
+    @Test
+    public void retriesTheUpdateOfTheTask() {
+        TaskModel task = startTask("task", "/json");
+        when(workflowExecutor.updateTask(any()))
+                .thenThrow(new RuntimeException("unavailable"))
+                .thenThrow(new RuntimeException("unavailable"))
+                .thenReturn(null);
+
+        httpTask.start(workflow, task, workflowExecutor);
+        httpTask.taskWritten(task);
+
+        ArgumentCaptor<TaskResult> captor = ArgumentCaptor.forClass(TaskResult.class);
+        verify(workflowExecutor, timeout(5000).times(3)).updateTask(captor.capture());
+        assertTrue(
+                captor.getAllValues().stream()
+                        .allMatch(result -> result.getStatus() == TaskResult.Status.COMPLETED));
+    }
+
+    @Test
+    public void failsTheTaskWhenTheResponseIsOverdue() {
+        TaskModel task = startTask("task", "/json");
+        task.setStatus(TaskModel.Status.IN_PROGRESS);
+
+        assertFalse(httpTask.execute(workflow, task, workflowExecutor));
+        assertEquals(TaskModel.Status.IN_PROGRESS, task.getStatus());
+        assertTrue(httpTask.getEvaluationOffset(task, 30).orElseThrow() > 1);
+
+        task.setStartTime(System.currentTimeMillis() - 60_000);
+        assertTrue(httpTask.execute(workflow, task, workflowExecutor));
+        assertEquals(TaskModel.Status.FAILED, task.getStatus());
+        verify(workflowExecutor, never()).updateTask(any());
+    }
+}
@@ -12,18 +12,102 @@
  */
 package com.netflix.conductor.tasks.http.providers;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import com.netflix.conductor.tasks.http.HttpTask;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
 import static org.junit.Assert.*;
 
 public class DefaultRestTemplateProviderTest {
 
+    private HttpServer server;
+    private String uri;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ok", exchange -> respond(exchange, 0));
+        server.createContext("/slow", exchange -> respond(exchange, 500));
+        server.start();
+        uri = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange, long delayMillis) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    @Test
+    public void reusesConnectionsAcrossTemplates() throws IOException {
+        DefaultRestTemplateProvider defaultRestTemplateProvider =
+                new DefaultRestTemplateProvider(Duration.ofMillis(1000), Duration.ofMillis(1000));
+        try {
+            for (int i = 0; i < 5; i++) {
+                HttpTask.Input input = new HttpTask.Input();
+                input.setReadTimeOut(1000 + i);
+                RestTemplate restTemplate = defaultRestTemplateProvider.getRestTemplate(input);
+                assertEquals("{\"ok\":true}", restTemplate.getForObject(uri + "/ok", String.class));
+            }
+            assertEquals(1, clientPorts.size());
+        } finally {
+            defaultRestTemplateProvider.close();
+        }
+    }
+
+    @Test
+    public void appliesReadTimeoutOfTheInput() throws IOException {
+        DefaultRestTemplateProvider defaultRestTemplateProvider =
+                new DefaultRestTemplateProvider(Duration.ofMillis(1000), Duration.ofMillis(1000));
+        try {
+            HttpTask.Input input = new HttpTask.Input();
+            input.setReadTimeOut(100);
+            RestTemplate restTemplate = defaultRestTemplateProvider.getRestTemplate(input);
+            assertThrows(
+                    ResourceAccessException.class,
+                    () -> restTemplate.getForObject(uri + "/slow", String.class));
+
+            // the default read timeout of the provider is long enough
+            RestTemplate defaultRestTemplate =
+                    defaultRestTemplateProvider.getRestTemplate(new HttpTask.Input());
+            assertEquals(
+                    "{\"ok\":true}", defaultRestTemplate.getForObject(uri + "/slow", String.class));
+        } finally {
+            defaultRestTemplateProvider.close();
+        }
+    }
+
     @Test
     public void differentObjectsForDifferentThreads() throws InterruptedException {
         DefaultRestTemplateProvider defaultRestTemplateProvider =
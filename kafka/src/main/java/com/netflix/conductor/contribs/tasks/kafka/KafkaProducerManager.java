@@ -13,17 +13,20 @@
 package com.netflix.conductor.contribs.tasks.kafka;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -32,6 +35,13 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.RemovalListener;
 
+/**
+ * Pools the producers of the {@link KafkaPublishTask}, one per set of bootstrap servers and key
+ * serializer. The producers are shared by all the tasks publishing to a cluster, so the records of
+ * concurrent tasks are batched together, see {@code conductor.tasks.kafka-publish.linger}. The
+ * timeouts given in the task input apply to each record instead, see {@link
+ * #getTimeoutMillis(KafkaPublishTask.Input)}.
+ */
 @SuppressWarnings("rawtypes")
 @Component
 public class KafkaProducerManager {
@@ -41,6 +51,9 @@ public class KafkaProducerManager {
     private final String requestTimeoutConfig;
     private final Cache<Properties, Producer> kafkaProducerCache;
     private final String maxBlockMsConfig;
+    private final String lingerMsConfig;
+    private final String deliveryTimeoutMsConfig;
+    private final long maxRecordTimeoutMillis;
 
     private static final String STRING_SERIALIZER =
             "org.apache.kafka.common.serialization.StringSerializer";
@@ -52,13 +65,35 @@ public class KafkaProducerManager {
                 }
             };
 
+    public KafkaProducerManager(
+            Duration requestTimeout, Duration maxBlock, int cacheSize, Duration cacheTime) {
+        this(requestTimeout, maxBlock, cacheSize, cacheTime, Duration.ZERO, Duration.ofMinutes(2));
+    }
+
+    /**
+     * @param requestTimeout time to wait for the response to a produce request, before retrying it
+     * @param maxBlock time a send can block, waiting for the metadata of the topic or for space in
+     *     the buffer of the producer
+     * @param cacheSize maximum number of producers, one per cluster and key serializer
+     * @param cacheTime time after which a producer that is not used is closed
+     * @param linger time a producer waits for more records to send them in the same batch
+     * @param deliveryTimeout time after which a record that is not acknowledged fails, when no
+     *     timeout is given in the task input
+     */
+    @Autowired
     public KafkaProducerManager(
             @Value("${conductor.tasks.kafka-publish.requestTimeout:100ms}") Duration requestTimeout,
             @Value("${conductor.tasks.kafka-publish.maxBlock:500ms}") Duration maxBlock,
             @Value("${conductor.tasks.kafka-publish.cacheSize:10}") int cacheSize,
-            @Value("${conductor.tasks.kafka-publish.cacheTime:120000ms}") Duration cacheTime) {
+            @Value("${conductor.tasks.kafka-publish.cacheTime:120000ms}") Duration cacheTime,
+            @Value("${conductor.tasks.kafka-publish.linger:0ms}") Duration linger,
+            @Value("${conductor.tasks.kafka-publish.deliveryTimeout:120s}")
+                    Duration deliveryTimeout) {
         this.requestTimeoutConfig = String.valueOf(requestTimeout.toMillis());
         this.maxBlockMsConfig = String.valueOf(maxBlock.toMillis());
+        this.lingerMsConfig = String.valueOf(linger.toMillis());
+        this.deliveryTimeoutMsConfig = String.valueOf(deliveryTimeout.toMillis());
+        this.maxRecordTimeoutMillis = maxBlock.toMillis() + deliveryTimeout.toMillis();
         this.kafkaProducerCache =
                 CacheBuilder.newBuilder()
                         .removalListener(LISTENER)
@@ -81,29 +116,45 @@ public class KafkaProducerManager {
         }
     }
 
+    /**
+     * @return the longest time to wait for the acknowledgement of the record described by the
+     *     input: its {@code requestTimeoutMs} if given, the longest a send can take otherwise
+     */
+    public long getTimeoutMillis(KafkaPublishTask.Input input) {
+        if (Objects.nonNull(input.getRequestTimeoutMs())) {
+            return input.getRequestTimeoutMs();
+        }
+        return maxRecordTimeoutMillis;
+    }
+
+    /**
+     * @return the configuration of the producer for the input, which only depends on its cluster
+     *     and key serializer
+     */
     @VisibleForTesting
     Properties getProducerProperties(KafkaPublishTask.Input input) {
 
         Properties configProperties = new Properties();
-        configProperties.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, input.getBootStrapServers());
+        configProperties.put(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG,
+                normalizeBootstrapServers(input.getBootStrapServers()));
 
         configProperties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, input.getKeySerializer());
-
-        String requestTimeoutMs = requestTimeoutConfig;
-
-        if (Objects.nonNull(input.getRequestTimeoutMs())) {
-            requestTimeoutMs = String.valueOf(input.getRequestTimeoutMs());
-        }
-
-        String maxBlockMs = maxBlockMsConfig;
-
-        if (Objects.nonNull(input.getMaxBlockMs())) {
-            maxBlockMs = String.valueOf(input.getMaxBlockMs());
-        }
-
-        configProperties.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMs);
-        configProperties.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        configProperties.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutConfig);
+        configProperties.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMsConfig);
+        configProperties.put(ProducerConfig.LINGER_MS_CONFIG, lingerMsConfig);
+        configProperties.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMsConfig);
         configProperties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, STRING_SERIALIZER);
         return configProperties;
     }
+
+    /** The same set of servers listed in another order or with spaces shares the producer. */
+    private static String normalizeBootstrapServers(String bootstrapServers) {
+        return Arrays.stream(bootstrapServers.split(","))
+                .map(String::trim)
+                .filter(server -> !server.isEmpty())
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
 }
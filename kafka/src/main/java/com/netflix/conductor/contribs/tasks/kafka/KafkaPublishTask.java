@@ -16,11 +16,19 @@ import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
@@ -31,9 +39,15 @@ import org.apache.kafka.common.serialization.LongSerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.core.execution.WorkflowExecutor;
+import com.netflix.conductor.core.execution.tasks.NonBlockingCompletion;
 import com.netflix.conductor.core.execution.tasks.WorkflowSystemTask;
 import com.netflix.conductor.core.utils.Utils;
 import com.netflix.conductor.model.TaskModel;
@@ -41,6 +55,7 @@ import com.netflix.conductor.model.WorkflowModel;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
+import jakarta.annotation.PreDestroy;
 
 import static com.netflix.conductor.common.metadata.tasks.TaskType.TASK_TYPE_KAFKA_PUBLISH;
 
@@ -64,13 +79,66 @@ public class KafkaPublishTask extends WorkflowSystemTask {
     private final ObjectMapper objectMapper;
     private final String requestParameter;
     private final KafkaProducerManager producerManager;
+    private final ScheduledExecutorService callbackExecutor;
+    private final NonBlockingCompletion nonBlockingCompletion;
 
     public KafkaPublishTask(KafkaProducerManager clientManager, ObjectMapper objectMapper) {
+        this(clientManager, objectMapper, false, 0);
+    }
+
+    /**
+     * @param nonBlocking when true, the tasks that are not asyncComplete do not wait for the
+     *     acknowledgement of their message, they are completed from the send callbacks
+     * @param callbackThreadCount number of threads completing the tasks in non-blocking mode, the
+     *     systemTaskWorkerThreadCount when not positive
+     */
+    @Autowired
+    public KafkaPublishTask(
+            KafkaProducerManager clientManager,
+            ObjectMapper objectMapper,
+            ConductorProperties properties,
+            @Value("${conductor.tasks.kafka-publish.nonBlocking.enabled:false}")
+                    boolean nonBlocking,
+            @Value("${conductor.tasks.kafka-publish.nonBlocking.callbackThreadCount:0}")
+                    int callbackThreadCount) {
+        // each callback thread runs the decide of the workflow it completes a task of, as many as
+        // the system task workers which would have done it in blocking mode
+        this(
+                clientManager,
+                objectMapper,
+                nonBlocking,
+                callbackThreadCount > 0
+                        ? callbackThreadCount
+                        : properties.getSystemTaskWorkerThreadCount());
+    }
+
+    /**
+     * @param nonBlocking when true, the tasks that are not asyncComplete do not wait for the
+     *     acknowledgement of their message, they are completed from the send callbacks
+     * @param callbackThreadCount number of threads completing the tasks in non-blocking mode
+     */
+    public KafkaPublishTask(
+            KafkaProducerManager clientManager,
+            ObjectMapper objectMapper,
+            boolean nonBlocking,
+            int callbackThreadCount) {
         super(TASK_TYPE_KAFKA_PUBLISH);
         this.requestParameter = REQUEST_PARAMETER_NAME;
         this.producerManager = clientManager;
         this.objectMapper = objectMapper;
-        LOGGER.info("KafkaTask initialized.");
+        if (nonBlocking) {
+            CustomizableThreadFactory threadFactory =
+                    new CustomizableThreadFactory("kafka-publish-callback-");
+            threadFactory.setDaemon(true);
+            this.callbackExecutor =
+                    Executors.newScheduledThreadPool(callbackThreadCount, threadFactory);
+            this.nonBlockingCompletion =
+                    new NonBlockingCompletion(TASK_TYPE_KAFKA_PUBLISH, callbackExecutor);
+        } else {
+            this.callbackExecutor = null;
+            this.nonBlockingCompletion = null;
+        }
+        LOGGER.info("KafkaTask initialized{}.", nonBlocking ? " in non-blocking mode" : "");
     }
 
     @Override
@@ -102,10 +170,19 @@ public class KafkaPublishTask extends WorkflowSystemTask {
             return;
         }
 
+        if (isNonBlocking(task)) {
+            startNonBlocking(task, input, executor);
+            return;
+        }
+
         try {
-            Future<RecordMetadata> recordMetaDataFuture = kafkaPublish(input);
+            Future<RecordMetadata> recordMetaDataFuture = kafkaPublish(input, null);
             try {
-                recordMetaDataFuture.get();
+                if (Objects.isNull(input.getRequestTimeoutMs())) {
+                    recordMetaDataFuture.get();
+                } else {
+                    recordMetaDataFuture.get(input.getRequestTimeoutMs(), TimeUnit.MILLISECONDS);
+                }
                 if (isAsyncComplete(task)) {
                     task.setStatus(TaskModel.Status.IN_PROGRESS);
                 } else {
@@ -120,6 +197,12 @@ public class KafkaPublishTask extends WorkflowSystemTask {
                         task.getTaskId(),
                         ec);
                 markTaskAsFailed(task, FAILED_TO_INVOKE + ec.getMessage());
+            } catch (TimeoutException te) {
+                LOGGER.error(
+                        "Failed to invoke kafka task: {} - no acknowledgement in {} ms",
+                        task.getTaskId(),
+                        input.getRequestTimeoutMs());
+                markTaskAsFailed(task, timedOut(input));
             }
         } catch (Exception e) {
             LOGGER.error(
@@ -136,12 +219,97 @@ public class KafkaPublishTask extends WorkflowSystemTask {
         task.setStatus(TaskModel.Status.FAILED);
     }
 
+    private boolean isNonBlocking(TaskModel task) {
+        return callbackExecutor != null && !isAsyncComplete(task);
+    }
+
+    /**
+     * Sends the message and leaves the task IN_PROGRESS, the acknowledgement completes the task
+     * through the {@link NonBlockingCompletion}. The requestTimeoutMs of the input fails the task
+     * if the acknowledgement is late.
+     */
+    private void startNonBlocking(TaskModel task, Input input, WorkflowExecutor executor) {
+        TaskResult taskResult =
+                nonBlockingCompletion.start(
+                        task, producerManager.getTimeoutMillis(input), executor);
+
+        // whichever of the acknowledgement and the timeout comes first completes the task
+        AtomicBoolean done = new AtomicBoolean();
+        ScheduledFuture<?> timeout =
+                Objects.isNull(input.getRequestTimeoutMs())
+                        ? null
+                        : callbackExecutor.schedule(
+                                () -> {
+                                    if (done.compareAndSet(false, true)) {
+                                        taskResult.setStatus(TaskResult.Status.FAILED);
+                                        taskResult.setReasonForIncompletion(timedOut(input));
+                                        nonBlockingCompletion.complete(taskResult);
+                                    }
+                                },
+                                input.getRequestTimeoutMs(),
+                                TimeUnit.MILLISECONDS);
+        Callback callback =
+                (metadata, exception) -> {
+                    if (!done.compareAndSet(false, true)) {
+                        return;
+                    }
+                    if (timeout != null) {
+                        timeout.cancel(false);
+                    }
+                    if (exception != null) {
+                        LOGGER.error(
+                                "Failed to invoke kafka task: {} - send exception",
+                                taskResult.getTaskId(),
+                                exception);
+                        taskResult.setStatus(TaskResult.Status.FAILED);
+                        taskResult.setReasonForIncompletion(
+                                FAILED_TO_INVOKE + exception.getMessage());
+                    } else {
+                        taskResult.setStatus(TaskResult.Status.COMPLETED);
+                    }
+                    // the callback runs on the I/O thread of the producer, the task is updated on
+                    // the callback executor
+                    nonBlockingCompletion.complete(taskResult);
+                };
+
+        try {
+            kafkaPublish(input, callback);
+        } catch (Exception e) {
+            if (done.compareAndSet(false, true)) {
+                if (timeout != null) {
+                    timeout.cancel(false);
+                }
+                LOGGER.error(
+                        "Failed to invoke kafka task:{} for input {} - unknown exception",
+                        task.getTaskId(),
+                        input,
+                        e);
+                nonBlockingCompletion.abandon(task);
+                markTaskAsFailed(task, FAILED_TO_INVOKE + e.getMessage());
+            }
+        }
+    }
+
+    private Optional<Input> getInput(TaskModel task) {
+        return Optional.ofNullable(task.getInputData().get(requestParameter))
+                .map(request -> objectMapper.convertValue(request, Input.class));
+    }
+
+    private static String timedOut(Input input) {
+        return FAILED_TO_INVOKE
+                + "no acknowledgement received within "
+                + input.getRequestTimeoutMs()
+                + " ms";
+    }
+
     /**
      * @param input Kafka Request
+     * @param callback called on the I/O thread of the producer with the result of the send, if not
+     *     null
      * @return Future for execution.
      */
     @SuppressWarnings({"unchecked", "rawtypes"})
-    private Future<RecordMetadata> kafkaPublish(Input input) throws Exception {
+    private Future<RecordMetadata> kafkaPublish(Input input, Callback callback) throws Exception {
 
         long startPublishingEpochMillis = Instant.now().toEpochMilli();
 
@@ -170,7 +338,7 @@ public class KafkaPublishTask extends WorkflowSystemTask {
                         objectMapper.writeValueAsString(input.getValue()),
                         headers);
 
-        Future send = producer.send(rec);
+        Future send = callback == null ? producer.send(rec) : producer.send(rec, callback);
 
         long timeTakenToPublish = Instant.now().toEpochMilli() - startPublishingEpochMillis;
 
@@ -194,7 +362,34 @@ public class KafkaPublishTask extends WorkflowSystemTask {
 
     @Override
     public boolean execute(WorkflowModel workflow, TaskModel task, WorkflowExecutor executor) {
-        return false;
+        if (!isNonBlocking(task) || task.getStatus() != TaskModel.Status.IN_PROGRESS) {
+            return false;
+        }
+        Optional<Input> input = getInput(task);
+        if (input.isPresent()
+                && !nonBlockingCompletion.isOverdue(
+                        task, producerManager.getTimeoutMillis(input.get()))) {
+            return false;
+        }
+        markTaskAsFailed(task, "No acknowledgement received for the kafka task message");
+        return true;
+    }
+
+    @Override
+    public Optional<Long> getEvaluationOffset(TaskModel taskModel, long maxOffset) {
+        if (!isNonBlocking(taskModel) || taskModel.getStatus() != TaskModel.Status.IN_PROGRESS) {
+            return Optional.empty();
+        }
+        // check again once the acknowledgement is overdue, the callback completes the task before
+        long timeoutMillis = getInput(taskModel).map(producerManager::getTimeoutMillis).orElse(0L);
+        return nonBlockingCompletion.getEvaluationOffset(taskModel, timeoutMillis, maxOffset);
+    }
+
+    @Override
+    public void taskWritten(TaskModel task) {
+        if (nonBlockingCompletion != null) {
+            nonBlockingCompletion.taskWritten(task);
+        }
     }
 
     @Override
@@ -207,6 +402,13 @@ public class KafkaPublishTask extends WorkflowSystemTask {
         return true;
     }
 
+    @PreDestroy
+    public void close() {
+        if (callbackExecutor != null) {
+            callbackExecutor.shutdown();
+        }
+    }
+
     public static class Input {
 
         public static final String STRING_SERIALIZER = StringSerializer.class.getCanonicalName();
@@ -21,6 +21,7 @@ import org.apache.kafka.common.serialization.LongSerializer;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -42,7 +43,7 @@ public class KafkaProducerManagerTest {
     }
 
     @Test
-    public void testRequestTimeoutSetFromInput() {
+    public void testRequestTimeoutFromInputAppliesToTheRecord() {
         KafkaProducerManager manager =
                 new KafkaProducerManager(
                         Duration.ofMillis(100),
@@ -52,7 +53,46 @@ public class KafkaProducerManagerTest {
         KafkaPublishTask.Input input = getInput();
         input.setRequestTimeoutMs(200);
         Properties props = manager.getProducerProperties(input);
-        assertEquals(props.getProperty(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG), "200");
+        assertEquals(props.getProperty(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG), "100");
+        assertEquals(200, manager.getTimeoutMillis(input));
+    }
+
+    @Test
+    public void testRecordTimeoutFromConfig() {
+        KafkaProducerManager manager =
+                new KafkaProducerManager(
+                        Duration.ofMillis(100),
+                        Duration.ofMillis(500),
+                        10,
+                        Duration.ofMillis(120000),
+                        Duration.ofMillis(5),
+                        Duration.ofSeconds(30));
+        KafkaPublishTask.Input input = getInput();
+        Properties props = manager.getProducerProperties(input);
+        assertEquals(props.getProperty(ProducerConfig.LINGER_MS_CONFIG), "5");
+        assertEquals(props.getProperty(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG), "30000");
+        assertEquals(30500, manager.getTimeoutMillis(input));
+    }
+
+    @Test
+    public void testProducerSharedByTheTasksOfACluster() {
+        KafkaProducerManager manager =
+                new KafkaProducerManager(
+                        Duration.ofMillis(100),
+                        Duration.ofMillis(500),
+                        10,
+                        Duration.ofMillis(120000));
+        KafkaPublishTask.Input input = getInput();
+        input.setBootStrapServers("broker1:9092,broker2:9092");
+        KafkaPublishTask.Input other = getInput();
+        other.setBootStrapServers(" broker2:9092, broker1:9092");
+        other.setRequestTimeoutMs(200);
+        other.setMaxBlockMs(600);
+        other.setTopic("otherTopic");
+        assertEquals(manager.getProducerProperties(input), manager.getProducerProperties(other));
+
+        other.setBootStrapServers("broker3:9092");
+        assertNotEquals(manager.getProducerProperties(input), manager.getProducerProperties(other));
     }
 
     @Test
@@ -111,7 +151,7 @@ public class KafkaProducerManagerTest {
     }
 
     @Test
-    public void testMaxBlockMsFromInput() {
+    public void testMaxBlockMsNotSetFromInput() {
         KafkaProducerManager manager =
                 new KafkaProducerManager(
                         Duration.ofMillis(150),
@@ -121,7 +161,7 @@ public class KafkaProducerManagerTest {
         KafkaPublishTask.Input input = getInput();
         input.setMaxBlockMs(600);
         Properties props = manager.getProducerProperties(input);
-        assertEquals(props.getProperty(ProducerConfig.MAX_BLOCK_MS_CONFIG), "600");
+        assertEquals(props.getProperty(ProducerConfig.MAX_BLOCK_MS_CONFIG), "500");
     }
 
     private KafkaPublishTask.Input getInput() {
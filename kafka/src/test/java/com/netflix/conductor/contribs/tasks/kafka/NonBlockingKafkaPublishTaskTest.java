@@ -0,0 +1,239 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.contribs.tasks.kafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.core.execution.WorkflowExecutor;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class NonBlockingKafkaPublishTaskTest {
+
+    private static final String TOPIC = "nonBlockingTopic";
+    private static final int CALLBACK_THREADS = 1;
+
+    @ClassRule
+    public static KafkaContainer kafka =
+            new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.4.0"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WorkflowModel workflow = new WorkflowModel();
+
+    private KafkaProducerManager producerManager;
+    private KafkaPublishTask kafkaPublishTask;
+    private WorkflowExecutor workflowExecutor;
+
+    @Before
+    public void setUp() {
+        producerManager =
+                new KafkaProducerManager(
+                        Duration.ofSeconds(5),
+                        Duration.ofSeconds(5),
+                        10,
+                        Duration.ofMinutes(2),
+                        Duration.ofMillis(20),
+                        Duration.ofSeconds(30));
+        kafkaPublishTask =
+                new KafkaPublishTask(producerManager, objectMapper, true, CALLBACK_THREADS);
+        workflowExecutor = mock(WorkflowExecutor.class);
+    }
+
+    @After
+    public void tearDown() {
+        kafkaPublishTask.close();
+    }
+
+    private TaskModel startTask(String taskId, String bootstrapServers, Object value) {
+        KafkaPublishTask.Input input = new KafkaPublishTask.Input();
+        input.setBootStrapServers(bootstrapServers);
+        input.setTopic(TOPIC);
+        input.setKey(taskId);
+        input.setValue(value);
+        TaskModel task = new TaskModel();
+        task.setTaskId(taskId);
+        task.setWorkflowInstanceId("workflowId");
+        task.setStatus(TaskModel.Status.SCHEDULED);
+        task.setStartTime(System.currentTimeMillis());
+        task.getInputData().put(KafkaPublishTask.REQUEST_PARAMETER_NAME, input);
+        return task;
+    }
+
+    @Test
+    public void completesTheTaskWithTheAcknowledgement() {
+        TaskModel task = startTask("task", kafka.getBootstrapServers(), Map.of("key", "value"));
+
+        kafkaPublishTask.start(workflow, task, workflowExecutor);
+        assertEquals(TaskModel.Status.IN_PROGRESS, task.getStatus());
+        kafkaPublishTask.taskWritten(task);
+
+        ArgumentCaptor<TaskResult> captor = ArgumentCaptor.forClass(TaskResult.class);
+        verify(workflowExecutor, timeout(10000)).updateTask(captor.capture());
+        TaskResult result = captor.getValue();
+        assertEquals("task", result.getTaskId());
+        assertEquals("workflowId", result.getWorkflowInstanceId());
+        assertEquals(TaskResult.Status.COMPLETED, result.getStatus());
+
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "completesTheTask");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, String> consumer =
+                new KafkaConsumer<>(props, new StringDeserializer(), new StringDeserializer())) {
+            consumer.subscribe(List.of(TOPIC));
+            List<ConsumerRecord<String, String>> records = new ArrayList<>();
+            long deadline = System.currentTimeMillis() + 10000;
+            while (records.isEmpty() && System.currentTimeMillis() < deadline) {
+                consumer.poll(Duration.ofMillis(500)).forEach(records::add);
+            }
+            assertTrue(
+                    records.stream()
+                            .anyMatch(
+                                    record ->
+                                            record.key().equals("task")
+                                                    && record.value()
+                                                            .equals("{\"key\":\"value\"}")));
+        }
+    }
+
+    @Test
+    public void waitsForTheStartToBeWritten() {
+        TaskModel task = startTask("task", kafka.getBootstrapServers(), "value");
+
+        kafkaPublishTask.start(workflow, task, workflowExecutor);
+        verify(workflowExecutor, after(2000).never()).updateTask(any());
+
+        kafkaPublishTask.taskWritten(task);
+        verify(workflowExecutor, timeout(10000)).updateTask(any());
+        verify(workflowExecutor, never()).getTask(any());
+    }
+
+    @Test
+    public void sharesTheProducerOfTheCluster() {
+        // warm up the producer, so the metadata of the topic is known
+        TaskModel first = startTask("first", kafka.getBootstrapServers(), "value");
+        kafkaPublishTask.start(workflow, first, workflowExecutor);
+        kafkaPublishTask.taskWritten(first);
+        verify(workflowExecutor, timeout(10000)).updateTask(any());
+
+        int tasks = 100;
+        List<TaskModel> started = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            // the same servers in another order, and another timeout, share the producer
+            TaskModel task = startTask("task" + i, " " + kafka.getBootstrapServers(), "value" + i);
+            ((KafkaPublishTask.Input)
+                            task.getInputData().get(KafkaPublishTask.REQUEST_PARAMETER_NAME))
+                    .setRequestTimeoutMs(10000 + i);
+            started.add(task);
+        }
+
+        started.forEach(task -> kafkaPublishTask.start(workflow, task, workflowExecutor));
+        started.forEach(kafkaPublishTask::taskWritten);
+        // none of the tasks waited for its acknowledgement
+        assertTrue(
+                started.stream()
+                        .allMatch(task -> task.getStatus() == TaskModel.Status.IN_PROGRESS));
+
+        ArgumentCaptor<TaskResult> captor = ArgumentCaptor.forClass(TaskResult.class);
+        verify(workflowExecutor, timeout(10000).times(tasks + 1)).updateTask(captor.capture());
+        assertTrue(
+                captor.getAllValues().stream()
+                        .allMatch(result -> result.getStatus() == TaskResult.Status.COMPLETED));
+        assertSame(
+                producerManager.getProducer(
+                        (KafkaPublishTask.Input)
+                                first.getInputData().get(KafkaPublishTask.REQUEST_PARAMETER_NAME)),
+                producerManager.getProducer(
+                        (KafkaPublishTask.Input)
+                                started.get(0)
+                                        .getInputData()
+                                        .get(KafkaPublishTask.REQUEST_PARAMETER_NAME)));
+    }
+
+    @Test
+    public void failsTheTaskWhenTheAcknowledgementIsLate() {
+        // nothing listens on the port, the send waits for the metadata of the topic
+        TaskModel task = startTask("task", "localhost:1", "value");
+        ((KafkaPublishTask.Input) task.getInputData().get(KafkaPublishTask.REQUEST_PARAMETER_NAME))
+                .setRequestTimeoutMs(100);
+
+        kafkaPublishTask.start(workflow, task, workflowExecutor);
+        kafkaPublishTask.taskWritten(task);
+
+        ArgumentCaptor<TaskResult> captor = ArgumentCaptor.forClass(TaskResult.class);
+        verify(workflowExecutor, timeout(10000)).updateTask(captor.capture());
+        assertEquals(TaskResult.Status.FAILED, captor.getValue().getStatus());
+        assertEquals(
+                "Failed to invoke kafka task due to: no acknowledgement received within 100 ms",
+                captor.getValue().getReasonForIncompletion());
+    }
+
+    @Test
+    public void retriesTheUpdateOfTheTask() {
+        TaskModel task = startTask("task", "localhost:1", "value");
+        ((KafkaPublishTask.Input) task.getInputData().get(KafkaPublishTask.REQUEST_PARAMETER_NAME))
+                .setRequestTimeoutMs(100);
+        when(workflowExecutor.updateTask(any()))
+                .thenThrow(new RuntimeException("unavailable"))
+                .thenThrow(new RuntimeException("unavailable"))
+                .thenReturn(null);
+
+        kafkaPublishTask.start(workflow, task, workflowExecutor);
+        kafkaPublishTask.taskWritten(task);
+
+        ArgumentCaptor<TaskResult> captor = ArgumentCaptor.forClass(TaskResult.class);
+        verify(workflowExecutor, timeout(10000).times(3)).updateTask(captor.capture());
+        assertTrue(
+                captor.getAllValues().stream()
+                        .allMatch(result -> result.getStatus() == TaskResult.Status.FAILED));
+    }
+
+    @Test
+    public void failsTheTaskWhenTheAcknowledgementIsOverdue() {
+        TaskModel task = startTask("task", kafka.getBootstrapServers(), "value");
+        task.setStatus(TaskModel.Status.IN_PROGRESS);
+
+        assertFalse(kafkaPublishTask.execute(workflow, task, workflowExecutor));
+        assertEquals(TaskModel.Status.IN_PROGRESS, task.getStatus());
+        assertTrue(kafkaPublishTask.getEvaluationOffset(task, 30).orElseThrow() > 1);
+
+        task.setStartTime(System.currentTimeMillis() - 120_000);
+        assertTrue(kafkaPublishTask.execute(workflow, task, workflowExecutor));
+        assertEquals(TaskModel.Status.FAILED, task.getStatus());
+        verify(workflowExecutor, never()).updateTask(any());
+    }
+}
@@ -122,6 +122,13 @@ public class MySQLQueueDAO extends MySQLBaseDAO implements QueueDAO {
         withTransaction(tx -> removeMessage(tx, queueName, messageId));
     }
 
+    @Override
+    public void remove(String queueName, List<String> messageIds) {
+        if (!messageIds.isEmpty()) {
+            withTransaction(tx -> removeMessages(tx, queueName, messageIds));
+        }
+    }
+
     @Override
     public int getSize(String queueName) {
         final String GET_QUEUE_SIZE = "SELECT COUNT(*) FROM queue_message WHERE queue_name = ?";
@@ -134,6 +141,14 @@ public class MySQLQueueDAO extends MySQLBaseDAO implements QueueDAO {
         return getWithRetriedTransactions(tx -> removeMessage(tx, queueName, messageId));
     }
 
+    @Override
+    public int ack(String queueName, List<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return 0;
+        }
+        return getWithRetriedTransactions(tx -> removeMessages(tx, queueName, messageIds));
+    }
+
     @Override
     public boolean setUnackTimeout(String queueName, String messageId, long unackTimeout) {
         long updatedOffsetTimeInSecond = unackTimeout / 1000;
@@ -255,6 +270,31 @@ public class MySQLQueueDAO extends MySQLBaseDAO implements QueueDAO {
                                 == 1);
     }
 
+    /** Updates the messages in place, instead of removing them and pushing them back. */
+    @Override
+    public void postpone(
+            String queueName,
+            List<String> messageIds,
+            int priority,
+            long postponeDurationInSeconds) {
+        if (messageIds.isEmpty()) {
+            return;
+        }
+        final String POSTPONE_MESSAGES =
+                String.format(
+                        "UPDATE queue_message SET popped = false, priority = ?, offset_time_seconds = ?, deliver_on = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP) WHERE queue_name = ? AND message_id IN (%s)",
+                        Query.generateInBindings(messageIds.size()));
+        executeWithTransaction(
+                POSTPONE_MESSAGES,
+                q ->
+                        q.addParameter(priority)
+                                .addParameter(postponeDurationInSeconds)
+                                .addParameter(postponeDurationInSeconds)
+                                .addParameter(queueName)
+                                .addParameters(messageIds)
+                                .executeUpdate());
+    }
+
     private boolean existsMessage(Connection connection, String queueName, String messageId) {
         final String EXISTS_MESSAGE =
                 "SELECT EXISTS(SELECT 1 FROM queue_message WHERE queue_name = ? AND message_id = ?)";
@@ -313,6 +353,17 @@ public class MySQLQueueDAO extends MySQLBaseDAO implements QueueDAO {
                 q -> q.addParameter(queueName).addParameter(messageId).executeDelete());
     }
 
+    private int removeMessages(Connection connection, String queueName, List<String> messageIds) {
+        final String REMOVE_MESSAGES =
+                String.format(
+                        "DELETE FROM queue_message WHERE queue_name = ? AND message_id IN (%s)",
+                        Query.generateInBindings(messageIds.size()));
+        return query(
+                connection,
+                REMOVE_MESSAGES,
+                q -> q.addParameter(queueName).addParameters(messageIds).executeUpdate());
+    }
+
     private List<Message> peekMessages(Connection connection, String queueName, int count) {
         if (count < 1) {
             return Collections.emptyList();
@@ -262,6 +262,47 @@ public class Query implements AutoCloseable {
         return executeScalar(Long.class);
     }
 
+    /**
+     * Adds the parameters bound so far as one set of the batch, and starts binding the next set.
+     *
+     * @return {@literal this}
+     * @see #executeBatch()
+     */
+    public Query addBatch() {
+        try {
+            this.statement.addBatch();
+            this.index.set(1);
+            return this;
+        } catch (SQLException ex) {
+            throw new NonTransientException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * @return The result of {@link PreparedStatement#executeBatch()}, the update count of every set
+     *     of parameters added with {@link #addBatch()}
+     */
+    public int[] executeBatch() {
+        try {
+
+            Long start = null;
+            if (logger.isTraceEnabled()) {
+                start = System.currentTimeMillis();
+            }
+
+            final int[] val = this.statement.executeBatch();
+
+            if (null != start && logger.isTraceEnabled()) {
+                long end = System.currentTimeMillis();
+                logger.trace("[{}ms] batch of {}: {}", (end - start), val.length, rawQuery);
+            }
+
+            return val;
+        } catch (SQLException ex) {
+            throw new NonTransientException(ex.getMessage(), ex);
+        }
+    }
+
     /**
      * @return The result of {@link PreparedStatement#executeUpdate()}
      */
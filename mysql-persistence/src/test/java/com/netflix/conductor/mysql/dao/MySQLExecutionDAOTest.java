@@ -14,13 +14,17 @@ package com.netflix.conductor.mysql.dao;
 
 import java.util.List;
 
+import javax.sql.DataSource;
+
 import org.flywaydb.core.Flyway;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -28,9 +32,12 @@ import com.netflix.conductor.common.config.TestObjectMapperConfiguration;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
 import com.netflix.conductor.dao.ExecutionDAO;
 import com.netflix.conductor.dao.ExecutionDAOTest;
+import com.netflix.conductor.dao.UnknownUpdateCountsDataSource;
 import com.netflix.conductor.model.WorkflowModel;
 import com.netflix.conductor.mysql.config.MySQLConfiguration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
@@ -48,6 +55,14 @@ public class MySQLExecutionDAOTest extends ExecutionDAOTest {
 
     @Autowired Flyway flyway;
 
+    @Autowired
+    @Qualifier("mysqlRetryTemplate")
+    private RetryTemplate retryTemplate;
+
+    @Autowired private ObjectMapper objectMapper;
+
+    @Autowired private DataSource dataSource;
+
     // clean the database between tests.
     @Before
     public void before() {
@@ -55,6 +70,16 @@ public class MySQLExecutionDAOTest extends ExecutionDAOTest {
         flyway.migrate();
     }
 
+    @Test
+    public void testUpdateTasksWithUnknownUpdateCounts() {
+        // the tasks of the batch whose update is not reported go through the upsert
+        testUpdateTasks(
+                new MySQLExecutionDAO(
+                        retryTemplate,
+                        objectMapper,
+                        UnknownUpdateCountsDataSource.wrap(dataSource)));
+    }
+
     @Test
     public void testPendingByCorrelationId() {
 
@@ -19,8 +19,10 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpEntity;
@@ -31,24 +33,31 @@ import org.apache.http.nio.entity.NStringEntity;
 import org.apache.http.util.EntityUtils;
 import org.joda.time.DateTime;
 import org.opensearch.action.DocWriteResponse;
+import org.opensearch.action.bulk.BulkItemResponse;
 import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
 import org.opensearch.action.delete.DeleteRequest;
 import org.opensearch.action.delete.DeleteResponse;
 import org.opensearch.action.get.GetRequest;
 import org.opensearch.action.get.GetResponse;
 import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.search.CreatePitRequest;
+import org.opensearch.action.search.DeletePitRequest;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.action.update.UpdateRequest;
 import org.opensearch.client.*;
 import org.opensearch.client.core.CountRequest;
 import org.opensearch.client.core.CountResponse;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.rest.RestStatus;
 import org.opensearch.index.query.BoolQueryBuilder;
 import org.opensearch.index.query.QueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.search.SearchHit;
 import org.opensearch.search.SearchHits;
+import org.opensearch.search.builder.PointInTimeBuilder;
 import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.search.sort.FieldSortBuilder;
 import org.opensearch.search.sort.SortOrder;
@@ -65,8 +74,13 @@ import com.netflix.conductor.common.run.WorkflowSummary;
 import com.netflix.conductor.core.events.queue.Message;
 import com.netflix.conductor.core.exception.NonTransientException;
 import com.netflix.conductor.core.exception.TransientException;
+import com.netflix.conductor.core.index.BulkIndexer;
+import com.netflix.conductor.core.index.SearchCursor;
+import com.netflix.conductor.core.index.SummaryDocuments;
 import com.netflix.conductor.dao.IndexDAO;
 import com.netflix.conductor.metrics.Monitors;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
 import com.netflix.conductor.os.config.OpenSearchProperties;
 import com.netflix.conductor.os.dao.query.parser.internal.ParserException;
 
@@ -88,6 +102,9 @@ public class OpenSearchRestDAO extends OpenSearchBaseDAO implements IndexDAO {
 
     private static final int CORE_POOL_SIZE = 6;
     private static final long KEEP_ALIVE_TIME = 1L;
+    private static final int BULK_INDEX_THREAD_COUNT = 2;
+    private static final int STREAM_PAGE_SIZE = 1000;
+    private static final TimeValue STREAM_KEEP_ALIVE = TimeValue.timeValueMinutes(5);
 
     private static final String WORKFLOW_DOC_TYPE = "workflow";
     private static final String TASK_DOC_TYPE = "task";
@@ -127,6 +144,7 @@ public class OpenSearchRestDAO extends OpenSearchBaseDAO implements IndexDAO {
     private final int asyncBufferFlushTimeout;
     private final OpenSearchProperties properties;
     private final RetryTemplate retryTemplate;
+    private final BulkIndexer bulkIndexer;
 
     static {
         SIMPLE_DATE_FORMAT.setTimeZone(GMT);
@@ -196,6 +214,18 @@ public class OpenSearchRestDAO extends OpenSearchBaseDAO implements IndexDAO {
         Executors.newSingleThreadScheduledExecutor()
                 .scheduleAtFixedRate(this::flushBulkRequests, 60, 30, TimeUnit.SECONDS);
         this.retryTemplate = retryTemplate;
+
+        // Set up the bulk requests of the async workflow and task indexing.
+        this.bulkIndexer =
+                new BulkIndexer(
+                        "os-bulk-index",
+                        BULK_INDEX_THREAD_COUNT,
+                        this::indexBulk,
+                        properties.getBulkIndexMaxActions(),
+                        properties.getBulkIndexMaxSize().toBytes(),
+                        properties.getBulkIndexFlushInterval(),
+                        properties.getBulkIndexMaxPendingDocuments(),
+                        properties.getBulkIndexMaxRetries());
     }
 
     @PreDestroy
@@ -203,6 +233,7 @@ public class OpenSearchRestDAO extends OpenSearchBaseDAO implements IndexDAO {
         logger.info("Gracefully shutdown executor service");
         shutdownExecutorService(logExecutorService);
         shutdownExecutorService(executorService);
+        bulkIndexer.shutdown();
     }
 
     private void shutdownExecutorService(ExecutorService execService) {
@@ -511,7 +542,23 @@ public class OpenSearchRestDAO extends OpenSearchBaseDAO implements IndexDAO {
 
     @Override
     public CompletableFuture<Void> asyncIndexWorkflow(WorkflowSummary workflow) {
-        return CompletableFuture.runAsync(() -> indexWorkflow(workflow), executorService);
+        return indexAsync(workflowIndexName, WORKFLOW_DOC_TYPE, workflow.getWorkflowId(), workflow);
+    }
+
+    @Override
+    public CompletableFuture<Void> asyncIndexWorkflow(WorkflowModel workflow) {
+        byte[] docBytes;
+        try {
+            docBytes = SummaryDocuments.workflowSummary(workflow);
+        } catch (IOException e) {
+            logger.error(
+                    "Failed to convert {} '{}' to byte string",
+                    WORKFLOW_DOC_TYPE,
+                    workflow.getWorkflowId());
+            return CompletableFuture.failedFuture(e);
+        }
+        return bulkIndexer.index(
+                workflowIndexName, WORKFLOW_DOC_TYPE, workflow.getWorkflowId(), docBytes);
     }
 
     @Override
@@ -537,7 +584,20 @@ public class OpenSearchRestDAO extends OpenSearchBaseDAO implements IndexDAO {
 
     @Override
     public CompletableFuture<Void> asyncIndexTask(TaskSummary task) {
-        return CompletableFuture.runAsync(() -> indexTask(task), executorService);
+        return indexAsync(taskIndexName, TASK_DOC_TYPE, task.getTaskId(), task);
+    }
+
+    @Override
+    public CompletableFuture<Void> asyncIndexTask(TaskModel task) {
+        byte[] docBytes;
+        try {
+            docBytes = SummaryDocuments.taskSummary(task);
+        } catch (IOException e) {
+            logger.error(
+                    "Failed to convert {} '{}' to byte string", TASK_DOC_TYPE, task.getTaskId());
+            return CompletableFuture.failedFuture(e);
+        }
+        return bulkIndexer.index(taskIndexName, TASK_DOC_TYPE, task.getTaskId(), docBytes);
     }
 
     @Override
@@ -796,6 +856,86 @@ public class OpenSearchRestDAO extends OpenSearchBaseDAO implements IndexDAO {
                 getIndexName(docType), queryBuilder, start, size, sortOptions, idOnly, clazz);
     }
 
+    /**
+     * Pages through a point in time of the workflow index with {@code search_after}, the workflow
+     * id breaking the ties of the sort options.
+     */
+    @Override
+    public Stream<String> streamWorkflows(String query, String freeText, List<String> sort) {
+        QueryBuilder queryBuilder;
+        try {
+            queryBuilder = boolQueryBuilder(query, freeText);
+        } catch (ParserException e) {
+            throw new NonTransientException(e.getMessage(), e);
+        }
+        // opened with the first page, so that a stream never consumed holds no point in time
+        AtomicReference<String> pointInTimeId = new AtomicReference<>();
+        return new SearchCursor<Object[]>(
+                        new Object[0],
+                        searchAfter -> {
+                            if (pointInTimeId.get() == null) {
+                                pointInTimeId.set(openPointInTime());
+                            }
+                            SearchSourceBuilder searchSourceBuilder =
+                                    new SearchSourceBuilder()
+                                            .query(queryBuilder)
+                                            .size(STREAM_PAGE_SIZE)
+                                            .fetchSource(false)
+                                            .pointInTimeBuilder(
+                                                    new PointInTimeBuilder(pointInTimeId.get())
+                                                            .setKeepAlive(STREAM_KEEP_ALIVE));
+                            addSortOptions(searchSourceBuilder, sort);
+                            searchSourceBuilder.sort(
+                                    new FieldSortBuilder("workflowId").order(SortOrder.ASC));
+                            if (searchAfter.length > 0) {
+                                searchSourceBuilder.searchAfter(searchAfter);
+                            }
+                            SearchResponse response =
+                                    openSearchClient.search(
+                                            new SearchRequest().source(searchSourceBuilder),
+                                            RequestOptions.DEFAULT);
+                            if (response.pointInTimeId() != null) {
+                                pointInTimeId.set(response.pointInTimeId());
+                            }
+                            SearchHit[] hits = response.getHits().getHits();
+                            List<String> workflowIds = new ArrayList<>(hits.length);
+                            for (SearchHit hit : hits) {
+                                workflowIds.add(hit.getId());
+                            }
+                            return new SearchCursor.Page<>(
+                                    workflowIds,
+                                    hits.length < STREAM_PAGE_SIZE
+                                            ? null
+                                            : hits[hits.length - 1].getSortValues());
+                        })
+                .stream(
+                        () -> {
+                            if (pointInTimeId.get() != null) {
+                                closePointInTime(pointInTimeId.get());
+                            }
+                        });
+    }
+
+    private String openPointInTime() {
+        try {
+            return openSearchClient
+                    .createPit(
+                            new CreatePitRequest(STREAM_KEEP_ALIVE, false, workflowIndexName),
+                            RequestOptions.DEFAULT)
+                    .getId();
+        } catch (IOException e) {
+            throw new TransientException(e.getMessage(), e);
+        }
+    }
+
+    private void closePointInTime(String pointInTimeId) {
+        try {
+            openSearchClient.deletePit(new DeletePitRequest(pointInTimeId), RequestOptions.DEFAULT);
+        } catch (Exception e) {
+            logger.warn("Failed to close the point in time of the workflow search", e);
+        }
+    }
+
     @Override
     public SearchResult<String> searchTasks(
             String query, String freeText, int start, int count, List<String> sort) {
@@ -1026,6 +1166,22 @@ public class OpenSearchRestDAO extends OpenSearchBaseDAO implements IndexDAO {
                 getIndexName(docType), queryBuilder, start, size, sortOptions, false, clazz);
     }
 
+    private void addSortOptions(SearchSourceBuilder searchSourceBuilder, List<String> sortOptions) {
+        if (sortOptions != null && !sortOptions.isEmpty()) {
+
+            for (String sortOption : sortOptions) {
+                SortOrder order = SortOrder.ASC;
+                String field = sortOption;
+                int index = sortOption.indexOf(":");
+                if (index > 0) {
+                    field = sortOption.substring(0, index);
+                    order = SortOrder.valueOf(sortOption.substring(index + 1));
+                }
+                searchSourceBuilder.sort(new FieldSortBuilder(field).order(order));
+            }
+        }
+    }
+
     private SearchResult<String> searchObjectIds(
             String indexName, QueryBuilder queryBuilder, int start, int size) throws IOException {
         return searchObjectIds(indexName, queryBuilder, start, size, null);
@@ -1055,19 +1211,7 @@ public class OpenSearchRestDAO extends OpenSearchBaseDAO implements IndexDAO {
         searchSourceBuilder.from(start);
         searchSourceBuilder.size(size);
 
-        if (sortOptions != null && !sortOptions.isEmpty()) {
-
-            for (String sortOption : sortOptions) {
-                SortOrder order = SortOrder.ASC;
-                String field = sortOption;
-                int index = sortOption.indexOf(":");
-                if (index > 0) {
-                    field = sortOption.substring(0, index);
-                    order = SortOrder.valueOf(sortOption.substring(index + 1));
-                }
-                searchSourceBuilder.sort(new FieldSortBuilder(field).order(order));
-            }
-        }
+        addSortOptions(searchSourceBuilder, sortOptions);
 
         // Generate the actual request to send to ES.
         SearchRequest searchRequest = new SearchRequest(indexName);
@@ -1098,19 +1242,7 @@ public class OpenSearchRestDAO extends OpenSearchBaseDAO implements IndexDAO {
             searchSourceBuilder.fetchSource(false);
         }
 
-        if (sortOptions != null && !sortOptions.isEmpty()) {
-
-            for (String sortOption : sortOptions) {
-                SortOrder order = SortOrder.ASC;
-                String field = sortOption;
-                int index = sortOption.indexOf(":");
-                if (index > 0) {
-                    field = sortOption.substring(0, index);
-                    order = SortOrder.valueOf(sortOption.substring(index + 1));
-                }
-                searchSourceBuilder.sort(new FieldSortBuilder(field).order(order));
-            }
-        }
+        addSortOptions(searchSourceBuilder, sortOptions);
 
         // Generate the actual request to send to ES.
         SearchRequest searchRequest = new SearchRequest(indexName);
@@ -1230,6 +1362,49 @@ public class OpenSearchRestDAO extends OpenSearchBaseDAO implements IndexDAO {
         return workflowIds.getResults();
     }
 
+    /**
+     * Adds the document to the bulk requests of the index, a newer version of the document sent
+     * before the bulk request replaces it.
+     */
+    private CompletableFuture<Void> indexAsync(
+            String index, String docType, String docId, Object doc) {
+        byte[] docBytes;
+        try {
+            docBytes = objectMapper.writeValueAsBytes(doc);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to convert {} '{}' to byte string", docType, docId);
+            return CompletableFuture.failedFuture(e);
+        }
+        return bulkIndexer.index(index, docType, docId, docBytes);
+    }
+
+    private Map<String, BulkIndexer.Failure> indexBulk(
+            String index, Collection<BulkIndexer.Document> documents) throws IOException {
+        BulkRequest request = new BulkRequest();
+        for (BulkIndexer.Document document : documents) {
+            request.add(
+                    new IndexRequest(index)
+                            .id(document.getId())
+                            .source(document.getSource(), XContentType.JSON));
+        }
+        BulkResponse response = openSearchClient.bulk(request, RequestOptions.DEFAULT);
+        if (!response.hasFailures()) {
+            return Collections.emptyMap();
+        }
+        Map<String, BulkIndexer.Failure> failures = new HashMap<>();
+        for (BulkItemResponse item : response.getItems()) {
+            if (item.isFailed()) {
+                RestStatus status = item.getFailure().getStatus();
+                failures.put(
+                        item.getId(),
+                        new BulkIndexer.Failure(
+                                status == RestStatus.TOO_MANY_REQUESTS || status.getStatus() >= 500,
+                                item.getFailureMessage()));
+            }
+        }
+        return failures;
+    }
+
     private void indexObject(final String index, final String docType, final Object doc) {
         indexObject(index, docType, null, doc);
     }
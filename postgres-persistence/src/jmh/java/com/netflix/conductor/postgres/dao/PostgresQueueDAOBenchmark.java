@@ -0,0 +1,135 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.postgres.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.retry.support.RetryTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.netflix.conductor.common.config.ObjectMapperProvider;
+import com.netflix.conductor.postgres.config.PostgresConfiguration;
+import com.netflix.conductor.postgres.config.PostgresProperties;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Latency of {@link PostgresQueueDAO#pop(String, int, int)} and {@link
+ * PostgresQueueDAO#queuesDetail()} with {@code rows} messages spread over 100 queues, on the
+ * default schema and on the partitioned one ({@code conductor.postgres.partitionedQueues}). A fifth
+ * of the messages are popped and half of the others are postponed, like in a busy server. Needs
+ * Docker; loading the 50M rows takes several minutes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PostgresQueueDAOBenchmark {
+
+    private static final int QUEUE_COUNT = 100;
+
+    @Param({"1000000", "10000000", "50000000"})
+    private long rows;
+
+    @Param({"default", "partitioned"})
+    private String schema;
+
+    private PostgreSQLContainer<?> container;
+    private HikariDataSource dataSource;
+    private PostgresQueueDAO queueDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        container = new PostgreSQLContainer<>("postgres:11.15-alpine");
+        container.start();
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(container.getJdbcUrl());
+        dataSource.setUsername(container.getUsername());
+        dataSource.setPassword(container.getPassword());
+        dataSource.setAutoCommit(false);
+
+        PostgresProperties properties = new PostgresProperties();
+        properties.setPartitionedQueues("partitioned".equals(schema));
+        PostgresConfiguration configuration = new PostgresConfiguration(dataSource, properties);
+        configuration.flywayForPrimaryDb().migrate();
+        RetryTemplate retryTemplate = configuration.postgresRetryTemplate(properties);
+        queueDAO =
+                new PostgresQueueDAO(
+                        retryTemplate,
+                        new ObjectMapperProvider().getObjectMapper(),
+                        dataSource,
+                        properties);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            execute(
+                    connection,
+                    "INSERT INTO queue (queue_name) SELECT 'queue_' || i FROM generate_series(0, "
+                            + (QUEUE_COUNT - 1)
+                            + ") AS i");
+            execute(
+                    connection,
+                    "INSERT INTO queue_message (created_on, deliver_on, queue_name, message_id, priority, popped, offset_time_seconds, payload) "
+                            + "SELECT now(), now() + CASE WHEN i % 10 < 4 THEN interval '1 hour' ELSE interval '0' END, "
+                            + "'queue_' || (i % "
+                            + QUEUE_COUNT
+                            + "), 'message_' || i, i % 3, i % 10 >= 8, 0, NULL "
+                            + "FROM generate_series(1, "
+                            + rows
+                            + ") AS i");
+            execute(connection, "VACUUM ANALYZE");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        queueDAO.destroy();
+        dataSource.close();
+        container.stop();
+    }
+
+    @Benchmark
+    public List<String> pop() {
+        return queueDAO.pop("queue_0", 10, 0);
+    }
+
+    @Benchmark
+    public Map<String, Long> queuesDetail() {
+        return queueDAO.queuesDetail();
+    }
+
+    private static void execute(Connection connection, String sql) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.execute();
+        }
+    }
+}
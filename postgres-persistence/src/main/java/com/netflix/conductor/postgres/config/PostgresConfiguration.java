@@ -21,6 +21,7 @@ import javax.sql.DataSource;
 
 import org.flywaydb.core.Flyway;
 import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
@@ -31,6 +32,7 @@ import org.springframework.retry.backoff.NoBackOffPolicy;
 import org.springframework.retry.policy.SimpleRetryPolicy;
 import org.springframework.retry.support.RetryTemplate;
 
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
 import com.netflix.conductor.postgres.dao.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -65,6 +67,10 @@ public class PostgresConfiguration {
             locations.add("classpath:db/migration_postgres_notify");
         }
 
+        if (properties.isPartitionedQueues()) {
+            locations.add("classpath:db/migration_postgres_partitioned_queue");
+        }
+
         if (properties.isApplyDataMigrations()) {
             locations.add("classpath:db/migration_postgres_data");
         }
@@ -72,6 +78,10 @@ public class PostgresConfiguration {
         config.locations(locations.toArray(new String[0]));
 
         return config.configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .placeholders(
+                        Map.of(
+                                "queuePartitionCount",
+                                String.valueOf(properties.getQueuePartitionCount())))
                 .schemas(properties.getSchema())
                 .dataSource(dataSource)
                 .outOfOrder(true)
@@ -110,8 +120,14 @@ public class PostgresConfiguration {
     public PostgresQueueDAO postgresQueueDAO(
             @Qualifier("postgresRetryTemplate") RetryTemplate retryTemplate,
             ObjectMapper objectMapper,
-            PostgresProperties properties) {
-        return new PostgresQueueDAO(retryTemplate, objectMapper, dataSource, properties);
+            PostgresProperties properties,
+            ObjectProvider<QueueWakeupRegistry> queueWakeupRegistry) {
+        return new PostgresQueueDAO(
+                retryTemplate,
+                objectMapper,
+                dataSource,
+                properties,
+                queueWakeupRegistry.getIfAvailable());
     }
 
     @Bean
@@ -39,6 +39,20 @@ public class PostgresProperties {
 
     private boolean onlyIndexOnStatusChange = false;
 
+    /**
+     * Whether the queue messages are stored in a table hash partitioned by queue name, with the
+     * sizes of the queues maintained in counters. Disabling it afterwards does not undo the
+     * migration
+     */
+    private boolean partitionedQueues = false;
+
+    /** The number of partitions of the queue messages, when they are partitioned */
+    private int queuePartitionCount = 16;
+
+    /** The interval at which the changes of the queue sizes are added to their counters */
+    @DurationUnit(ChronoUnit.MILLIS)
+    private Duration queueCounterCompactionInterval = Duration.ofMillis(1000);
+
     /** The boolean indicating whether data migrations should be executed */
     private boolean applyDataMigrations = true;
 
@@ -157,4 +171,28 @@ public class PostgresProperties {
     public void setPollDataCacheValidityPeriod(Duration period) {
         this.pollDataCacheValidityPeriod = period;
     }
+
+    public boolean isPartitionedQueues() {
+        return partitionedQueues;
+    }
+
+    public void setPartitionedQueues(boolean partitionedQueues) {
+        this.partitionedQueues = partitionedQueues;
+    }
+
+    public int getQueuePartitionCount() {
+        return queuePartitionCount;
+    }
+
+    public void setQueuePartitionCount(int queuePartitionCount) {
+        this.queuePartitionCount = queuePartitionCount;
+    }
+
+    public Duration getQueueCounterCompactionInterval() {
+        return queueCounterCompactionInterval;
+    }
+
+    public void setQueueCounterCompactionInterval(Duration queueCounterCompactionInterval) {
+        this.queueCounterCompactionInterval = queueCounterCompactionInterval;
+    }
 }
@@ -14,6 +14,7 @@ package com.netflix.conductor.postgres.dao;
 
 import java.sql.Connection;
 import java.sql.Date;
+import java.sql.Statement;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.Executors;
@@ -176,6 +177,13 @@ public class PostgresExecutionDAO extends PostgresBaseDAO
         withTransaction(connection -> updateTask(connection, task));
     }
 
+    @Override
+    public void updateTasks(List<TaskModel> tasks) {
+        if (!tasks.isEmpty()) {
+            withTransaction(connection -> updateTasks(connection, tasks));
+        }
+    }
+
     /**
      * This is a dummy implementation and this feature is not for Postgres backed Conductor
      *
@@ -697,6 +705,110 @@ public class PostgresExecutionDAO extends PostgresBaseDAO
                 q -> q.addParameter(workflowType).addParameter(workflowId).executeDelete());
     }
 
+    /**
+     * Same writes as {@link #updateTask(Connection, TaskModel)}, each statement being sent once for
+     * all the tasks as a JDBC batch.
+     */
+    private void updateTasks(Connection connection, List<TaskModel> tasks) {
+        List<TaskModel> limitedTasks =
+                tasks.stream()
+                        .filter(
+                                task ->
+                                        task.getTaskDefinition()
+                                                .map(taskDef -> taskDef.concurrencyLimit() > 0)
+                                                .orElse(false))
+                        .collect(Collectors.toList());
+        if (!limitedTasks.isEmpty()) {
+            String UPDATE_IN_PROGRESS_TASK_STATUS =
+                    "UPDATE task_in_progress SET in_progress_status = ?, modified_on = CURRENT_TIMESTAMP "
+                            + "WHERE task_def_name = ? AND task_id = ?";
+            execute(
+                    connection,
+                    UPDATE_IN_PROGRESS_TASK_STATUS,
+                    q -> {
+                        for (TaskModel task : limitedTasks) {
+                            q.addParameter(task.getStatus() == TaskModel.Status.IN_PROGRESS)
+                                    .addParameter(task.getTaskDefName())
+                                    .addParameter(task.getTaskId())
+                                    .addBatch();
+                        }
+                        q.executeBatch();
+                    });
+        }
+
+        String UPDATE_TASK =
+                "UPDATE task SET json_data=?, modified_on=CURRENT_TIMESTAMP WHERE task_id=?";
+        int[] rowsUpdated =
+                query(
+                        connection,
+                        UPDATE_TASK,
+                        q -> {
+                            for (TaskModel task : tasks) {
+                                q.addJsonParameter(task).addParameter(task.getTaskId()).addBatch();
+                            }
+                            return q.executeBatch();
+                        });
+        List<TaskModel> newTasks = new ArrayList<>();
+        for (int i = 0; i < rowsUpdated.length; i++) {
+            // pgjdbc reports the count of each UPDATE, reWriteBatchedInserts only rewrites
+            // INSERTs, a count left unknown by a proxying driver is upserted all the same
+            if (rowsUpdated[i] == 0 || rowsUpdated[i] == Statement.SUCCESS_NO_INFO) {
+                newTasks.add(tasks.get(i));
+            }
+        }
+        if (!newTasks.isEmpty()) {
+            String INSERT_TASK =
+                    "INSERT INTO task (task_id, json_data, modified_on) VALUES (?, ?, CURRENT_TIMESTAMP) ON CONFLICT (task_id) DO UPDATE SET json_data=excluded.json_data, modified_on=excluded.modified_on";
+            execute(
+                    connection,
+                    INSERT_TASK,
+                    q -> {
+                        for (TaskModel task : newTasks) {
+                            q.addParameter(task.getTaskId()).addJsonParameter(task).addBatch();
+                        }
+                        q.executeBatch();
+                    });
+        }
+
+        List<TaskModel> terminalTasks =
+                tasks.stream()
+                        .filter(task -> task.getStatus() != null && task.getStatus().isTerminal())
+                        .collect(Collectors.toList());
+        if (!terminalTasks.isEmpty()) {
+            String REMOVE_IN_PROGRESS_TASK =
+                    "DELETE FROM task_in_progress WHERE task_def_name = ? AND task_id = ?";
+            execute(
+                    connection,
+                    REMOVE_IN_PROGRESS_TASK,
+                    q -> {
+                        for (TaskModel task : terminalTasks) {
+                            q.addParameter(task.getTaskDefName())
+                                    .addParameter(task.getTaskId())
+                                    .addBatch();
+                        }
+                        q.executeBatch();
+                    });
+        }
+
+        String INSERT_WORKFLOW_TO_TASK =
+                "INSERT INTO workflow_to_task (workflow_id, task_id) SELECT ?, ? WHERE NOT EXISTS "
+                        + "(SELECT 1 FROM workflow_to_task WHERE workflow_id = ? AND task_id = ?) "
+                        + "ON CONFLICT (workflow_id,task_id) DO NOTHING";
+        execute(
+                connection,
+                INSERT_WORKFLOW_TO_TASK,
+                q -> {
+                    for (TaskModel task : tasks) {
+                        q.addParameter(task.getWorkflowInstanceId())
+                                .addParameter(task.getTaskId())
+                                .addParameter(task.getWorkflowInstanceId())
+                                .addParameter(task.getTaskId())
+                                .addBatch();
+                    }
+                    q.executeBatch();
+                });
+    }
+
     private void insertOrUpdateTaskData(Connection connection, TaskModel task) {
         /*
          * Most times the row will be updated so let's try the update first. This used to be an 'INSERT/ON CONFLICT do update' sql statement. The problem with that
@@ -94,6 +94,42 @@ public class PostgresPollDataDAO extends PostgresBaseDAO implements PollDataDAO
         }
     }
 
+    @Override
+    public void updateLastPollData(List<PollData> pollData) {
+        pollData.forEach(
+                data ->
+                        Preconditions.checkNotNull(
+                                data.getQueueName(), "taskDefName name cannot be null"));
+        if (pollDataFlushInterval > 0) {
+            pollData.forEach(
+                    data ->
+                            pollDataCache
+                                    .computeIfAbsent(
+                                            data.getQueueName(), k -> new ConcurrentHashMap<>())
+                                    .put(
+                                            data.getDomain() == null ? "DEFAULT" : data.getDomain(),
+                                            data));
+        } else {
+            // one transaction each, as flushData does: a rejected older poll aborts its transaction
+            pollData.forEach(
+                    data ->
+                            withTransaction(
+                                    tx ->
+                                            insertOrUpdatePollData(
+                                                    tx,
+                                                    data,
+                                                    data.getDomain() == null
+                                                            ? "DEFAULT"
+                                                            : data.getDomain())));
+        }
+    }
+
+    /** The last polls are kept in memory when the write or the read cache is enabled. */
+    @Override
+    public boolean cachesPollData() {
+        return pollDataFlushInterval > 0 || useReadCache;
+    }
+
     @Override
     public PollData getPollData(String taskDefName, String domain) {
         PollData result;
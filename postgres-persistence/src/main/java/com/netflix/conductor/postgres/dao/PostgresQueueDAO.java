@@ -23,6 +23,7 @@ import javax.sql.DataSource;
 
 import org.springframework.retry.support.RetryTemplate;
 
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
 import com.netflix.conductor.core.events.queue.Message;
 import com.netflix.conductor.dao.QueueDAO;
 import com.netflix.conductor.postgres.config.PostgresProperties;
@@ -31,6 +32,7 @@ import com.netflix.conductor.postgres.util.PostgresQueueListener;
 import com.netflix.conductor.postgres.util.Query;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.Uninterruptibles;
@@ -40,8 +42,23 @@ public class PostgresQueueDAO extends PostgresBaseDAO implements QueueDAO {
 
     private static final Long UNACK_SCHEDULE_MS = 60_000L;
 
+    /** The sizes of the queues, from their counters and the changes not compacted yet. */
+    private static final String GET_QUEUES_DETAIL_FROM_COUNTERS =
+            "SELECT q.queue_name, COALESCE(c.size, 0) AS size, COALESCE(c.unacked, 0) AS uacked FROM queue q LEFT JOIN ("
+                    + "SELECT queue_name, sum(size) AS size, sum(unacked) AS unacked FROM ("
+                    + "SELECT queue_name, size, unacked FROM queue_counter "
+                    + "UNION ALL SELECT queue_name, size, unacked FROM queue_counter_delta) AS d "
+                    + "GROUP BY queue_name) AS c ON c.queue_name = q.queue_name";
+
     private final ScheduledExecutorService scheduledExecutorService;
 
+    /**
+     * Whether the sizes of the queues are kept in counters. This is read from the schema rather
+     * than from the partitionedQueues option, since the counter triggers stay once its migration
+     * ran, and their changes have to be compacted even if the option was disabled afterwards.
+     */
+    private final boolean queueCounters;
+
     private PostgresQueueListener queueListener;
 
     public PostgresQueueDAO(
@@ -49,6 +66,18 @@ public class PostgresQueueDAO extends PostgresBaseDAO implements QueueDAO {
             ObjectMapper objectMapper,
             DataSource dataSource,
             PostgresProperties properties) {
+        this(retryTemplate, objectMapper, dataSource, properties, null);
+    }
+
+    /**
+     * @param queueWakeupRegistry woken by the queue notifications, when they are enabled
+     */
+    public PostgresQueueDAO(
+            RetryTemplate retryTemplate,
+            ObjectMapper objectMapper,
+            DataSource dataSource,
+            PostgresProperties properties,
+            QueueWakeupRegistry queueWakeupRegistry) {
         super(retryTemplate, objectMapper, dataSource);
 
         this.scheduledExecutorService =
@@ -59,15 +88,29 @@ public class PostgresQueueDAO extends PostgresBaseDAO implements QueueDAO {
                 UNACK_SCHEDULE_MS,
                 UNACK_SCHEDULE_MS,
                 TimeUnit.MILLISECONDS);
+
+        this.queueCounters = hasQueueCounters();
+        if (queueCounters) {
+            long compactionInterval = properties.getQueueCounterCompactionInterval().toMillis();
+            this.scheduledExecutorService.scheduleWithFixedDelay(
+                    this::compactQueueCounters,
+                    compactionInterval,
+                    compactionInterval,
+                    TimeUnit.MILLISECONDS);
+        }
         logger.debug("{} is ready to serve", PostgresQueueDAO.class.getName());
 
         if (properties.getExperimentalQueueNotify()) {
-            this.queueListener = new PostgresQueueListener(dataSource, properties);
+            this.queueListener =
+                    new PostgresQueueListener(dataSource, properties, queueWakeupRegistry);
         }
     }
 
     @PreDestroy
     public void destroy() {
+        if (queueListener != null) {
+            queueListener.close();
+        }
         try {
             this.scheduledExecutorService.shutdown();
             if (scheduledExecutorService.awaitTermination(30, TimeUnit.SECONDS)) {
@@ -178,6 +221,13 @@ public class PostgresQueueDAO extends PostgresBaseDAO implements QueueDAO {
         withTransaction(tx -> removeMessage(tx, queueName, messageId));
     }
 
+    @Override
+    public void remove(String queueName, List<String> messageIds) {
+        if (!messageIds.isEmpty()) {
+            withTransaction(tx -> removeMessages(tx, queueName, messageIds));
+        }
+    }
+
     @Override
     public int getSize(String queueName) {
         if (queueListener != null) {
@@ -187,6 +237,21 @@ public class PostgresQueueDAO extends PostgresBaseDAO implements QueueDAO {
             }
         }
 
+        if (queueCounters) {
+            final String GET_QUEUE_SIZE_FROM_COUNTERS =
+                    "SELECT COALESCE(sum(size + unacked), 0) FROM ("
+                            + "SELECT size, unacked FROM queue_counter WHERE queue_name = ? "
+                            + "UNION ALL SELECT size, unacked FROM queue_counter_delta WHERE queue_name = ?) AS c";
+            return queryWithTransaction(
+                    GET_QUEUE_SIZE_FROM_COUNTERS,
+                    q ->
+                            ((Long)
+                                            q.addParameter(queueName)
+                                                    .addParameter(queueName)
+                                                    .executeCount())
+                                    .intValue());
+        }
+
         final String GET_QUEUE_SIZE = "SELECT COUNT(*) FROM queue_message WHERE queue_name = ?";
         return queryWithTransaction(
                 GET_QUEUE_SIZE, q -> ((Long) q.addParameter(queueName).executeCount()).intValue());
@@ -197,6 +262,14 @@ public class PostgresQueueDAO extends PostgresBaseDAO implements QueueDAO {
         return getWithRetriedTransactions(tx -> removeMessage(tx, queueName, messageId));
     }
 
+    @Override
+    public int ack(String queueName, List<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return 0;
+        }
+        return getWithRetriedTransactions(tx -> removeMessages(tx, queueName, messageIds));
+    }
+
     @Override
     public boolean setUnackTimeout(String queueName, String messageId, long unackTimeout) {
         long updatedOffsetTimeInSecond = unackTimeout / 1000;
@@ -215,6 +288,33 @@ public class PostgresQueueDAO extends PostgresBaseDAO implements QueueDAO {
                 == 1;
     }
 
+    /** Updates the messages with one statement, joined to the arrays of ids and timeouts. */
+    @Override
+    public void setUnackTimeout(String queueName, Map<String, Long> unackTimeouts) {
+        if (unackTimeouts.isEmpty()) {
+            return;
+        }
+        List<String> messageIds = new ArrayList<>(unackTimeouts.size());
+        List<String> offsets = new ArrayList<>(unackTimeouts.size());
+        unackTimeouts.forEach(
+                (messageId, unackTimeout) -> {
+                    messageIds.add(messageId);
+                    offsets.add(String.valueOf(unackTimeout / 1000));
+                });
+
+        final String UPDATE_UNACK_TIMEOUTS =
+                "UPDATE queue_message m SET offset_time_seconds = u.offset_seconds::bigint, deliver_on = (current_timestamp + (u.offset_seconds ||' seconds')::interval) "
+                        + "FROM unnest(?::varchar[], ?::varchar[]) AS u(message_id, offset_seconds) "
+                        + "WHERE m.queue_name = ? AND m.message_id = u.message_id";
+        executeWithTransaction(
+                UPDATE_UNACK_TIMEOUTS,
+                q ->
+                        q.addParameter(messageIds)
+                                .addParameter(offsets)
+                                .addParameter(queueName)
+                                .executeUpdate());
+    }
+
     @Override
     public void flush(String queueName) {
         final String FLUSH_QUEUE = "DELETE FROM queue_message WHERE queue_name = ?";
@@ -224,7 +324,9 @@ public class PostgresQueueDAO extends PostgresBaseDAO implements QueueDAO {
     @Override
     public Map<String, Long> queuesDetail() {
         final String GET_QUEUES_DETAIL =
-                "SELECT queue_name, (SELECT count(*) FROM queue_message WHERE popped = false AND queue_name = q.queue_name) AS size FROM queue q FOR SHARE SKIP LOCKED";
+                queueCounters
+                        ? GET_QUEUES_DETAIL_FROM_COUNTERS
+                        : "SELECT queue_name, (SELECT count(*) FROM queue_message WHERE popped = false AND queue_name = q.queue_name) AS size FROM queue q FOR SHARE SKIP LOCKED";
         return queryWithTransaction(
                 GET_QUEUES_DETAIL,
                 q ->
@@ -244,10 +346,12 @@ public class PostgresQueueDAO extends PostgresBaseDAO implements QueueDAO {
     public Map<String, Map<String, Map<String, Long>>> queuesDetailVerbose() {
         // @formatter:off
         final String GET_QUEUES_DETAIL_VERBOSE =
-                "SELECT queue_name, \n"
-                        + "       (SELECT count(*) FROM queue_message WHERE popped = false AND queue_name = q.queue_name) AS size,\n"
-                        + "       (SELECT count(*) FROM queue_message WHERE popped = true AND queue_name = q.queue_name) AS uacked \n"
-                        + "FROM queue q FOR SHARE SKIP LOCKED";
+                queueCounters
+                        ? GET_QUEUES_DETAIL_FROM_COUNTERS
+                        : "SELECT queue_name, \n"
+                                + "       (SELECT count(*) FROM queue_message WHERE popped = false AND queue_name = q.queue_name) AS size,\n"
+                                + "       (SELECT count(*) FROM queue_message WHERE popped = true AND queue_name = q.queue_name) AS uacked \n"
+                                + "FROM queue q FOR SHARE SKIP LOCKED";
         // @formatter:on
 
         return queryWithTransaction(
@@ -357,6 +461,22 @@ public class PostgresQueueDAO extends PostgresBaseDAO implements QueueDAO {
                 });
     }
 
+    private boolean hasQueueCounters() {
+        return queryWithTransaction(
+                "SELECT to_regclass('queue_counter_delta') IS NOT NULL",
+                q -> q.executeScalar(Boolean.class));
+    }
+
+    /** Adds the changes of the queue sizes to their counters. */
+    @VisibleForTesting
+    void compactQueueCounters() {
+        try {
+            queryWithTransaction("SELECT queue_counter_compact()", Query::executeScalar);
+        } catch (Exception e) {
+            logger.warn("Failed to compact the queue counters", e);
+        }
+    }
+
     @Override
     public void processUnacks(String queueName) {
         final String PROCESS_UNACKS =
@@ -382,6 +502,29 @@ public class PostgresQueueDAO extends PostgresBaseDAO implements QueueDAO {
                                 == 1);
     }
 
+    /** Updates the messages in place, instead of removing them and pushing them back. */
+    @Override
+    public void postpone(
+            String queueName,
+            List<String> messageIds,
+            int priority,
+            long postponeDurationInSeconds) {
+        if (messageIds.isEmpty()) {
+            return;
+        }
+        final String POSTPONE_MESSAGES =
+                "UPDATE queue_message SET popped = false, priority = ?, offset_time_seconds = ?, deliver_on = (current_timestamp + (? ||' seconds')::interval) WHERE queue_name = ? AND message_id = ANY(?)";
+        executeWithTransaction(
+                POSTPONE_MESSAGES,
+                q ->
+                        q.addParameter(priority)
+                                .addParameter(postponeDurationInSeconds)
+                                .addParameter(postponeDurationInSeconds)
+                                .addParameter(queueName)
+                                .addParameter(messageIds)
+                                .executeUpdate());
+    }
+
     private boolean existsMessage(Connection connection, String queueName, String messageId) {
         final String EXISTS_MESSAGE =
                 "SELECT EXISTS(SELECT 1 FROM queue_message WHERE queue_name = ? AND message_id = ?) FOR SHARE";
@@ -440,6 +583,15 @@ public class PostgresQueueDAO extends PostgresBaseDAO implements QueueDAO {
                 q -> q.addParameter(queueName).addParameter(messageId).executeDelete());
     }
 
+    private int removeMessages(Connection connection, String queueName, List<String> messageIds) {
+        final String REMOVE_MESSAGES =
+                "DELETE FROM queue_message WHERE queue_name = ? AND message_id = ANY(?)";
+        return query(
+                connection,
+                REMOVE_MESSAGES,
+                q -> q.addParameter(queueName).addParameter(messageIds).executeUpdate());
+    }
+
     private List<Message> popMessages(
             Connection connection, String queueName, int count, int timeout) {
 
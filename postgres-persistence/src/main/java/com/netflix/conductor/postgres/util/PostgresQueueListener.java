@@ -16,7 +16,11 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -27,6 +31,7 @@ import org.postgresql.PGNotification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
 import com.netflix.conductor.core.exception.NonTransientException;
 import com.netflix.conductor.postgres.config.PostgresProperties;
 
@@ -36,15 +41,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class PostgresQueueListener {
 
+    /** Interval at which the notifications are read, to wake the polls of the pushed queues. */
+    private static final long NOTIFICATION_CHECK_INTERVAL_MS = 50;
+
     private PGConnection pgconn;
 
     private volatile Connection conn;
 
     private final Lock connectionLock = new ReentrantLock();
 
+    // a lock rather than synchronized, the notifications are read on the poll path
+    private final Lock notificationLock = new ReentrantLock();
+
     private DataSource dataSource;
 
-    private HashMap<String, QueueStats> queues;
+    private volatile HashMap<String, QueueStats> queues;
 
     private volatile boolean connected = false;
 
@@ -52,13 +63,45 @@ public class PostgresQueueListener {
 
     private Integer stalePeriod;
 
+    private final QueueWakeupRegistry queueWakeupRegistry;
+
+    private ScheduledExecutorService notificationExecutor;
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     public PostgresQueueListener(DataSource dataSource, PostgresProperties properties) {
+        this(dataSource, properties, null);
+    }
+
+    /**
+     * @param queueWakeupRegistry when not null, the notifications are also read in the background,
+     *     and the polls waiting for a queue are woken when messages are added to it, by any server
+     */
+    public PostgresQueueListener(
+            DataSource dataSource,
+            PostgresProperties properties,
+            QueueWakeupRegistry queueWakeupRegistry) {
         logger.info("Using experimental PostgresQueueListener");
         this.dataSource = dataSource;
         this.stalePeriod = properties.getExperimentalQueueNotifyStalePeriod();
+        this.queueWakeupRegistry = queueWakeupRegistry;
         connect();
+        if (queueWakeupRegistry != null) {
+            this.notificationExecutor =
+                    Executors.newSingleThreadScheduledExecutor(
+                            ExecutorsUtil.newNamedThreadFactory("postgres-queue-listener-"));
+            this.notificationExecutor.scheduleWithFixedDelay(
+                    this::checkNotifications,
+                    NOTIFICATION_CHECK_INTERVAL_MS,
+                    NOTIFICATION_CHECK_INTERVAL_MS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void close() {
+        if (notificationExecutor != null) {
+            notificationExecutor.shutdownNow();
+        }
     }
 
     public boolean hasMessagesReady(String queueName) {
@@ -179,7 +222,22 @@ public class PostgresQueueListener {
         }
     }
 
+    private void checkNotifications() {
+        try {
+            if (!connected) {
+                connect();
+            }
+            if (connected) {
+                handleNotifications();
+            }
+        } catch (Exception e) {
+            // the next check tries again
+            logger.warn("Failed to check the queue notifications", e);
+        }
+    }
+
     private void handleNotifications() {
+        notificationLock.lock();
         try {
             PGNotification[] notifications = pgconn.getNotifications();
             if (notifications == null || notifications.length == 0) {
@@ -191,6 +249,8 @@ public class PostgresQueueListener {
                 logger.error("Error fetching notifications {}", e.getSQLState());
             }
             connect();
+        } finally {
+            notificationLock.unlock();
         }
     }
 
@@ -218,12 +278,31 @@ public class PostgresQueueListener {
                             }
                         }
                     });
+            signalPushes(this.queues, queueStats);
             this.queues = queueStats;
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /** Wakes the polls of the queues with more messages ready than in the previous state. */
+    private void signalPushes(
+            Map<String, QueueStats> previousStats, Map<String, QueueStats> queueStats) {
+        if (queueWakeupRegistry == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        queueStats.forEach(
+                (queueName, stats) -> {
+                    QueueStats previous =
+                            previousStats == null ? null : previousStats.get(queueName);
+                    if (stats.getNextDelivery() <= now
+                            && (previous == null || stats.getDepth() > previous.getDepth())) {
+                        queueWakeupRegistry.signal(queueName);
+                    }
+                });
+    }
+
     private static boolean isSQLExceptionConnectionDoesNotExists(SQLException e) {
         return "08003".equals(e.getSQLState());
     }
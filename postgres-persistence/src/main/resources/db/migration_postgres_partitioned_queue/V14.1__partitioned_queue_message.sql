@@ -0,0 +1,166 @@
+-- Replaces queue_message with a table hash partitioned by queue name, so that the pops, the unack
+-- sweeps and the vacuums of a queue only touch its partition, and maintains the sizes of the queues
+-- in counters instead of counting their messages. The number of partitions is set by
+-- conductor.postgres.queuePartitionCount when this migration runs.
+
+-- 1) queue_message, partitioned
+ALTER TABLE queue_message RENAME TO queue_message_unpartitioned;
+ALTER TABLE queue_message_unpartitioned RENAME CONSTRAINT queue_message_pkey TO queue_message_unpartitioned_pkey;
+
+CREATE TABLE queue_message (
+  created_on TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  deliver_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  queue_name varchar(255) NOT NULL,
+  message_id varchar(255) NOT NULL,
+  priority integer DEFAULT 0,
+  popped boolean DEFAULT false,
+  offset_time_seconds BIGINT,
+  payload TEXT,
+  PRIMARY KEY (queue_name, message_id)
+) PARTITION BY HASH (queue_name);
+
+DO $$
+BEGIN
+  FOR i IN 0..${queuePartitionCount} - 1 LOOP
+    EXECUTE format('CREATE TABLE queue_message_p%s PARTITION OF queue_message FOR VALUES WITH (MODULUS %s, REMAINDER %s)', i, ${queuePartitionCount}, i);
+  END LOOP;
+END;
+$$;
+
+INSERT INTO queue_message (created_on, deliver_on, queue_name, message_id, priority, popped, offset_time_seconds, payload)
+  SELECT created_on, deliver_on, queue_name, message_id, priority, popped, offset_time_seconds, payload
+  FROM queue_message_unpartitioned;
+
+DROP TABLE queue_message_unpartitioned;
+
+-- the messages which can be popped, in the order of the pop query
+CREATE INDEX queue_message_ready_idx ON queue_message (queue_name, deliver_on, priority DESC, created_on) WHERE popped = false;
+-- the popped messages, in the order of the unack sweep
+CREATE INDEX queue_message_popped_idx ON queue_message (deliver_on) WHERE popped = true;
+
+-- 2) queue sizes
+CREATE TABLE queue_counter (
+  queue_name varchar(255) NOT NULL,
+  size BIGINT NOT NULL DEFAULT 0,
+  unacked BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (queue_name)
+);
+
+-- the changes of the sizes not added to queue_counter yet, appended by the statements on
+-- queue_message so that they do not wait for each other on the counter of their queue
+CREATE TABLE queue_counter_delta (
+  queue_name varchar(255) NOT NULL,
+  size BIGINT NOT NULL,
+  unacked BIGINT NOT NULL
+);
+
+INSERT INTO queue_counter (queue_name, size, unacked)
+  SELECT queue_name, count(*) FILTER (WHERE popped IS NOT TRUE), count(*) FILTER (WHERE popped IS TRUE)
+  FROM queue_message
+  GROUP BY queue_name;
+
+CREATE FUNCTION queue_counter_insert()
+  RETURNS TRIGGER
+  LANGUAGE PLPGSQL
+AS $$
+BEGIN
+  INSERT INTO queue_counter_delta (queue_name, size, unacked)
+    SELECT queue_name, count(*) FILTER (WHERE popped IS NOT TRUE), count(*) FILTER (WHERE popped IS TRUE)
+    FROM new_rows
+    GROUP BY queue_name;
+  RETURN NULL;
+END;
+$$;
+
+CREATE FUNCTION queue_counter_delete()
+  RETURNS TRIGGER
+  LANGUAGE PLPGSQL
+AS $$
+BEGIN
+  INSERT INTO queue_counter_delta (queue_name, size, unacked)
+    SELECT queue_name, -count(*) FILTER (WHERE popped IS NOT TRUE), -count(*) FILTER (WHERE popped IS TRUE)
+    FROM old_rows
+    GROUP BY queue_name;
+  RETURN NULL;
+END;
+$$;
+
+CREATE FUNCTION queue_counter_update()
+  RETURNS TRIGGER
+  LANGUAGE PLPGSQL
+AS $$
+BEGIN
+  INSERT INTO queue_counter_delta (queue_name, size, unacked)
+    SELECT queue_name, sum(size), sum(unacked)
+    FROM (
+      SELECT queue_name, count(*) FILTER (WHERE popped IS NOT TRUE) AS size, count(*) FILTER (WHERE popped IS TRUE) AS unacked
+      FROM new_rows
+      GROUP BY queue_name
+      UNION ALL
+      SELECT queue_name, -count(*) FILTER (WHERE popped IS NOT TRUE), -count(*) FILTER (WHERE popped IS TRUE)
+      FROM old_rows
+      GROUP BY queue_name) AS changes
+    GROUP BY queue_name
+    HAVING sum(size) <> 0 OR sum(unacked) <> 0;
+  RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER queue_counter_insert
+  AFTER INSERT ON queue_message
+  REFERENCING NEW TABLE AS new_rows
+  FOR EACH STATEMENT
+  EXECUTE FUNCTION queue_counter_insert();
+
+CREATE TRIGGER queue_counter_delete
+  AFTER DELETE ON queue_message
+  REFERENCING OLD TABLE AS old_rows
+  FOR EACH STATEMENT
+  EXECUTE FUNCTION queue_counter_delete();
+
+CREATE TRIGGER queue_counter_update
+  AFTER UPDATE ON queue_message
+  REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+  FOR EACH STATEMENT
+  EXECUTE FUNCTION queue_counter_update();
+
+-- Adds the pending changes to the counters, called periodically by the servers. One server
+-- compacts at a time, the others skip.
+CREATE FUNCTION queue_counter_compact()
+  RETURNS void
+  LANGUAGE PLPGSQL
+AS $$
+BEGIN
+  IF NOT pg_try_advisory_xact_lock(hashtext('queue_counter_compact')) THEN
+    RETURN;
+  END IF;
+  WITH deltas AS (
+    DELETE FROM queue_counter_delta RETURNING queue_name, size, unacked
+  )
+  INSERT INTO queue_counter (queue_name, size, unacked)
+    SELECT queue_name, sum(size), sum(unacked)
+    FROM deltas
+    GROUP BY queue_name
+  ON CONFLICT (queue_name) DO UPDATE
+    SET size = queue_counter.size + excluded.size,
+        unacked = queue_counter.unacked + excluded.unacked;
+END;
+$$;
+
+-- 3) queue notifications, if enabled before this migration
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM pg_proc WHERE proname = 'queue_notify_trigger') THEN
+    CREATE TRIGGER queue_update
+      AFTER UPDATE ON queue_message
+      FOR EACH ROW
+      WHEN (OLD.popped IS DISTINCT FROM NEW.popped)
+      EXECUTE FUNCTION queue_notify_trigger();
+
+    CREATE TRIGGER queue_insert_delete
+      AFTER INSERT OR DELETE ON queue_message
+      FOR EACH ROW
+      EXECUTE FUNCTION queue_notify_trigger();
+  END IF;
+END;
+$$;
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.postgres.dao;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.netflix.conductor.common.config.TestObjectMapperConfiguration;
+import com.netflix.conductor.postgres.config.PostgresConfiguration;
+import com.netflix.conductor.postgres.config.PostgresProperties;
+import com.netflix.conductor.postgres.util.Query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@ContextConfiguration(
+        classes = {
+            TestObjectMapperConfiguration.class,
+            PostgresConfiguration.class,
+            FlywayAutoConfiguration.class
+        })
+@RunWith(SpringRunner.class)
+@TestPropertySource(
+        properties = {
+            "conductor.postgres.partitionedQueues=true",
+            "conductor.postgres.queuePartitionCount=4",
+            // the changes are compacted by the tests
+            "conductor.postgres.queueCounterCompactionInterval=3600000",
+            "spring.flyway.clean-disabled=false"
+        })
+@SpringBootTest
+public class PostgresPartitionedQueueDAOTest {
+
+    @Autowired private PostgresQueueDAO queueDAO;
+
+    @Autowired
+    @Qualifier("postgresRetryTemplate")
+    private RetryTemplate retryTemplate;
+
+    @Autowired private ObjectMapper objectMapper;
+
+    @Qualifier("dataSource")
+    @Autowired
+    private DataSource dataSource;
+
+    // clean the database between tests.
+    @Before
+    public void before() {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(true);
+            String[] stmts =
+                    new String[] {
+                        "truncate table queue;",
+                        "truncate table queue_message;",
+                        "truncate table queue_counter;",
+                        "truncate table queue_counter_delta;"
+                    };
+            for (String stmt : stmts) {
+                conn.prepareStatement(stmt).executeUpdate();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    public void queueSizesTest() {
+        String queueName = "PartitionedQueue";
+        for (int i = 0; i < 10; i++) {
+            queueDAO.push(queueName, "msg" + i, 0);
+        }
+        queueDAO.push("OtherPartitionedQueue", "msg", 0);
+        assertEquals(10, queueDAO.getSize(queueName));
+        assertEquals(10L, queueDAO.queuesDetail().get(queueName).longValue());
+        assertEquals(1L, queueDAO.queuesDetail().get("OtherPartitionedQueue").longValue());
+
+        List<String> popped = queueDAO.pop(queueName, 4, 100);
+        assertEquals(4, popped.size());
+        queueDAO.ack(queueName, popped.get(0));
+
+        // the sizes are the same before and after the changes are compacted
+        for (int i = 0; i < 2; i++) {
+            assertEquals(9, queueDAO.getSize(queueName));
+            assertEquals(6L, queueDAO.queuesDetail().get(queueName).longValue());
+            Map<String, Long> shard = queueDAO.queuesDetailVerbose().get(queueName).get("a");
+            assertEquals(6L, shard.get("size").longValue());
+            assertEquals(3L, shard.get("uacked").longValue());
+            queueDAO.compactQueueCounters();
+            assertEquals(0, pendingCounterChanges());
+        }
+
+        queueDAO.flush(queueName);
+        assertEquals(0, queueDAO.getSize(queueName));
+        assertEquals(1, queueDAO.getSize("OtherPartitionedQueue"));
+    }
+
+    @Test
+    public void countersCompactedWithTheOptionDisabledTest() {
+        // the triggers stay when the option is disabled after the migration
+        PostgresQueueDAO dao =
+                new PostgresQueueDAO(
+                        retryTemplate, objectMapper, dataSource, new PostgresProperties());
+        try {
+            String queueName = "UnpartitionedQueue";
+            dao.push(queueName, "msg1", 0);
+            dao.push(queueName, "msg2", 0);
+            assertTrue(pendingCounterChanges() > 0);
+            assertEquals(2, dao.getSize(queueName));
+
+            dao.compactQueueCounters();
+            assertEquals(0, pendingCounterChanges());
+            assertEquals(2, dao.getSize(queueName));
+            assertEquals(2L, dao.queuesDetail().get(queueName).longValue());
+        } finally {
+            dao.destroy();
+        }
+    }
+
+    @Test
+    public void popOrderTest() {
+        String queueName = "PartitionedOrderQueue";
+        queueDAO.push(queueName, "later", 0, 60);
+        queueDAO.push(queueName, "low", 1, 0);
+        queueDAO.push(queueName, "high", 10, 0);
+
+        List<String> popped = queueDAO.pop(queueName, 10, 100);
+        assertEquals(2, popped.size());
+        assertTrue(popped.contains("low"));
+        assertTrue(popped.contains("high"));
+        assertTrue(queueDAO.containsMessage(queueName, "later"));
+    }
+
+    private long pendingCounterChanges() {
+        try (Connection conn = dataSource.getConnection();
+                Query q =
+                        new Query(objectMapper, conn, "SELECT count(*) FROM queue_counter_delta")) {
+            return q.executeCount();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -324,6 +324,62 @@ public class PostgresQueueDAOTest {
         }
     }
 
+    @Test
+    public void batchOperationsTest() {
+        String queueName = "TestBatchQueue";
+        List<String> messageIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            messageIds.add("msg" + i);
+            queueDAO.push(queueName, "msg" + i, 0);
+        }
+
+        List<String> popped = queueDAO.pop(queueName, 5, 0);
+        assertEquals(5, popped.size());
+        List<String> acked = new ArrayList<>(popped);
+        acked.add("unknown");
+        assertEquals(5, queueDAO.ack(queueName, acked));
+        assertEquals(5, queueDAO.getSize(queueName));
+
+        popped = queueDAO.pop(queueName, 2, 0);
+        assertEquals(2, popped.size());
+        queueDAO.postpone(queueName, popped, 10, 0);
+        assertEquals(5, queueDAO.pop(queueName, 10, 0).size());
+
+        queueDAO.remove(queueName, messageIds);
+        assertEquals(0, queueDAO.getSize(queueName));
+        messageIds.forEach(
+                messageId -> assertFalse(queueDAO.containsMessage(queueName, messageId)));
+    }
+
+    @Test
+    public void setUnackTimeoutsTest() {
+        String queueName = "TestUnackTimeoutsQueue";
+        queueDAO.push(queueName, "msg1", 0);
+        queueDAO.push(queueName, "msg2", 0);
+        assertEquals(2, queueDAO.pop(queueName, 2, 0).size());
+
+        queueDAO.setUnackTimeout(queueName, Map.of("msg1", 0L, "msg2", 60_000L, "unknown", 0L));
+
+        try (Connection c = dataSource.getConnection()) {
+            String OFFSETS =
+                    "SELECT message_id, offset_time_seconds, deliver_on > current_timestamp + interval '30 seconds' AS postponed "
+                            + "FROM queue_message WHERE queue_name = ? ORDER BY message_id";
+            try (Query q = new Query(objectMapper, c, OFFSETS)) {
+                List<Map<String, Object>> rows = q.addParameter(queueName).executeAndFetchMap();
+                assertEquals(2, rows.size());
+                assertEquals("msg1", rows.get(0).get("message_id"));
+                assertEquals(0L, ((Number) rows.get(0).get("offset_time_seconds")).longValue());
+                assertEquals(false, rows.get(0).get("postponed"));
+                assertEquals("msg2", rows.get(1).get("message_id"));
+                assertEquals(60L, ((Number) rows.get(1).get("offset_time_seconds")).longValue());
+                assertEquals(true, rows.get(1).get("postponed"));
+            }
+        } catch (Exception ex) {
+            fail(ex.getMessage());
+        }
+        assertFalse(queueDAO.containsMessage(queueName, "unknown"));
+    }
+
     /**
      * Test fix for https://github.com/Netflix/conductor/issues/448
      *
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.redis.dao;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.netflix.conductor.common.config.ObjectMapperProvider;
+import com.netflix.conductor.common.metadata.tasks.Task;
+import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.core.dal.ExecutionDAOFacade;
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
+import com.netflix.conductor.core.execution.WorkflowExecutor;
+import com.netflix.conductor.core.execution.tasks.SystemTaskRegistry;
+import com.netflix.conductor.core.listener.TaskStatusListener;
+import com.netflix.conductor.core.utils.ExternalPayloadStorageUtils;
+import com.netflix.conductor.dao.IndexDAO;
+import com.netflix.conductor.dao.PollDataDAO;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.redis.config.RedisProperties;
+import com.netflix.conductor.redis.dynoqueue.RedisQueuesShardingStrategyProvider;
+import com.netflix.conductor.redis.jedis.JedisMock;
+import com.netflix.conductor.redis.jedis.JedisProxy;
+import com.netflix.conductor.redis.jedis.MultiKeyReadCommands;
+import com.netflix.conductor.service.ExecutionService;
+import com.netflix.dyno.connectionpool.Host;
+import com.netflix.dyno.queues.ShardSupplier;
+import com.netflix.dyno.queues.redis.RedisQueues;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import redis.clients.jedis.commands.JedisCommands;
+
+import static com.netflix.conductor.redis.dynoqueue.RedisQueuesShardingStrategyProvider.LOCAL_ONLY_STRATEGY;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Latency of a batch poll, {@link ExecutionService#poll(String, String, String, int, int)}, with
+ * the tasks and the queue stored in the embedded {@link JedisMock}. As in {@link
+ * RedisExecutionDAOBenchmark}, every command sent to the mock is delayed by {@code
+ * roundTripMicros}, {@code perKey} reads the polled tasks with one GET each and {@code batched}
+ * with MGET. The polled tasks are pushed back to the queue before each invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionServicePollBenchmark {
+
+    private static final String TASK_TYPE = "benchmark_task";
+
+    @Param({"100"})
+    private int batchSize;
+
+    @Param({"perKey", "batched"})
+    private String reads;
+
+    @Param({"0", "200"})
+    private long roundTripMicros;
+
+    private RedisQueues redisQueues;
+    private DynoQueueDAO queueDAO;
+    private ExecutionDAOFacade executionDAOFacade;
+    private QueueWakeupRegistry queueWakeupRegistry;
+    private ExecutionService executionService;
+    private final List<String> taskIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JedisMock jedisMock = new JedisMock();
+        Class<?>[] interfaces =
+                "batched".equals(reads)
+                        ? new Class<?>[] {JedisCommands.class, MultiKeyReadCommands.class}
+                        : new Class<?>[] {JedisCommands.class};
+        long roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+        InvocationHandler network =
+                (proxy, method, args) -> {
+                    if (roundTripNanos > 0) {
+                        LockSupport.parkNanos(roundTripNanos);
+                    }
+                    try {
+                        return method.invoke(jedisMock, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                };
+        JedisCommands jedisCommands =
+                (JedisCommands)
+                        Proxy.newProxyInstance(getClass().getClassLoader(), interfaces, network);
+        JedisProxy jedisProxy = new JedisProxy(jedisCommands);
+
+        ObjectMapper objectMapper = new ObjectMapperProvider().getObjectMapper();
+        ConductorProperties conductorProperties = mock(ConductorProperties.class);
+        when(conductorProperties.getTaskExecutionPostponeDuration())
+                .thenReturn(Duration.ofSeconds(60));
+        when(conductorProperties.getTaskPollRecheckInterval()).thenReturn(Duration.ofSeconds(5));
+        when(conductorProperties.getAsyncUpdateDelay()).thenReturn(Duration.ZERO);
+        RedisProperties properties = mock(RedisProperties.class);
+        when(properties.getEventExecutionPersistenceTTL()).thenReturn(Duration.ofSeconds(60));
+        when(properties.getQueueShardingStrategy()).thenReturn(LOCAL_ONLY_STRATEGY);
+        when(properties.getQueuePrefix()).thenReturn("");
+
+        ShardSupplier shardSupplier =
+                new ShardSupplier() {
+
+                    @Override
+                    public Set<String> getQueueShards() {
+                        return Set.of("a");
+                    }
+
+                    @Override
+                    public String getCurrentShard() {
+                        return "a";
+                    }
+
+                    @Override
+                    public String getShardForHost(Host host) {
+                        return "a";
+                    }
+                };
+        redisQueues =
+                new RedisQueues(
+                        jedisCommands,
+                        jedisCommands,
+                        "",
+                        shardSupplier,
+                        60_000,
+                        60_000,
+                        new RedisQueuesShardingStrategyProvider(shardSupplier, properties).get());
+        queueDAO = new DynoQueueDAO(redisQueues, jedisProxy, shardSupplier, properties);
+
+        RedisExecutionDAO executionDAO =
+                new RedisExecutionDAO(jedisProxy, objectMapper, conductorProperties, properties);
+        queueWakeupRegistry = new QueueWakeupRegistry(1);
+        executionDAOFacade =
+                new ExecutionDAOFacade(
+                        executionDAO,
+                        queueDAO,
+                        mock(IndexDAO.class),
+                        new RedisRateLimitingDAO(
+                                jedisProxy, objectMapper, conductorProperties, properties),
+                        executionDAO,
+                        mock(PollDataDAO.class),
+                        objectMapper,
+                        conductorProperties,
+                        mock(ExternalPayloadStorageUtils.class),
+                        queueWakeupRegistry);
+        executionService =
+                new ExecutionService(
+                        mock(WorkflowExecutor.class),
+                        executionDAOFacade,
+                        queueDAO,
+                        conductorProperties,
+                        null,
+                        mock(SystemTaskRegistry.class),
+                        mock(TaskStatusListener.class),
+                        queueWakeupRegistry);
+
+        List<TaskModel> tasks = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            TaskModel task = new TaskModel();
+            task.setTaskId("task_id_" + i);
+            task.setReferenceTaskName("task_" + i);
+            task.setTaskType(TASK_TYPE);
+            task.setTaskDefName(TASK_TYPE);
+            task.setWorkflowInstanceId("benchmark");
+            task.setWorkflowType("poll_benchmark");
+            task.setStatus(TaskModel.Status.SCHEDULED);
+            task.setScheduledTime(System.currentTimeMillis());
+            task.setSeq(i + 1);
+            task.addInput("value", i);
+            tasks.add(task);
+            taskIds.add(task.getTaskId());
+        }
+        executionDAO.createTasks(tasks);
+    }
+
+    /** The polled tasks stay IN_PROGRESS, which does not prevent polling them again. */
+    @Setup(Level.Invocation)
+    public void pushTasks() {
+        queueDAO.remove(TASK_TYPE, taskIds);
+        taskIds.forEach(taskId -> queueDAO.push(TASK_TYPE, taskId, 0));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        executionService.shutdown();
+        queueWakeupRegistry.shutdown();
+        executionDAOFacade.shutdownExecutorService();
+        redisQueues.close();
+    }
+
+    @Benchmark
+    public List<Task> batchPoll() {
+        return executionService.poll(TASK_TYPE, "benchmark_worker", null, batchSize, 0);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.redis.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.netflix.conductor.common.config.ObjectMapperProvider;
+import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
+import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
+import com.netflix.conductor.redis.config.RedisProperties;
+import com.netflix.conductor.redis.jedis.JedisMock;
+import com.netflix.conductor.redis.jedis.JedisProxy;
+import com.netflix.conductor.redis.jedis.MultiKeyReadCommands;
+
+import redis.clients.jedis.commands.JedisCommands;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Latency of {@link RedisExecutionDAO#getWorkflow(String, boolean)} with its tasks, on top of the
+ * embedded {@link JedisMock}. Every command sent to the mock is delayed by {@code roundTripMicros}
+ * to model the network, {@code perKey} reads the tasks with one GET each (the behavior of the
+ * clients without multi-key support) and {@code batched} with MGET.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisExecutionDAOBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int taskCount;
+
+    @Param({"perKey", "batched"})
+    private String reads;
+
+    @Param({"0", "200"})
+    private long roundTripMicros;
+
+    private RedisExecutionDAO executionDAO;
+    private String workflowId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JedisMock jedisMock = new JedisMock();
+        Class<?>[] interfaces =
+                "batched".equals(reads)
+                        ? new Class<?>[] {JedisCommands.class, MultiKeyReadCommands.class}
+                        : new Class<?>[] {JedisCommands.class};
+        long roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+        InvocationHandler network =
+                (proxy, method, args) -> {
+                    if (roundTripNanos > 0) {
+                        LockSupport.parkNanos(roundTripNanos);
+                    }
+                    try {
+                        return method.invoke(jedisMock, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                };
+        JedisCommands jedisCommands =
+                (JedisCommands)
+                        Proxy.newProxyInstance(getClass().getClassLoader(), interfaces, network);
+
+        RedisProperties properties = mock(RedisProperties.class);
+        when(properties.getEventExecutionPersistenceTTL()).thenReturn(Duration.ofSeconds(60));
+        executionDAO =
+                new RedisExecutionDAO(
+                        new JedisProxy(jedisCommands),
+                        new ObjectMapperProvider().getObjectMapper(),
+                        mock(ConductorProperties.class),
+                        properties);
+
+        workflowId = "benchmark";
+        WorkflowModel workflow = new WorkflowModel();
+        workflow.setWorkflowId(workflowId);
+        workflow.setWorkflowDefinition(new WorkflowDef());
+        workflow.getWorkflowDefinition().setName("redis_benchmark");
+        workflow.setStatus(WorkflowModel.Status.RUNNING);
+        workflow.setCreateTime(System.currentTimeMillis());
+        executionDAO.createWorkflow(workflow);
+
+        List<TaskModel> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            TaskModel task = new TaskModel();
+            task.setTaskId("task_id_" + i);
+            task.setReferenceTaskName("task_" + i);
+            task.setTaskType("benchmark_task");
+            task.setTaskDefName("benchmark_task");
+            task.setWorkflowInstanceId(workflowId);
+            task.setWorkflowType("redis_benchmark");
+            task.setStatus(TaskModel.Status.COMPLETED);
+            task.setSeq(i + 1);
+            task.addOutput("result", i);
+            tasks.add(task);
+        }
+        executionDAO.createTasks(tasks);
+    }
+
+    @Benchmark
+    public WorkflowModel getWorkflow() {
+        return executionDAO.getWorkflow(workflowId, true);
+    }
+}
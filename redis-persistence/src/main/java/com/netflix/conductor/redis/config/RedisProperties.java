@@ -112,6 +112,12 @@ public class RedisProperties {
 
     private String username = null;
 
+    /**
+     * Used to send the pushes to the task queues to the other servers with Redis pub/sub, so that
+     * their long polls are woken immediately. Supported with redis_standalone and redis_cluster.
+     */
+    private boolean queueWakeupEnabled = false;
+
     public int getNumTestsPerEvictionRun() {
         return numTestsPerEvictionRun;
     }
@@ -303,4 +309,12 @@ public class RedisProperties {
     public void setUsername(String username) {
         this.username = username;
     }
+
+    public boolean isQueueWakeupEnabled() {
+        return queueWakeupEnabled;
+    }
+
+    public void setQueueWakeupEnabled(boolean queueWakeupEnabled) {
+        this.queueWakeupEnabled = queueWakeupEnabled;
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.redis.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
+import com.netflix.conductor.redis.dynoqueue.RedisQueueWakeupPublisher;
+import com.netflix.dyno.connectionpool.Host;
+import com.netflix.dyno.connectionpool.HostSupplier;
+
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Protocol;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "conductor.redis.queue-wakeup-enabled", havingValue = "true")
+@Conditional(AnyRedisCondition.class)
+public class RedisQueueWakeupConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public RedisQueueWakeupPublisher redisQueueWakeupPublisher(
+            HostSupplier hostSupplier,
+            RedisProperties properties,
+            QueueWakeupRegistry queueWakeupRegistry) {
+        // with a cluster, any node forwards the published messages to the others
+        Host host = hostSupplier.getHosts().get(0);
+        JedisPoolConfig config = new JedisPoolConfig();
+        config.setMaxTotal(properties.getMaxConnectionsPerHost());
+        JedisPool jedisPool;
+        if (host.getPassword() != null) {
+            jedisPool =
+                    new JedisPool(
+                            config,
+                            host.getHostName(),
+                            host.getPort(),
+                            Protocol.DEFAULT_TIMEOUT,
+                            properties.getUsername(),
+                            host.getPassword(),
+                            properties.getDatabase());
+        } else {
+            jedisPool = new JedisPool(config, host.getHostName(), host.getPort());
+        }
+        return new RedisQueueWakeupPublisher(
+                jedisPool, properties.getQueuePrefix() + ".QUEUE_WAKEUP", queueWakeupRegistry);
+    }
+}
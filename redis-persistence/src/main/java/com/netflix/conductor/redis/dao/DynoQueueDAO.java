@@ -12,6 +12,7 @@
  */
 package com.netflix.conductor.redis.dao;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -24,18 +25,37 @@ import org.springframework.stereotype.Component;
 
 import com.netflix.conductor.dao.QueueDAO;
 import com.netflix.conductor.redis.config.AnyRedisCondition;
+import com.netflix.conductor.redis.config.RedisProperties;
+import com.netflix.conductor.redis.jedis.CommandBatch;
+import com.netflix.conductor.redis.jedis.JedisProxy;
 import com.netflix.dyno.queues.DynoQueue;
 import com.netflix.dyno.queues.Message;
+import com.netflix.dyno.queues.ShardSupplier;
 import com.netflix.dyno.queues.redis.RedisQueues;
 
+/**
+ * The batch operations are sent in pipelines, see {@link JedisProxy#execute(CommandBatch)}, on the
+ * keys of the queues as laid out by {@link com.netflix.dyno.queues.redis.RedisDynoQueue}: a hash of
+ * the messages, and per shard a sorted set of the messages and one of the unacked messages.
+ */
 @Component
 @Conditional(AnyRedisCondition.class)
 public class DynoQueueDAO implements QueueDAO {
 
     private final RedisQueues queues;
+    private final JedisProxy jedisProxy;
+    private final List<String> shards;
+    private final String queuePrefix;
 
-    public DynoQueueDAO(RedisQueues queues) {
+    public DynoQueueDAO(
+            RedisQueues queues,
+            JedisProxy jedisProxy,
+            ShardSupplier shardSupplier,
+            RedisProperties properties) {
         this.queues = queues;
+        this.jedisProxy = jedisProxy;
+        this.shards = new ArrayList<>(shardSupplier.getQueueShards());
+        this.queuePrefix = properties.getQueuePrefix();
     }
 
     @Override
@@ -45,12 +65,8 @@ public class DynoQueueDAO implements QueueDAO {
 
     @Override
     public void push(String queueName, String id, int priority, long offsetTimeInSecond) {
-        Message msg = new Message(id, null);
-        msg.setTimeout(offsetTimeInSecond, TimeUnit.SECONDS);
-        if (priority >= 0 && priority <= 99) {
-            msg.setPriority(priority);
-        }
-        queues.get(queueName).push(Collections.singletonList(msg));
+        queues.get(queueName)
+                .push(Collections.singletonList(newMessage(id, priority, offsetTimeInSecond)));
     }
 
     @Override
@@ -114,6 +130,21 @@ public class DynoQueueDAO implements QueueDAO {
         queues.get(queueName).remove(messageId);
     }
 
+    @Override
+    public void remove(String queueName, List<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return;
+        }
+        String[] ids = messageIds.toArray(new String[0]);
+        CommandBatch batch = new CommandBatch();
+        for (String shard : shards) {
+            batch.zrem(getUnackKey(queueName, shard), ids)
+                    .zrem(getQueueShardKey(queueName, shard), ids);
+        }
+        batch.hdel(getMessageStoreKey(queueName), ids);
+        jedisProxy.execute(batch);
+    }
+
     @Override
     public int getSize(String queueName) {
         return (int) queues.get(queueName).size();
@@ -124,11 +155,65 @@ public class DynoQueueDAO implements QueueDAO {
         return queues.get(queueName).ack(messageId);
     }
 
+    /**
+     * As {@link #ack(String, String)}, only the messages still unacked are acked and removed, in
+     * two pipelines.
+     */
+    @Override
+    public int ack(String queueName, List<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return 0;
+        }
+        CommandBatch unacks = new CommandBatch();
+        for (String messageId : messageIds) {
+            for (String shard : shards) {
+                unacks.zrem(getUnackKey(queueName, shard), messageId);
+            }
+        }
+        jedisProxy.execute(unacks);
+        List<Object> replies = unacks.getReplies();
+        List<String> acked = new ArrayList<>(messageIds.size());
+        for (int i = 0; i < messageIds.size(); i++) {
+            for (int j = 0; j < shards.size(); j++) {
+                if ((Long) replies.get(i * shards.size() + j) > 0) {
+                    acked.add(messageIds.get(i));
+                    break;
+                }
+            }
+        }
+        if (!acked.isEmpty()) {
+            jedisProxy.execute(
+                    new CommandBatch()
+                            .hdel(getMessageStoreKey(queueName), acked.toArray(new String[0])));
+        }
+        return acked.size();
+    }
+
     @Override
     public boolean setUnackTimeout(String queueName, String messageId, long timeout) {
         return queues.get(queueName).setUnackTimeout(messageId, timeout);
     }
 
+    /**
+     * As {@link com.netflix.dyno.queues.redis.RedisDynoQueue#setUnackTimeout(String, long)}, the
+     * unack score of the messages is updated on the shards they are unacked in, with one pipeline.
+     */
+    @Override
+    public void setUnackTimeout(String queueName, Map<String, Long> unackTimeouts) {
+        if (unackTimeouts.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        CommandBatch batch = new CommandBatch();
+        unackTimeouts.forEach(
+                (messageId, timeout) -> {
+                    for (String shard : shards) {
+                        batch.zaddIfExists(getUnackKey(queueName, shard), now + timeout, messageId);
+                    }
+                });
+        jedisProxy.execute(batch);
+    }
+
     @Override
     public void flush(String queueName) {
         DynoQueue queue = queues.get(queueName);
@@ -159,10 +244,49 @@ public class DynoQueueDAO implements QueueDAO {
         return queue.setTimeout(id, 0);
     }
 
+    /** Removes the messages in one pipeline, and pushes them back with one push to the queue. */
+    @Override
+    public void postpone(
+            String queueName,
+            List<String> messageIds,
+            int priority,
+            long postponeDurationInSeconds) {
+        if (messageIds.isEmpty()) {
+            return;
+        }
+        remove(queueName, messageIds);
+        List<Message> messages = new ArrayList<>(messageIds.size());
+        for (String messageId : messageIds) {
+            messages.add(newMessage(messageId, priority, postponeDurationInSeconds));
+        }
+        queues.get(queueName).push(messages);
+    }
+
     @Override
     public boolean containsMessage(String queueName, String messageId) {
         DynoQueue queue = queues.get(queueName);
         Message message = queue.get(messageId);
         return Objects.nonNull(message);
     }
+
+    private static Message newMessage(String id, int priority, long offsetTimeInSecond) {
+        Message msg = new Message(id, null);
+        msg.setTimeout(offsetTimeInSecond, TimeUnit.SECONDS);
+        if (priority >= 0 && priority <= 99) {
+            msg.setPriority(priority);
+        }
+        return msg;
+    }
+
+    private String getMessageStoreKey(String queueName) {
+        return queuePrefix + ".MESSAGE." + queueName;
+    }
+
+    private String getQueueShardKey(String queueName, String shard) {
+        return queuePrefix + ".QUEUE." + queueName + "." + shard;
+    }
+
+    private String getUnackKey(String queueName, String shard) {
+        return queuePrefix + ".UNACK." + queueName + "." + shard;
+    }
 }
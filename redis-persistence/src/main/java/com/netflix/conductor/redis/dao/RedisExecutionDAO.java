@@ -32,6 +32,7 @@ import com.netflix.conductor.model.TaskModel;
 import com.netflix.conductor.model.WorkflowModel;
 import com.netflix.conductor.redis.config.AnyRedisCondition;
 import com.netflix.conductor.redis.config.RedisProperties;
+import com.netflix.conductor.redis.jedis.CommandBatch;
 import com.netflix.conductor.redis.jedis.JedisProxy;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -191,12 +192,27 @@ public class RedisExecutionDAO extends BaseDynoDAO
 
     @Override
     public void updateTask(TaskModel task) {
+        updateTasks(Collections.singletonList(task));
+    }
+
+    /**
+     * Sends the writes of all the tasks in one pipeline. The tasks are added to the workflow to
+     * tasks set unconditionally, SADD being idempotent, instead of reading the set first.
+     */
+    @Override
+    public void updateTasks(List<TaskModel> tasks) {
+        CommandBatch batch = new CommandBatch();
+        tasks.forEach(task -> addTaskUpdate(batch, task));
+        jedisProxy.execute(batch);
+    }
+
+    private void addTaskUpdate(CommandBatch batch, TaskModel task) {
         Optional<TaskDef> taskDefinition = task.getTaskDefinition();
 
         if (taskDefinition.isPresent() && taskDefinition.get().concurrencyLimit() > 0) {
 
             if (task.getStatus() != null && task.getStatus().equals(TaskModel.Status.IN_PROGRESS)) {
-                jedisProxy.sadd(
+                batch.sadd(
                         nsKey(TASKS_IN_PROGRESS_STATUS, task.getTaskDefName()), task.getTaskId());
                 LOGGER.debug(
                         "Workflow Task added to TASKS_IN_PROGRESS_STATUS with tasksInProgressKey: {}, workflowId: {}, taskId: {}, taskType: {}, taskStatus: {} during updateTask",
@@ -206,7 +222,7 @@ public class RedisExecutionDAO extends BaseDynoDAO
                         task.getTaskType(),
                         task.getStatus().name());
             } else {
-                jedisProxy.srem(
+                batch.srem(
                         nsKey(TASKS_IN_PROGRESS_STATUS, task.getTaskDefName()), task.getTaskId());
                 LOGGER.debug(
                         "Workflow Task removed from TASKS_IN_PROGRESS_STATUS with tasksInProgressKey: {}, workflowId: {}, taskId: {}, taskType: {}, taskStatus: {} during updateTask",
@@ -216,7 +232,7 @@ public class RedisExecutionDAO extends BaseDynoDAO
                         task.getTaskType(),
                         task.getStatus().name());
                 String key = nsKey(TASK_LIMIT_BUCKET, task.getTaskDefName());
-                jedisProxy.zrem(key, task.getTaskId());
+                batch.zrem(key, task.getTaskId());
                 LOGGER.debug(
                         "Workflow Task removed from TASK_LIMIT_BUCKET with taskLimitBucketKey: {}, workflowId: {}, taskId: {}, taskType: {}, taskStatus: {} during updateTask",
                         key,
@@ -235,7 +251,7 @@ public class RedisExecutionDAO extends BaseDynoDAO
                 task.getWorkflowType());
 
         recordRedisDaoRequests("updateTask", task.getTaskType(), task.getWorkflowType());
-        jedisProxy.set(nsKey(TASK, task.getTaskId()), payload);
+        batch.set(nsKey(TASK, task.getTaskId()), payload);
         LOGGER.debug(
                 "Workflow task payload saved to TASK with taskKey: {}, workflowId: {}, taskId: {}, taskType: {} during updateTask",
                 nsKey(TASK, task.getTaskId()),
@@ -243,7 +259,7 @@ public class RedisExecutionDAO extends BaseDynoDAO
                 task.getTaskId(),
                 task.getTaskType());
         if (task.getStatus() != null && task.getStatus().isTerminal()) {
-            jedisProxy.srem(nsKey(IN_PROGRESS_TASKS, task.getTaskDefName()), task.getTaskId());
+            batch.srem(nsKey(IN_PROGRESS_TASKS, task.getTaskDefName()), task.getTaskId());
             LOGGER.debug(
                     "Workflow Task removed from TASKS_IN_PROGRESS_STATUS with tasksInProgressKey: {}, workflowId: {}, taskId: {}, taskType: {}, taskStatus: {} during updateTask",
                     nsKey(IN_PROGRESS_TASKS, task.getTaskDefName()),
@@ -253,11 +269,7 @@ public class RedisExecutionDAO extends BaseDynoDAO
                     task.getStatus().name());
         }
 
-        Set<String> taskIds =
-                jedisProxy.smembers(nsKey(WORKFLOW_TO_TASKS, task.getWorkflowInstanceId()));
-        if (!taskIds.contains(task.getTaskId())) {
-            correlateTaskToWorkflowInDS(task.getTaskId(), task.getWorkflowInstanceId());
-        }
+        batch.sadd(nsKey(WORKFLOW_TO_TASKS, task.getWorkflowInstanceId()), task.getTaskId());
     }
 
     @Override
@@ -376,9 +388,9 @@ public class RedisExecutionDAO extends BaseDynoDAO
 
     @Override
     public List<TaskModel> getTasks(List<String> taskIds) {
-        return taskIds.stream()
-                .map(taskId -> nsKey(TASK, taskId))
-                .map(jedisProxy::get)
+        List<String> keys =
+                taskIds.stream().map(taskId -> nsKey(TASK, taskId)).collect(Collectors.toList());
+        return jedisProxy.mget(keys).stream()
                 .filter(Objects::nonNull)
                 .map(
                         jsonString -> {
@@ -398,7 +410,7 @@ public class RedisExecutionDAO extends BaseDynoDAO
     @Override
     public List<TaskModel> getTasksForWorkflow(String workflowId) {
         Preconditions.checkNotNull(workflowId, "workflowId cannot be null");
-        Set<String> taskIds = jedisProxy.smembers(nsKey(WORKFLOW_TO_TASKS, workflowId));
+        Set<String> taskIds = jedisProxy.smembersAll(nsKey(WORKFLOW_TO_TASKS, workflowId));
         recordRedisDaoRequests("getTasksForWorkflow");
         return getTasks(new ArrayList<>(taskIds));
     }
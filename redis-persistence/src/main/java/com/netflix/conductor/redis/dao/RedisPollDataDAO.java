@@ -25,6 +25,7 @@ import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.dao.PollDataDAO;
 import com.netflix.conductor.redis.config.AnyRedisCondition;
 import com.netflix.conductor.redis.config.RedisProperties;
+import com.netflix.conductor.redis.jedis.CommandBatch;
 import com.netflix.conductor.redis.jedis.JedisProxy;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -58,6 +59,23 @@ public class RedisPollDataDAO extends BaseDynoDAO implements PollDataDAO {
         jedisProxy.hset(key, field, payload);
     }
 
+    @Override
+    public void updateLastPollData(List<PollData> pollData) {
+        CommandBatch batch = new CommandBatch();
+        for (PollData data : pollData) {
+            Preconditions.checkNotNull(data.getQueueName(), "taskDefName name cannot be null");
+            String key = nsKey(POLL_DATA, data.getQueueName());
+            String field = (data.getDomain() == null) ? "DEFAULT" : data.getDomain();
+            String payload = toJson(data);
+            recordRedisDaoRequests("updatePollData");
+            recordRedisDaoPayloadSize("updatePollData", payload.length(), "n/a", "n/a");
+            batch.hset(key, field, payload);
+        }
+        if (!batch.isEmpty()) {
+            jedisProxy.execute(batch);
+        }
+    }
+
     @Override
     public PollData getPollData(String taskDefName, String domain) {
         Preconditions.checkNotNull(taskDefName, "taskDefName name cannot be null");
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.redis.dynoqueue;
+
+import java.io.Closeable;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.core.dal.QueueWakeupPublisher;
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPubSub;
+
+/**
+ * Sends the pushes to the task queues to the other servers on a Redis pub/sub channel, and signals
+ * the pushes of the other servers to the {@link QueueWakeupRegistry} of this one. The messages are
+ * the id of the publishing server and the queue name, a server ignores its own messages as it
+ * already signalled them.
+ *
+ * <p>The channel is listened to on a thread of its own, which subscribes again after losing its
+ * connection. The pushes published meanwhile are only seen by the next recheck of the polls.
+ */
+public class RedisQueueWakeupPublisher implements QueueWakeupPublisher, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisQueueWakeupPublisher.class);
+
+    private static final char SEPARATOR = ':';
+    private static final long RESUBSCRIBE_DELAY_MS = 1000;
+
+    private final JedisPool jedisPool;
+    private final String channel;
+    private final QueueWakeupRegistry queueWakeupRegistry;
+    private final String serverId = UUID.randomUUID().toString();
+    private final String ownPrefix = serverId + SEPARATOR;
+    private final JedisPubSub listener =
+            new JedisPubSub() {
+                @Override
+                public void onMessage(String channel, String message) {
+                    signal(message);
+                }
+            };
+    private final Thread subscriber;
+    private volatile boolean closed;
+
+    /**
+     * @param jedisPool the connections to publish with, one of them held by the subscription
+     * @param channel the channel shared by the servers
+     * @param queueWakeupRegistry the registry to signal the pushes of the other servers to
+     */
+    public RedisQueueWakeupPublisher(
+            JedisPool jedisPool, String channel, QueueWakeupRegistry queueWakeupRegistry) {
+        this.jedisPool = jedisPool;
+        this.channel = channel;
+        this.queueWakeupRegistry = queueWakeupRegistry;
+        this.subscriber = new Thread(this::subscribe, "redis-queue-wakeup");
+        this.subscriber.setDaemon(true);
+        this.subscriber.start();
+    }
+
+    @Override
+    public void publish(String queueName) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.publish(channel, ownPrefix + queueName);
+        }
+    }
+
+    /**
+     * @return whether the channel is listened to
+     */
+    boolean isSubscribed() {
+        return listener.isSubscribed();
+    }
+
+    private void signal(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        // the queue names can hold the separator too, the server ids do not
+        if (separator > 0 && !message.startsWith(ownPrefix)) {
+            queueWakeupRegistry.signal(message.substring(separator + 1));
+        }
+    }
+
+    private void subscribe() {
+        while (!closed) {
+            try (Jedis jedis = jedisPool.getResource()) {
+                // returns once unsubscribed
+                jedis.subscribe(listener, channel);
+            } catch (Exception e) {
+                if (closed) {
+                    return;
+                }
+                LOGGER.warn("Lost the subscription to the channel: {}", channel, e);
+                try {
+                    Thread.sleep(RESUBSCRIBE_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (listener.isSubscribed()) {
+            listener.unsubscribe();
+        }
+        subscriber.interrupt();
+        jedisPool.close();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.redis.jedis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.commands.JedisCommands;
+import redis.clients.jedis.commands.RedisPipeline;
+import redis.clients.jedis.params.ZAddParams;
+
+/**
+ * Commands collected to be sent together with {@link JedisProxy#execute(CommandBatch)}. The
+ * commands are pipelined, not wrapped in a transaction: they are applied in order, and a failure of
+ * one of them does not roll back the others. Their replies are available once the batch was
+ * executed, see {@link #getReplies()}.
+ */
+public final class CommandBatch {
+
+    private final List<Command> commands = new ArrayList<>();
+
+    public CommandBatch set(String key, String value) {
+        return add(key, pipeline -> pipeline.set(key, value), jedis -> jedis.set(key, value));
+    }
+
+    public CommandBatch sadd(String key, String member) {
+        return add(key, pipeline -> pipeline.sadd(key, member), jedis -> jedis.sadd(key, member));
+    }
+
+    public CommandBatch srem(String key, String member) {
+        return add(key, pipeline -> pipeline.srem(key, member), jedis -> jedis.srem(key, member));
+    }
+
+    /** Updates the score of the member, only if the member is already in the sorted set. */
+    public CommandBatch zaddIfExists(String key, double score, String member) {
+        ZAddParams params = ZAddParams.zAddParams().xx();
+        return add(
+                key,
+                pipeline -> pipeline.zadd(key, score, member, params),
+                jedis -> jedis.zadd(key, score, member, params));
+    }
+
+    public CommandBatch zrem(String key, String... members) {
+        return add(key, pipeline -> pipeline.zrem(key, members), jedis -> jedis.zrem(key, members));
+    }
+
+    public CommandBatch hset(String key, String field, String value) {
+        return add(
+                key,
+                pipeline -> pipeline.hset(key, field, value),
+                jedis -> jedis.hset(key, field, value));
+    }
+
+    public CommandBatch hdel(String key, String... fields) {
+        return add(key, pipeline -> pipeline.hdel(key, fields), jedis -> jedis.hdel(key, fields));
+    }
+
+    public boolean isEmpty() {
+        return commands.isEmpty();
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    /**
+     * @return the replies of the commands, in the order the commands were added, null for the
+     *     commands not executed yet
+     */
+    public List<Object> getReplies() {
+        List<Object> replies = new ArrayList<>(commands.size());
+        commands.forEach(command -> replies.add(command.getReply()));
+        return replies;
+    }
+
+    List<Command> getCommands() {
+        return commands;
+    }
+
+    /** Sends the commands one by one, for the clients that cannot pipeline them. */
+    void executeEach(JedisCommands jedisCommands) {
+        commands.forEach(command -> command.execute(jedisCommands));
+    }
+
+    /** Sends all the commands in the pipeline and waits for their replies. */
+    void executePipelined(Pipeline pipeline) {
+        List<Response<?>> responses = new ArrayList<>(commands.size());
+        for (Command command : commands) {
+            responses.add(command.queue(pipeline));
+        }
+        pipeline.sync();
+        // surfaces the first error reply, if any
+        for (int i = 0; i < commands.size(); i++) {
+            commands.get(i).setReply(responses.get(i).get());
+        }
+    }
+
+    private CommandBatch add(
+            String key,
+            Function<RedisPipeline, Response<?>> pipelined,
+            Function<JedisCommands, ?> direct) {
+        commands.add(new Command(key, pipelined, direct));
+        return this;
+    }
+
+    static final class Command {
+
+        private final String key;
+        private final Function<RedisPipeline, Response<?>> pipelined;
+        private final Function<JedisCommands, ?> direct;
+        private Object reply;
+
+        private Command(
+                String key,
+                Function<RedisPipeline, Response<?>> pipelined,
+                Function<JedisCommands, ?> direct) {
+            this.key = key;
+            this.pipelined = pipelined;
+            this.direct = direct;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        Response<?> queue(RedisPipeline pipeline) {
+            return pipelined.apply(pipeline);
+        }
+
+        void execute(JedisCommands jedisCommands) {
+            reply = direct.apply(jedisCommands);
+        }
+
+        Object getReply() {
+            return reply;
+        }
+
+        void setReply(Object reply) {
+            this.reply = reply;
+        }
+    }
+}
@@ -13,17 +13,25 @@
 package com.netflix.conductor.redis.jedis;
 
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.google.common.collect.Lists;
 import redis.clients.jedis.BitPosParams;
 import redis.clients.jedis.GeoCoordinate;
 import redis.clients.jedis.GeoRadiusResponse;
 import redis.clients.jedis.GeoUnit;
+import redis.clients.jedis.Jedis;
 import redis.clients.jedis.ListPosition;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.ScanParams;
 import redis.clients.jedis.ScanResult;
 import redis.clients.jedis.SortingParams;
@@ -35,12 +43,14 @@ import redis.clients.jedis.StreamInfo;
 import redis.clients.jedis.StreamPendingEntry;
 import redis.clients.jedis.Tuple;
 import redis.clients.jedis.commands.JedisCommands;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
 import redis.clients.jedis.params.GeoRadiusParam;
 import redis.clients.jedis.params.SetParams;
 import redis.clients.jedis.params.ZAddParams;
 import redis.clients.jedis.params.ZIncrByParams;
+import redis.clients.jedis.util.JedisClusterCRC16;
 
-public class JedisCluster implements JedisCommands {
+public class JedisCluster implements JedisCommands, MultiKeyReadCommands, PipelinedCommands {
 
     private final redis.clients.jedis.JedisCluster jedisCluster;
 
@@ -950,4 +960,113 @@ public class JedisCluster implements JedisCommands {
     public List<StreamConsumersInfo> xinfoConsumers(String key, String group) {
         return null;
     }
+
+    /**
+     * Keys are grouped by hash slot, since a cluster MGET only accepts keys of one slot, and the
+     * MGET of all the slots served by a node are sent in one pipeline: the read takes one round
+     * trip per node. The slots that moved since the slot cache was refreshed are read again with
+     * {@link redis.clients.jedis.JedisCluster#mget(String...)}, which follows the redirections.
+     */
+    @Override
+    public List<String> mget(List<String> keys) {
+        Map<Integer, List<Integer>> positionsBySlot = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            positionsBySlot
+                    .computeIfAbsent(
+                            JedisClusterCRC16.getSlot(keys.get(i)), slot -> new ArrayList<>())
+                    .add(i);
+        }
+
+        String[] values = new String[keys.size()];
+        List<List<Integer>> batches = new ArrayList<>();
+        List<Response<List<String>>> responses = new ArrayList<>();
+        try (NodePipelines pipelines = new NodePipelines()) {
+            for (Entry<Integer, List<Integer>> entry : positionsBySlot.entrySet()) {
+                Pipeline pipeline = pipelines.forSlot(entry.getKey());
+                for (List<Integer> batch : Lists.partition(entry.getValue(), MGET_BATCH_SIZE)) {
+                    batches.add(batch);
+                    responses.add(pipeline.mget(keysAt(keys, batch)));
+                }
+            }
+            pipelines.sync();
+        }
+
+        for (int b = 0; b < batches.size(); b++) {
+            List<Integer> positions = batches.get(b);
+            List<String> batchValues;
+            try {
+                batchValues = responses.get(b).get();
+            } catch (JedisRedirectionException e) {
+                batchValues = jedisCluster.mget(keysAt(keys, positions));
+            }
+            for (int i = 0; i < positions.size(); i++) {
+                values[positions.get(i)] = batchValues.get(i);
+            }
+        }
+        return Arrays.asList(values);
+    }
+
+    private String[] keysAt(List<String> keys, List<Integer> positions) {
+        String[] batch = new String[positions.size()];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = keys.get(positions.get(i));
+        }
+        return batch;
+    }
+
+    @Override
+    public Set<String> smembersAll(String key) {
+        return jedisCluster.smembers(key);
+    }
+
+    /**
+     * Commands are pipelined per node like {@link #mget(List)}. The commands on slots that moved
+     * are sent again, after the others, with the commands of this class, which follow the
+     * redirections.
+     */
+    @Override
+    public void execute(CommandBatch batch) {
+        List<CommandBatch.Command> commands = batch.getCommands();
+        List<Response<?>> responses = new ArrayList<>(commands.size());
+        try (NodePipelines pipelines = new NodePipelines()) {
+            for (CommandBatch.Command command : commands) {
+                responses.add(
+                        command.queue(
+                                pipelines.forSlot(JedisClusterCRC16.getSlot(command.getKey()))));
+            }
+            pipelines.sync();
+        }
+        for (int i = 0; i < commands.size(); i++) {
+            try {
+                commands.get(i).setReply(responses.get(i).get());
+            } catch (JedisRedirectionException e) {
+                commands.get(i).execute(this);
+            }
+        }
+    }
+
+    /** One pipeline per cluster node, on a connection borrowed from the pool of the node. */
+    private class NodePipelines implements AutoCloseable {
+
+        private final Map<String, Jedis> connections = new HashMap<>();
+        private final Map<String, Pipeline> pipelines = new HashMap<>();
+
+        Pipeline forSlot(int slot) {
+            Jedis connection = jedisCluster.getConnectionFromSlot(slot);
+            String node = connection.getClient().getHost() + ":" + connection.getClient().getPort();
+            if (connections.putIfAbsent(node, connection) != null) {
+                connection.close();
+            }
+            return pipelines.computeIfAbsent(node, n -> connections.get(n).pipelined());
+        }
+
+        void sync() {
+            pipelines.values().forEach(Pipeline::sync);
+        }
+
+        @Override
+        public void close() {
+            connections.values().forEach(Jedis::close);
+        }
+    }
 }
@@ -13,6 +13,7 @@
 package com.netflix.conductor.redis.jedis;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -30,8 +31,9 @@ import redis.clients.jedis.ScanResult;
 import redis.clients.jedis.Tuple;
 import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.params.ZAddParams;
+import redis.clients.jedis.util.SafeEncoder;
 
-public class JedisMock extends Jedis {
+public class JedisMock extends Jedis implements MultiKeyReadCommands {
 
     private final IRedisClient redis;
 
@@ -698,7 +700,11 @@ public class JedisMock extends Jedis {
 
         try {
 
-            if (params.getParam("xx") != null) {
+            // xx is a flag, stored without a value, so getParam("xx") is always null
+            boolean xx =
+                    Arrays.stream(params.getByteParams())
+                            .anyMatch(param -> "xx".equalsIgnoreCase(SafeEncoder.encode(param)));
+            if (xx) {
                 Double existing = redis.zscore(key, member);
                 if (existing == null) {
                     return 0L;
@@ -1175,4 +1181,18 @@ public class JedisMock extends Jedis {
             throw new JedisException(e);
         }
     }
+
+    @Override
+    public List<String> mget(List<String> keys) {
+        try {
+            return Arrays.asList(redis.mget(keys.toArray(new String[0])));
+        } catch (Exception e) {
+            throw new JedisException(e);
+        }
+    }
+
+    @Override
+    public Set<String> smembersAll(String key) {
+        return smembers(key);
+    }
 }
@@ -12,6 +12,8 @@
  */
 package com.netflix.conductor.redis.jedis;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -73,6 +75,42 @@ public class JedisProxy {
         return jedisCommands.get(key);
     }
 
+    /**
+     * Reads the given keys with MGET when the underlying client supports it, with one GET per key
+     * otherwise, e.g. with Dynomite which does not support multi-key commands across shards.
+     *
+     * @return the values in the order of the keys, null for the keys that do not exist
+     */
+    public List<String> mget(List<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (jedisCommands instanceof MultiKeyReadCommands) {
+            return ((MultiKeyReadCommands) jedisCommands).mget(keys);
+        }
+        List<String> values = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            values.add(jedisCommands.get(key));
+        }
+        return values;
+    }
+
+    /**
+     * Sends the commands of the batch in one pipeline when the underlying client supports it, one
+     * by one otherwise.
+     */
+    public void execute(CommandBatch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        LOGGER.trace("execute batch of {} commands", batch.size());
+        if (jedisCommands instanceof PipelinedCommands) {
+            ((PipelinedCommands) jedisCommands).execute(batch);
+        } else {
+            batch.executeEach(jedisCommands);
+        }
+    }
+
     public Long zcard(String key) {
         return jedisCommands.zcard(key);
     }
@@ -225,6 +263,18 @@ public class JedisProxy {
         return r;
     }
 
+    /**
+     * Reads the whole set in one round trip when the underlying client supports it. Meant for
+     * bounded sets, such as the tasks of a workflow, {@link #smembers(String)} scans the others.
+     */
+    public Set<String> smembersAll(String key) {
+        if (jedisCommands instanceof MultiKeyReadCommands) {
+            LOGGER.trace("smembersAll {}", key);
+            return ((MultiKeyReadCommands) jedisCommands).smembersAll(key);
+        }
+        return smembers(key);
+    }
+
     public Long scard(String key) {
         return jedisCommands.scard(key);
     }
@@ -40,7 +40,7 @@ import redis.clients.jedis.params.SetParams;
 import redis.clients.jedis.params.ZAddParams;
 import redis.clients.jedis.params.ZIncrByParams;
 
-public class JedisSentinel implements JedisCommands {
+public class JedisSentinel implements JedisCommands, MultiKeyReadCommands, PipelinedCommands {
 
     private final JedisPoolAbstract jedisPool;
 
@@ -1273,4 +1273,25 @@ public class JedisSentinel implements JedisCommands {
             return jedis.xinfoConsumers(key, group);
         }
     }
+
+    @Override
+    public List<String> mget(List<String> keys) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return MultiKeyReadCommands.pipelinedMget(jedis, keys);
+        }
+    }
+
+    @Override
+    public Set<String> smembersAll(String key) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.smembers(key);
+        }
+    }
+
+    @Override
+    public void execute(CommandBatch batch) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            batch.executePipelined(jedis.pipelined());
+        }
+    }
 }
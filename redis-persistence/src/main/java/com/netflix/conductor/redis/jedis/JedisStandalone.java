@@ -41,7 +41,7 @@ import redis.clients.jedis.params.ZAddParams;
 import redis.clients.jedis.params.ZIncrByParams;
 
 /** A {@link JedisCommands} implementation that delegates to {@link JedisPool}. */
-public class JedisStandalone implements JedisCommands {
+public class JedisStandalone implements JedisCommands, MultiKeyReadCommands, PipelinedCommands {
 
     private final JedisPool jedisPool;
 
@@ -959,4 +959,21 @@ public class JedisStandalone implements JedisCommands {
     public List<StreamConsumersInfo> xinfoConsumers(String key, String group) {
         return executeInJedis(jedis -> jedis.xinfoConsumers(key, group));
     }
+
+    @Override
+    public List<String> mget(List<String> keys) {
+        return executeInJedis(jedis -> MultiKeyReadCommands.pipelinedMget(jedis, keys));
+    }
+
+    @Override
+    public Set<String> smembersAll(String key) {
+        return executeInJedis(jedis -> jedis.smembers(key));
+    }
+
+    @Override
+    public void execute(CommandBatch batch) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            batch.executePipelined(jedis.pipelined());
+        }
+    }
 }
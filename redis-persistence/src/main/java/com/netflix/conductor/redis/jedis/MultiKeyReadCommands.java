@@ -0,0 +1,63 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.redis.jedis;
+
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+/**
+ * Reads of many keys in a number of round trips that does not depend on the number of keys.
+ * Implemented by the {@link redis.clients.jedis.commands.JedisCommands} clients that support it,
+ * see {@link JedisProxy#mget(List)} for the fallback used by the other ones.
+ */
+public interface MultiKeyReadCommands {
+
+    /** Keys per MGET command, larger reads are split into several pipelined commands. */
+    int MGET_BATCH_SIZE = 500;
+
+    /**
+     * @param keys the keys to read
+     * @return the values in the order of the keys, null for the keys that do not exist
+     */
+    List<String> mget(List<String> keys);
+
+    /**
+     * @param key the key of the set
+     * @return all the members of the set, read with a single SMEMBERS command
+     */
+    Set<String> smembersAll(String key);
+
+    /** MGET split into batches of {@link #MGET_BATCH_SIZE} keys sent in one pipeline. */
+    static List<String> pipelinedMget(Jedis jedis, List<String> keys) {
+        if (keys.size() <= MGET_BATCH_SIZE) {
+            return jedis.mget(keys.toArray(new String[0]));
+        }
+        Pipeline pipeline = jedis.pipelined();
+        List<Response<List<String>>> responses =
+                Lists.newArrayListWithCapacity(keys.size() / MGET_BATCH_SIZE + 1);
+        for (List<String> batch : Lists.partition(keys, MGET_BATCH_SIZE)) {
+            responses.add(pipeline.mget(batch.toArray(new String[0])));
+        }
+        pipeline.sync();
+        List<String> values = Lists.newArrayListWithCapacity(keys.size());
+        for (Response<List<String>> response : responses) {
+            values.addAll(response.get());
+        }
+        return values;
+    }
+}
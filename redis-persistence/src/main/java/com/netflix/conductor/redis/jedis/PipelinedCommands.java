@@ -0,0 +1,28 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.redis.jedis;
+
+/**
+ * Implemented by the {@link redis.clients.jedis.commands.JedisCommands} clients that can send a
+ * {@link CommandBatch} in one pipeline, see {@link JedisProxy#execute(CommandBatch)} for the
+ * fallback used by the other ones.
+ */
+public interface PipelinedCommands {
+
+    /**
+     * Sends the commands of the batch in one pipeline, in order, and waits for their replies.
+     *
+     * @param batch the commands to send
+     */
+    void execute(CommandBatch batch);
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.redis.dao;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.testcontainers.containers.GenericContainer;
+
+import com.netflix.conductor.redis.config.RedisProperties;
+import com.netflix.conductor.redis.dynoqueue.RedisQueuesShardingStrategyProvider;
+import com.netflix.conductor.redis.jedis.JedisProxy;
+import com.netflix.conductor.redis.jedis.JedisStandalone;
+import com.netflix.dyno.connectionpool.Host;
+import com.netflix.dyno.queues.DynoQueue;
+import com.netflix.dyno.queues.Message;
+import com.netflix.dyno.queues.ShardSupplier;
+import com.netflix.dyno.queues.redis.RedisQueues;
+import com.netflix.dyno.queues.redis.sharding.ShardingStrategy;
+
+import redis.clients.jedis.JedisPool;
+
+import static com.netflix.conductor.redis.dynoqueue.RedisQueuesShardingStrategyProvider.LOCAL_ONLY_STRATEGY;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The batch operations of {@link DynoQueueDAO} write the keys of the queues directly, this checks
+ * them against {@link com.netflix.dyno.queues.redis.RedisDynoQueue} reading the same Redis.
+ */
+public class DynoQueueDAORedisTest {
+
+    private static final String QUEUE_PREFIX = "test";
+    private static final String QUEUE_NAME = "TestQueue";
+    private static final Set<String> SHARDS = Set.of("a", "b");
+
+    @ClassRule
+    public static GenericContainer<?> redis =
+            new GenericContainer<>("redis:5.0.3-alpine").withExposedPorts(6379);
+
+    private static JedisPool jedisPool;
+
+    private DynoQueueDAO queueDAO;
+    private DynoQueue queue;
+
+    @BeforeClass
+    public static void connect() {
+        jedisPool = new JedisPool(redis.getHost(), redis.getFirstMappedPort());
+    }
+
+    @AfterClass
+    public static void disconnect() {
+        jedisPool.close();
+    }
+
+    @Before
+    public void init() {
+        try (var jedis = jedisPool.getResource()) {
+            jedis.flushAll();
+        }
+        JedisStandalone jedis = new JedisStandalone(jedisPool);
+        ShardSupplier shardSupplier =
+                new ShardSupplier() {
+                    @Override
+                    public Set<String> getQueueShards() {
+                        return SHARDS;
+                    }
+
+                    @Override
+                    public String getCurrentShard() {
+                        return "a";
+                    }
+
+                    @Override
+                    public String getShardForHost(Host host) {
+                        return "a";
+                    }
+                };
+        RedisProperties properties = mock(RedisProperties.class);
+        when(properties.getQueuePrefix()).thenReturn(QUEUE_PREFIX);
+        when(properties.getQueueShardingStrategy()).thenReturn(LOCAL_ONLY_STRATEGY);
+        // the messages are pushed to and popped from shard a, the DAO goes through both shards
+        ShardingStrategy shardingStrategy =
+                new RedisQueuesShardingStrategyProvider(shardSupplier, properties).get();
+        RedisQueues redisQueues =
+                new RedisQueues(
+                        jedis,
+                        jedis,
+                        QUEUE_PREFIX,
+                        shardSupplier,
+                        60_000,
+                        60_000,
+                        shardingStrategy);
+        queueDAO = new DynoQueueDAO(redisQueues, new JedisProxy(jedis), shardSupplier, properties);
+        queue = redisQueues.get(QUEUE_NAME);
+    }
+
+    private void push(String... ids) {
+        queue.push(
+                Arrays.stream(ids).map(id -> new Message(id, null)).collect(Collectors.toList()));
+    }
+
+    private long unacked() {
+        return queue.shardSizes().values().stream().mapToLong(sizes -> sizes.get("uacked")).sum();
+    }
+
+    @Test
+    public void removesTheMessagesOfTheQueue() {
+        push("m1", "m2", "m3");
+        // one of them unacked, the others still in the queue
+        assertEquals(1, queue.pop(1, 1000, TimeUnit.MILLISECONDS).size());
+
+        queueDAO.remove(QUEUE_NAME, List.of("m1", "m2", "m3"));
+
+        assertNull(queue.get("m1"));
+        assertNull(queue.get("m2"));
+        assertNull(queue.get("m3"));
+        assertEquals(0, queue.size());
+        assertEquals(0, unacked());
+    }
+
+    @Test
+    public void acksOnlyTheUnackedMessages() {
+        push("m1", "m2", "m3");
+        List<Message> popped = queue.pop(2, 1000, TimeUnit.MILLISECONDS);
+        assertEquals(2, popped.size());
+        String notPopped =
+                List.of("m1", "m2", "m3").stream()
+                        .filter(id -> popped.stream().noneMatch(m -> m.getId().equals(id)))
+                        .findFirst()
+                        .orElseThrow();
+
+        List<String> ids =
+                List.of(popped.get(0).getId(), popped.get(1).getId(), notPopped, "unknown");
+        assertEquals(2, queueDAO.ack(QUEUE_NAME, ids));
+
+        assertNull(queue.get(popped.get(0).getId()));
+        assertNull(queue.get(popped.get(1).getId()));
+        assertNotNull(queue.get(notPopped));
+        assertEquals(1, queue.size());
+        assertEquals(0, unacked());
+        // and what is acked in a batch can no longer be acked one by one
+        assertFalse(queue.ack(popped.get(0).getId()));
+    }
+
+    @Test
+    public void setsTheUnackTimeoutOfTheUnackedMessages() {
+        push("m1", "m2");
+        List<Message> popped = queue.pop(2, 1000, TimeUnit.MILLISECONDS);
+        assertEquals(2, popped.size());
+
+        queueDAO.setUnackTimeout(QUEUE_NAME, Map.of("m1", 0L, "m2", 60_000L, "unknown", 0L));
+        queue.processUnacks();
+
+        // only m1 timed out, and is back in the queue
+        assertEquals(1, queue.size());
+        assertEquals(1, unacked());
+        List<Message> again = queue.pop(2, 1000, TimeUnit.MILLISECONDS);
+        assertEquals(1, again.size());
+        assertEquals("m1", again.get(0).getId());
+        assertNull(queue.get("unknown"));
+    }
+}
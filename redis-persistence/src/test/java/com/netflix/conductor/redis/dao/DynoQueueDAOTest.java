@@ -12,6 +12,7 @@
  */
 package com.netflix.conductor.redis.dao;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -27,6 +28,7 @@ import com.netflix.conductor.dao.QueueDAO;
 import com.netflix.conductor.redis.config.RedisProperties;
 import com.netflix.conductor.redis.dynoqueue.RedisQueuesShardingStrategyProvider;
 import com.netflix.conductor.redis.jedis.JedisMock;
+import com.netflix.conductor.redis.jedis.JedisProxy;
 import com.netflix.dyno.connectionpool.Host;
 import com.netflix.dyno.queues.ShardSupplier;
 import com.netflix.dyno.queues.redis.RedisQueues;
@@ -37,7 +39,9 @@ import redis.clients.jedis.commands.JedisCommands;
 import static com.netflix.conductor.redis.dynoqueue.RedisQueuesShardingStrategyProvider.LOCAL_ONLY_STRATEGY;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -49,6 +53,7 @@ public class DynoQueueDAOTest {
     public void init() {
         RedisProperties properties = mock(RedisProperties.class);
         when(properties.getQueueShardingStrategy()).thenReturn(LOCAL_ONLY_STRATEGY);
+        when(properties.getQueuePrefix()).thenReturn("");
         JedisCommands jedisMock = new JedisMock();
         ShardSupplier shardSupplier =
                 new ShardSupplier() {
@@ -73,7 +78,8 @@ public class DynoQueueDAOTest {
         RedisQueues redisQueues =
                 new RedisQueues(
                         jedisMock, jedisMock, "", shardSupplier, 60_000, 60_000, shardingStrategy);
-        queueDAO = new DynoQueueDAO(redisQueues);
+        queueDAO =
+                new DynoQueueDAO(redisQueues, new JedisProxy(jedisMock), shardSupplier, properties);
     }
 
     @Rule public ExpectedException expected = ExpectedException.none();
@@ -145,4 +151,46 @@ public class DynoQueueDAOTest {
         size = queueDAO.getSize(queueName);
         assertEquals(0, size);
     }
+
+    @Test
+    public void testBatchOperations() {
+        String queueName = "TestBatchQueue";
+        List<String> messageIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            messageIds.add("msg" + i);
+            queueDAO.push(queueName, "msg" + i, 0);
+        }
+
+        List<String> popped = queueDAO.pop(queueName, 5, 100);
+        assertEquals(5, popped.size());
+        List<String> acked = new ArrayList<>(popped);
+        acked.add("unknown");
+        assertEquals(5, queueDAO.ack(queueName, acked));
+        popped.forEach(messageId -> assertFalse(queueDAO.containsMessage(queueName, messageId)));
+        assertEquals(5, queueDAO.getSize(queueName));
+
+        popped = queueDAO.pop(queueName, 2, 100);
+        assertEquals(2, popped.size());
+        queueDAO.postpone(queueName, popped, 10, 0);
+        Map<String, Long> sizes = queueDAO.queuesDetailVerbose().get(queueName).get("a");
+        assertEquals(5, sizes.get("size").longValue());
+        assertEquals(0, sizes.get("uacked").longValue());
+        popped.forEach(messageId -> assertTrue(queueDAO.containsMessage(queueName, messageId)));
+
+        popped = queueDAO.pop(queueName, 1, 100);
+        queueDAO.setUnackTimeout(queueName, Map.of(popped.get(0), 0L, "unknown", 0L));
+        queueDAO.processUnacks(queueName);
+        sizes = queueDAO.queuesDetailVerbose().get(queueName).get("a");
+        assertEquals(5, sizes.get("size").longValue());
+        assertEquals(0, sizes.get("uacked").longValue());
+        assertFalse(queueDAO.containsMessage(queueName, "unknown"));
+
+        queueDAO.pop(queueName, 1, 100);
+        queueDAO.remove(queueName, messageIds);
+        sizes = queueDAO.queuesDetailVerbose().get(queueName).get("a");
+        assertEquals(0, sizes.get("size").longValue());
+        assertEquals(0, sizes.get("uacked").longValue());
+        messageIds.forEach(
+                messageId -> assertFalse(queueDAO.containsMessage(queueName, messageId)));
+    }
 }
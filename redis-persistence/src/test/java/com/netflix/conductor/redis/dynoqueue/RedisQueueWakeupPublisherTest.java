@@ -0,0 +1,98 @@
+/*
+ * Copyright 2023 Conductor Authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.redis.dynoqueue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.testcontainers.containers.GenericContainer;
+
+import com.netflix.conductor.core.dal.QueueWakeupRegistry;
+
+import redis.clients.jedis.JedisPool;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RedisQueueWakeupPublisherTest {
+
+    private static final String CHANNEL = "test.QUEUE_WAKEUP";
+
+    @ClassRule
+    public static GenericContainer<?> redis =
+            new GenericContainer<>("redis:5.0.3-alpine").withExposedPorts(6379);
+
+    private QueueWakeupRegistry registry1;
+    private QueueWakeupRegistry registry2;
+    private RedisQueueWakeupPublisher publisher1;
+    private RedisQueueWakeupPublisher publisher2;
+
+    @Before
+    public void init() throws InterruptedException {
+        registry1 = new QueueWakeupRegistry(1);
+        registry2 = new QueueWakeupRegistry(1);
+        publisher1 = new RedisQueueWakeupPublisher(jedisPool(), CHANNEL, registry1);
+        publisher2 = new RedisQueueWakeupPublisher(jedisPool(), CHANNEL, registry2);
+        awaitSubscribed(publisher1);
+        awaitSubscribed(publisher2);
+    }
+
+    @After
+    public void cleanUp() {
+        publisher1.close();
+        publisher2.close();
+        registry1.shutdown();
+        registry2.shutdown();
+    }
+
+    @Test
+    public void wakesThePollsOfTheOtherServers() throws Exception {
+        // a domain is separated from the task type like the server id from the queue name
+        CompletableFuture<Boolean> otherServer = registry2.awaitPush("domain:test", 10_000);
+        CompletableFuture<Boolean> otherQueue = registry2.awaitPush("other", 10_000);
+
+        publisher1.publish("domain:test");
+
+        assertTrue(otherServer.get(5, TimeUnit.SECONDS));
+        assertFalse(otherQueue.isDone());
+        otherQueue.cancel(false);
+    }
+
+    @Test
+    public void ignoresItsOwnPushes() throws Exception {
+        // signalled by the registry of the server itself when pushed
+        CompletableFuture<Boolean> sameServer = registry1.awaitPush("test", 500);
+        CompletableFuture<Boolean> otherServer = registry2.awaitPush("test", 10_000);
+
+        publisher1.publish("test");
+
+        assertTrue(otherServer.get(5, TimeUnit.SECONDS));
+        assertFalse(sameServer.get(5, TimeUnit.SECONDS));
+    }
+
+    private static JedisPool jedisPool() {
+        return new JedisPool(redis.getHost(), redis.getFirstMappedPort());
+    }
+
+    private static void awaitSubscribed(RedisQueueWakeupPublisher publisher)
+            throws InterruptedException {
+        for (int i = 0; i < 100 && !publisher.isSubscribed(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(publisher.isSubscribed());
+    }
+}
@@ -14,25 +14,36 @@ package com.netflix.conductor.redis.jedis;
 
 import java.util.AbstractMap;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import redis.clients.jedis.Client;
 import redis.clients.jedis.GeoUnit;
+import redis.clients.jedis.Jedis;
 import redis.clients.jedis.ListPosition;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.ScanParams;
 import redis.clients.jedis.ScanResult;
 import redis.clients.jedis.SortingParams;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
 import redis.clients.jedis.params.GeoRadiusParam;
 import redis.clients.jedis.params.SetParams;
 import redis.clients.jedis.params.ZAddParams;
 import redis.clients.jedis.params.ZIncrByParams;
+import redis.clients.jedis.util.JedisClusterCRC16;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class JedisClusterTest {
@@ -611,4 +622,59 @@ public class JedisClusterTest {
     public void testBitfield() {
         jedisCluster.bitfield("key", "arguments");
     }
+
+    @Test
+    public void testMget() {
+        Jedis node = mockNode();
+        Pipeline pipeline = node.pipelined();
+        mockMget(pipeline, new String[] {"{a}1", "{a}2"}, "a1", null);
+        mockMget(pipeline, new String[] {"{b}1"}, "b1");
+
+        assertEquals(
+                Arrays.asList("a1", "b1", null),
+                jedisCluster.mget(Arrays.asList("{a}1", "{b}1", "{a}2")));
+        // both slots are served by the same node: one pipeline, one round trip
+        verify(pipeline).sync();
+        verify(node, times(2)).close();
+    }
+
+    @Test
+    public void testMgetFollowsRedirections() {
+        Pipeline pipeline = mockNode().pipelined();
+        Response<List<String>> moved = mock(Response.class);
+        when(moved.get()).thenThrow(new JedisMovedDataException("MOVED", null, 0));
+        when(pipeline.mget("{a}1")).thenReturn(moved);
+        when(mockCluster.mget("{a}1")).thenReturn(Collections.singletonList("a1"));
+
+        assertEquals(
+                Collections.singletonList("a1"),
+                jedisCluster.mget(Collections.singletonList("{a}1")));
+    }
+
+    @Test
+    public void testSmembersAll() {
+        jedisCluster.smembersAll("key");
+        verify(mockCluster).smembers("key");
+    }
+
+    private Jedis mockNode() {
+        Client client = mock(Client.class);
+        when(client.getHost()).thenReturn("localhost");
+        when(client.getPort()).thenReturn(7000);
+        Jedis node = mock(Jedis.class);
+        when(node.getClient()).thenReturn(client);
+        Pipeline pipeline = mock(Pipeline.class);
+        when(node.pipelined()).thenReturn(pipeline);
+        when(mockCluster.getConnectionFromSlot(anyInt())).thenReturn(node);
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockMget(Pipeline pipeline, String[] keys, String... values) {
+        assertEquals(
+                1, Arrays.stream(keys).mapToInt(JedisClusterCRC16::getSlot).distinct().count());
+        Response<List<String>> response = mock(Response.class);
+        when(response.get()).thenReturn(Arrays.asList(values));
+        when(pipeline.mget(keys)).thenReturn(response);
+    }
 }
@@ -12,7 +12,10 @@
  */
 package com.netflix.conductor.redis.jedis;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -21,6 +24,8 @@ import redis.clients.jedis.GeoUnit;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisSentinelPool;
 import redis.clients.jedis.ListPosition;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.ScanParams;
 import redis.clients.jedis.SortingParams;
 import redis.clients.jedis.params.GeoRadiusParam;
@@ -28,7 +33,11 @@ import redis.clients.jedis.params.SetParams;
 import redis.clients.jedis.params.ZAddParams;
 import redis.clients.jedis.params.ZIncrByParams;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class JedisSentinelTest {
@@ -585,4 +594,50 @@ public class JedisSentinelTest {
     public void testBitfield() {
         jedisSentinel.bitfield("key", "arguments");
     }
+
+    @Test
+    public void testMget() {
+        jedisSentinel.mget(Collections.singletonList("key"));
+        verify(jedis).mget("key");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMgetPipelinesLargeReads() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < MultiKeyReadCommands.MGET_BATCH_SIZE + 1; i++) {
+            keys.add("key" + i);
+        }
+        Pipeline pipeline = mock(Pipeline.class);
+        Response<List<String>> response = mock(Response.class);
+        when(response.get()).thenReturn(Collections.singletonList("value"));
+        when(pipeline.mget(any(String[].class))).thenReturn(response);
+        when(jedis.pipelined()).thenReturn(pipeline);
+
+        assertEquals(2, jedisSentinel.mget(keys).size());
+        verify(pipeline, times(2)).mget(any(String[].class));
+        verify(pipeline).sync();
+    }
+
+    @Test
+    public void testSmembersAll() {
+        jedisSentinel.smembersAll("key");
+        verify(jedis).smembers("key");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExecuteBatch() {
+        Pipeline pipeline = mock(Pipeline.class);
+        Response<String> setResponse = mock(Response.class);
+        Response<Long> saddResponse = mock(Response.class);
+        when(pipeline.set("key", "value")).thenReturn(setResponse);
+        when(pipeline.sadd("set", "member")).thenReturn(saddResponse);
+        when(jedis.pipelined()).thenReturn(pipeline);
+
+        jedisSentinel.execute(new CommandBatch().set("key", "value").sadd("set", "member"));
+        verify(pipeline).sync();
+        verify(setResponse).get();
+        verify(saddResponse).get();
+    }
 }
@@ -15,6 +15,7 @@ package com.netflix.conductor.rest.controllers;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -72,17 +73,22 @@ public class TaskResource {
 
     @GetMapping("/poll/batch/{tasktype}")
     @Operation(summary = "Batch poll for a task of a certain type")
-    public ResponseEntity<List<Task>> batchPoll(
+    public CompletableFuture<ResponseEntity<List<Task>>> batchPoll(
             @PathVariable("tasktype") String taskType,
             @RequestParam(value = "workerid", required = false) String workerId,
             @RequestParam(value = "domain", required = false) String domain,
             @RequestParam(value = "count", defaultValue = "1") int count,
             @RequestParam(value = "timeout", defaultValue = "100") int timeout) {
-        // for backwards compatibility with 2.x client which expects a 204 when no Task is found
-        return Optional.ofNullable(
-                        taskService.batchPoll(taskType, workerId, domain, count, timeout))
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.noContent().build());
+        // the request is handled asynchronously, no servlet thread waits for the tasks
+        return taskService
+                .batchPollAsync(taskType, workerId, domain, count, timeout)
+                .thenApply(
+                        // for backwards compatibility with 2.x client which expects a 204 when no
+                        // Task is found
+                        tasks ->
+                                Optional.ofNullable(tasks)
+                                        .map(ResponseEntity::ok)
+                                        .orElse(ResponseEntity.noContent().build()));
     }
 
     @PostMapping(produces = TEXT_PLAIN_VALUE)
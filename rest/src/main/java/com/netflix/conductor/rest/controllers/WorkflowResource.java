@@ -12,9 +12,19 @@
  */
 package com.netflix.conductor.rest.controllers;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -26,15 +36,19 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import com.netflix.conductor.annotations.VisibleForTesting;
 import com.netflix.conductor.common.metadata.workflow.RerunWorkflowRequest;
 import com.netflix.conductor.common.metadata.workflow.SkipTaskRequest;
 import com.netflix.conductor.common.metadata.workflow.StartWorkflowRequest;
 import com.netflix.conductor.common.run.*;
+import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.service.WorkflowService;
 import com.netflix.conductor.service.WorkflowTestService;
 
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletResponse;
 
 import static com.netflix.conductor.rest.config.RequestMappingConstants.WORKFLOW;
 
@@ -45,14 +59,26 @@ import static org.springframework.http.MediaType.TEXT_PLAIN_VALUE;
 @RequestMapping(WORKFLOW)
 public class WorkflowResource {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkflowResource.class);
+
+    static final String SEARCH_STREAM_COMPLETE = "#complete";
+    static final String SEARCH_STREAM_TIMEOUT = "#timeout";
+    static final String SEARCH_STREAM_ERROR = "#error";
+    private static final long SEARCH_STREAM_TIMEOUT_GRACE_MILLIS = 30000;
+
     private final WorkflowService workflowService;
 
     private final WorkflowTestService workflowTestService;
 
+    private final ConductorProperties properties;
+
     public WorkflowResource(
-            WorkflowService workflowService, WorkflowTestService workflowTestService) {
+            WorkflowService workflowService,
+            WorkflowTestService workflowTestService,
+            ConductorProperties properties) {
         this.workflowService = workflowService;
         this.workflowTestService = workflowTestService;
+        this.properties = properties;
     }
 
     @PostMapping(produces = TEXT_PLAIN_VALUE)
@@ -232,6 +258,70 @@ public class WorkflowResource {
         return workflowService.searchWorkflows(start, size, sort, freeText, query);
     }
 
+    @Operation(
+            summary = "Stream the ids of all the workflows based on payload and other parameters",
+            description =
+                    "Returns one workflow id per line, without pagination, and a last line telling"
+                            + " how the stream ended: #complete, #timeout after the"
+                            + " searchStreamTimeout, or #error followed by the message."
+                            + " use sort options as sort=<field>:ASC|DESC e.g. sort=name&sort=workflowId:DESC."
+                            + " If order is not specified, defaults to ASC.")
+    @GetMapping(value = "/search/stream", produces = TEXT_PLAIN_VALUE)
+    public WebAsyncTask<Void> searchStream(
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "freeText", defaultValue = "*", required = false) String freeText,
+            @RequestParam(value = "query", required = false) String query,
+            HttpServletResponse response) {
+        long timeoutMillis = properties.getSearchStreamTimeout().toMillis();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        // the stream ends itself at the deadline, the request only times out if a page is stuck.
+        // It is opened by the callable, which always closes it, as the callable may never run.
+        return new WebAsyncTask<>(
+                timeoutMillis + SEARCH_STREAM_TIMEOUT_GRACE_MILLIS,
+                () -> {
+                    Stream<String> workflowIds =
+                            workflowService.streamWorkflows(sort, freeText, query);
+                    response.setContentType(TEXT_PLAIN_VALUE);
+                    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                    writeWorkflowIds(workflowIds, response.getOutputStream(), deadline);
+                    return null;
+                });
+    }
+
+    @VisibleForTesting
+    void writeWorkflowIds(Stream<String> workflowIds, OutputStream outputStream, long deadline)
+            throws IOException {
+        try (workflowIds) {
+            Writer writer =
+                    new BufferedWriter(
+                            new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            Iterator<String> iterator = workflowIds.iterator();
+            String trailer = SEARCH_STREAM_COMPLETE;
+            long written = 0;
+            try {
+                while (iterator.hasNext()) {
+                    if (System.currentTimeMillis() >= deadline) {
+                        trailer = SEARCH_STREAM_TIMEOUT;
+                        break;
+                    }
+                    writer.write(iterator.next());
+                    writer.write('\n');
+                    written++;
+                }
+            } catch (RuntimeException e) {
+                if (written == 0) {
+                    // nothing sent yet, the error is mapped to a status
+                    throw e;
+                }
+                LOGGER.error("Failed to stream the workflows after {} ids", written, e);
+                trailer = SEARCH_STREAM_ERROR + " " + e.getMessage();
+            }
+            writer.write(trailer);
+            writer.write('\n');
+            writer.flush();
+        }
+    }
+
     @Operation(
             summary = "Search for workflows based on payload and other parameters",
             description =
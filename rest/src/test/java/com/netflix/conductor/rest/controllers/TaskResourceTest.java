@@ -17,6 +17,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -78,11 +79,12 @@ public class TaskResourceTest {
         List<Task> listOfTasks = new ArrayList<>();
         listOfTasks.add(task);
 
-        when(mockTaskService.batchPoll(anyString(), anyString(), anyString(), anyInt(), anyInt()))
-                .thenReturn(listOfTasks);
+        when(mockTaskService.batchPollAsync(
+                        anyString(), anyString(), anyString(), anyInt(), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(listOfTasks));
         assertEquals(
                 ResponseEntity.ok(listOfTasks),
-                taskResource.batchPoll("SIMPLE", "123", "test", 1, 100));
+                taskResource.batchPoll("SIMPLE", "123", "test", 1, 100).join());
     }
 
     @Test
@@ -12,22 +12,30 @@
  */
 package com.netflix.conductor.rest.controllers;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import com.netflix.conductor.common.metadata.workflow.RerunWorkflowRequest;
 import com.netflix.conductor.common.metadata.workflow.StartWorkflowRequest;
 import com.netflix.conductor.common.run.Workflow;
+import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.service.WorkflowService;
 import com.netflix.conductor.service.WorkflowTestService;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -37,6 +45,7 @@ import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -47,14 +56,18 @@ public class WorkflowResourceTest {
 
     @Mock private WorkflowTestService mockWorkflowTestService;
 
+    private ConductorProperties properties;
+
     private WorkflowResource workflowResource;
 
     @Before
     public void before() {
         this.mockWorkflowService = mock(WorkflowService.class);
         this.mockWorkflowTestService = mock(WorkflowTestService.class);
+        this.properties = new ConductorProperties();
         this.workflowResource =
-                new WorkflowResource(this.mockWorkflowService, this.mockWorkflowTestService);
+                new WorkflowResource(
+                        this.mockWorkflowService, this.mockWorkflowTestService, this.properties);
     }
 
     @Test
@@ -224,6 +237,63 @@ public class WorkflowResourceTest {
                 .searchWorkflows(anyInt(), anyInt(), anyString(), anyString(), anyString());
     }
 
+    @Test
+    public void testSearchStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(mockWorkflowService.streamWorkflows("asc", "*", "*"))
+                .thenReturn(Stream.of("w1", "w2").onClose(() -> closed.set(true)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        WebAsyncTask<Void> task = workflowResource.searchStream("asc", "*", "*", response);
+        assertEquals(
+                properties.getSearchStreamTimeout().toMillis() + 30000,
+                task.getTimeout().longValue());
+        verify(mockWorkflowService, never()).streamWorkflows(anyString(), anyString(), anyString());
+        task.getCallable().call();
+        assertEquals("w1\nw2\n#complete\n", response.getContentAsString());
+        assertEquals("text/plain;charset=UTF-8", response.getContentType());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testSearchStreamTimeout() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<String> workflowIds = Stream.of("w1", "w2").onClose(() -> closed.set(true));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        workflowResource.writeWorkflowIds(workflowIds, outputStream, System.currentTimeMillis());
+        assertEquals("#timeout\n", outputStream.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testSearchStreamError() throws Exception {
+        Stream<String> workflowIds =
+                Stream.of("w1", "w2")
+                        .map(
+                                id -> {
+                                    if (id.equals("w2")) {
+                                        throw new IllegalStateException("index unavailable");
+                                    }
+                                    return id;
+                                });
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        workflowResource.writeWorkflowIds(
+                workflowIds, outputStream, System.currentTimeMillis() + 60000);
+        assertEquals(
+                "w1\n#error index unavailable\n", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSearchStreamErrorBeforeTheFirstId() throws Exception {
+        Stream<String> workflowIds =
+                Stream.of("w1")
+                        .map(
+                                id -> {
+                                    throw new IllegalStateException("invalid query");
+                                });
+        workflowResource.writeWorkflowIds(
+                workflowIds, new ByteArrayOutputStream(), System.currentTimeMillis() + 60000);
+    }
+
     @Test
     public void testSearchV2() {
         workflowResource.searchV2(0, 100, "asc", "*", "*");
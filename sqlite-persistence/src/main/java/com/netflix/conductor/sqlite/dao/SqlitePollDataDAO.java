@@ -44,6 +44,24 @@ public class SqlitePollDataDAO extends SqliteBaseDAO implements PollDataDAO {
         withTransaction(tx -> insertOrUpdatePollData(tx, pollData, effectiveDomain));
     }
 
+    @Override
+    public void updateLastPollData(List<PollData> pollData) {
+        pollData.forEach(
+                data ->
+                        Preconditions.checkNotNull(
+                                data.getQueueName(), "taskDefName name cannot be null"));
+        withTransaction(
+                tx ->
+                        pollData.forEach(
+                                data ->
+                                        insertOrUpdatePollData(
+                                                tx,
+                                                data,
+                                                data.getDomain() == null
+                                                        ? "DEFAULT"
+                                                        : data.getDomain())));
+    }
+
     @Override
     public PollData getPollData(String taskDefName, String domain) {
         Preconditions.checkNotNull(taskDefName, "taskDefName name cannot be null");
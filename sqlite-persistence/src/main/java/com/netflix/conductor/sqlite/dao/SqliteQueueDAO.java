@@ -173,6 +173,13 @@ public class SqliteQueueDAO extends SqliteBaseDAO implements QueueDAO {
         withTransaction(tx -> removeMessage(tx, queueName, messageId));
     }
 
+    @Override
+    public void remove(String queueName, List<String> messageIds) {
+        if (!messageIds.isEmpty()) {
+            withTransaction(tx -> removeMessages(tx, queueName, messageIds));
+        }
+    }
+
     @Override
     public int getSize(String queueName) {
         final String GET_QUEUE_SIZE = "SELECT COUNT(*) FROM queue_message WHERE queue_name = ?";
@@ -185,6 +192,14 @@ public class SqliteQueueDAO extends SqliteBaseDAO implements QueueDAO {
         return getWithRetriedTransactions(tx -> removeMessage(tx, queueName, messageId));
     }
 
+    @Override
+    public int ack(String queueName, List<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return 0;
+        }
+        return getWithRetriedTransactions(tx -> removeMessages(tx, queueName, messageIds));
+    }
+
     @Override
     public boolean setUnackTimeout(String queueName, String messageId, long unackTimeout) {
         long updatedOffsetTimeInSecond = unackTimeout / 1000;
@@ -364,6 +379,31 @@ public class SqliteQueueDAO extends SqliteBaseDAO implements QueueDAO {
                                 == 1);
     }
 
+    /** Updates the messages in place, instead of removing them and pushing them back. */
+    @Override
+    public void postpone(
+            String queueName,
+            List<String> messageIds,
+            int priority,
+            long postponeDurationInSeconds) {
+        if (messageIds.isEmpty()) {
+            return;
+        }
+        final String POSTPONE_MESSAGES =
+                String.format(
+                        "UPDATE queue_message SET popped = false, priority = ?, offset_time_seconds = ?, deliver_on = datetime(CURRENT_TIMESTAMP, '+' || ? || ' seconds') WHERE queue_name = ? AND message_id IN (%s)",
+                        Query.generateInBindings(messageIds.size()));
+        executeWithTransaction(
+                POSTPONE_MESSAGES,
+                q ->
+                        q.addParameter(priority)
+                                .addParameter(postponeDurationInSeconds)
+                                .addParameter(postponeDurationInSeconds)
+                                .addParameter(queueName)
+                                .addParameters(messageIds)
+                                .executeUpdate());
+    }
+
     private boolean existsMessage(Connection connection, String queueName, String messageId) {
         final String EXISTS_MESSAGE =
                 "SELECT EXISTS(SELECT 1 FROM queue_message WHERE queue_name = ? AND message_id = ?)";
@@ -422,6 +462,17 @@ public class SqliteQueueDAO extends SqliteBaseDAO implements QueueDAO {
                 q -> q.addParameter(queueName).addParameter(messageId).executeDelete());
     }
 
+    private int removeMessages(Connection connection, String queueName, List<String> messageIds) {
+        final String REMOVE_MESSAGES =
+                String.format(
+                        "DELETE FROM queue_message WHERE queue_name = ? AND message_id IN (%s)",
+                        Query.generateInBindings(messageIds.size()));
+        return query(
+                connection,
+                REMOVE_MESSAGES,
+                q -> q.addParameter(queueName).addParameters(messageIds).executeUpdate());
+    }
+
     private List<Message> popMessages(
             Connection connection, String queueName, int count, int timeout) {
 
@@ -14,14 +14,18 @@ package com.netflix.conductor.sqlite.dao;
 
 import java.util.List;
 
+import javax.sql.DataSource;
+
 import org.flywaydb.core.Flyway;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -29,9 +33,11 @@ import com.netflix.conductor.common.config.TestObjectMapperConfiguration;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
 import com.netflix.conductor.dao.ExecutionDAO;
 import com.netflix.conductor.dao.ExecutionDAOTest;
+import com.netflix.conductor.dao.UnknownUpdateCountsDataSource;
 import com.netflix.conductor.model.WorkflowModel;
 import com.netflix.conductor.sqlite.config.SqliteConfiguration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Iterables;
 
 import static org.junit.Assert.assertEquals;
@@ -51,12 +57,30 @@ public class SqliteExecutionDAOTest extends ExecutionDAOTest {
 
     @Autowired Flyway flyway;
 
+    @Autowired
+    @Qualifier("sqliteRetryTemplate")
+    private RetryTemplate retryTemplate;
+
+    @Autowired private ObjectMapper objectMapper;
+
+    @Autowired private DataSource dataSource;
+
     // clean the database between tests.
     @Before
     public void before() {
         flyway.migrate();
     }
 
+    @Test
+    public void testUpdateTasksWithUnknownUpdateCounts() {
+        // the tasks of the batch whose update is not reported go through the upsert
+        testUpdateTasks(
+                new SqliteExecutionDAO(
+                        retryTemplate,
+                        objectMapper,
+                        UnknownUpdateCountsDataSource.wrap(dataSource)));
+    }
+
     @Test
     public void testPendingByCorrelationId() {
 
@@ -123,6 +123,21 @@ public class SqlitePollDataTest {
                 "Poll data is incorrect", "dummy-worker-id", jsonData.get("workerId").asText());
     }
 
+    @Test
+    public void updateLastPollDataBatchKeepsPollTimeTest() {
+        pollDataDAO.updateLastPollData(
+                List.of(
+                        new PollData("dummy-task", "dummy-domain", "dummy-worker-id", 1000),
+                        new PollData("dummy-task", null, "dummy-worker-id2", 2000)));
+
+        PollData pollData = pollDataDAO.getPollData("dummy-task", "dummy-domain");
+        assertEquals("dummy-worker-id", pollData.getWorkerId());
+        assertEquals(1000, pollData.getLastPollTime());
+        pollData = pollDataDAO.getPollData("dummy-task", null);
+        assertEquals("dummy-worker-id2", pollData.getWorkerId());
+        assertEquals(2000, pollData.getLastPollTime());
+    }
+
     @Test
     public void getPollDataByDomainTest() {
         pollDataDAO.updateLastPollData("dummy-task", "dummy-domain", "dummy-worker-id");
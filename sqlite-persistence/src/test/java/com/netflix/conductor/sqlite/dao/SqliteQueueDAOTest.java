@@ -240,6 +240,33 @@ public class SqliteQueueDAOTest {
         }
     }
 
+    @Test
+    public void batchOperationsTest() {
+        String queueName = "TestBatchQueue";
+        List<String> messageIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            messageIds.add("msg" + i);
+            queueDAO.push(queueName, "msg" + i, 0);
+        }
+
+        List<String> popped = queueDAO.pop(queueName, 5, 0);
+        assertEquals(5, popped.size());
+        List<String> acked = new ArrayList<>(popped);
+        acked.add("unknown");
+        assertEquals(5, queueDAO.ack(queueName, acked));
+        assertEquals(5, queueDAO.getSize(queueName));
+
+        popped = queueDAO.pop(queueName, 2, 0);
+        assertEquals(2, popped.size());
+        queueDAO.postpone(queueName, popped, 10, 0);
+        assertEquals(5, queueDAO.pop(queueName, 10, 0).size());
+
+        queueDAO.remove(queueName, messageIds);
+        assertEquals(0, queueDAO.getSize(queueName));
+        messageIds.forEach(
+                messageId -> assertFalse(queueDAO.containsMessage(queueName, messageId)));
+    }
+
     /**
      * Test fix for https://github.com/Netflix/conductor/issues/448
      *
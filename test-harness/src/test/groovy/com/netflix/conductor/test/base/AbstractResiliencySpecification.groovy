@@ -23,6 +23,7 @@ import org.springframework.context.annotation.Primary
 import org.springframework.test.context.TestPropertySource
 
 import com.netflix.conductor.ConductorTestApp
+import com.netflix.conductor.core.config.ConductorProperties
 import com.netflix.conductor.core.config.SchedulerConfiguration
 import com.netflix.conductor.core.events.DefaultEventProcessor
 import com.netflix.conductor.core.events.DefaultEventQueueManager
@@ -47,8 +48,10 @@ import com.netflix.conductor.core.execution.tasks.SetVariable
 import com.netflix.conductor.core.execution.tasks.SubWorkflow
 import com.netflix.conductor.core.execution.tasks.Wait
 import com.netflix.conductor.dao.QueueDAO
+import com.netflix.conductor.redis.config.RedisProperties
 import com.netflix.conductor.redis.dao.DynoQueueDAO
 import com.netflix.conductor.redis.jedis.JedisMock
+import com.netflix.conductor.redis.jedis.JedisProxy
 import com.netflix.conductor.tasks.json.JsonJqTransform
 import com.netflix.dyno.connectionpool.Host
 import com.netflix.dyno.queues.ShardSupplier
@@ -91,8 +94,9 @@ abstract class AbstractResiliencySpecification extends AbstractSpecification {
                     return "a"
                 }
             }
-            RedisQueues redisQueues = new RedisQueues(jedisMock, jedisMock, "mockedQueues", shardSupplier, 60000, 120000)
-            DynoQueueDAO dynoQueueDAO = new DynoQueueDAO(redisQueues)
+            RedisProperties redisProperties = new RedisProperties(new ConductorProperties())
+            RedisQueues redisQueues = new RedisQueues(jedisMock, jedisMock, redisProperties.queuePrefix, shardSupplier, 60000, 120000)
+            DynoQueueDAO dynoQueueDAO = new DynoQueueDAO(redisQueues, new JedisProxy(jedisMock), shardSupplier, redisProperties)
 
             return detachedMockFactory.Spy(dynoQueueDAO)
         }